@@ -0,0 +1,193 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Arrays;
+
+/**
+ * A {@link BatchedAssignmentBinding} solving each batch with the forward auction algorithm of
+ * Bertsekas. The cloudlets without VM bid in turn for the VM giving them the most value, that is
+ * the smallest completion time plus the price of the VM, raising its price by the difference with
+ * their second best VM plus epsilon, and taking it from the cloudlet that had it. Each bid costs
+ * O(m) time for m VMs.
+ * <p>
+ * The prices of the VMs are kept from a batch to the next one, so that each batch starts from the
+ * prices the previous ones reached instead of zero, which usually needs fewer bids as the VMs in
+ * demand stay in demand. Such warm started prices may not be optimal for a batch having fewer
+ * cloudlets than VMs, so the bindings are close to, but not always the same as, the optimal ones
+ * of {@link HungarianBatchBinding}. Warm starts can be turned off with
+ * {@link #setWarmStarting(boolean)}, in which case each batch costs at most b epsilon more than
+ * the optimum, for b cloudlets. Epsilon is relative to the mean execution time of the cloudlets
+ * of a batch, which unlike their completion times does not grow with the ready times of the
+ * VMs, so the later batches need as many bids as the first ones.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class AuctionBinding extends BatchedAssignmentBinding {
+
+	/** The default epsilon, relative to the mean execution time of a batch. */
+	public static final double DEFAULT_EPSILON_RATIO = 1e-3;
+
+	/** The epsilon of the bids, relative to the mean execution time of a batch. */
+	private double epsilonRatio = DEFAULT_EPSILON_RATIO;
+
+	/** Indicates if the prices are kept from a batch to the next one. */
+	private boolean warmStarting = true;
+
+	/** The price of each VM. */
+	private double[] prices;
+
+	/** The cloudlet holding each VM, or -1. */
+	private int[] rowByCol;
+
+	/** The cloudlets without VM. */
+	private int[] unassignedRows;
+
+	/** The number of bids of the last binding. */
+	private long bidCount;
+
+	@Override
+	protected void initialize(int batchSize, int vmCount) {
+		prices = new double[vmCount];
+		rowByCol = new int[vmCount];
+		unassignedRows = new int[batchSize];
+		bidCount = 0;
+	}
+
+	@Override
+	protected void assign(double[] costs, int rows, int cols, int[] assignment) {
+		double epsilon = getEpsilon(costs, rows, cols);
+		// with all the costs at zero, warm started prices would only start a price war
+		if (isWarmStarting() && epsilon > 0) {
+			// only the differences between prices matter, so they are kept from growing
+			double minPrice = Double.POSITIVE_INFINITY;
+			for (int col = 0; col < cols; col++) {
+				minPrice = Math.min(minPrice, prices[col]);
+			}
+			for (int col = 0; col < cols; col++) {
+				prices[col] -= minPrice;
+			}
+		} else {
+			Arrays.fill(prices, 0);
+		}
+		Arrays.fill(rowByCol, -1);
+		int unassigned = 0;
+		for (int row = rows - 1; row >= 0; row--) {
+			unassignedRows[unassigned++] = row;
+		}
+
+		while (unassigned > 0) {
+			int row = unassignedRows[--unassigned];
+			int offset = row * cols;
+			int bestCol = 0;
+			double bestValue = Double.NEGATIVE_INFINITY;
+			double secondValue = Double.NEGATIVE_INFINITY;
+			for (int col = 0; col < cols; col++) {
+				double value = -costs[offset + col] - prices[col];
+				if (value > bestValue) {
+					secondValue = bestValue;
+					bestValue = value;
+					bestCol = col;
+				} else if (value > secondValue) {
+					secondValue = value;
+				}
+			}
+			if (cols == 1) {
+				secondValue = bestValue;
+			}
+
+			// at least a few ulps, or the raise is absorbed by the prices and costs of the VMs and
+			// the cloudlets keep taking the VM from each other, as when a batch has no execution time
+			prices[bestCol] += bestValue - secondValue + Math.max(epsilon, 4 * Math.ulp(secondValue));
+			int previousRow = rowByCol[bestCol];
+			if (previousRow >= 0) {
+				unassignedRows[unassigned++] = previousRow;
+			}
+			rowByCol[bestCol] = row;
+			assignment[row] = bestCol;
+			bidCount++;
+		}
+	}
+
+	/**
+	 * Gets the epsilon of the bids of a batch, which is the epsilon ratio times the mean
+	 * execution time, that is the mean cost without the ready times of the VMs, or the epsilon
+	 * ratio times the mean cost when the cloudlets have no execution time. Each bid raises the
+	 * price of the VM by at least a few ulps of the values of the VMs, even when the epsilon is
+	 * smaller or zero.
+	 *
+	 * @param costs the costs of the batch
+	 * @param rows the number of cloudlets
+	 * @param cols the number of VMs
+	 * @return the epsilon
+	 */
+	protected double getEpsilon(double[] costs, int rows, int cols) {
+		double sum = 0;
+		double costSum = 0;
+		for (int col = 0; col < cols; col++) {
+			double readyTime = getReadyTime(col);
+			for (int row = 0; row < rows; row++) {
+				sum += costs[row * cols + col] - readyTime;
+				costSum += costs[row * cols + col];
+			}
+		}
+		if (sum == 0) {
+			// the ready times still set the scale of the prices
+			sum = costSum;
+		}
+		return getEpsilonRatio() * sum / (rows * cols);
+	}
+
+	/**
+	 * Gets the epsilon of the bids, relative to the mean execution time of a batch.
+	 *
+	 * @return the epsilon ratio
+	 */
+	public double getEpsilonRatio() {
+		return epsilonRatio;
+	}
+
+	/**
+	 * Sets the epsilon of the bids, relative to the mean execution time of a batch. A smaller
+	 * epsilon gives better bindings with more bids.
+	 *
+	 * @param epsilonRatio the epsilon ratio
+	 */
+	public void setEpsilonRatio(double epsilonRatio) {
+		this.epsilonRatio = epsilonRatio;
+	}
+
+	/**
+	 * Checks if the prices are kept from a batch to the next one.
+	 *
+	 * @return true, if the batches are warm started
+	 */
+	public boolean isWarmStarting() {
+		return warmStarting;
+	}
+
+	/**
+	 * Sets if the prices are kept from a batch to the next one.
+	 *
+	 * @param warmStarting true to warm start the batches; false to start them from zero prices
+	 */
+	public void setWarmStarting(boolean warmStarting) {
+		this.warmStarting = warmStarting;
+	}
+
+	/**
+	 * Gets the number of bids of the last binding.
+	 *
+	 * @return the number of bids
+	 */
+	public long getBidCount() {
+		return bidCount;
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.List;
+
+/**
+ * Binds cloudlets to VMs by solving assignment problems over consecutive batches of cloudlets,
+ * instead of a single problem over all the cloudlets and VMs as with {@link HungarianAlgorithm}.
+ * Each batch has at most one cloudlet per VM, and each of its cloudlets is bound to a different
+ * VM so as to minimize the sum of their completion times, where the completion time of a cloudlet
+ * on a VM is the ready time of the VM plus the execution time of the cloudlet on it. The ready
+ * time of a VM is the sum of the execution times of the cloudlets bound to it in the previous
+ * batches, so the batches share the load of the VMs.
+ * <p>
+ * A batch of b cloudlets costs a b x m cost matrix for m VMs instead of the n x n matrix of all
+ * the n cloudlets, so that large numbers of cloudlets can be bound with a batch size, set with
+ * {@link #setBatchSize(int)}, that keeps each problem small. The subclasses solve the assignment
+ * problems.
+ *
+ * @since CloudSim Toolkit 4.0
+ * @see HungarianBatchBinding
+ * @see AuctionBinding
+ */
+public abstract class BatchedAssignmentBinding extends CloudletListBinding {
+
+	/** The maximum number of cloudlets of a batch, or 0 for the number of VMs. */
+	private int batchSize;
+
+	/** The ready time of each VM in the binding in progress. */
+	private double[] readyTimes;
+
+	/**
+	 * Binds cloudlets to VMs, batch by batch in the order of the cloudlet list.
+	 *
+	 * @param cloudlets the cloudlets
+	 * @param vms the VMs
+	 * @return the position in the VM list of the VM of each cloudlet
+	 */
+	@Override
+	public int[] bind(List<? extends Cloudlet> cloudlets, List<? extends Vm> vms) {
+		if (vms.isEmpty()) {
+			throw new IllegalArgumentException("There must be at least one VM");
+		}
+		int vmCount = vms.size();
+		int batch = getBatchSize() <= 0 ? vmCount : Math.min(getBatchSize(), vmCount);
+		int[] result = new int[cloudlets.size()];
+
+		readyTimes = new double[vmCount];
+		double[] costs = new double[batch * vmCount];
+		int[] assignment = new int[batch];
+		initialize(batch, vmCount);
+		for (int from = 0; from < result.length; from += batch) {
+			int rows = Math.min(batch, result.length - from);
+			for (int row = 0; row < rows; row++) {
+				Cloudlet cloudlet = cloudlets.get(from + row);
+				for (int vm = 0; vm < vmCount; vm++) {
+					costs[row * vmCount + vm] = readyTimes[vm]
+							+ getExecutionTime(cloudlet, vms.get(vm));
+				}
+			}
+
+			assign(costs, rows, vmCount, assignment);
+
+			for (int row = 0; row < rows; row++) {
+				int vm = assignment[row];
+				result[from + row] = vm;
+				readyTimes[vm] += getExecutionTime(cloudlets.get(from + row), vms.get(vm));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Prepares the binding of a list of cloudlets.
+	 *
+	 * @param batchSize the maximum number of cloudlets of a batch, which is not more than the
+	 *            number of VMs
+	 * @param vmCount the number of VMs
+	 */
+	protected abstract void initialize(int batchSize, int vmCount);
+
+	/**
+	 * Assigns each cloudlet of a batch to a different VM.
+	 *
+	 * @param costs the completion time of each cloudlet on each VM, row by row, with a row per
+	 *            cloudlet and a column per VM
+	 * @param rows the number of cloudlets, which is not more than the number of VMs
+	 * @param cols the number of VMs
+	 * @param assignment where to put the column of the VM of each cloudlet
+	 */
+	protected abstract void assign(double[] costs, int rows, int cols, int[] assignment);
+
+	/**
+	 * Gets the ready time of a VM in the binding in progress, which is the part of the costs of
+	 * the batch being assigned that is the same for all the cloudlets.
+	 *
+	 * @param vm the position of the VM in the VM list
+	 * @return the ready time of the VM
+	 */
+	protected double getReadyTime(int vm) {
+		return readyTimes[vm];
+	}
+
+	/**
+	 * Gets the execution time of a cloudlet on a VM.
+	 *
+	 * @param cloudlet the cloudlet
+	 * @param vm the VM
+	 * @return the execution time
+	 */
+	protected double getExecutionTime(Cloudlet cloudlet, Vm vm) {
+		return cloudlet.getCloudletLength() / vm.getMips();
+	}
+
+	/**
+	 * Gets the maximum number of cloudlets of a batch.
+	 *
+	 * @return the batch size, or 0 for the number of VMs
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Sets the maximum number of cloudlets of a batch. Batches are never larger than the number
+	 * of VMs.
+	 *
+	 * @param batchSize the batch size, or 0 for the number of VMs
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+}
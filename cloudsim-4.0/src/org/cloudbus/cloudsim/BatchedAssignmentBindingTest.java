@@ -0,0 +1,187 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.cloudbus.cloudsim.CloudletBindingFixtures.createCloudlets;
+import static org.cloudbus.cloudsim.CloudletBindingFixtures.createVms;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class BatchedAssignmentBindingTest {
+
+	private static final double[] VM_MIPS = { 250, 500, 1000, 1000, 2000 };
+
+	@Test
+	public void testHungarianIsOptimal() {
+		Random random = new Random(1);
+		HungarianBatchBinding binding = new HungarianBatchBinding();
+		for (int round = 0; round < 50; round++) {
+			int rows = 1 + random.nextInt(VM_MIPS.length);
+			List<Cloudlet> cloudlets = createRandomCloudlets(random, rows);
+			List<Vm> vms = createVms(VM_MIPS);
+			int[] result = binding.bind(cloudlets, vms);
+			assertDistinct(result, 0, rows);
+			assertEquals(getOptimalCost(cloudlets, vms), getCost(cloudlets, vms, result), 1e-6);
+		}
+	}
+
+	@Test
+	public void testAuctionIsNearOptimal() {
+		Random random = new Random(2);
+		AuctionBinding binding = new AuctionBinding();
+		binding.setWarmStarting(false);
+		for (int round = 0; round < 50; round++) {
+			int rows = 1 + random.nextInt(VM_MIPS.length);
+			List<Cloudlet> cloudlets = createRandomCloudlets(random, rows);
+			List<Vm> vms = createVms(VM_MIPS);
+			int[] result = binding.bind(cloudlets, vms);
+			assertDistinct(result, 0, rows);
+			double optimum = getOptimalCost(cloudlets, vms);
+			double cost = getCost(cloudlets, vms, result);
+			assertTrue(cost >= optimum - 1e-6);
+			// each of the cloudlets loses at most epsilon, a thousandth of the mean execution time
+			assertTrue(cost <= optimum * (1 + rows * AuctionBinding.DEFAULT_EPSILON_RATIO * 10));
+		}
+	}
+
+	@Test
+	public void testBatches() {
+		Random random = new Random(3);
+		List<Cloudlet> cloudlets = createRandomCloudlets(random, 103);
+		List<Vm> vms = createVms(VM_MIPS);
+		BatchedAssignmentBinding[] bindings = { new HungarianBatchBinding(), new AuctionBinding() };
+		for (BatchedAssignmentBinding binding : bindings) {
+			for (int batchSize : new int[] { 0, 3, 100 }) {
+				binding.setBatchSize(batchSize);
+				int[] result = binding.bind(cloudlets, vms);
+				int batch = batchSize == 0 ? vms.size() : Math.min(batchSize, vms.size());
+				for (int from = 0; from < result.length; from += batch) {
+					assertDistinct(result, from, Math.min(result.length, from + batch));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testReadyTimes() {
+		List<Vm> vms = createVms(1000, 100);
+		List<Cloudlet> cloudlets = createCloudlets(1000, 2000, 1000);
+		// the longer cloudlet takes the faster VM, where the third one completes at 3 instead of 20
+		assertArrayEquals(new int[] { 1, 0, 0 }, new HungarianBatchBinding().bind(cloudlets, vms));
+		AuctionBinding auction = new AuctionBinding();
+		assertArrayEquals(new int[] { 1, 0, 0 }, auction.bind(cloudlets, vms));
+		assertTrue(auction.getBidCount() >= 3);
+	}
+
+	@Test
+	public void testEpsilonIgnoresReadyTimes() {
+		final List<Double> epsilons = new ArrayList<Double>();
+		AuctionBinding binding = new AuctionBinding() {
+
+			@Override
+			protected double getEpsilon(double[] costs, int rows, int cols) {
+				double epsilon = super.getEpsilon(costs, rows, cols);
+				epsilons.add(epsilon);
+				return epsilon;
+			}
+		};
+		binding.bind(createCloudlets(1000, 1000, 1000, 1000, 1000, 1000, 1000, 1000, 1000, 1000),
+				createVms(1000, 1000));
+		assertEquals(5, epsilons.size());
+		for (double epsilon : epsilons) {
+			assertEquals(AuctionBinding.DEFAULT_EPSILON_RATIO, epsilon, 1e-12);
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testAuctionWithEmptyBatch() {
+		List<Vm> vms = createVms(325, 875, 625, 675);
+		final List<Cloudlet> cloudlets = createCloudlets(87855, 86692, 57723, 77322, 25832, 45304,
+				748, 86561, 3429, 18091, 23979, 50216, 1, 1, 1, 1);
+		for (boolean warmStarting : new boolean[] { true, false }) {
+			AuctionBinding binding = new AuctionBinding() {
+
+				@Override
+				protected double getExecutionTime(Cloudlet cloudlet, Vm vm) {
+					// the cloudlets of the last batch take no time after those of the first ones
+					return cloudlet.getCloudletId() < 12 ? super.getExecutionTime(cloudlet, vm) : 0;
+				}
+			};
+			binding.setWarmStarting(warmStarting);
+			int[] result = binding.bind(cloudlets, vms);
+			for (int from = 0; from < result.length; from += vms.size()) {
+				assertDistinct(result, from, from + vms.size());
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBindWithoutVms() {
+		new HungarianBatchBinding().bind(createCloudlets(1000), new ArrayList<Vm>());
+	}
+
+	private static void assertDistinct(int[] result, int from, int to) {
+		boolean[] used = new boolean[VM_MIPS.length];
+		for (int i = from; i < to; i++) {
+			assertTrue(!used[result[i]]);
+			used[result[i]] = true;
+		}
+	}
+
+	private static double getCost(List<Cloudlet> cloudlets, List<Vm> vms, int[] result) {
+		double cost = 0;
+		for (int i = 0; i < result.length; i++) {
+			cost += cloudlets.get(i).getCloudletLength() / vms.get(result[i]).getMips();
+		}
+		return cost;
+	}
+
+	/**
+	 * Gets the smallest cost of a batch by trying all the assignments.
+	 */
+	private static double getOptimalCost(List<Cloudlet> cloudlets, List<Vm> vms) {
+		return getOptimalCost(cloudlets, vms, 0, new boolean[vms.size()]);
+	}
+
+	private static double getOptimalCost(List<Cloudlet> cloudlets, List<Vm> vms, int row,
+			boolean[] used) {
+		if (row == cloudlets.size()) {
+			return 0;
+		}
+		double best = Double.MAX_VALUE;
+		for (int vm = 0; vm < vms.size(); vm++) {
+			if (!used[vm]) {
+				used[vm] = true;
+				best = Math.min(best, cloudlets.get(row).getCloudletLength() / vms.get(vm).getMips()
+						+ getOptimalCost(cloudlets, vms, row + 1, used));
+				used[vm] = false;
+			}
+		}
+		return best;
+	}
+
+	private static List<Cloudlet> createRandomCloudlets(Random random, int count) {
+		long[] lengths = new long[count];
+		for (int i = 0; i < count; i++) {
+			lengths[i] = 1000 + random.nextInt(10000);
+		}
+		return createCloudlets(lengths);
+	}
+
+}
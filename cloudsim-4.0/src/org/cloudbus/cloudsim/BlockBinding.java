@@ -0,0 +1,43 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.List;
+
+/**
+ * Binds consecutive blocks of cloudlets to the VMs, the first block to the first VM and so on,
+ * as {@link DatacenterBroker#submitCloudletsKhalidFCFS()} does. The blocks have the same number
+ * of cloudlets, except that the first VMs get one more cloudlet each when the number of cloudlets
+ * is not a multiple of the number of VMs, instead of leaving the remaining cloudlets to the
+ * round robin of the broker.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class BlockBinding extends CloudletListBinding {
+
+	@Override
+	public int[] bind(List<? extends Cloudlet> cloudlets, List<? extends Vm> vms) {
+		if (vms.isEmpty()) {
+			throw new IllegalArgumentException("There must be at least one VM");
+		}
+		int[] result = new int[cloudlets.size()];
+		int blockSize = result.length / vms.size();
+		int largerBlocks = result.length % vms.size();
+		int from = 0;
+		for (int vm = 0; from < result.length; vm++) {
+			int to = from + (vm < largerBlocks ? blockSize + 1 : blockSize);
+			for (int i = from; i < to; i++) {
+				result[i] = vm;
+			}
+			from = to;
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class CloudletBatchEventsTest {
+
+	private static final int CLOUDLETS = 50;
+
+	private static final int BATCH_SIZE = 8;
+
+	private int submitEvents;
+
+	private int submitBatchEvents;
+
+	private int returnEvents;
+
+	@Before
+	public void setUp() {
+		Log.disable();
+	}
+
+	@After
+	public void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testSameExecutionWithFewerEvents() throws Exception {
+		double[] singleFinishTimes = simulate(false);
+		assertEquals(CLOUDLETS, submitEvents);
+		assertEquals(0, submitBatchEvents);
+		assertEquals(CLOUDLETS, returnEvents);
+
+		double[] batchFinishTimes = simulate(true);
+		assertEquals(0, submitEvents);
+		assertEquals((CLOUDLETS + BATCH_SIZE - 1) / BATCH_SIZE, submitBatchEvents);
+		// each VM runs five cloudlets of each length, which finish together on both VMs
+		assertEquals(5, returnEvents);
+		// only rounding differs, as the processing is updated once per batch
+		assertArrayEquals(singleFinishTimes, batchFinishTimes, 1e-9);
+	}
+
+	/**
+	 * Runs a simulation where a broker submits cloudlets of five lengths in batches of
+	 * {@link #BATCH_SIZE} to two time-shared VMs, so that cloudlets of the same length finish
+	 * together.
+	 *
+	 * @param usingBatchEvents true to submit the batches in single events
+	 * @return the finish time of each cloudlet
+	 */
+	private double[] simulate(boolean usingBatchEvents) throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		createDatacenter();
+		submitEvents = 0;
+		submitBatchEvents = 0;
+		returnEvents = 0;
+		DatacenterBroker broker = new DatacenterBroker("Broker") {
+
+			@Override
+			protected void processCloudletReturn(SimEvent ev) {
+				returnEvents++;
+				super.processCloudletReturn(ev);
+			}
+
+			@Override
+			protected void processCloudletReturnBatch(SimEvent ev) {
+				returnEvents++;
+				super.processCloudletReturnBatch(ev);
+			}
+		};
+		broker.setCloudletBindingStrategy(new RoundRobinBinding());
+		broker.setCloudletSubmissionBatchSize(BATCH_SIZE);
+		broker.setUsingCloudletBatchEvents(usingBatchEvents);
+
+		List<Vm> vms = new ArrayList<Vm>();
+		for (int id = 0; id < 2; id++) {
+			vms.add(new Vm(id, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen",
+					new CloudletSchedulerTimeShared()));
+		}
+		broker.submitVmList(vms);
+
+		List<Cloudlet> cloudlets = new ArrayList<Cloudlet>();
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		for (int id = 0; id < CLOUDLETS; id++) {
+			Cloudlet cloudlet = new Cloudlet(id, 1000 * (1 + id % 5), 1, 300, 300,
+					utilizationModel, utilizationModel, utilizationModel);
+			cloudlet.setUserId(broker.getId());
+			cloudlets.add(cloudlet);
+		}
+		broker.submitCloudletList(cloudlets);
+
+		CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+
+		assertEquals(CLOUDLETS, broker.getCloudletReceivedList().size());
+		double[] finishTimes = new double[CLOUDLETS];
+		for (Cloudlet cloudlet : cloudlets) {
+			assertEquals(Cloudlet.SUCCESS, cloudlet.getStatus());
+			finishTimes[cloudlet.getCloudletId()] = cloudlet.getFinishTime();
+		}
+		return finishTimes;
+	}
+
+	private Datacenter createDatacenter() throws Exception {
+		List<Pe> peList = new ArrayList<Pe>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		peList.add(new Pe(1, new PeProvisionerSimple(1000)));
+		List<Host> hostList = new ArrayList<Host>();
+		hostList.add(new Host(
+				0,
+				new RamProvisionerSimple(2048),
+				new BwProvisionerSimple(10000),
+				1000000,
+				peList,
+				new VmSchedulerTimeShared(peList)));
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		return new Datacenter("Datacenter", characteristics, new VmAllocationPolicySimple(hostList),
+				new LinkedList<Storage>(), 0) {
+
+			@Override
+			protected void processCloudletSubmit(SimEvent ev, boolean ack) {
+				submitEvents++;
+				super.processCloudletSubmit(ev, ack);
+			}
+
+			@Override
+			protected void processCloudletSubmitBatch(SimEvent ev) {
+				submitBatchEvents++;
+				super.processCloudletSubmitBatch(ev);
+			}
+		};
+	}
+
+}
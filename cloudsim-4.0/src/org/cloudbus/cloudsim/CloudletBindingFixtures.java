@@ -0,0 +1,56 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The cloudlets and VMs the tests of the {@link CloudletBindingStrategy cloudlet binding
+ * strategies} bind.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+final class CloudletBindingFixtures {
+
+	private CloudletBindingFixtures() {
+	}
+
+	/**
+	 * Creates cloudlets of one PE, whose ids are their positions.
+	 *
+	 * @param lengths the length of each cloudlet
+	 * @return the cloudlets
+	 */
+	static List<Cloudlet> createCloudlets(long... lengths) {
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		List<Cloudlet> cloudlets = new ArrayList<Cloudlet>();
+		for (int id = 0; id < lengths.length; id++) {
+			cloudlets.add(new Cloudlet(id, lengths[id], 1, 0, 0, utilizationModel, utilizationModel,
+					utilizationModel));
+		}
+		return cloudlets;
+	}
+
+	/**
+	 * Creates VMs of one PE, whose ids are their positions.
+	 *
+	 * @param mips the MIPS of each VM
+	 * @return the VMs
+	 */
+	static List<Vm> createVms(double... mips) {
+		List<Vm> vms = new ArrayList<Vm>();
+		for (int id = 0; id < mips.length; id++) {
+			vms.add(new Vm(id, 0, mips[id], 1, 512, 1000, 10000, "Xen",
+					new CloudletSchedulerSpaceShared()));
+		}
+		return vms;
+	}
+
+}
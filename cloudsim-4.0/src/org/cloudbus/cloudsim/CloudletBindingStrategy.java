@@ -0,0 +1,56 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A strategy choosing the VM of each cloudlet a {@link DatacenterBroker} submits, set with
+ * {@link DatacenterBroker#setCloudletBindingStrategy(CloudletBindingStrategy)}. The strategy
+ * reads the cloudlets waiting to be submitted from an iterator and hands each binding to a
+ * {@link Sink} as soon as it is chosen, so that a strategy binding the cloudlets one at a time,
+ * such as {@link RoundRobinBinding}, needs no copy of the cloudlets, and the broker can submit
+ * them in batches while the strategy runs. The strategies needing all the cloudlets at once
+ * extend {@link CloudletListBinding}.
+ * <p>
+ * The same strategy can be run outside a broker with any sink, for instance to compare
+ * strategies as {@code org.cloudbus.cloudsim.examples.binding.CloudletBindingBenchmark} does.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public interface CloudletBindingStrategy {
+
+	/**
+	 * Binds cloudlets to VMs. Each cloudlet is bound at most once; the cloudlets that are not
+	 * bound, for instance because they are bound to a VM that has not been created, keep waiting
+	 * to be submitted. The strategy must not modify the cloudlets, the VM list or the iterator.
+	 *
+	 * @param cloudlets the cloudlets waiting to be submitted
+	 * @param vms the VMs that have been created
+	 * @param sink the sink receiving the binding of each cloudlet
+	 */
+	void bind(Iterator<? extends Cloudlet> cloudlets, List<? extends Vm> vms, Sink sink);
+
+	/**
+	 * Receives the bindings chosen by a {@link CloudletBindingStrategy}.
+	 */
+	interface Sink {
+
+		/**
+		 * Receives the binding of a cloudlet.
+		 *
+		 * @param cloudlet the cloudlet
+		 * @param vm the VM the cloudlet is bound to
+		 */
+		void bind(Cloudlet cloudlet, Vm vm);
+
+	}
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.cloudbus.cloudsim.CloudletBindingFixtures.createCloudlets;
+import static org.cloudbus.cloudsim.CloudletBindingFixtures.createVms;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class CloudletBindingStrategyTest {
+
+	private List<Cloudlet> cloudlets;
+
+	private List<Vm> vms;
+
+	private List<Cloudlet> boundCloudlets;
+
+	private List<Vm> boundVms;
+
+	private CloudletBindingStrategy.Sink sink;
+
+	@Before
+	public void setUp() {
+		cloudlets = createCloudlets(3000, 1000, 2000, 4000, 5000);
+		vms = createVms(1000, 500);
+		boundCloudlets = new ArrayList<Cloudlet>();
+		boundVms = new ArrayList<Vm>();
+		sink = new CloudletBindingStrategy.Sink() {
+
+			@Override
+			public void bind(Cloudlet cloudlet, Vm vm) {
+				boundCloudlets.add(cloudlet);
+				boundVms.add(vm);
+			}
+		};
+	}
+
+	@Test
+	public void testRoundRobin() {
+		cloudlets.get(1).setVmId(0);
+		cloudlets.get(3).setVmId(7);
+		new RoundRobinBinding().bind(cloudlets.iterator(), vms, sink);
+
+		// the cloudlet bound to a VM that was not created is left waiting
+		assertEquals(4, boundCloudlets.size());
+		assertSame(cloudlets.get(4), boundCloudlets.get(3));
+		int[] expectedVms = { 0, 0, 0, 1 };
+		for (int i = 0; i < expectedVms.length; i++) {
+			assertEquals(expectedVms[i], boundVms.get(i).getId());
+		}
+	}
+
+	@Test
+	public void testListBinding() {
+		new MinMinBinding(false).bind(cloudlets.iterator(), vms, sink);
+
+		assertEquals(cloudlets.size(), boundCloudlets.size());
+		long previousLength = 0;
+		for (Cloudlet cloudlet : boundCloudlets) {
+			assertEquals(true, cloudlet.getCloudletLength() >= previousLength);
+			previousLength = cloudlet.getCloudletLength();
+		}
+		// the cloudlets are not modified, and are bound in the order they are sorted
+		assertEquals(-1, cloudlets.get(0).getVmId());
+		assertSame(cloudlets.get(1), boundCloudlets.get(0));
+	}
+
+	@Test
+	public void testListBindingKeepsBoundCloudlets() {
+		cloudlets.get(0).setVmId(1);
+		cloudlets.get(3).setVmId(7);
+		new BlockBinding().bind(cloudlets.iterator(), vms, sink);
+
+		// the cloudlet bound to a VM that was not created is left waiting, and the other bound
+		// one is passed first, without being counted in the blocks
+		assertEquals(4, boundCloudlets.size());
+		assertSame(cloudlets.get(0), boundCloudlets.get(0));
+		assertSame(cloudlets.get(1), boundCloudlets.get(1));
+		assertSame(cloudlets.get(4), boundCloudlets.get(3));
+		assertBoundVms(1, 0, 0, 1);
+	}
+
+	@Test
+	public void testSortedRoundRobin() {
+		cloudlets.get(3).setVmId(7);
+		new SortedRoundRobinBinding(true).bind(cloudlets.iterator(), vms, sink);
+
+		// the shortest cloudlets go to the slowest VM first, and the lists are not sorted
+		assertEquals(4, boundCloudlets.size());
+		assertSame(cloudlets.get(1), boundCloudlets.get(0));
+		assertSame(cloudlets.get(4), boundCloudlets.get(3));
+		assertBoundVms(1, 0, 1, 0);
+		assertEquals(3000, cloudlets.get(0).getCloudletLength());
+		assertEquals(0, vms.get(0).getId());
+	}
+
+	@Test
+	public void testBlocks() {
+		new BlockBinding().bind(cloudlets.iterator(), vms, sink);
+
+		assertSame(cloudlets.get(0), boundCloudlets.get(0));
+		assertBoundVms(0, 0, 0, 1, 1);
+	}
+
+	@Test
+	public void testEarliestReadyTime() {
+		new EarliestReadyTimeBinding(2.5).bind(cloudlets.iterator(), vms, sink);
+
+		assertBoundVms(1, 0, 0, 0, 1);
+	}
+
+	@Test
+	public void testClusters() {
+		new ClusterBinding(2).bind(cloudlets.iterator(), vms, sink);
+
+		// the clusters of lengths 4000 and 6000 complete first on the faster VM
+		assertBoundVms(0, 0, 0, 0, 1);
+	}
+
+	@Test
+	public void testBrokerSubmitsInBatches() throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		final List<Integer> batchSizes = new ArrayList<Integer>();
+		DatacenterBroker broker = new DatacenterBroker("Broker") {
+
+			@Override
+			protected void submitCloudletBatch(List<Cloudlet> batch) {
+				batchSizes.add(batch.size());
+				getCloudletSubmittedList().addAll(batch);
+			}
+		};
+		broker.getCloudletList().addAll(cloudlets);
+		broker.getVmsCreatedList().addAll(vms);
+		broker.setCloudletSubmissionBatchSize(2);
+		cloudlets.get(3).setVmId(7);
+
+		broker.submitCloudlets(new RoundRobinBinding());
+
+		assertEquals(2, batchSizes.size());
+		assertEquals(2, batchSizes.get(0).intValue());
+		assertEquals(2, batchSizes.get(1).intValue());
+		assertEquals(4, broker.getCloudletSubmittedList().size());
+		assertEquals(1, broker.getCloudletList().size());
+		assertSame(cloudlets.get(3), broker.getCloudletList().get(0));
+		assertEquals(1, cloudlets.get(4).getVmId());
+	}
+
+	private void assertBoundVms(int... vmIds) {
+		assertEquals(vmIds.length, boundVms.size());
+		for (int i = 0; i < vmIds.length; i++) {
+			assertEquals(vmIds[i], boundVms.get(i).getId());
+		}
+	}
+
+}
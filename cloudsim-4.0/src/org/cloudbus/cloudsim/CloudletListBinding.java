@@ -0,0 +1,72 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.cloudbus.cloudsim.lists.VmList;
+
+/**
+ * A {@link CloudletBindingStrategy} that needs all the cloudlets at once, as the heuristics
+ * sorting the cloudlets or optimizing over all of them do. The cloudlets are read into a list,
+ * sorted with {@link #sortCloudlets(List)}, then bound with {@link #bind(List, List)}.
+ * <p>
+ * A cloudlet already bound to a VM stays bound to it, or is not bound if the VM has not been
+ * created, as with {@link RoundRobinBinding}. Such cloudlets are passed to the sink as they are
+ * read, and are left out of the list, so the heuristics do not count them in the load of the VMs.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public abstract class CloudletListBinding implements CloudletBindingStrategy {
+
+	@Override
+	public void bind(Iterator<? extends Cloudlet> cloudlets, List<? extends Vm> vms, Sink sink) {
+		List<Cloudlet> cloudletList = new ArrayList<Cloudlet>();
+		while (cloudlets.hasNext()) {
+			Cloudlet cloudlet = cloudlets.next();
+			if (cloudlet.getVmId() == -1) {
+				cloudletList.add(cloudlet);
+				continue;
+			}
+			Vm vm = VmList.getById(vms, cloudlet.getVmId());
+			if (vm != null) {
+				sink.bind(cloudlet, vm);
+			}
+		}
+		if (cloudletList.isEmpty()) {
+			return;
+		}
+		sortCloudlets(cloudletList);
+		int[] result = bind(cloudletList, vms);
+		for (int i = 0; i < result.length; i++) {
+			sink.bind(cloudletList.get(i), vms.get(result[i]));
+		}
+	}
+
+	/**
+	 * Binds cloudlets to VMs, in the order of the cloudlet list.
+	 *
+	 * @param cloudlets the cloudlets
+	 * @param vms the VMs
+	 * @return the position in the VM list of the VM of each cloudlet
+	 */
+	public abstract int[] bind(List<? extends Cloudlet> cloudlets, List<? extends Vm> vms);
+
+	/**
+	 * Sorts cloudlets in the order they are bound. The cloudlets are bound in the order they are
+	 * submitted by default.
+	 *
+	 * @param cloudlets the cloudlets to sort
+	 */
+	public void sortCloudlets(List<? extends Cloudlet> cloudlets) {
+	}
+
+}
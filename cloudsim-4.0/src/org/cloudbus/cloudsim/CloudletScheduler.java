@@ -29,8 +29,8 @@ public abstract class CloudletScheduler {
 	/** The previous time. */
 	private double previousTime;
 
-	/** The list of current mips share available for the VM using the scheduler. */
-	private List<Double> currentMipsShare;
+	/** The current mips share available for the VM using the scheduler. */
+	private MipsShare currentMipsShare;
 
 	/** The list of cloudlet waiting to be executed on the VM. */
 	protected List<? extends ResCloudlet> cloudletWaitingList;
@@ -75,6 +75,23 @@ public abstract class CloudletScheduler {
 	 */
 	public abstract double updateVmProcessing(double currentTime, List<Double> mipsShare);
 
+	/**
+	 * Updates the processing of cloudlets running under management of this scheduler.
+	 * This is the method called by the {@link Vm}. By default it adapts the MIPS share to
+	 * {@link #updateVmProcessing(double, List)}; schedulers that can work on the MIPS share
+	 * directly should override it, and make the list-based method delegate to it.
+	 * 
+	 * @param currentTime current simulation time
+	 * @param mipsShare the MIPS share of each Pe available to the scheduler
+	 * @return the predicted completion time of the earliest finishing cloudlet, 
+	 *         or 0 if there is no next events
+	 * @pre currentTime >= 0
+	 * @post $none
+	 */
+	public double updateVmProcessing(double currentTime, MipsShare mipsShare) {
+		return updateVmProcessing(currentTime, mipsShare.asList());
+	}
+
 	/**
 	 * Receives an cloudlet to be executed in the VM managed by this scheduler.
 	 * 
@@ -200,6 +217,17 @@ public abstract class CloudletScheduler {
 	 */
 	public abstract List<Double> getCurrentRequestedMips();
 
+	/**
+	 * Gets the current requested mips as a MIPS share. Schedulers returning the
+	 * {@link MipsShare#asList() list view} of a MIPS share from
+	 * {@link #getCurrentRequestedMips()} are not copied.
+	 * 
+	 * @return the current mips
+	 */
+	public final MipsShare getCurrentRequestedMipsShare() {
+		return MipsShare.valueOf(getCurrentRequestedMips());
+	}
+
 	/**
 	 * Gets the total current available mips for the Cloudlet.
 	 * 
@@ -274,15 +302,36 @@ public abstract class CloudletScheduler {
 	 * @param currentMipsShare the new current mips share
 	 */
 	protected void setCurrentMipsShare(List<Double> currentMipsShare) {
+		setCurrentMipsShare(MipsShare.valueOf(currentMipsShare));
+	}
+
+	/**
+	 * Sets the current mips share.
+	 * 
+	 * @param currentMipsShare the new current mips share
+	 */
+	protected void setCurrentMipsShare(MipsShare currentMipsShare) {
 		this.currentMipsShare = currentMipsShare;
 	}
 
 	/**
 	 * Gets the current mips share.
 	 * 
-	 * @return the current mips share
+	 * @return the current mips share, as an unmodifiable list
 	 */
 	public List<Double> getCurrentMipsShare() {
+		if (currentMipsShare == null) {
+			return null;
+		}
+		return currentMipsShare.asList();
+	}
+
+	/**
+	 * Gets the current mips share.
+	 * 
+	 * @return the current mips share
+	 */
+	public MipsShare getMipsShare() {
 		return currentMipsShare;
 	}
 
@@ -0,0 +1,126 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A micro-benchmark comparing {@link CloudletSchedulerTimeShared} and
+ * {@link CloudletSchedulerTimeSharedSinglePass}. A VM with a given number of cloudlets is
+ * updated at regular times, as a datacenter does on its events, and every cloudlet that
+ * finishes is replaced by a new one, so the number of running cloudlets stays constant. Only
+ * the updates are measured.
+ * <p>
+ * Usage: <tt>CloudletSchedulerBenchmark [cloudlets] [updates]</tt>
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class CloudletSchedulerBenchmark {
+
+	/** The number of warm-up rounds before measuring. */
+	private static final int WARM_UP_ROUNDS = 3;
+
+	/** The number of measured rounds. */
+	private static final int ROUNDS = 5;
+
+	/** The number of PEs of the VM. */
+	private static final int PES = 4;
+
+	/** The MIPS of each PE of the VM. */
+	private static final double MIPS = 2500;
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args the number of cloudlets of the VM and the number of updates per round
+	 */
+	public static void main(String[] args) {
+		int cloudlets = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int updates = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+
+		Log.disable();
+		System.out.println("Cloudlets per VM: " + cloudlets + ", updates per round: " + updates);
+		for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+			for (String name : new String[] { "TimeShared", "TimeSharedSinglePass" }) {
+				run(create(name), cloudlets, updates);
+			}
+		}
+
+		for (String name : new String[] { "TimeShared", "TimeSharedSinglePass" }) {
+			double total = 0;
+			for (int i = 0; i < ROUNDS; i++) {
+				total += run(create(name), cloudlets, updates);
+			}
+			System.out.println(String.format("%-22s %10.1f ns/update", name, total / ROUNDS));
+		}
+	}
+
+	/**
+	 * Creates a cloudlet scheduler.
+	 *
+	 * @param name the implementation name
+	 * @return the cloudlet scheduler
+	 */
+	private static CloudletScheduler create(String name) {
+		if (name.equals("TimeSharedSinglePass")) {
+			return new CloudletSchedulerTimeSharedSinglePass();
+		}
+		return new CloudletSchedulerTimeShared();
+	}
+
+	/**
+	 * Updates the processing of a VM with a constant number of cloudlets.
+	 *
+	 * @param scheduler the cloudlet scheduler of the VM
+	 * @param cloudlets the number of cloudlets
+	 * @param updates the number of updates
+	 * @return the average time per update, in nanoseconds
+	 */
+	private static double run(CloudletScheduler scheduler, int cloudlets, int updates) {
+		Random random = new Random(42);
+		List<Double> mipsShare = new ArrayList<Double>();
+		for (int i = 0; i < PES; i++) {
+			mipsShare.add(MIPS);
+		}
+		scheduler.setCurrentMipsShare(mipsShare);
+
+		int id = 0;
+		for (; id < cloudlets; id++) {
+			scheduler.cloudletSubmit(createCloudlet(id, random));
+		}
+
+		long time = 0;
+		for (int i = 1; i <= updates; i++) {
+			long start = System.nanoTime();
+			scheduler.updateVmProcessing(i, mipsShare);
+			time += System.nanoTime() - start;
+			while (scheduler.isFinishedCloudlets()) {
+				scheduler.getNextFinishedCloudlet();
+				scheduler.cloudletSubmit(createCloudlet(id++, random));
+			}
+		}
+		return (double) time / updates;
+	}
+
+	/**
+	 * Creates a cloudlet running for about a hundred updates.
+	 *
+	 * @param id the cloudlet id
+	 * @param random the random generator
+	 * @return the cloudlet
+	 */
+	private static Cloudlet createCloudlet(int id, Random random) {
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		long length = 1 + random.nextInt((int) (200 * MIPS * PES));
+		return new Cloudlet(id, length, 1, 0, 0, utilizationModel, utilizationModel, utilizationModel);
+	}
+
+}
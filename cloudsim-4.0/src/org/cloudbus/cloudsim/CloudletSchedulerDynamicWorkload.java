@@ -34,7 +34,7 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
          * considering that all PEs have the same capacity. 
          * @todo Despite of the class considers that all PEs have the same capacity,
          * it accepts a list of PEs with different MIPS at the method 
-         * {@link #updateVmProcessing(double, java.util.List) }
+         * {@link #updateVmProcessing(double, MipsShare) }
          */
 	private double mips;
 
@@ -53,7 +53,7 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	/** The cache of the last current requested MIPS. 
          * @see  #getCurrentRequestedMips() 
          */
-	private List<Double> cacheCurrentRequestedMips;
+	private MipsShare cacheCurrentRequestedMips;
 
 	/**
 	 * Instantiates a new VM scheduler
@@ -77,7 +77,7 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	}
 
 	@Override
-	public double updateVmProcessing(double currentTime, List<Double> mipsShare) {
+	public double updateVmProcessing(double currentTime, MipsShare mipsShare) {
 		setCurrentMipsShare(mipsShare);
 
 		double timeSpan = currentTime - getPreviousTime();
@@ -157,18 +157,14 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 		if (getCachePreviousTime() == getPreviousTime()) {
 			return getCacheCurrentRequestedMips();
 		}
-		List<Double> currentMips = new ArrayList<Double>();
 		double totalMips = getTotalUtilizationOfCpu(getPreviousTime()) * getTotalMips();
 		double mipsForPe = totalMips / getNumberOfPes();
-
-		for (int i = 0; i < getNumberOfPes(); i++) {
-			currentMips.add(mipsForPe);
-		}
+		MipsShare currentMips = MipsShare.of(getNumberOfPes(), mipsForPe);
 
 		setCachePreviousTime(getPreviousTime());
-		setCacheCurrentRequestedMips(currentMips);
+		setCacheCurrentRequestedMips(currentMips.asList());
 
-		return currentMips;
+		return currentMips.asList();
 	}
 
 	@Override
@@ -178,11 +174,23 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 
 	@Override
 	public double getTotalCurrentAvailableMipsForCloudlet(ResCloudlet rcl, List<Double> mipsShare) {
+		return getTotalCurrentAvailableMipsForCloudlet(rcl, MipsShare.valueOf(mipsShare));
+	}
+
+	/**
+	 * Gets the total current available mips for the Cloudlet, that is, the MIPS of the first PEs
+	 * of the share, as many as the cloudlet needs.
+	 * 
+	 * @param rcl the rcl
+	 * @param mipsShare the mips share
+	 * @return the total current mips
+	 */
+	public double getTotalCurrentAvailableMipsForCloudlet(ResCloudlet rcl, MipsShare mipsShare) {
 		double totalCurrentMips = 0.0;
 		if (mipsShare != null) {
 			int neededPEs = rcl.getNumberOfPes();
-			for (double mips : mipsShare) {
-				totalCurrentMips += mips;
+			for (int i = 0; i < mipsShare.size(); i++) {
+				totalCurrentMips += mipsShare.get(i);
 				neededPEs--;
 				if (neededPEs <= 0) {
 					break;
@@ -195,7 +203,7 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	@Override
 	public double getTotalCurrentAllocatedMipsForCloudlet(ResCloudlet rcl, double time) {
 		double totalCurrentRequestedMips = getTotalCurrentRequestedMipsForCloudlet(rcl, time);
-		double totalCurrentAvailableMips = getTotalCurrentAvailableMipsForCloudlet(rcl, getCurrentMipsShare());
+		double totalCurrentAvailableMips = getTotalCurrentAvailableMipsForCloudlet(rcl, getMipsShare());
 		if (totalCurrentRequestedMips > totalCurrentAvailableMips) {
 			return totalCurrentAvailableMips;
 		}
@@ -237,8 +245,9 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	 */
 	public int getTotalCurrentMips() {
 		int totalCurrentMips = 0;
-		for (double mips : getCurrentMipsShare()) {
-			totalCurrentMips += mips;
+		MipsShare mipsShare = getMipsShare();
+		for (int i = 0; i < mipsShare.size(); i++) {
+			totalCurrentMips += mipsShare.get(i);
 		}
 		return totalCurrentMips;
 	}
@@ -341,7 +350,10 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	 * @return the cache current requested mips
 	 */
 	protected List<Double> getCacheCurrentRequestedMips() {
-		return cacheCurrentRequestedMips;
+		if (cacheCurrentRequestedMips == null) {
+			return null;
+		}
+		return cacheCurrentRequestedMips.asList();
 	}
 
 	/**
@@ -350,7 +362,7 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	 * @param cacheCurrentRequestedMips the new cache current requested mips
 	 */
 	protected void setCacheCurrentRequestedMips(List<Double> cacheCurrentRequestedMips) {
-		this.cacheCurrentRequestedMips = cacheCurrentRequestedMips;
+		this.cacheCurrentRequestedMips = MipsShare.valueOf(cacheCurrentRequestedMips);
 	}
 
 }
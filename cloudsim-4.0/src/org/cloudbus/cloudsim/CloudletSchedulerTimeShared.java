@@ -42,6 +42,11 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 
 	@Override
 	public double updateVmProcessing(double currentTime, List<Double> mipsShare) {
+		return updateVmProcessing(currentTime, MipsShare.valueOf(mipsShare));
+	}
+
+	@Override
+	public double updateVmProcessing(double currentTime, MipsShare mipsShare) {
 		setCurrentMipsShare(mipsShare);
 		double timeSpam = currentTime - getPreviousTime();
 
@@ -92,15 +97,19 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	 * @return the capacity of each PE
 	 */
 	protected double getCapacity(List<Double> mipsShare) {
-		double capacity = 0.0;
-		int cpus = 0;
-		for (Double mips : mipsShare) {
-			capacity += mips;
-			if (mips > 0.0) {
-				cpus++;
-			}
-		}
-		currentCPUs = cpus;
+		return getCapacity(MipsShare.valueOf(mipsShare));
+	}
+
+	/**
+	 * Gets the individual MIPS capacity available for each PE available for the scheduler,
+	 * considering that all PEs have the same capacity.
+	 * 
+	 * @param mipsShare the MIPS share of each PE available to the scheduler
+	 * @return the capacity of each PE
+	 */
+	protected double getCapacity(MipsShare mipsShare) {
+		double capacity = mipsShare.getTotal();
+		currentCPUs = mipsShare.getNumberOfActivePes();
 
 		int pesInUse = 0;
 		for (ResCloudlet rcl : getCloudletExecList()) {
@@ -231,7 +240,7 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 
 			double remainingLength = rgl.getRemainingCloudletLength();
 			double estimatedFinishTime = CloudSim.clock()
-					+ (remainingLength / (getCapacity(getCurrentMipsShare()) * rgl.getNumberOfPes()));
+					+ (remainingLength / (getCapacity(getMipsShare()) * rgl.getNumberOfPes()));
 
 			return estimatedFinishTime;
 		}
@@ -251,11 +260,11 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 
 		// use the current capacity to estimate the extra amount of
 		// time to file transferring. It must be added to the cloudlet length
-		double extraSize = getCapacity(getCurrentMipsShare()) * fileTransferTime;
+		double extraSize = getCapacity(getMipsShare()) * fileTransferTime;
 		long length = (long) (cloudlet.getCloudletLength() + extraSize);
 		cloudlet.setCloudletLength(length);
 
-		return cloudlet.getCloudletLength() / getCapacity(getCurrentMipsShare());
+		return cloudlet.getCloudletLength() / getCapacity(getMipsShare());
 	}
 
 	@Override
@@ -324,7 +333,7 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	@Override
 	public double getTotalCurrentAvailableMipsForCloudlet(ResCloudlet rcl, List<Double> mipsShare) {
             /*@todo It isn't being used any the the given parameters.*/
-            return getCapacity(getCurrentMipsShare());
+            return getCapacity(getMipsShare());
 	}
 
 	@Override
@@ -0,0 +1,142 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.List;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+
+/**
+ * A {@link CloudletSchedulerTimeShared} that updates the processing of its cloudlets in a single
+ * pass over the execution list. The capacity of each PE is computed once per update, the
+ * finished cloudlets are compacted out of the list in place instead of being collected and
+ * removed with {@link List#removeAll(java.util.Collection)}, and the next finish time is
+ * estimated while the cloudlets are updated. No object is allocated per update.
+ * <p>
+ * The results are the same as those of {@link CloudletSchedulerTimeShared}: when some cloudlets
+ * finish and the capacity of each PE changes because of that, the finish times are estimated
+ * again with the new capacity.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class CloudletSchedulerTimeSharedSinglePass extends CloudletSchedulerTimeShared {
+
+	/**
+	 * Creates a new CloudletSchedulerTimeSharedSinglePass object. This method must be invoked
+	 * before starting the actual simulation.
+	 *
+	 * @pre $none
+	 * @post $none
+	 */
+	public CloudletSchedulerTimeSharedSinglePass() {
+		super();
+	}
+
+	@Override
+	public double updateVmProcessing(double currentTime, MipsShare mipsShare) {
+		setCurrentMipsShare(mipsShare);
+		double timeSpam = currentTime - getPreviousTime();
+		List<ResCloudlet> execList = getCloudletExecList();
+		int size = execList.size();
+
+		if (size == 0) {
+			setPreviousTime(currentTime);
+			return 0.0;
+		}
+
+		double capacity = getCapacity(mipsShare);
+		double minTimeBetweenEvents = CloudSim.getMinTimeBetweenEvents();
+		double nextEvent = Double.MAX_VALUE;
+		int running = 0;
+		for (int i = 0; i < size; i++) {
+			ResCloudlet rcl = execList.get(i);
+			rcl.updateCloudletFinishedSoFar((long) (capacity * timeSpam * rcl.getNumberOfPes() * Consts.MILLION));
+
+			if (rcl.getRemainingCloudletLength() == 0) {// finished: leave it out of the list
+				cloudletFinish(rcl);
+				continue;
+			}
+			if (running != i) {
+				execList.set(running, rcl);
+			}
+			running++;
+
+			double estimatedFinishTime = getEstimatedFinishTime(rcl, currentTime, capacity, minTimeBetweenEvents);
+			if (estimatedFinishTime < nextEvent) {
+				nextEvent = estimatedFinishTime;
+			}
+		}
+
+		if (running < size) {
+			execList.subList(running, size).clear();
+
+			// the PEs of the finished cloudlets may change the capacity of the others
+			double newCapacity = getCapacity(mipsShare);
+			if (newCapacity != capacity) {
+				nextEvent = Double.MAX_VALUE;
+				for (int i = 0; i < running; i++) {
+					double estimatedFinishTime = getEstimatedFinishTime(
+							execList.get(i),
+							currentTime,
+							newCapacity,
+							minTimeBetweenEvents);
+					if (estimatedFinishTime < nextEvent) {
+						nextEvent = estimatedFinishTime;
+					}
+				}
+			}
+		}
+
+		setPreviousTime(currentTime);
+		return nextEvent;
+	}
+
+	/**
+	 * Estimates the finish time of a cloudlet, which is never before the minimum time between
+	 * events.
+	 *
+	 * @param rcl the cloudlet
+	 * @param currentTime the current simulation time
+	 * @param capacity the capacity of each PE
+	 * @param minTimeBetweenEvents the minimum time between events
+	 * @return the estimated finish time
+	 */
+	private static double getEstimatedFinishTime(
+			ResCloudlet rcl,
+			double currentTime,
+			double capacity,
+			double minTimeBetweenEvents) {
+		double estimatedFinishTime = currentTime
+				+ (rcl.getRemainingCloudletLength() / (capacity * rcl.getNumberOfPes()));
+		if (estimatedFinishTime - currentTime < minTimeBetweenEvents) {
+			estimatedFinishTime = currentTime + minTimeBetweenEvents;
+		}
+		return estimatedFinishTime;
+	}
+
+	@Override
+	protected double getCapacity(MipsShare mipsShare) {
+		double capacity = mipsShare.getTotal();
+		currentCPUs = mipsShare.getNumberOfActivePes();
+
+		List<ResCloudlet> execList = getCloudletExecList();
+		int pesInUse = 0;
+		for (int i = 0; i < execList.size(); i++) {
+			pesInUse += execList.get(i).getNumberOfPes();
+		}
+
+		if (pesInUse > currentCPUs) {
+			capacity /= pesInUse;
+		} else {
+			capacity /= currentCPUs;
+		}
+		return capacity;
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class CloudletSchedulerTimeSharedSinglePassTest {
+
+	private static final double MIPS = 1000;
+
+	private static final double DELTA = 0.0;
+
+	@Test
+	public void testEmpty() {
+		CloudletSchedulerTimeSharedSinglePass scheduler = new CloudletSchedulerTimeSharedSinglePass();
+		assertEquals(0.0, scheduler.updateVmProcessing(10, getMipsShare(2)), DELTA);
+		assertEquals(10, scheduler.getPreviousTime(), DELTA);
+	}
+
+	@Test
+	public void testSameResultsAsTimeShared() {
+		for (int pes = 1; pes <= 4; pes++) {
+			checkSameResults(new Random(pes), pes);
+		}
+	}
+
+	private static void checkSameResults(Random random, int pes) {
+		CloudletSchedulerTimeShared expected = new CloudletSchedulerTimeShared();
+		CloudletSchedulerTimeShared actual = new CloudletSchedulerTimeSharedSinglePass();
+		List<Double> mipsShare = getMipsShare(pes);
+		expected.setCurrentMipsShare(mipsShare);
+		actual.setCurrentMipsShare(mipsShare);
+
+		double time = 0;
+		int id = 0;
+		for (int step = 0; step < 200; step++) {
+			for (int i = random.nextInt(4); i > 0; i--) {
+				long length = 1 + random.nextInt(20000);
+				int cloudletPes = 1 + random.nextInt(2);
+				expected.cloudletSubmit(createCloudlet(id, length, cloudletPes));
+				actual.cloudletSubmit(createCloudlet(id, length, cloudletPes));
+				id++;
+			}
+			time += random.nextInt(3) == 0 ? random.nextDouble() : random.nextInt(10);
+
+			assertEquals(expected.updateVmProcessing(time, mipsShare), actual.updateVmProcessing(time, mipsShare), DELTA);
+			assertEquals(expected.runningCloudlets(), actual.runningCloudlets());
+			for (int i = 0; i < expected.runningCloudlets(); i++) {
+				ResCloudlet expectedCloudlet = expected.getCloudletExecList().get(i);
+				ResCloudlet actualCloudlet = actual.getCloudletExecList().get(i);
+				assertEquals(expectedCloudlet.getCloudletId(), actualCloudlet.getCloudletId());
+				assertEquals(expectedCloudlet.getRemainingCloudletLength(), actualCloudlet.getRemainingCloudletLength());
+			}
+			while (expected.isFinishedCloudlets()) {
+				assertEquals(expected.getNextFinishedCloudlet().getCloudletId(), actual.getNextFinishedCloudlet()
+						.getCloudletId());
+			}
+			assertFalse(actual.isFinishedCloudlets());
+		}
+	}
+
+	private static Cloudlet createCloudlet(int id, long length, int pes) {
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		return new Cloudlet(id, length, pes, 0, 0, utilizationModel, utilizationModel, utilizationModel);
+	}
+
+	private static List<Double> getMipsShare(int pes) {
+		List<Double> mipsShare = new ArrayList<Double>();
+		for (int i = 0; i < pes; i++) {
+			mipsShare.add(MIPS);
+		}
+		return mipsShare;
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.List;
+
+/**
+ * Binds clusters of consecutive cloudlets to VMs, as
+ * {@link DatacenterBroker#submitCloudletsKhalidCluster()} does, so that the cloudlets of a
+ * cluster run on the same VM. Each cluster in turn is bound to the VM on which it would complete
+ * first, that is, the VM with the smallest sum of its ready time and the execution time of the
+ * cluster on it, where the execution time of a cluster is the sum of the lengths of its cloudlets
+ * divided by the MIPS of the VM. Ties are broken by the position of the VM in the list.
+ * <p>
+ * Unlike the cost matrices of the broker, the execution times are not truncated, the length of
+ * each cluster is the sum of the lengths of its cloudlets rather than a multiple of the length of
+ * the first cloudlet, and the last cluster may be smaller than the others instead of being left
+ * to the round robin of the broker. Binding n cloudlets to m VMs in clusters of c cloudlets
+ * takes O(n + n m / c) time.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class ClusterBinding extends CloudletListBinding {
+
+	/** The default number of cloudlets of a cluster. */
+	public static final int DEFAULT_CLUSTER_SIZE = 100;
+
+	/** The number of cloudlets of a cluster. */
+	private final int clusterSize;
+
+	/**
+	 * Instantiates a new cluster binding with clusters of {@link #DEFAULT_CLUSTER_SIZE}
+	 * cloudlets.
+	 */
+	public ClusterBinding() {
+		this(DEFAULT_CLUSTER_SIZE);
+	}
+
+	/**
+	 * Instantiates a new cluster binding.
+	 *
+	 * @param clusterSize the number of cloudlets of a cluster
+	 */
+	public ClusterBinding(int clusterSize) {
+		if (clusterSize <= 0) {
+			throw new IllegalArgumentException("The cluster size must be positive");
+		}
+		this.clusterSize = clusterSize;
+	}
+
+	@Override
+	public int[] bind(List<? extends Cloudlet> cloudlets, List<? extends Vm> vms) {
+		if (vms.isEmpty()) {
+			throw new IllegalArgumentException("There must be at least one VM");
+		}
+		int[] result = new int[cloudlets.size()];
+		double[] readyTimes = new double[vms.size()];
+		for (int from = 0; from < result.length; from += clusterSize) {
+			int to = Math.min(result.length, from + clusterSize);
+			long length = 0;
+			for (int i = from; i < to; i++) {
+				length += cloudlets.get(i).getCloudletLength();
+			}
+
+			int bestVm = 0;
+			double bestCompletionTime = Double.MAX_VALUE;
+			for (int vm = 0; vm < readyTimes.length; vm++) {
+				double completionTime = readyTimes[vm] + length / vms.get(vm).getMips();
+				if (completionTime < bestCompletionTime) {
+					bestVm = vm;
+					bestCompletionTime = completionTime;
+				}
+			}
+			readyTimes[bestVm] = bestCompletionTime;
+			for (int i = from; i < to; i++) {
+				result[i] = bestVm;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the number of cloudlets of a cluster.
+	 *
+	 * @return the cluster size
+	 */
+	public int getClusterSize() {
+		return clusterSize;
+	}
+
+}
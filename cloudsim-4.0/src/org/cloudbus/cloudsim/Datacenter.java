@@ -8,15 +8,19 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.lists.IdIndexedList;
 
 /**
  * Datacenter class is a CloudResource whose hostList are virtualized. It deals with processing of
@@ -59,6 +63,13 @@ public class Datacenter extends SimEntity {
 	/** The scheduling delay to process each datacenter received event. */
 	private double schedulingInterval;
 
+	/**
+	 * The ids of the users that submitted cloudlets with
+	 * {@link CloudSimTags#CLOUDLET_SUBMIT_BATCH}, whose finished cloudlets are returned with
+	 * {@link CloudSimTags#CLOUDLET_RETURN_BATCH}.
+	 */
+	private final Set<Integer> batchUserIds = new HashSet<Integer>();
+
 	/**
 	 * Allocates a new Datacenter object.
 	 * 
@@ -92,7 +103,7 @@ public class Datacenter extends SimEntity {
 		setVmAllocationPolicy(vmAllocationPolicy);
 		setLastProcessTime(0.0);
 		setStorageList(storageList);
-		setVmList(new ArrayList<Vm>());
+		setVmList(IdIndexedList.<Vm> ofVms());
 		setSchedulingInterval(schedulingInterval);
 
 		for (Host host : getCharacteristics().getHostList()) {
@@ -161,6 +172,11 @@ public class Datacenter extends SimEntity {
 				processCloudletSubmit(ev, true);
 				break;
 
+			// New Cloudlets arrive together
+			case CloudSimTags.CLOUDLET_SUBMIT_BATCH:
+				processCloudletSubmitBatch(ev);
+				break;
+
 			// Cancels a previously submitted Cloudlet
 			case CloudSimTags.CLOUDLET_CANCEL:
 				processCloudlet(ev, CloudSimTags.CLOUDLET_CANCEL);
@@ -497,7 +513,9 @@ public class Datacenter extends SimEntity {
 
 	/**
 	 * Process the event for an User/Broker who wants to migrate a VM. This Datacenter will
-	 * then send the status back to the User/Broker.
+	 * then send the status back to the User/Broker. The event data is either a
+	 * {@link MigrationPlan.Entry} or a map storing the VM under the "vm" key and the target
+	 * host under the "host" key.
 	 * 
 	 * @param ev information about the event just happened
 	 * @param ack indicates if the event's sender expects to receive 
@@ -507,16 +525,9 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processVmMigrate(SimEvent ev, boolean ack) {
-		Object tmp = ev.getData();
-		if (!(tmp instanceof Map<?, ?>)) {
-			throw new ClassCastException("The data object must be Map<String, Object>");
-		}
-
-		@SuppressWarnings("unchecked")
-		Map<String, Object> migrate = (HashMap<String, Object>) tmp;
-
-		Vm vm = (Vm) migrate.get("vm");
-		Host host = (Host) migrate.get("host");
+		MigrationPlan.Entry migrate = getMigration(ev);
+		Vm vm = migrate.getVm();
+		Host host = migrate.getTargetHost();
 
 		getVmAllocationPolicy().deallocateHostForVm(vm);
 		host.removeMigratingInVm(vm);
@@ -547,6 +558,33 @@ public class Datacenter extends SimEntity {
 		vm.setInMigration(false);
 	}
 
+	/**
+	 * Gets the migration of a VM migration event, whose data is either a
+	 * {@link MigrationPlan.Entry} or a map storing the VM under the "vm" key and the target host
+	 * under the "host" key.
+	 * 
+	 * @param ev the VM migration event
+	 * @return the migration
+	 * @throws ClassCastException if the event data is not a migration
+	 */
+	protected MigrationPlan.Entry getMigration(SimEvent ev) {
+		Object tmp = ev.getData();
+		if (tmp instanceof MigrationPlan.Entry) {
+			return (MigrationPlan.Entry) tmp;
+		}
+		if (tmp instanceof Map<?, ?>) {
+			Map<?, ?> migrate = (Map<?, ?>) tmp;
+			Vm vm = (Vm) migrate.get("vm");
+			Host source = vm.getHost();
+			return new MigrationPlan.Entry(
+					vm,
+					source == null ? MigrationPlan.NO_HOST : source.getId(),
+					(Host) migrate.get("host"));
+		}
+		throw new ClassCastException(
+				"The data object must be a MigrationPlan.Entry or a Map<String, Object>");
+	}
+
 	/**
 	 * Processes a Cloudlet based on the event type.
 	 * 
@@ -732,24 +770,10 @@ public class Datacenter extends SimEntity {
 			}
 
 			// process this Cloudlet to this CloudResource
-			cl.setResourceParameter(
-                                getId(), getCharacteristics().getCostPerSecond(), 
-                                getCharacteristics().getCostPerBw());
-
-			int userId = cl.getUserId();
-			int vmId = cl.getVmId();
-
-			// time to transfer the files
-			double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
-
-			Host host = getVmAllocationPolicy().getHost(vmId, userId);
-			Vm vm = host.getVm(vmId, userId);
-			CloudletScheduler scheduler = vm.getCloudletScheduler();
-			double estimatedFinishTime = scheduler.cloudletSubmit(cl, fileTransferTime);
+			double estimatedFinishTime = submitCloudlet(cl);
 
 			// if this cloudlet is in the exec queue
-			if (estimatedFinishTime > 0.0 && !Double.isInfinite(estimatedFinishTime)) {
-				estimatedFinishTime += fileTransferTime;
+			if (estimatedFinishTime > 0.0) {
 				send(getId(), estimatedFinishTime, CloudSimTags.VM_DATACENTER_EVENT);
 			}
 
@@ -774,6 +798,118 @@ public class Datacenter extends SimEntity {
 		checkCloudletCompletion();
 	}
 
+	/**
+	 * Processes the submission of an array of cloudlets with
+	 * {@link CloudSimTags#CLOUDLET_SUBMIT_BATCH}. The cloudlets are processed as with
+	 * {@link #processCloudletSubmit(SimEvent, boolean)} without acknowledgement, but the
+	 * processing of the cloudlets is updated once for the whole array, a single
+	 * {@link CloudSimTags#VM_DATACENTER_EVENT} is scheduled for each distinct estimated finish
+	 * time, and the cloudlets are returned to their users with
+	 * {@link CloudSimTags#CLOUDLET_RETURN_BATCH}.
+	 * 
+	 * @param ev information about the event just happened, whose data is an array of cloudlets
+	 */
+	protected void processCloudletSubmitBatch(SimEvent ev) {
+		updateCloudletProcessing();
+
+		try {
+			Cloudlet[] cloudlets = (Cloudlet[]) ev.getData();
+			double[] finishTimes = new double[cloudlets.length];
+			int finishTimeCount = 0;
+			List<Cloudlet> finishedCloudlets = new ArrayList<Cloudlet>();
+			for (Cloudlet cl : cloudlets) {
+				batchUserIds.add(cl.getUserId());
+				if (cl.isFinished()) {
+					Log.printConcatLine(getName(), ": Warning - Cloudlet #", cl.getCloudletId(),
+							" owned by ", CloudSim.getEntityName(cl.getUserId()),
+							" is already completed/finished.");
+					finishedCloudlets.add(cl);
+					continue;
+				}
+				double estimatedFinishTime = submitCloudlet(cl);
+				if (estimatedFinishTime > 0.0) {
+					finishTimes[finishTimeCount++] = estimatedFinishTime;
+				}
+			}
+
+			Arrays.sort(finishTimes, 0, finishTimeCount);
+			for (int i = 0; i < finishTimeCount; i++) {
+				if (i == 0 || finishTimes[i] != finishTimes[i - 1]) {
+					send(getId(), finishTimes[i], CloudSimTags.VM_DATACENTER_EVENT);
+				}
+			}
+			returnCloudlets(finishedCloudlets);
+		} catch (ClassCastException c) {
+			Log.printLine(getName() + ".processCloudletSubmitBatch(): " + "ClassCastException error.");
+			c.printStackTrace();
+		} catch (Exception e) {
+			Log.printLine(getName() + ".processCloudletSubmitBatch(): " + "Exception error.");
+			e.printStackTrace();
+		}
+
+		checkCloudletCompletion();
+	}
+
+	/**
+	 * Submits a cloudlet to the scheduler of its VM.
+	 * 
+	 * @param cl the cloudlet
+	 * @return the time from now when the cloudlet is estimated to finish, including the time to
+	 *         transfer its files, or 0 if it is not in the execution queue
+	 */
+	protected double submitCloudlet(Cloudlet cl) {
+		cl.setResourceParameter(
+                        getId(), getCharacteristics().getCostPerSecond(), 
+                        getCharacteristics().getCostPerBw());
+
+		int userId = cl.getUserId();
+		int vmId = cl.getVmId();
+
+		// time to transfer the files
+		double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
+
+		Host host = getVmAllocationPolicy().getHost(vmId, userId);
+		Vm vm = host.getVm(vmId, userId);
+		CloudletScheduler scheduler = vm.getCloudletScheduler();
+		double estimatedFinishTime = scheduler.cloudletSubmit(cl, fileTransferTime);
+
+		if (estimatedFinishTime > 0.0 && !Double.isInfinite(estimatedFinishTime)) {
+			return estimatedFinishTime + fileTransferTime;
+		}
+		return 0.0;
+	}
+
+	/**
+	 * Returns finished cloudlets to their users, in a {@link CloudSimTags#CLOUDLET_RETURN_BATCH}
+	 * event per user for the users that submitted cloudlets in batches, and in a
+	 * {@link CloudSimTags#CLOUDLET_RETURN} event per cloudlet for the others.
+	 * 
+	 * @param cloudlets the finished cloudlets
+	 */
+	protected void returnCloudlets(List<Cloudlet> cloudlets) {
+		if (cloudlets.isEmpty()) {
+			return;
+		}
+		Map<Integer, List<Cloudlet>> batches = new LinkedHashMap<Integer, List<Cloudlet>>();
+		for (Cloudlet cl : cloudlets) {
+			if (!batchUserIds.contains(cl.getUserId())) {
+				sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_RETURN, cl);
+				continue;
+			}
+			List<Cloudlet> batch = batches.get(cl.getUserId());
+			if (batch == null) {
+				batch = new ArrayList<Cloudlet>();
+				batches.put(cl.getUserId(), batch);
+			}
+			batch.add(cl);
+		}
+		for (Map.Entry<Integer, List<Cloudlet>> entry : batches.entrySet()) {
+			List<Cloudlet> batch = entry.getValue();
+			sendNow(entry.getKey(), CloudSimTags.CLOUDLET_RETURN_BATCH,
+					batch.toArray(new Cloudlet[batch.size()]));
+		}
+	}
+
 	/**
 	 * Predict the total time to transfer a list of files.
 	 * 
@@ -924,18 +1060,30 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void checkCloudletCompletion() {
+		List<Cloudlet> batchCloudlets = null;
 		List<? extends Host> list = getVmAllocationPolicy().getHostList();
 		for (int i = 0; i < list.size(); i++) {
 			Host host = list.get(i);
 			for (Vm vm : host.getVmList()) {
 				while (vm.getCloudletScheduler().isFinishedCloudlets()) {
 					Cloudlet cl = vm.getCloudletScheduler().getNextFinishedCloudlet();
-					if (cl != null) {
+					if (cl == null) {
+						continue;
+					}
+					if (batchUserIds.isEmpty() || !batchUserIds.contains(cl.getUserId())) {
 						sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_RETURN, cl);
+					} else {
+						if (batchCloudlets == null) {
+							batchCloudlets = new ArrayList<Cloudlet>();
+						}
+						batchCloudlets.add(cl);
 					}
 				}
 			}
 		}
+		if (batchCloudlets != null) {
+			returnCloudlets(batchCloudlets);
+		}
 	}
 
 	/**
@@ -13,17 +13,22 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 
 //import org.apache.commons.math3.stat.clustering.Cluster;
+import org.cloudbus.cloudsim.Log.Level;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
 import org.cloudbus.cloudsim.lists.CloudletList;
+import org.cloudbus.cloudsim.lists.IdIndexedList;
 import org.cloudbus.cloudsim.lists.VmList;
 
 //import com.sun.corba.se.pept.broker.Broker;
@@ -38,6 +43,12 @@ import org.cloudbus.cloudsim.lists.VmList;
  */
 public class DatacenterBroker extends SimEntity {
 
+	/** The log category of the brokers. */
+	public static final String LOG_CATEGORY = DatacenterBroker.class.getName();
+
+	/** The default number of cloudlets submitted together by a binding strategy. */
+	public static final int DEFAULT_CLOUDLET_SUBMISSION_BATCH_SIZE = 1000;
+
 	/** The list of VMs submitted to be managed by the broker. */
 	protected List<? extends Vm> vmList;
 
@@ -82,6 +93,19 @@ public class DatacenterBroker extends SimEntity {
          * is a datacenter id and each value is its characteristics.. */
 	protected Map<Integer, DatacenterCharacteristics> datacenterCharacteristicsList;
 	
+	/** The strategy binding the cloudlets to the VMs, or null for the built-in bindings. */
+	private CloudletBindingStrategy cloudletBindingStrategy;
+
+	/** The number of cloudlets submitted together by the binding strategy. */
+	private int cloudletSubmissionBatchSize = DEFAULT_CLOUDLET_SUBMISSION_BATCH_SIZE;
+
+	/**
+	 * Indicates if the batches of cloudlets of the binding strategy are sent in a
+	 * {@link CloudSimTags#CLOUDLET_SUBMIT_BATCH} event per datacenter instead of an event per
+	 * cloudlet.
+	 */
+	private boolean usingCloudletBatchEvents = true;
+
 	protected double Q;
 	protected double alpha;
 	protected double beta;
@@ -100,11 +124,11 @@ public class DatacenterBroker extends SimEntity {
 	public DatacenterBroker(String name) throws Exception {
 		super(name);
 
-		setVmList(new ArrayList<Vm>());
-		setVmsCreatedList(new ArrayList<Vm>());
-		setCloudletList(new ArrayList<Cloudlet>());
-		setCloudletSubmittedList(new ArrayList<Cloudlet>());
-		setCloudletReceivedList(new ArrayList<Cloudlet>());
+		setVmList(IdIndexedList.<Vm> ofVms());
+		setVmsCreatedList(IdIndexedList.<Vm> ofVms());
+		setCloudletList(IdIndexedList.<Cloudlet> ofCloudlets());
+		setCloudletSubmittedList(IdIndexedList.<Cloudlet> ofCloudlets());
+		setCloudletReceivedList(IdIndexedList.<Cloudlet> ofCloudlets());
 
 		cloudletsSubmitted = 0;
 		setVmsRequested(0);
@@ -120,11 +144,11 @@ public class DatacenterBroker extends SimEntity {
 	public DatacenterBroker(String name, int m, double Q, double alpha, double beta, double gamma, double rho) throws Exception {
 		super(name);
 
-		setVmList(new ArrayList<Vm>());
-		setVmsCreatedList(new ArrayList<Vm>());
-		setCloudletList(new ArrayList<Cloudlet>());
-		setCloudletSubmittedList(new ArrayList<Cloudlet>());
-		setCloudletReceivedList(new ArrayList<Cloudlet>());
+		setVmList(IdIndexedList.<Vm> ofVms());
+		setVmsCreatedList(IdIndexedList.<Vm> ofVms());
+		setCloudletList(IdIndexedList.<Cloudlet> ofCloudlets());
+		setCloudletSubmittedList(IdIndexedList.<Cloudlet> ofCloudlets());
+		setCloudletReceivedList(IdIndexedList.<Cloudlet> ofCloudlets());
 
 		cloudletsSubmitted = 0;
 		setVmsRequested(0);
@@ -206,6 +230,10 @@ public class DatacenterBroker extends SimEntity {
 			case CloudSimTags.CLOUDLET_RETURN:
 				processCloudletReturn(ev);
 				break;
+			// Finished cloudlets returned together
+			case CloudSimTags.CLOUDLET_RETURN_BATCH:
+				processCloudletReturnBatch(ev);
+				break;
 			// if the simulation finishes
 			case CloudSimTags.END_OF_SIMULATION:
 				shutdownEntity();
@@ -318,6 +346,35 @@ public class DatacenterBroker extends SimEntity {
 		Log.printConcatLine(CloudSim.clock(), ": ", getName(), ": Cloudlet ", cloudlet.getCloudletId(),
 				" received");
 		cloudletsSubmitted--;
+		checkCloudletsExecuted();
+	}
+
+	/**
+	 * Process the return of an array of cloudlets with
+	 * {@link CloudSimTags#CLOUDLET_RETURN_BATCH}, as {@link #processCloudletReturn(SimEvent)}
+	 * does for a single cloudlet.
+	 * 
+	 * @param ev a SimEvent object, whose data is an array of cloudlets
+	 */
+	protected void processCloudletReturnBatch(SimEvent ev) {
+		Cloudlet[] cloudlets = (Cloudlet[]) ev.getData();
+		boolean logDebug = Log.isEnabled(Level.DEBUG, LOG_CATEGORY);
+		for (Cloudlet cloudlet : cloudlets) {
+			getCloudletReceivedList().add(cloudlet);
+			if (logDebug) {
+				Log.printConcatLine(CloudSim.clock(), ": ", getName(), ": Cloudlet ",
+						cloudlet.getCloudletId(), " received");
+			}
+		}
+		cloudletsSubmitted -= cloudlets.length;
+		checkCloudletsExecuted();
+	}
+
+	/**
+	 * Finishes the execution once all the cloudlets have been executed, or creates the VMs again
+	 * if the submitted cloudlets have been executed but some cloudlets wait for their VMs.
+	 */
+	private void checkCloudletsExecuted() {
 		if (getCloudletList().size() == 0 && cloudletsSubmitted == 0) { // all cloudlets executed
 			Log.printConcatLine(CloudSim.clock(), ": ", getName(), ": All Cloudlets executed. Finishing...");
 			clearDatacenters();
@@ -382,13 +439,19 @@ public class DatacenterBroker extends SimEntity {
 	}
 
 	/**
-	 * Submit cloudlets to the created VMs.
+	 * Submit cloudlets to the created VMs, with the cloudlet binding strategy if there is one.
 	 * 
 	 * @pre $none
 	 * @post $none
          * @see #submitCloudletList(java.util.List) 
+         * @see #setCloudletBindingStrategy(CloudletBindingStrategy)
 	 */
 	protected void submitCloudlets() {		//cloudlets are mapped to the VMs in RR fashion
+		if (getCloudletBindingStrategy() != null) {
+			submitCloudlets(getCloudletBindingStrategy());
+			return;
+		}
+
 //		submitCloudletsACO();
 		
 //		System.out.println("No of VMs: "+vmsCreatedList.size()+" No of cloudlets: "+cloudletList.size());
@@ -453,6 +516,80 @@ public class DatacenterBroker extends SimEntity {
 			getCloudletList().removeAll(successfullySubmitted);			
 	}
 	
+	/**
+	 * Submits the cloudlets to the created VMs chosen by a binding strategy. The bound cloudlets
+	 * are submitted in batches of {@link #getCloudletSubmissionBatchSize()} cloudlets while the
+	 * strategy runs, and the cloudlets it does not bind keep waiting.
+	 * 
+	 * @param strategy the binding strategy
+	 */
+	protected void submitCloudlets(CloudletBindingStrategy strategy) {
+		final List<Cloudlet> batch = new ArrayList<Cloudlet>();
+		final Set<Cloudlet> submitted = new HashSet<Cloudlet>();
+		strategy.bind(getCloudletList().iterator(), getVmsCreatedList(),
+				new CloudletBindingStrategy.Sink() {
+
+					@Override
+					public void bind(Cloudlet cloudlet, Vm vm) {
+						cloudlet.setVmId(vm.getId());
+						batch.add(cloudlet);
+						submitted.add(cloudlet);
+						if (batch.size() >= getCloudletSubmissionBatchSize()) {
+							submitCloudletBatch(batch);
+							batch.clear();
+						}
+					}
+				});
+		if (!batch.isEmpty()) {
+			submitCloudletBatch(batch);
+		}
+
+		// remove submitted cloudlets from waiting list
+		if (submitted.size() == getCloudletList().size()) {
+			getCloudletList().clear();
+		} else if (!submitted.isEmpty()) {
+			getCloudletList().removeAll(submitted);
+		}
+	}
+
+	/**
+	 * Submits a batch of cloudlets to the datacenters of their VMs, in a
+	 * {@link CloudSimTags#CLOUDLET_SUBMIT_BATCH} event per datacenter if
+	 * {@link #isUsingCloudletBatchEvents()}, or else in a {@link CloudSimTags#CLOUDLET_SUBMIT}
+	 * event per cloudlet.
+	 * 
+	 * @param batch the cloudlets, bound to created VMs
+	 */
+	protected void submitCloudletBatch(List<Cloudlet> batch) {
+		boolean logDebug = Log.isEnabled(Level.DEBUG, LOG_CATEGORY);
+		Map<Integer, List<Cloudlet>> cloudletsByDatacenter =
+				new LinkedHashMap<Integer, List<Cloudlet>>();
+		for (Cloudlet cloudlet : batch) {
+			if (logDebug) {
+				Log.printConcatLine(CloudSim.clock(), ": ", getName(), ": Sending cloudlet ",
+						cloudlet.getCloudletId(), " to VM #", cloudlet.getVmId());
+			}
+			Integer datacenterId = getVmsToDatacentersMap().get(cloudlet.getVmId());
+			if (isUsingCloudletBatchEvents()) {
+				List<Cloudlet> cloudlets = cloudletsByDatacenter.get(datacenterId);
+				if (cloudlets == null) {
+					cloudlets = new ArrayList<Cloudlet>();
+					cloudletsByDatacenter.put(datacenterId, cloudlets);
+				}
+				cloudlets.add(cloudlet);
+			} else {
+				sendNow(datacenterId, CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
+			}
+			cloudletsSubmitted++;
+			getCloudletSubmittedList().add(cloudlet);
+		}
+		for (Map.Entry<Integer, List<Cloudlet>> entry : cloudletsByDatacenter.entrySet()) {
+			List<Cloudlet> cloudlets = entry.getValue();
+			sendNow(entry.getKey(), CloudSimTags.CLOUDLET_SUBMIT_BATCH,
+					cloudlets.toArray(new Cloudlet[cloudlets.size()]));
+		}
+	}
+
 	protected void submitCloudletsSaturation(int vmId) {
 		int i;
 		Random rand=new Random();
@@ -484,6 +621,13 @@ public class DatacenterBroker extends SimEntity {
 		System.out.println("Cost of communication is: "+ComCost);	
 	}
 	
+	/**
+	 * Binds consecutive blocks of the cloudlets to the VMs.
+	 * 
+	 * @deprecated Use {@link #setCloudletBindingStrategy(CloudletBindingStrategy)} with a
+	 *             {@link BlockBinding} instead.
+	 */
+	@Deprecated
 	protected void submitCloudletsKhalidFCFS() {
 		int i,j;
 		int limit=cloudletList.size()/vmList.size();		//number of cloudlets on each VM		
@@ -628,6 +772,13 @@ public class DatacenterBroker extends SimEntity {
 		return index;
 	}
 	
+	/**
+	 * Binds each cloudlet to the VM that is ready first.
+	 * 
+	 * @deprecated Use {@link #setCloudletBindingStrategy(CloudletBindingStrategy)} with an
+	 *             {@link EarliestReadyTimeBinding} instead.
+	 */
+	@Deprecated
 	protected void submitCloudletsKhalidRL() {
 		double times[]=new double[vmList.size()];
 		times[0]=64.52;
@@ -867,6 +1018,16 @@ public class DatacenterBroker extends SimEntity {
 		
 	}
 	
+	/**
+	 * Binds clusters of consecutive cloudlets to the VMs on which they complete first.
+	 * 
+	 * @deprecated Use {@link #setCloudletBindingStrategy(CloudletBindingStrategy)} with a
+	 *             {@link ClusterBinding} instead. The bindings may differ: the binding sums the
+	 *             lengths of the cloudlets of each cluster, whereas this method takes the length
+	 *             of the first cloudlet times 100 for every cluster and truncates the execution
+	 *             times to integers.
+	 */
+	@Deprecated
 	protected void submitCloudletsKhalidCluster() {		//cloudlets are mapped to the VMs in RR fashion
 				
 		int totalCloudlets=getCloudletList().size();
@@ -946,6 +1107,13 @@ public class DatacenterBroker extends SimEntity {
 	
 	//ACO funtion from github
 	//does not require the remaining portion of the original submitCloudlets()
+	/**
+	 * Binds the cloudlets to the VMs chosen by an ant colony, then submits them.
+	 * 
+	 * @deprecated Use {@link #setCloudletBindingStrategy(CloudletBindingStrategy)} with an
+	 *             {@link LBACOBinding} instead.
+	 */
+	@Deprecated
 	protected void submitCloudletsACO() {
 		// int vmIndex = 0;
 		List<Cloudlet> clList = getCloudletList();
@@ -995,24 +1163,31 @@ public class DatacenterBroker extends SimEntity {
 	//Display the contents of the cost Matrix
 	protected void displayCostMatrix(double costMatrix[][])
 	{
-		System.out.println("\nContents of the CostMatrix are");
+		Log.printLine("\nContents of the CostMatrix are");
 		for(int i=0;i<cloudletList.size();i++)
 		{
 			for(int j=0;j<vmsCreatedList.size();j++)
 			{
-				System.out.print(costMatrix[i][j]+"\t");
+				Log.printConcat(costMatrix[i][j], "\t");
 			}
-			System.out.println();
+			Log.printLine();
 		}
 	}
 	
 	
+	/**
+	 * Binds the cloudlets to the VMs with the Min-Min heuristic.
+	 * 
+	 * @deprecated Use {@link #setCloudletBindingStrategy(CloudletBindingStrategy)} with a
+	 *             {@link MinMinBinding} instead.
+	 */
+	@Deprecated
 	protected void submitCloudletsMinMin() {	
 		int row,col,i,j;
 		int index, value;
 		int result[]=new int[cloudletList.size()];
 		
-		System.out.println("No of VMs: "+vmsCreatedList.size()+" No of cloudlets: "+cloudletList.size());
+		Log.printConcatLine("No of VMs: ", vmsCreatedList.size(), " No of cloudlets: ", cloudletList.size());
 		row=cloudletList.size();
 		col=vmsCreatedList.size();
 		
@@ -1068,10 +1243,10 @@ public class DatacenterBroker extends SimEntity {
 //			displayCostMatrix(costMatrix);
 		}
 		
-		System.out.println("Final resultant matrix is: ");
+		Log.printLine("Final resultant matrix is: ");
 		for(i=0;i<cloudletList.size();i++) {
 			bindCloudletToVm(cloudletList.get(i).getCloudletId(), result[i]);
-			System.out.println("Cloudlet "+cloudletList.get(i).getCloudletId()+" has been bound to VM "+result[i]);
+			Log.printConcatLine("Cloudlet ", cloudletList.get(i).getCloudletId(), " has been bound to VM ", result[i]);
 			//System.out.println("  "+result[i]+"("+costMatrix[i][result[i]]+")\t");
 		}
 
@@ -1089,20 +1264,27 @@ public class DatacenterBroker extends SimEntity {
 					}
 				}
 		}
-		System.out.println("Count of Jobs on each machine");
+		Log.printLine("Count of Jobs on each machine");
 		for(i=0;i<JobCount.length;i++) {
-			System.out.println("Jobs on Fog Device "+i+" = "+JobCount[i]);
+			Log.printConcatLine("Jobs on Fog Device ", i, " = ", JobCount[i]);
 		}
-		System.out.println("Cost of communication is: "+ComCost);
+		Log.printConcatLine("Cost of communication is: ", ComCost);
 	}
 	
 	
+	/**
+	 * Binds the cloudlets to the VMs with the Max-Min heuristic.
+	 * 
+	 * @deprecated Use {@link #setCloudletBindingStrategy(CloudletBindingStrategy)} with a
+	 *             {@link MinMinBinding} instead.
+	 */
+	@Deprecated
 	protected void submitCloudletsMaxMin() {		//remaining part of the main function (submitcloudlets) should be executed
 		int row,col,i,j;
 		int index, value;
 		int result[]=new int[cloudletList.size()];
 		
-		System.out.println("No of VMs: "+vmsCreatedList.size()+" No of cloudlets: "+cloudletList.size());
+		Log.printConcatLine("No of VMs: ", vmsCreatedList.size(), " No of cloudlets: ", cloudletList.size());
 		row=cloudletList.size();
 		col=vmsCreatedList.size();
 		
@@ -1124,7 +1306,7 @@ public class DatacenterBroker extends SimEntity {
 			}
 		}	
 		
-		System.out.println("Cost matrix before implementation of the algo is:");
+		Log.printLine("Cost matrix before implementation of the algo is:");
 		displayCostMatrix(costMatrix);
 		
 		for(i=0;i<row;i++) {
@@ -1147,10 +1329,10 @@ public class DatacenterBroker extends SimEntity {
 //			displayCostMatrix(costMatrix);
 		}
 		
-		System.out.println("Final resultant matrix is: ");
+		Log.printLine("Final resultant matrix is: ");
 		for(i=0;i<cloudletList.size();i++) {
 			bindCloudletToVm(cloudletList.get(i).getCloudletId(), result[i]);
-			System.out.println("Cloudlet "+cloudletList.get(i).getCloudletId()+" has been bound to VM "+result[i]);
+			Log.printConcatLine("Cloudlet ", cloudletList.get(i).getCloudletId(), " has been bound to VM ", result[i]);
 		}
 	}
 	
@@ -1192,6 +1374,13 @@ public class DatacenterBroker extends SimEntity {
 
 	//rank based function where the cloudlets are sorted first and then mapped sequentially
 	//larger cloudlets assume higher priority
+	/**
+	 * Submits the cloudlets by increasing length to the VMs in turn.
+	 * 
+	 * @deprecated Use {@link #setCloudletBindingStrategy(CloudletBindingStrategy)} with a
+	 *             {@link SortedRoundRobinBinding} instead.
+	 */
+	@Deprecated
 	protected void submitCloudletsPriority() {		//I have created this function
 		int vmIndex = 0;
 		List<Cloudlet> successfullySubmitted = new ArrayList<Cloudlet>();
@@ -1254,6 +1443,15 @@ public class DatacenterBroker extends SimEntity {
 	
 	
 	//rank based function where the cloudlets and VMs are sorted first and then mapped sequentially
+	/**
+	 * Submits the cloudlets by increasing length to the VMs in turn, by increasing MIPS.
+	 * 
+	 * @deprecated Use {@link #setCloudletBindingStrategy(CloudletBindingStrategy)} with a
+	 *             {@link SortedRoundRobinBinding} sorting the VMs instead. The bindings may
+	 *             differ: the binding sorts the VMs by MIPS times number of PEs, whereas this
+	 *             method sorts them by {@link Vm#getCurrentRequestedTotalMips()}.
+	 */
+	@Deprecated
 	protected void submitCloudletsModified() {		//I have created this function
 		int vmIndex = 0;
 		List<Cloudlet> successfullySubmitted = new ArrayList<Cloudlet>();
@@ -1589,4 +1787,64 @@ public class DatacenterBroker extends SimEntity {
 		this.datacenterRequestedIdsList = datacenterRequestedIdsList;
 	}
 
+	/**
+	 * Gets the strategy binding the cloudlets to the VMs.
+	 * 
+	 * @return the binding strategy, or null for the built-in bindings
+	 */
+	public CloudletBindingStrategy getCloudletBindingStrategy() {
+		return cloudletBindingStrategy;
+	}
+
+	/**
+	 * Sets the strategy binding the cloudlets to the VMs, instead of the built-in bindings of
+	 * {@link #submitCloudlets()}.
+	 * 
+	 * @param cloudletBindingStrategy the binding strategy, or null for the built-in bindings
+	 */
+	public void setCloudletBindingStrategy(CloudletBindingStrategy cloudletBindingStrategy) {
+		this.cloudletBindingStrategy = cloudletBindingStrategy;
+	}
+
+	/**
+	 * Gets the number of cloudlets submitted together by the binding strategy.
+	 * 
+	 * @return the batch size
+	 */
+	public int getCloudletSubmissionBatchSize() {
+		return cloudletSubmissionBatchSize;
+	}
+
+	/**
+	 * Sets the number of cloudlets submitted together by the binding strategy.
+	 * 
+	 * @param cloudletSubmissionBatchSize the batch size
+	 */
+	public void setCloudletSubmissionBatchSize(int cloudletSubmissionBatchSize) {
+		this.cloudletSubmissionBatchSize = cloudletSubmissionBatchSize;
+	}
+
+	/**
+	 * Checks if the batches of cloudlets of the binding strategy are sent in a single event per
+	 * datacenter.
+	 * 
+	 * @return true, if the cloudlets are sent with {@link CloudSimTags#CLOUDLET_SUBMIT_BATCH}
+	 */
+	public boolean isUsingCloudletBatchEvents() {
+		return usingCloudletBatchEvents;
+	}
+
+	/**
+	 * Sets if the batches of cloudlets of the binding strategy are sent in a single event per
+	 * datacenter. The datacenters then return the finished cloudlets of the broker in batches as
+	 * well.
+	 * 
+	 * @param usingCloudletBatchEvents true to send the cloudlets with
+	 *            {@link CloudSimTags#CLOUDLET_SUBMIT_BATCH}; false to send them with
+	 *            {@link CloudSimTags#CLOUDLET_SUBMIT}
+	 */
+	public void setUsingCloudletBatchEvents(boolean usingCloudletBatchEvents) {
+		this.usingCloudletBatchEvents = usingCloudletBatchEvents;
+	}
+
 }
@@ -0,0 +1,75 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.cloudbus.cloudsim.lists.VmList;
+
+/**
+ * A {@link CloudletBindingStrategy} binding each cloudlet to the VM that is ready first, as
+ * {@link DatacenterBroker#submitCloudletsKhalidRL()} does. The ready time of a VM starts from a
+ * given initial ready time, such as the time it needs to finish its previous work, and grows by
+ * the execution time of each cloudlet bound to it, which is the length of the cloudlet divided
+ * by the MIPS of the VM. Ties are broken by the position of the VM in the list.
+ * <p>
+ * A cloudlet already bound to a VM stays bound to it, or is not bound if the VM has not been
+ * created, as with {@link RoundRobinBinding}. The cloudlets are bound one at a time as they are
+ * read.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class EarliestReadyTimeBinding implements CloudletBindingStrategy {
+
+	/** The initial ready time of each VM, by position in the VM list. */
+	private final double[] initialReadyTimes;
+
+	/**
+	 * Instantiates a new earliest ready time binding.
+	 *
+	 * @param initialReadyTimes the initial ready time of the VMs, by position in the VM list;
+	 *            the other VMs are ready at time 0
+	 */
+	public EarliestReadyTimeBinding(double... initialReadyTimes) {
+		this.initialReadyTimes = initialReadyTimes.clone();
+	}
+
+	@Override
+	public void bind(Iterator<? extends Cloudlet> cloudlets, List<? extends Vm> vms, Sink sink) {
+		double[] readyTimes = new double[vms.size()];
+		System.arraycopy(
+				initialReadyTimes,
+				0,
+				readyTimes,
+				0,
+				Math.min(initialReadyTimes.length, readyTimes.length));
+		while (cloudlets.hasNext()) {
+			Cloudlet cloudlet = cloudlets.next();
+			int vmIndex;
+			if (cloudlet.getVmId() == -1) {
+				vmIndex = 0;
+				for (int i = 1; i < readyTimes.length; i++) {
+					if (readyTimes[i] < readyTimes[vmIndex]) {
+						vmIndex = i;
+					}
+				}
+			} else {
+				vmIndex = vms.indexOf(VmList.getById(vms, cloudlet.getVmId()));
+				if (vmIndex < 0) {
+					continue;
+				}
+			}
+			Vm vm = vms.get(vmIndex);
+			readyTimes[vmIndex] += cloudlet.getCloudletLength() / vm.getMips();
+			sink.bind(cloudlet, vm);
+		}
+	}
+
+}
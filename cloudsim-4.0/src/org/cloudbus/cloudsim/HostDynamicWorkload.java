@@ -9,9 +9,9 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
+import org.cloudbus.cloudsim.Log.Level;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.lists.PeList;
 import org.cloudbus.cloudsim.provisioners.BwProvisioner;
@@ -19,20 +19,27 @@ import org.cloudbus.cloudsim.provisioners.RamProvisioner;
 
 /**
  * A host supporting dynamic workloads and performance degradation.
+ * <p>
+ * The processing of the VMs is logged in the {@link #LOG_CATEGORY} category: the allocation of
+ * each VM at the {@link Level#DEBUG} level, the under allocation of a VM at the
+ * {@link Level#WARNING} level and the migrations at the {@link Level#INFO} level.
  * 
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 2.0
  */
 public class HostDynamicWorkload extends Host {
 
+	/** The log category of the hosts supporting dynamic workloads. */
+	public static final String LOG_CATEGORY = HostDynamicWorkload.class.getName();
+
 	/** The utilization mips. */
 	private double utilizationMips;
 
 	/** The previous utilization mips. */
 	private double previousUtilizationMips;
 
-	/** The host utilization state history. */
-	private final List<HostStateHistoryEntry> stateHistory = new LinkedList<HostStateHistoryEntry>();
+	/** The host utilization state history, whose flag indicates if the host is active. */
+	private final StateHistoryStore stateHistoryStore = new StateHistoryStore(true);
 
 	/**
 	 * Instantiates a new host.
@@ -71,11 +78,15 @@ public class HostDynamicWorkload extends Host {
 			getVmScheduler().allocatePesForVm(vm, vm.getCurrentRequestedMips());
 		}
 
+		boolean logDebug = Log.isEnabled(Level.DEBUG, LOG_CATEGORY);
+		boolean logInfo = Log.isEnabled(Level.INFO, LOG_CATEGORY);
+		boolean logWarning = Log.isEnabled(Level.WARNING, LOG_CATEGORY);
+
 		for (Vm vm : getVmList()) {
 			double totalRequestedMips = vm.getCurrentRequestedTotalMips();
 			double totalAllocatedMips = getVmScheduler().getTotalAllocatedMipsForVm(vm);
 
-			if (!Log.isDisabled()) {
+			if (logDebug) {
 				Log.formatLine(
 						"%.2f: [Host #" + getId() + "] Total allocated MIPS for VM #" + vm.getId()
 								+ " (Host #" + vm.getHost().getId()
@@ -100,10 +111,12 @@ public class HostDynamicWorkload extends Host {
 			}
 
 			if (getVmsMigratingIn().contains(vm)) {
-				Log.formatLine("%.2f: [Host #" + getId() + "] VM #" + vm.getId()
-						+ " is being migrated to Host #" + getId(), CloudSim.clock());
+				if (logInfo) {
+					Log.formatLine("%.2f: [Host #" + getId() + "] VM #" + vm.getId()
+							+ " is being migrated to Host #" + getId(), CloudSim.clock());
+				}
 			} else {
-				if (totalAllocatedMips + 0.1 < totalRequestedMips) {
+				if (logWarning && totalAllocatedMips + 0.1 < totalRequestedMips) {
 					Log.formatLine("%.2f: [Host #" + getId() + "] Under allocated MIPS for VM #" + vm.getId()
 							+ ": %.2f", CloudSim.clock(), totalRequestedMips - totalAllocatedMips);
 				}
@@ -115,9 +128,11 @@ public class HostDynamicWorkload extends Host {
 						(vm.isInMigration() && !getVmsMigratingIn().contains(vm)));
 
 				if (vm.isInMigration()) {
-					Log.formatLine(
-							"%.2f: [Host #" + getId() + "] VM #" + vm.getId() + " is in migration",
-							CloudSim.clock());
+					if (logInfo) {
+						Log.formatLine(
+								"%.2f: [Host #" + getId() + "] VM #" + vm.getId() + " is in migration",
+								CloudSim.clock());
+					}
 					totalAllocatedMips /= 0.9; // performance degradation due to migration - 10%
 				}
 			}
@@ -264,12 +279,24 @@ public class HostDynamicWorkload extends Host {
 	}
 
 	/**
-	 * Gets the host state history.
+	 * Gets the host state history, as a read-only view of {@link #getStateHistoryStore()} whose
+	 * entries are created when they are read.
 	 * 
 	 * @return the state history
 	 */
 	public List<HostStateHistoryEntry> getStateHistory() {
-		return stateHistory;
+		return stateHistoryStore.asHostEntries();
+	}
+
+	/**
+	 * Gets the store of the host state history, whose flag indicates if the host is active. It
+	 * also holds the aggregates of the history, which remain available when the entries are not
+	 * kept.
+	 * 
+	 * @return the state history store
+	 */
+	public StateHistoryStore getStateHistoryStore() {
+		return stateHistoryStore;
 	}
 
 	/**
@@ -283,20 +310,7 @@ public class HostDynamicWorkload extends Host {
 	public
 			void
 			addStateHistoryEntry(double time, double allocatedMips, double requestedMips, boolean isActive) {
-
-		HostStateHistoryEntry newState = new HostStateHistoryEntry(
-				time,
-				allocatedMips,
-				requestedMips,
-				isActive);
-		if (!getStateHistory().isEmpty()) {
-			HostStateHistoryEntry previousState = getStateHistory().get(getStateHistory().size() - 1);
-			if (previousState.getTime() == time) {
-				getStateHistory().set(getStateHistory().size() - 1, newState);
-				return;
-			}
-		}
-		getStateHistory().add(newState);
+		getStateHistoryStore().add(time, allocatedMips, requestedMips, isActive);
 	}
 
 }
@@ -0,0 +1,108 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Arrays;
+
+/**
+ * A {@link BatchedAssignmentBinding} solving each batch optimally with the Hungarian algorithm,
+ * in its shortest augmenting path form with potentials. Unlike {@link HungarianAlgorithm}, which
+ * pads the cost matrix to a square one, it works on the rectangular b x m cost matrix of a batch
+ * of b cloudlets and m VMs, and takes O(b<sup>2</sup> m) time per batch, so binding n cloudlets
+ * takes O(n b m) time.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class HungarianBatchBinding extends BatchedAssignmentBinding {
+
+	/** The potential of each row, from 1, the row 0 being unused. */
+	private double[] rowPotentials;
+
+	/** The potential of each column, from 1, the column 0 standing for the row being added. */
+	private double[] colPotentials;
+
+	/** The row matched to each column, from 1, or 0 if the column is free. */
+	private int[] rowByCol;
+
+	/** The previous column on the shortest path to each column. */
+	private int[] previousCols;
+
+	/** The smallest reduced cost to reach each column. */
+	private double[] minCosts;
+
+	/** Indicates the columns on the shortest path tree. */
+	private boolean[] visited;
+
+	@Override
+	protected void initialize(int batchSize, int vmCount) {
+		rowPotentials = new double[batchSize + 1];
+		colPotentials = new double[vmCount + 1];
+		rowByCol = new int[vmCount + 1];
+		previousCols = new int[vmCount + 1];
+		minCosts = new double[vmCount + 1];
+		visited = new boolean[vmCount + 1];
+	}
+
+	@Override
+	protected void assign(double[] costs, int rows, int cols, int[] assignment) {
+		Arrays.fill(rowPotentials, 0, rows + 1, 0);
+		Arrays.fill(colPotentials, 0);
+		Arrays.fill(rowByCol, 0);
+		for (int row = 1; row <= rows; row++) {
+			rowByCol[0] = row;
+			int col = 0;
+			Arrays.fill(minCosts, Double.POSITIVE_INFINITY);
+			Arrays.fill(visited, false);
+			do {
+				visited[col] = true;
+				int currentRow = rowByCol[col];
+				int offset = (currentRow - 1) * cols - 1;
+				double delta = Double.POSITIVE_INFINITY;
+				int nextCol = 0;
+				for (int j = 1; j <= cols; j++) {
+					if (!visited[j]) {
+						double reducedCost = costs[offset + j] - rowPotentials[currentRow]
+								- colPotentials[j];
+						if (reducedCost < minCosts[j]) {
+							minCosts[j] = reducedCost;
+							previousCols[j] = col;
+						}
+						if (minCosts[j] < delta) {
+							delta = minCosts[j];
+							nextCol = j;
+						}
+					}
+				}
+				for (int j = 0; j <= cols; j++) {
+					if (visited[j]) {
+						rowPotentials[rowByCol[j]] += delta;
+						colPotentials[j] -= delta;
+					} else {
+						minCosts[j] -= delta;
+					}
+				}
+				col = nextCol;
+			} while (rowByCol[col] != 0);
+
+			// augment along the shortest path
+			do {
+				int previousCol = previousCols[col];
+				rowByCol[col] = rowByCol[previousCol];
+				col = previousCol;
+			} while (col != 0);
+		}
+
+		for (int j = 1; j <= cols; j++) {
+			if (rowByCol[j] != 0) {
+				assignment[rowByCol[j] - 1] = j - 1;
+			}
+		}
+	}
+
+}
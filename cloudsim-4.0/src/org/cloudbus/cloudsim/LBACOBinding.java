@@ -0,0 +1,378 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Binds cloudlets to VMs with the load balancing ant colony optimization of {@link LBACO}. In
+ * each iteration, the cloudlets are bound in turn: every ant votes for a VM with a probability
+ * proportional to <tt>pheromone^alpha * capacity^beta * lbf^gamma</tt>, where the capacity of a
+ * VM is its number of PEs times its MIPS plus its bandwidth, and its load balance factor
+ * <tt>lbf</tt> is the sum of the expected completion times of the cloudlet on all the VMs divided
+ * by its completion time on the VM. The cloudlet is bound to the VM with the most votes, whose
+ * pheromone then evaporates by <tt>rho</tt> and gets <tt>Q</tt> divided by the execution time of
+ * the cloudlet. The bindings of the last iteration are returned.
+ * <p>
+ * Unlike {@link LBACO}, which keeps its values in maps of boxed numbers, the execution times are
+ * kept in a matrix of primitives and the constant <tt>capacity^beta</tt> and
+ * <tt>pheromone^alpha</tt> terms are only computed again when a pheromone changes, so that a
+ * cloudlet costs a single power per VM, or none when <tt>gamma</tt> is 1. Each ant draws its
+ * vote from the cumulative probabilities with a binary search.
+ * <p>
+ * The ants are split into groups of {@link #setAntsPerGroup(int) a given size}, each with its
+ * own random generator seeded from the seed of the binding and the position of the group, so the
+ * bindings only depend on the seed and the size of the groups. The groups can vote in parallel
+ * on a {@link ForkJoinPool} set with {@link #setPool(ForkJoinPool)}, which gives the same
+ * bindings as voting sequentially. There is one group by default, unless there are more than
+ * {@link #DEFAULT_ANTS_PER_GROUP} ants, so smaller groups must be set for the pool to be used.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class LBACOBinding extends CloudletListBinding {
+
+	/** The default number of ants voting with the same random generator. */
+	public static final int DEFAULT_ANTS_PER_GROUP = 1024;
+
+	/** The default number of iterations. */
+	public static final int DEFAULT_ITERATIONS = 100;
+
+	/** The number of ants voting for the VM of each cloudlet. */
+	private final int m;
+
+	/** The pheromone deposited on the VM of a cloudlet, divided by its execution time. */
+	private final double Q;
+
+	/** The weight of the pheromones. */
+	private final double alpha;
+
+	/** The weight of the capacities of the VMs. */
+	private final double beta;
+
+	/** The weight of the load balance factors. */
+	private final double gamma;
+
+	/** The evaporation rate of the pheromones. */
+	private final double rho;
+
+	/** The seed of the random generators of the ants. */
+	private final long seed;
+
+	/** The number of iterations. */
+	private int iterations = DEFAULT_ITERATIONS;
+
+	/** The number of ants voting with the same random generator. */
+	private int antsPerGroup = DEFAULT_ANTS_PER_GROUP;
+
+	/** The pool where the ants vote in parallel, or null to vote sequentially. */
+	private ForkJoinPool pool;
+
+	/**
+	 * Instantiates a new LBACO binding.
+	 *
+	 * @param m the number of ants
+	 * @param Q the pheromone deposit
+	 * @param alpha the weight of the pheromones
+	 * @param beta the weight of the capacities of the VMs
+	 * @param gamma the weight of the load balance factors
+	 * @param rho the evaporation rate of the pheromones
+	 * @param seed the seed of the random generators of the ants
+	 */
+	public LBACOBinding(int m, double Q, double alpha, double beta, double gamma, double rho, long seed) {
+		if (m <= 0) {
+			throw new IllegalArgumentException("There must be at least one ant");
+		}
+		this.m = m;
+		this.Q = Q;
+		this.alpha = alpha;
+		this.beta = beta;
+		this.gamma = gamma;
+		this.rho = rho;
+		this.seed = seed;
+	}
+
+	/**
+	 * Binds cloudlets to VMs.
+	 *
+	 * @param cloudlets the cloudlets, in the order they are bound
+	 * @param vms the VMs
+	 * @return the position in the VM list of the VM of each cloudlet
+	 */
+	@Override
+	public int[] bind(List<? extends Cloudlet> cloudlets, List<? extends Vm> vms) {
+		if (vms.isEmpty()) {
+			throw new IllegalArgumentException("There must be at least one VM");
+		}
+		int tasks = cloudlets.size();
+		int vmCount = vms.size();
+		int[] result = new int[tasks];
+
+		double[] execTimes = new double[tasks * vmCount];
+		for (int task = 0; task < tasks; task++) {
+			Cloudlet cloudlet = cloudlets.get(task);
+			for (int i = 0; i < vmCount; i++) {
+				execTimes[task * vmCount + i] = getExecutionTime(vms.get(i), cloudlet);
+			}
+		}
+
+		double[] capacityTerms = new double[vmCount];
+		double[] pheromones = new double[vmCount];
+		double[] weights = new double[vmCount];
+		for (int i = 0; i < vmCount; i++) {
+			Vm vm = vms.get(i);
+			double capacity = vm.getNumberOfPes() * vm.getMips() + vm.getBw();
+			capacityTerms[i] = Math.pow(capacity, beta);
+			pheromones[i] = capacity;
+			weights[i] = Math.pow(pheromones[i], alpha) * capacityTerms[i];
+		}
+
+		Vote vote = new Vote(vmCount);
+		double[] eet = new double[vmCount];
+		double[] eetTemp = new double[vmCount];
+		int[] votes = new int[vmCount];
+		for (int t = 0; t < iterations; t++) {
+			Arrays.fill(eet, 0);
+			for (int task = 0; task < tasks; task++) {
+				int row = task * vmCount;
+				double total = 0;
+				for (int i = 0; i < vmCount; i++) {
+					eetTemp[i] = eet[i] + execTimes[row + i];
+					total += eetTemp[i];
+				}
+
+				double cumulative = 0;
+				for (int i = 0; i < vmCount; i++) {
+					double lbf = total / eetTemp[i];
+					cumulative += weights[i] * (gamma == 1 ? lbf : Math.pow(lbf, gamma));
+					vote.cumulativeProbabilities[i] = cumulative;
+				}
+				vote(vote);
+
+				Arrays.fill(votes, 0);
+				int optVm = 0;
+				int maxVotes = 0;
+				for (int k = 0; k < m; k++) {
+					int vm = vote.choices[k];
+					if (++votes[vm] > maxVotes || (votes[vm] == maxVotes && vm < optVm)) {
+						maxVotes = votes[vm];
+						optVm = vm;
+					}
+				}
+				result[task] = optVm;
+
+				double execTime = execTimes[row + optVm];
+				eet[optVm] += execTime;
+				pheromones[optVm] = pheromones[optVm] * (1 - rho) + Q / execTime;
+				weights[optVm] = Math.pow(pheromones[optVm], alpha) * capacityTerms[optVm];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Makes all the ants vote, in parallel if there is a pool and more than one group.
+	 *
+	 * @param vote the probabilities and choices of the ants
+	 */
+	private void vote(Vote vote) {
+		if (getPool() == null || vote.groups.size() == 1) {
+			for (AntGroup group : vote.groups) {
+				group.call();
+			}
+			return;
+		}
+		try {
+			for (Future<Void> future : getPool().invokeAll(vote.groups)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while the ants vote", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Gets the execution time of a cloudlet on a VM.
+	 *
+	 * @param vm the VM
+	 * @param cloudlet the cloudlet
+	 * @return the execution time
+	 */
+	protected double getExecutionTime(Vm vm, Cloudlet cloudlet) {
+		return cloudlet.getCloudletLength() / (vm.getNumberOfPes() * vm.getMips());
+	}
+
+	/**
+	 * Gets the number of ants.
+	 *
+	 * @return the number of ants
+	 */
+	public int getM() {
+		return m;
+	}
+
+	/**
+	 * Gets the seed of the random generators of the ants.
+	 *
+	 * @return the seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Gets the number of iterations.
+	 *
+	 * @return the number of iterations
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Sets the number of iterations.
+	 *
+	 * @param iterations the number of iterations
+	 */
+	public void setIterations(int iterations) {
+		this.iterations = iterations;
+	}
+
+	/**
+	 * Gets the number of ants voting with the same random generator.
+	 *
+	 * @return the number of ants of a group
+	 */
+	public int getAntsPerGroup() {
+		return antsPerGroup;
+	}
+
+	/**
+	 * Sets the number of ants voting with the same random generator. The groups are the units of
+	 * work voting in parallel, and the random generator of each group is seeded from its
+	 * position, so the bindings change with the size of the groups.
+	 *
+	 * @param antsPerGroup the number of ants of a group
+	 */
+	public void setAntsPerGroup(int antsPerGroup) {
+		if (antsPerGroup <= 0) {
+			throw new IllegalArgumentException("There must be at least one ant per group");
+		}
+		this.antsPerGroup = antsPerGroup;
+	}
+
+	/**
+	 * Gets the pool where the ants vote in parallel.
+	 *
+	 * @return the pool, or null if the ants vote sequentially
+	 */
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Sets the pool where the ants vote in parallel. The bindings are the same with or without
+	 * a pool.
+	 *
+	 * @param pool the pool, or null to vote sequentially
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * The cumulative probabilities of the VMs for the cloudlet being bound, and the VM chosen by
+	 * each ant.
+	 */
+	private final class Vote {
+
+		/** The cumulative probabilities of the VMs, not normalized. */
+		private final double[] cumulativeProbabilities;
+
+		/** The position of the VM chosen by each ant. */
+		private final int[] choices = new int[m];
+
+		/** The groups of ants. */
+		private final List<AntGroup> groups = new ArrayList<AntGroup>();
+
+		Vote(int vmCount) {
+			cumulativeProbabilities = new double[vmCount];
+			int antsPerGroup = getAntsPerGroup();
+			for (int from = 0, group = 0; from < m; from += antsPerGroup, group++) {
+				Random random = new Random(seed + group * 0x9E3779B97F4A7C15L);
+				groups.add(new AntGroup(this, random, from, Math.min(m, from + antsPerGroup)));
+			}
+		}
+
+	}
+
+	/**
+	 * A group of ants voting with the same random generator.
+	 */
+	private static final class AntGroup implements Callable<Void> {
+
+		/** The vote of the ants. */
+		private final Vote vote;
+
+		/** The random generator of the ants. */
+		private final Random random;
+
+		/** The first ant of the group. */
+		private final int from;
+
+		/** The ant after the last one of the group. */
+		private final int to;
+
+		AntGroup(Vote vote, Random random, int from, int to) {
+			this.vote = vote;
+			this.random = random;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public Void call() {
+			double[] cumulativeProbabilities = vote.cumulativeProbabilities;
+			int last = cumulativeProbabilities.length - 1;
+			double total = cumulativeProbabilities[last];
+			for (int k = from; k < to; k++) {
+				double x = random.nextDouble() * total;
+				int low = 0;
+				int high = last;
+				while (low < high) {
+					int middle = (low + high) >>> 1;
+					if (cumulativeProbabilities[middle] > x) {
+						high = middle;
+					} else {
+						low = middle + 1;
+					}
+				}
+				vote.choices[k] = low;
+			}
+			return null;
+		}
+
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.cloudbus.cloudsim.CloudletBindingFixtures.createVms;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class LBACOBindingTest {
+
+	@Test
+	public void testSameSeedSameBindings() {
+		List<Cloudlet> cloudlets = createCloudlets(100);
+		List<Vm> vms = createVms(1000, 500, 250, 2000);
+		int[] expected = createBinding(10, 1).bind(cloudlets, vms);
+		assertArrayEquals(expected, createBinding(10, 1).bind(cloudlets, vms));
+		for (int vm : expected) {
+			assertTrue(vm >= 0 && vm < vms.size());
+		}
+	}
+
+	@Test
+	public void testParallelBindings() {
+		List<Cloudlet> cloudlets = createCloudlets(50);
+		List<Vm> vms = createVms(1000, 500, 250, 2000, 1500);
+		int ants = LBACOBinding.DEFAULT_ANTS_PER_GROUP * 3 + 5;
+		int[] expected = createBinding(ants, 7).bind(cloudlets, vms);
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			LBACOBinding binding = createBinding(ants, 7);
+			binding.setPool(pool);
+			assertArrayEquals(expected, binding.bind(cloudlets, vms));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testParallelBindingsWithSmallGroups() {
+		List<Cloudlet> cloudlets = createCloudlets(50);
+		List<Vm> vms = createVms(1000, 500, 250, 2000, 1500);
+		LBACOBinding sequential = createBinding(100, 7);
+		sequential.setAntsPerGroup(8);
+		int[] expected = sequential.bind(cloudlets, vms);
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			LBACOBinding binding = createBinding(100, 7);
+			binding.setAntsPerGroup(8);
+			binding.setPool(pool);
+			assertArrayEquals(expected, binding.bind(cloudlets, vms));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testSingleVm() {
+		int[] result = createBinding(5, 0).bind(createCloudlets(10), createVms(1000));
+		assertArrayEquals(new int[10], result);
+	}
+
+	@Test
+	public void testPrefersFasterVm() {
+		// with many ants, the vote follows the probabilities, which favour the capacity
+		LBACOBinding binding = new LBACOBinding(500, 1, 1, 2, 1, 0.1, 3);
+		binding.setIterations(1);
+		int[] result = binding.bind(createCloudlets(1), createVms(100, 10000));
+		assertEquals(1, result[0]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBindWithoutVms() {
+		createBinding(5, 0).bind(createCloudlets(1), new ArrayList<Vm>());
+	}
+
+	private static LBACOBinding createBinding(int ants, long seed) {
+		LBACOBinding binding = new LBACOBinding(ants, 100, 0.3, 1, 2, 0.4, seed);
+		binding.setIterations(5);
+		return binding;
+	}
+
+	private static List<Cloudlet> createCloudlets(int count) {
+		long[] lengths = new long[count];
+		for (int id = 0; id < count; id++) {
+			lengths[id] = 1000 + id * 37 % 500;
+		}
+		return CloudletBindingFixtures.createCloudlets(lengths);
+	}
+
+}
@@ -10,10 +10,29 @@ package org.cloudbus.cloudsim;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.cloudbus.cloudsim.core.SimulationContext;
 
 /**
  * Logger used for performing logging of the simulation process. It provides the ability to
  * substitute the output stream by any OutputStream subclass.
+ * <p>
+ * The output stream and the disabled flag are kept in the {@link SimulationContext} of the
+ * calling thread, so simulations running concurrently in different contexts can be logged
+ * separately. A new context starts with the output, the disabled flag and the levels of the
+ * default context.
+ * <p>
+ * Besides the plain print methods, which only depend on the disabled flag, messages can be
+ * logged with a {@link Level} and a category, usually the name of the class that logs them.
+ * Each category can be given its own level with {@link #setLevel(String, Level)}, the other ones
+ * using the default level of {@link #setLevel(Level)}. A message is printed if the output is
+ * enabled and its level is not finer than the level of its category. The text of a levelled
+ * message is only built when it is printed, either from a {@link Supplier} or from a format,
+ * and frequently executed code can check {@link #isEnabled(Level, String)} first to avoid
+ * allocating the arguments at all.
  * 
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 2.0
@@ -22,18 +41,100 @@ import java.io.OutputStream;
  */
 public class Log {
 
+	/**
+	 * The levels of the logged messages, from the most to the least important.
+	 */
+	public enum Level {
+
+		/** An error that prevents the simulation from working as expected. */
+		ERROR,
+
+		/** An unexpected situation, such as a resource that cannot be fully allocated. */
+		WARNING,
+
+		/** An event of the simulation, such as a VM migration. */
+		INFO,
+
+		/** A detail of the state of the simulation, usually logged for every entity. */
+		DEBUG
+
+	}
+
 	/** The Constant LINE_SEPARATOR. */
 	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
 
-	/** The stream where the log will the outputted. */
-	private static OutputStream output;
+	/** The default level, which prints all the messages. */
+	public static final Level DEFAULT_LEVEL = Level.DEBUG;
 
-	/** Indicates if the logger is disabled or not. If set to true,
-         the call for any print method has no effect. */
-	private static boolean disabled;
-	
-	/** Buffer to avoid creating new string builder upon every print. */
-	private static StringBuilder buffer = new StringBuilder();		    
+	/**
+	 * The state of the logger in a simulation context.
+	 */
+	private static final class LogState {
+
+		/** The stream where the log will the outputted. */
+		private OutputStream output;
+
+		/** Indicates if the logger is disabled or not. If set to true,
+                 the call for any print method has no effect. */
+		private boolean disabled;
+
+		/** The level of the categories that have no level of their own. */
+		private Level level = DEFAULT_LEVEL;
+
+		/** The level of each category that has one. */
+		private final Map<String, Level> categoryLevels = new HashMap<String, Level>();
+
+		/**
+		 * Instantiates the state of the logger in the default simulation context.
+		 */
+		LogState() {
+		}
+
+		/**
+		 * Instantiates the state of the logger in a new simulation context, which starts with the
+		 * output, the disabled flag and the levels of another context.
+		 * 
+		 * @param state the state to copy
+		 */
+		LogState(LogState state) {
+			output = state.output;
+			disabled = state.disabled;
+			level = state.level;
+			categoryLevels.putAll(state.categoryLevels);
+		}
+
+	}
+
+	/**
+	 * Gets the state of the logger in the simulation context of the calling thread. The state of
+	 * a context other than the default one starts as a copy of the state of the default context,
+	 * so that a simulation run in its own context logs as the default context is set to.
+	 * 
+	 * @return the logger state
+	 */
+	private static LogState getState() {
+		return getState(SimulationContext.getCurrent());
+	}
+
+	/**
+	 * Gets the state of the logger in a simulation context.
+	 * 
+	 * @param context the simulation context
+	 * @return the logger state
+	 */
+	private static LogState getState(SimulationContext context) {
+		LogState state = context.getComponent(LogState.class);
+		if (state == null) {
+			SimulationContext defaultContext = SimulationContext.getDefault();
+			if (context == defaultContext) {
+				state = new LogState();
+			} else {
+				state = new LogState(getState(defaultContext));
+			}
+			state = context.setComponentIfAbsent(LogState.class, state);
+		}
+		return state;
+	}
 
 	/**
 	 * Prints a message.
@@ -89,11 +190,7 @@ public class Log {
 	 */
 	public static void printConcat(Object... messages) {
 		if (!isDisabled()) {
-			buffer.setLength(0); // Clear the buffer		    
-			for(int i = 0 ; i < messages.length ; i ++) {
-				buffer.append(String.valueOf(messages[i]));
-			}
-			print(buffer);
+			print(concat(messages));
 		}
 	}
 	
@@ -104,14 +201,25 @@ public class Log {
 	 */
 	public static void printConcatLine(Object... messages) {
 		if (!isDisabled()) {
-			buffer.setLength(0); // Clear the buffer		    
-			for(int i = 0 ; i < messages.length ; i ++) {
-				buffer.append(String.valueOf(messages[i]));
-			}
-			printLine(buffer);
+			printLine(concat(messages));
 		}
 	}
 
+	/**
+	 * Concatenates the text representation of messages. A new buffer is used for each call, as
+	 * a simulation context may be shared by several threads.
+	 * 
+	 * @param messages the messages to concatenate
+	 * @return the concatenated text
+	 */
+	private static String concat(Object... messages) {
+		StringBuilder buffer = new StringBuilder();
+		for (int i = 0; i < messages.length; i++) {
+			buffer.append(String.valueOf(messages[i]));
+		}
+		return buffer.toString();
+	}
+
 	
 	
 	/**
@@ -151,13 +259,112 @@ public class Log {
 		}
 	}
 
+	/**
+	 * Prints a message of a category and a new line, if the level is enabled for the category.
+	 * The message is only built if it is printed.
+	 * 
+	 * @param level the level of the message
+	 * @param category the category of the message
+	 * @param message the supplier of the message
+	 */
+	public static void printLine(Level level, String category, Supplier<?> message) {
+		if (isEnabled(level, category)) {
+			printLine(String.valueOf(message.get()));
+		}
+	}
+
+	/**
+	 * Prints a message of a category formated as in String.format(), followed by a new line, if
+	 * the level is enabled for the category.
+	 * 
+	 * @param level the level of the message
+	 * @param category the category of the message
+	 * @param format the format
+	 * @param args the args
+	 */
+	public static void formatLine(Level level, String category, String format, Object... args) {
+		if (isEnabled(level, category)) {
+			printLine(String.format(format, args));
+		}
+	}
+
+	/**
+	 * Checks if the messages of a level are printed for a category, that is, if the output is
+	 * enabled and the level is not finer than the level of the category.
+	 * 
+	 * @param level the level of the messages
+	 * @param category the category of the messages
+	 * @return true, if the messages are printed
+	 */
+	public static boolean isEnabled(Level level, String category) {
+		LogState state = getState();
+		if (state.disabled) {
+			return false;
+		}
+		Level categoryLevel = null;
+		if (!state.categoryLevels.isEmpty()) {
+			categoryLevel = state.categoryLevels.get(category);
+		}
+		if (categoryLevel == null) {
+			categoryLevel = state.level;
+		}
+		return level.compareTo(categoryLevel) <= 0;
+	}
+
+	/**
+	 * Sets the default level, used by the categories that have no level of their own.
+	 * 
+	 * @param level the new default level
+	 */
+	public static void setLevel(Level level) {
+		if (level == null) {
+			throw new IllegalArgumentException("The level cannot be null");
+		}
+		getState().level = level;
+	}
+
+	/**
+	 * Gets the default level.
+	 * 
+	 * @return the default level
+	 */
+	public static Level getLevel() {
+		return getState().level;
+	}
+
+	/**
+	 * Sets the level of a category.
+	 * 
+	 * @param category the category
+	 * @param level the new level of the category, or null to use the default level
+	 */
+	public static void setLevel(String category, Level level) {
+		if (level == null) {
+			getState().categoryLevels.remove(category);
+		} else {
+			getState().categoryLevels.put(category, level);
+		}
+	}
+
+	/**
+	 * Gets the level of a category.
+	 * 
+	 * @param category the category
+	 * @return the level of the category, or the default level if it has none
+	 */
+	public static Level getLevel(String category) {
+		LogState state = getState();
+		Level level = state.categoryLevels.get(category);
+		return level == null ? state.level : level;
+	}
+
 	/**
 	 * Sets the output stream.
 	 * 
 	 * @param _output the new output
 	 */
 	public static void setOutput(OutputStream _output) {
-		output = _output;
+		getState().output = _output;
 	}
 
 	/**
@@ -166,10 +373,11 @@ public class Log {
 	 * @return the output
 	 */
 	public static OutputStream getOutput() {
-		if (output == null) {
-			setOutput(System.out);
+		LogState state = getState();
+		if (state.output == null) {
+			state.output = System.out;
 		}
-		return output;
+		return state.output;
 	}
 
 	/**
@@ -178,7 +386,7 @@ public class Log {
 	 * @param _disabled the new disabled
 	 */
 	public static void setDisabled(boolean _disabled) {
-		disabled = _disabled;
+		getState().disabled = _disabled;
 	}
 
 	/**
@@ -187,7 +395,7 @@ public class Log {
 	 * @return true, if is disable
 	 */
 	public static boolean isDisabled() {
-		return disabled;
+		return getState().disabled;
 	}
 
 	/**
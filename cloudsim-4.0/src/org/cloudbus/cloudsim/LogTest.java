@@ -17,6 +17,10 @@ import java.io.IOException;
 import java.text.DecimalFormatSymbols;
 import java.util.Locale;
 
+import java.util.function.Supplier;
+
+import org.cloudbus.cloudsim.Log.Level;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -36,6 +40,13 @@ public class LogTest {
 		Log.setOutput(OUTPUT);
 	}
 
+	@After
+	public void tearDown() throws Exception {
+		Log.setLevel(Log.DEFAULT_LEVEL);
+		Log.setLevel("test", null);
+		Log.enable();
+	}
+
 	@Test
 	public void testPrint() throws IOException {
 		Log.print("test test");
@@ -175,4 +186,69 @@ public class LogTest {
 		OUTPUT.reset();
 	}
 
+	@Test
+	public void testPrintConcat() throws IOException {
+		OUTPUT.reset();
+		Log.printConcat("test", 1, ' ', 2L);
+		assertEquals("test1 2", OUTPUT.toString());
+		OUTPUT.reset();
+
+		Log.printConcatLine("test", null);
+		assertEquals("testnull" + LINE_SEPARATOR, OUTPUT.toString());
+		OUTPUT.reset();
+	}
+
+	@Test
+	public void testLevels() throws IOException {
+		OUTPUT.reset();
+		assertEquals(Log.DEFAULT_LEVEL, Log.getLevel("test"));
+		assertTrue(Log.isEnabled(Level.DEBUG, "test"));
+
+		Log.setLevel(Level.INFO);
+		assertFalse(Log.isEnabled(Level.DEBUG, "test"));
+		assertTrue(Log.isEnabled(Level.INFO, "test"));
+		assertTrue(Log.isEnabled(Level.ERROR, "test"));
+
+		Log.setLevel("test", Level.DEBUG);
+		assertEquals(Level.DEBUG, Log.getLevel("test"));
+		assertTrue(Log.isEnabled(Level.DEBUG, "test"));
+		assertFalse(Log.isEnabled(Level.DEBUG, "other"));
+
+		Log.formatLine(Level.DEBUG, "other", "test %s test", "test");
+		assertEquals("", OUTPUT.toString());
+		Log.formatLine(Level.DEBUG, "test", "test %s test", "test");
+		assertEquals("test test test" + LINE_SEPARATOR, OUTPUT.toString());
+		OUTPUT.reset();
+
+		Log.setLevel("test", null);
+		assertEquals(Level.INFO, Log.getLevel("test"));
+
+		Log.disable();
+		assertFalse(Log.isEnabled(Level.ERROR, "test"));
+	}
+
+	@Test
+	public void testLazyMessage() throws IOException {
+		OUTPUT.reset();
+		final int[] calls = new int[1];
+		Supplier<String> message = new Supplier<String>() {
+
+			@Override
+			public String get() {
+				calls[0]++;
+				return "test test";
+			}
+		};
+
+		Log.printLine(Level.DEBUG, "test", message);
+		assertEquals("test test" + LINE_SEPARATOR, OUTPUT.toString());
+		assertEquals(1, calls[0]);
+		OUTPUT.reset();
+
+		Log.setLevel("test", Level.WARNING);
+		Log.printLine(Level.INFO, "test", message);
+		assertEquals("", OUTPUT.toString());
+		assertEquals(1, calls[0]);
+	}
+
 }
@@ -0,0 +1,402 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A list of VM migrations returned by {@link VmAllocationPolicy#optimizeAllocationPlan(List)}.
+ * Each migration moves a VM from its source host to a target host. The migrations are kept in
+ * parallel arrays, with the ids of the VMs and hosts, instead of a map per migration, and are
+ * read either by index or as {@link Entry entries}.
+ * <p>
+ * The former format of a migration map, a map whose "vm" key stores the VM and "host" key stores
+ * the target host, is still available through {@link #toMapList()} and
+ * {@link #fromMapList(List)}.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class MigrationPlan implements Iterable<MigrationPlan.Entry> {
+
+	/** The host id of the migrations whose VM is not placed on any host. */
+	public static final int NO_HOST = -1;
+
+	/** The migrated VMs. */
+	private Vm[] vms;
+
+	/** The target host of each migration. */
+	private Host[] targetHosts;
+
+	/** The id of each migrated VM. */
+	private int[] vmIds;
+
+	/** The id of the source host of each migration, or {@link #NO_HOST}. */
+	private int[] sourceHostIds;
+
+	/** The id of the target host of each migration. */
+	private int[] targetHostIds;
+
+	/** The number of migrations. */
+	private int size;
+
+	/**
+	 * Instantiates a new empty migration plan.
+	 */
+	public MigrationPlan() {
+		this(10);
+	}
+
+	/**
+	 * Instantiates a new empty migration plan.
+	 *
+	 * @param initialCapacity the number of migrations the plan can hold before growing
+	 */
+	public MigrationPlan(int initialCapacity) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("The initial capacity must not be negative");
+		}
+		vms = new Vm[initialCapacity];
+		targetHosts = new Host[initialCapacity];
+		vmIds = new int[initialCapacity];
+		sourceHostIds = new int[initialCapacity];
+		targetHostIds = new int[initialCapacity];
+	}
+
+	/**
+	 * Creates a migration plan from a list of migration maps, each one storing the VM under the
+	 * "vm" key and the target host under the "host" key. The source host of each migration is the
+	 * current host of its VM.
+	 *
+	 * @param migrationMap the migration maps
+	 * @return the migration plan
+	 */
+	public static MigrationPlan fromMapList(List<Map<String, Object>> migrationMap) {
+		MigrationPlan plan = new MigrationPlan(migrationMap.size());
+		for (Map<String, Object> migrate : migrationMap) {
+			plan.add((Vm) migrate.get("vm"), (Host) migrate.get("host"));
+		}
+		return plan;
+	}
+
+	/**
+	 * Adds the migration of a VM from its current host to a target host.
+	 *
+	 * @param vm the VM
+	 * @param targetHost the target host
+	 */
+	public void add(Vm vm, Host targetHost) {
+		add(vm, vm.getHost(), targetHost);
+	}
+
+	/**
+	 * Adds the migration of a VM between two hosts.
+	 *
+	 * @param vm the VM
+	 * @param sourceHost the source host, or $null if the VM is not placed on any host
+	 * @param targetHost the target host
+	 */
+	public void add(Vm vm, Host sourceHost, Host targetHost) {
+		if (size == vms.length) {
+			grow();
+		}
+		vms[size] = vm;
+		targetHosts[size] = targetHost;
+		vmIds[size] = vm.getId();
+		sourceHostIds[size] = sourceHost == null ? NO_HOST : sourceHost.getId();
+		targetHostIds[size] = targetHost.getId();
+		size++;
+	}
+
+	/**
+	 * Adds all the migrations of another plan.
+	 *
+	 * @param plan the plan
+	 */
+	public void addAll(MigrationPlan plan) {
+		for (int i = 0; i < plan.size; i++) {
+			if (size == vms.length) {
+				grow();
+			}
+			vms[size] = plan.vms[i];
+			targetHosts[size] = plan.targetHosts[i];
+			vmIds[size] = plan.vmIds[i];
+			sourceHostIds[size] = plan.sourceHostIds[i];
+			targetHostIds[size] = plan.targetHostIds[i];
+			size++;
+		}
+	}
+
+	/**
+	 * Sets the source host of each migration to the current host of its VM. It is used when the
+	 * plan was built while the VMs were removed from their hosts.
+	 */
+	public void updateSourceHosts() {
+		for (int i = 0; i < size; i++) {
+			Host host = vms[i].getHost();
+			sourceHostIds[i] = host == null ? NO_HOST : host.getId();
+		}
+	}
+
+	/**
+	 * Removes all the migrations.
+	 */
+	public void clear() {
+		Arrays.fill(vms, 0, size, null);
+		Arrays.fill(targetHosts, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * Gets the number of migrations.
+	 *
+	 * @return the number of migrations
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the plan is empty.
+	 *
+	 * @return true, if there is no migration
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Gets the VM of a migration.
+	 *
+	 * @param index the index of the migration
+	 * @return the VM
+	 */
+	public Vm getVm(int index) {
+		checkIndex(index);
+		return vms[index];
+	}
+
+	/**
+	 * Gets the target host of a migration.
+	 *
+	 * @param index the index of the migration
+	 * @return the target host
+	 */
+	public Host getTargetHost(int index) {
+		checkIndex(index);
+		return targetHosts[index];
+	}
+
+	/**
+	 * Gets the id of the VM of a migration.
+	 *
+	 * @param index the index of the migration
+	 * @return the VM id
+	 */
+	public int getVmId(int index) {
+		checkIndex(index);
+		return vmIds[index];
+	}
+
+	/**
+	 * Gets the id of the source host of a migration.
+	 *
+	 * @param index the index of the migration
+	 * @return the source host id, or {@link #NO_HOST} if the VM is not placed on any host
+	 */
+	public int getSourceHostId(int index) {
+		checkIndex(index);
+		return sourceHostIds[index];
+	}
+
+	/**
+	 * Gets the id of the target host of a migration.
+	 *
+	 * @param index the index of the migration
+	 * @return the target host id
+	 */
+	public int getTargetHostId(int index) {
+		checkIndex(index);
+		return targetHostIds[index];
+	}
+
+	/**
+	 * Gets a migration.
+	 *
+	 * @param index the index of the migration
+	 * @return the migration
+	 */
+	public Entry get(int index) {
+		checkIndex(index);
+		return new Entry(vms[index], sourceHostIds[index], targetHosts[index]);
+	}
+
+	/**
+	 * Gets the target hosts of the migrations.
+	 *
+	 * @return the target hosts, in the order of the migrations
+	 */
+	public List<Host> getTargetHosts() {
+		return new ArrayList<Host>(Arrays.asList(targetHosts).subList(0, size));
+	}
+
+	/**
+	 * Converts the plan to a list of migration maps, each one storing the VM under the "vm" key
+	 * and the target host under the "host" key.
+	 *
+	 * @return the migration maps
+	 */
+	public List<Map<String, Object>> toMapList() {
+		List<Map<String, Object>> migrationMap = new ArrayList<Map<String, Object>>(size);
+		for (int i = 0; i < size; i++) {
+			migrationMap.add(get(i).toMap());
+		}
+		return migrationMap;
+	}
+
+	@Override
+	public Iterator<Entry> iterator() {
+		return new Iterator<Entry>() {
+
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return next < size;
+			}
+
+			@Override
+			public Entry next() {
+				if (next >= size) {
+					throw new NoSuchElementException();
+				}
+				return get(next++);
+			}
+
+		};
+	}
+
+	/**
+	 * Checks that an index refers to a migration of the plan.
+	 *
+	 * @param index the index
+	 */
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	/**
+	 * Doubles the capacity of the arrays.
+	 */
+	private void grow() {
+		int capacity = Math.max(2 * vms.length, 10);
+		vms = Arrays.copyOf(vms, capacity);
+		targetHosts = Arrays.copyOf(targetHosts, capacity);
+		vmIds = Arrays.copyOf(vmIds, capacity);
+		sourceHostIds = Arrays.copyOf(sourceHostIds, capacity);
+		targetHostIds = Arrays.copyOf(targetHostIds, capacity);
+	}
+
+	/**
+	 * A migration of a plan. It is also sent as the data of the {@link
+	 * org.cloudbus.cloudsim.core.CloudSimTags#VM_MIGRATE} events.
+	 */
+	public static final class Entry {
+
+		/** The migrated VM. */
+		private final Vm vm;
+
+		/** The id of the source host, or {@link MigrationPlan#NO_HOST}. */
+		private final int sourceHostId;
+
+		/** The target host. */
+		private final Host targetHost;
+
+		/**
+		 * Instantiates a new migration.
+		 *
+		 * @param vm the VM
+		 * @param sourceHostId the id of the source host, or {@link MigrationPlan#NO_HOST}
+		 * @param targetHost the target host
+		 */
+		public Entry(Vm vm, int sourceHostId, Host targetHost) {
+			this.vm = vm;
+			this.sourceHostId = sourceHostId;
+			this.targetHost = targetHost;
+		}
+
+		/**
+		 * Gets the migrated VM.
+		 *
+		 * @return the VM
+		 */
+		public Vm getVm() {
+			return vm;
+		}
+
+		/**
+		 * Gets the target host.
+		 *
+		 * @return the target host
+		 */
+		public Host getTargetHost() {
+			return targetHost;
+		}
+
+		/**
+		 * Gets the id of the migrated VM.
+		 *
+		 * @return the VM id
+		 */
+		public int getVmId() {
+			return vm.getId();
+		}
+
+		/**
+		 * Gets the id of the source host.
+		 *
+		 * @return the source host id, or {@link MigrationPlan#NO_HOST} if the VM was not placed
+		 *         on any host
+		 */
+		public int getSourceHostId() {
+			return sourceHostId;
+		}
+
+		/**
+		 * Gets the id of the target host.
+		 *
+		 * @return the target host id
+		 */
+		public int getTargetHostId() {
+			return targetHost.getId();
+		}
+
+		/**
+		 * Converts the migration to a migration map, storing the VM under the "vm" key and the
+		 * target host under the "host" key.
+		 *
+		 * @return the migration map
+		 */
+		public Map<String, Object> toMap() {
+			Map<String, Object> migrate = new HashMap<String, Object>();
+			migrate.put("vm", vm);
+			migrate.put("host", targetHost);
+			return migrate;
+		}
+
+	}
+
+}
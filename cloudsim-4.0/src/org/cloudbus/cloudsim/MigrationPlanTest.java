@@ -0,0 +1,138 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class MigrationPlanTest {
+
+	private Host host0;
+
+	private Host host1;
+
+	private Vm vm0;
+
+	private Vm vm1;
+
+	@Before
+	public void setUp() throws Exception {
+		host0 = createHost(0);
+		host1 = createHost(1);
+		vm0 = new Vm(0, 0, 100, 1, 0, 0, 0, "", null);
+		vm1 = new Vm(1, 0, 100, 1, 0, 0, 0, "", null);
+		vm0.setHost(host0);
+	}
+
+	@Test
+	public void testAdd() {
+		MigrationPlan plan = new MigrationPlan(1);
+		assertTrue(plan.isEmpty());
+
+		plan.add(vm0, host1);
+		plan.add(vm1, host0);
+		assertEquals(2, plan.size());
+		assertSame(vm0, plan.getVm(0));
+		assertSame(host1, plan.getTargetHost(0));
+		assertEquals(0, plan.getVmId(0));
+		assertEquals(0, plan.getSourceHostId(0));
+		assertEquals(1, plan.getTargetHostId(0));
+		assertEquals(1, plan.getVmId(1));
+		assertEquals(MigrationPlan.NO_HOST, plan.getSourceHostId(1));
+		assertEquals(0, plan.getTargetHostId(1));
+
+		vm1.setHost(host1);
+		plan.updateSourceHosts();
+		assertEquals(1, plan.getSourceHostId(1));
+
+		plan.clear();
+		assertTrue(plan.isEmpty());
+	}
+
+	@Test
+	public void testIterator() {
+		MigrationPlan plan = new MigrationPlan();
+		plan.add(vm0, host1);
+		plan.add(vm1, host0);
+
+		Iterator<MigrationPlan.Entry> iterator = plan.iterator();
+		MigrationPlan.Entry entry = iterator.next();
+		assertSame(vm0, entry.getVm());
+		assertSame(host1, entry.getTargetHost());
+		assertEquals(0, entry.getSourceHostId());
+		entry = iterator.next();
+		assertSame(vm1, entry.getVm());
+		assertEquals(0, entry.getTargetHostId());
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testMapListAdapter() {
+		MigrationPlan plan = new MigrationPlan();
+		plan.add(vm0, host1);
+		plan.add(vm1, host0);
+
+		List<Map<String, Object>> migrationMap = plan.toMapList();
+		assertEquals(2, migrationMap.size());
+		assertSame(vm0, migrationMap.get(0).get("vm"));
+		assertSame(host1, migrationMap.get(0).get("host"));
+		assertSame(vm1, migrationMap.get(1).get("vm"));
+		assertSame(host0, migrationMap.get(1).get("host"));
+
+		MigrationPlan converted = MigrationPlan.fromMapList(migrationMap);
+		assertEquals(2, converted.size());
+		assertSame(vm0, converted.getVm(0));
+		assertSame(host1, converted.getTargetHost(0));
+		assertEquals(0, converted.getSourceHostId(0));
+		assertSame(host0, converted.getTargetHost(1));
+
+		MigrationPlan merged = new MigrationPlan(0);
+		merged.addAll(plan);
+		merged.addAll(converted);
+		assertEquals(4, merged.size());
+		assertSame(vm1, merged.getVm(3));
+		assertEquals(0, merged.getTargetHostId(3));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetOutOfBounds() {
+		MigrationPlan plan = new MigrationPlan();
+		plan.add(vm0, host1);
+		plan.getVm(1);
+	}
+
+	private Host createHost(int id) {
+		List<Pe> peList = new ArrayList<Pe>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		return new Host(
+				id,
+				new RamProvisionerSimple(1024),
+				new BwProvisionerSimple(1000),
+				1000,
+				peList,
+				new VmSchedulerTimeShared(peList));
+	}
+
+}
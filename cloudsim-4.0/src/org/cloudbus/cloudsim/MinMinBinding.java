@@ -0,0 +1,238 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binds cloudlets to VMs with the Min-Min or the Max-Min heuristic. The cloudlets are sorted by
+ * increasing (Min-Min) or decreasing (Max-Min) total length, then each cloudlet in turn is bound
+ * to the VM on which it would complete first, that is, the VM with the smallest sum of its ready
+ * time and the execution time of the cloudlet on it, where the ready time of a VM is the sum of
+ * the execution times of the cloudlets already bound to it. Ties are broken by the position of
+ * the VM in the list. The execution time of a cloudlet on a VM is its length divided by the MIPS
+ * of the VM.
+ * <p>
+ * Instead of a cost matrix of all the cloudlets and VMs, the VMs are grouped by MIPS, and each
+ * group keeps its VMs in a heap ordered by ready time. Since the VMs of a group have the same
+ * execution time for a cloudlet, only the top of each heap is a candidate, so binding n cloudlets
+ * to m VMs with g distinct MIPS takes O(n (g + log m)) time and O(m) memory, the costs being
+ * computed when they are needed. This is O(n log m) when the VMs have a few kinds.
+ * <p>
+ * The execution times can be truncated to integers with {@link #setTruncatingCosts(boolean)},
+ * which gives the same bindings as {@link DatacenterBroker#submitCloudletsMinMin()} and
+ * {@link DatacenterBroker#submitCloudletsMaxMin()}.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class MinMinBinding extends CloudletListBinding {
+
+	/** Indicates if the longest cloudlets are bound first (Max-Min) instead of the shortest. */
+	private final boolean maxMin;
+
+	/** Indicates if the execution times are truncated to integers. */
+	private boolean truncatingCosts;
+
+	/**
+	 * Instantiates a new Min-Min or Max-Min binding.
+	 *
+	 * @param maxMin true to bind the longest cloudlets first (Max-Min); false to bind the
+	 *            shortest cloudlets first (Min-Min)
+	 */
+	public MinMinBinding(boolean maxMin) {
+		this.maxMin = maxMin;
+	}
+
+	/**
+	 * Sorts cloudlets in the order they are bound: by increasing total length for Min-Min, by
+	 * decreasing total length for Max-Min. The sort is stable.
+	 *
+	 * @param cloudlets the cloudlets to sort
+	 */
+	@Override
+	public void sortCloudlets(List<? extends Cloudlet> cloudlets) {
+		Collections.sort(cloudlets, new Comparator<Cloudlet>() {
+
+			@Override
+			public int compare(Cloudlet o1, Cloudlet o2) {
+				int result = Long.valueOf(o1.getCloudletTotalLength()).compareTo(
+						o2.getCloudletTotalLength());
+				return maxMin ? -result : result;
+			}
+		});
+	}
+
+	/**
+	 * Binds cloudlets to VMs, in the order of the cloudlet list, which is usually sorted with
+	 * {@link #sortCloudlets(List)} first. The cloudlets and VMs are not modified.
+	 *
+	 * @param cloudlets the cloudlets, in the order they are bound
+	 * @param vms the VMs
+	 * @return the position in the VM list of the VM of each cloudlet
+	 */
+	@Override
+	public int[] bind(List<? extends Cloudlet> cloudlets, List<? extends Vm> vms) {
+		if (vms.isEmpty()) {
+			throw new IllegalArgumentException("There must be at least one VM");
+		}
+		int[] result = new int[cloudlets.size()];
+
+		double[] readyTimes = new double[vms.size()];
+		Map<Double, ReadyTimeHeap> heapsByMips = new LinkedHashMap<Double, ReadyTimeHeap>();
+		for (int i = 0; i < vms.size(); i++) {
+			double mips = vms.get(i).getMips();
+			ReadyTimeHeap heap = heapsByMips.get(mips);
+			if (heap == null) {
+				heap = new ReadyTimeHeap(mips, readyTimes);
+				heapsByMips.put(mips, heap);
+			}
+			heap.add(i);
+		}
+		List<ReadyTimeHeap> heaps = new ArrayList<ReadyTimeHeap>(heapsByMips.values());
+
+		for (int i = 0; i < result.length; i++) {
+			long length = cloudlets.get(i).getCloudletLength();
+			ReadyTimeHeap bestHeap = null;
+			int bestVm = -1;
+			double bestCompletionTime = Double.MAX_VALUE;
+			for (ReadyTimeHeap heap : heaps) {
+				int vm = heap.peek();
+				double completionTime = readyTimes[vm] + getExecutionTime(length, heap.mips);
+				if (completionTime < bestCompletionTime
+						|| (completionTime == bestCompletionTime && vm < bestVm)) {
+					bestHeap = heap;
+					bestVm = vm;
+					bestCompletionTime = completionTime;
+				}
+			}
+			readyTimes[bestVm] += getExecutionTime(length, bestHeap.mips);
+			bestHeap.updateTop();
+			result[i] = bestVm;
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the execution time of a cloudlet on a VM.
+	 *
+	 * @param length the length of the cloudlet
+	 * @param mips the MIPS of the VM
+	 * @return the execution time, truncated if costs are truncated
+	 */
+	protected double getExecutionTime(long length, double mips) {
+		double time = length / mips;
+		return truncatingCosts ? (int) time : time;
+	}
+
+	/**
+	 * Checks if the longest cloudlets are bound first.
+	 *
+	 * @return true for Max-Min; false for Min-Min
+	 */
+	public boolean isMaxMin() {
+		return maxMin;
+	}
+
+	/**
+	 * Checks if the execution times are truncated to integers.
+	 *
+	 * @return true, if the execution times are truncated
+	 */
+	public boolean isTruncatingCosts() {
+		return truncatingCosts;
+	}
+
+	/**
+	 * Sets if the execution times are truncated to integers, as in the cost matrix of
+	 * {@link DatacenterBroker#submitCloudletsMinMin()}.
+	 *
+	 * @param truncatingCosts true to truncate the execution times
+	 */
+	public void setTruncatingCosts(boolean truncatingCosts) {
+		this.truncatingCosts = truncatingCosts;
+	}
+
+	/**
+	 * A binary heap of the positions of the VMs with the same MIPS, ordered by ready time and
+	 * then by position.
+	 */
+	private static final class ReadyTimeHeap {
+
+		/** The MIPS of the VMs. */
+		private final double mips;
+
+		/** The ready time of all the VMs, by position. */
+		private final double[] readyTimes;
+
+		/** The heap of VM positions. */
+		private int[] heap = new int[4];
+
+		/** The number of VMs in the heap. */
+		private int size;
+
+		ReadyTimeHeap(double mips, double[] readyTimes) {
+			this.mips = mips;
+			this.readyTimes = readyTimes;
+		}
+
+		/**
+		 * Adds a VM whose ready time is the smallest one, so that the heap order holds.
+		 *
+		 * @param vm the position of the VM
+		 */
+		void add(int vm) {
+			if (size == heap.length) {
+				int[] grown = new int[size * 2];
+				System.arraycopy(heap, 0, grown, 0, size);
+				heap = grown;
+			}
+			// VMs are added by increasing position while all ready times are 0
+			heap[size++] = vm;
+		}
+
+		int peek() {
+			return heap[0];
+		}
+
+		/**
+		 * Restores the heap order after the ready time of the top VM has increased.
+		 */
+		void updateTop() {
+			int vm = heap[0];
+			int i = 0;
+			while (true) {
+				int child = 2 * i + 1;
+				if (child >= size) {
+					break;
+				}
+				if (child + 1 < size && isBefore(heap[child + 1], heap[child])) {
+					child++;
+				}
+				if (!isBefore(heap[child], vm)) {
+					break;
+				}
+				heap[i] = heap[child];
+				i = child;
+			}
+			heap[i] = vm;
+		}
+
+		private boolean isBefore(int vm1, int vm2) {
+			return readyTimes[vm1] < readyTimes[vm2]
+					|| (readyTimes[vm1] == readyTimes[vm2] && vm1 < vm2);
+		}
+
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.cloudbus.cloudsim.CloudletBindingFixtures.createCloudlets;
+import static org.cloudbus.cloudsim.CloudletBindingFixtures.createVms;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class MinMinBindingTest {
+
+	private static final double[] VM_MIPS = { 300, 1000, 300, 750, 1000 };
+
+	@Test
+	public void testSortCloudlets() {
+		List<Cloudlet> cloudlets = createCloudlets(3000, 1000, 2000, 1000);
+
+		new MinMinBinding(false).sortCloudlets(cloudlets);
+		assertEquals(1, cloudlets.get(0).getCloudletId());
+		assertEquals(3, cloudlets.get(1).getCloudletId());
+		assertEquals(0, cloudlets.get(3).getCloudletId());
+
+		new MinMinBinding(true).sortCloudlets(cloudlets);
+		assertEquals(0, cloudlets.get(0).getCloudletId());
+		assertEquals(1, cloudlets.get(2).getCloudletId());
+		assertEquals(3, cloudlets.get(3).getCloudletId());
+	}
+
+	@Test
+	public void testBind() {
+		List<Vm> vms = createVms(1000, 500);
+		List<Cloudlet> cloudlets = createCloudlets(1000, 1000, 1000, 1000);
+		// the second cloudlet completes at 2 on both VMs, the third one at 3 on VM 0 and 2 on VM 1
+		assertArrayEquals(new int[] { 0, 0, 1, 0 }, new MinMinBinding(false).bind(cloudlets, vms));
+	}
+
+	@Test
+	public void testBindLikeGreedy() {
+		Random random = new Random(1);
+		for (int round = 0; round < 20; round++) {
+			long[] lengths = new long[200];
+			for (int i = 0; i < lengths.length; i++) {
+				lengths[i] = 1 + random.nextInt(5000);
+			}
+			List<Cloudlet> cloudlets = createCloudlets(lengths);
+			List<Vm> vms = createVms(VM_MIPS);
+			for (boolean truncatingCosts : new boolean[] { false, true }) {
+				MinMinBinding binding = new MinMinBinding(false);
+				binding.setTruncatingCosts(truncatingCosts);
+				assertArrayEquals(
+						bindGreedily(lengths, VM_MIPS, truncatingCosts),
+						binding.bind(cloudlets, vms));
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBindWithoutVms() {
+		new MinMinBinding(false).bind(createCloudlets(1000), new ArrayList<Vm>());
+	}
+
+	/**
+	 * Binds each cloudlet to the VM on which it completes first by computing its completion time
+	 * on every VM.
+	 */
+	private static int[] bindGreedily(long[] lengths, double[] mips, boolean truncatingCosts) {
+		int[] result = new int[lengths.length];
+		double[] readyTimes = new double[mips.length];
+		for (int i = 0; i < lengths.length; i++) {
+			int best = 0;
+			double bestTime = Double.MAX_VALUE;
+			for (int j = 0; j < mips.length; j++) {
+				double time = lengths[i] / mips[j];
+				if (truncatingCosts) {
+					time = (int) time;
+				}
+				if (readyTimes[j] + time < bestTime) {
+					best = j;
+					bestTime = readyTimes[j] + time;
+				}
+			}
+			readyTimes[best] = bestTime;
+			result[i] = best;
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,286 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable MIPS share, that is, the MIPS of each PE requested by or allocated to a VM. It
+ * keeps the MIPS in a primitive array, so the schedulers can pass it around and sum it without
+ * boxing, and it can be shared between the schedulers without being copied.
+ * <p>
+ * The methods of the schedulers that still take or return a <tt>List&lt;Double&gt;</tt> adapt it
+ * with {@link #valueOf(List)} and {@link #asList()}.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public final class MipsShare {
+
+	/** The MIPS share with no PEs. */
+	public static final MipsShare EMPTY = new MipsShare(new double[0]);
+
+	/** The MIPS of each PE. */
+	private final double[] mips;
+
+	/** The list view of the MIPS share, created on demand. */
+	private List<Double> list;
+
+	/**
+	 * Instantiates a new MIPS share over an array, which is not copied.
+	 *
+	 * @param mips the MIPS of each PE
+	 */
+	private MipsShare(double[] mips) {
+		this.mips = mips;
+	}
+
+	/**
+	 * Creates a MIPS share.
+	 *
+	 * @param mips the MIPS of each PE
+	 * @return the MIPS share
+	 */
+	public static MipsShare of(double... mips) {
+		return mips.length == 0 ? EMPTY : new MipsShare(mips.clone());
+	}
+
+	/**
+	 * Creates a MIPS share over an array, which is not copied and must not be modified.
+	 *
+	 * @param mips the MIPS of each PE
+	 * @return the MIPS share
+	 */
+	static MipsShare wrap(double[] mips) {
+		return new MipsShare(mips);
+	}
+
+	/**
+	 * Creates a MIPS share with the same MIPS for each PE.
+	 *
+	 * @param pes the number of PEs
+	 * @param mips the MIPS of each PE
+	 * @return the MIPS share
+	 */
+	public static MipsShare of(int pes, double mips) {
+		double[] share = new double[pes];
+		Arrays.fill(share, mips);
+		return new MipsShare(share);
+	}
+
+	/**
+	 * Creates a MIPS share from a list of MIPS.
+	 *
+	 * @param mips the MIPS of each PE, may be <tt>null</tt>
+	 * @return the MIPS share, or <tt>null</tt> if the list is <tt>null</tt>
+	 */
+	public static MipsShare valueOf(List<Double> mips) {
+		if (mips == null) {
+			return null;
+		}
+		if (mips instanceof ListView) {
+			return ((ListView) mips).getMipsShare();
+		}
+		double[] share = new double[mips.size()];
+		int i = 0;
+		for (Double value : mips) {
+			share[i++] = value;
+		}
+		return new MipsShare(share);
+	}
+
+	/**
+	 * Gets the number of PEs.
+	 *
+	 * @return the number of PEs
+	 */
+	public int size() {
+		return mips.length;
+	}
+
+	/**
+	 * Checks if the share has no PEs.
+	 *
+	 * @return true, if the share has no PEs
+	 */
+	public boolean isEmpty() {
+		return mips.length == 0;
+	}
+
+	/**
+	 * Gets the MIPS of a PE.
+	 *
+	 * @param pe the index of the PE
+	 * @return the MIPS of the PE
+	 */
+	public double get(int pe) {
+		return mips[pe];
+	}
+
+	/**
+	 * Gets the total MIPS of all the PEs, added up in order.
+	 *
+	 * @return the total MIPS
+	 */
+	public double getTotal() {
+		double total = 0;
+		for (double value : mips) {
+			total += value;
+		}
+		return total;
+	}
+
+	/**
+	 * Gets the maximum MIPS among the PEs, or 0 if there are no PEs.
+	 *
+	 * @return the maximum MIPS
+	 */
+	public double getMax() {
+		double max = 0;
+		for (double value : mips) {
+			if (value > max) {
+				max = value;
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Gets the number of PEs with some MIPS.
+	 *
+	 * @return the number of PEs with more than 0 MIPS
+	 */
+	public int getNumberOfActivePes() {
+		int pes = 0;
+		for (double value : mips) {
+			if (value > 0.0) {
+				pes++;
+			}
+		}
+		return pes;
+	}
+
+	/**
+	 * Creates a MIPS share with the MIPS of each PE multiplied by a factor.
+	 *
+	 * @param factor the factor
+	 * @return the scaled MIPS share
+	 */
+	public MipsShare multiply(double factor) {
+		double[] share = new double[mips.length];
+		for (int i = 0; i < mips.length; i++) {
+			share[i] = mips[i] * factor;
+		}
+		return new MipsShare(share);
+	}
+
+	/**
+	 * Creates a MIPS share with the MIPS of each PE capped to a maximum.
+	 *
+	 * @param max the maximum MIPS of each PE
+	 * @return the capped MIPS share, which is this one if no PE is above the maximum
+	 */
+	public MipsShare cap(double max) {
+		if (getMax() <= max) {
+			return this;
+		}
+		double[] share = new double[mips.length];
+		for (int i = 0; i < mips.length; i++) {
+			share[i] = mips[i] > max ? max : mips[i];
+		}
+		return new MipsShare(share);
+	}
+
+	/**
+	 * Gets a copy of the MIPS of each PE.
+	 *
+	 * @return the MIPS of each PE
+	 */
+	public double[] toArray() {
+		return mips.clone();
+	}
+
+	/**
+	 * Gets an unmodifiable list view of the MIPS share.
+	 *
+	 * @return the list of the MIPS of each PE
+	 */
+	public List<Double> asList() {
+		if (list == null) {
+			list = new ListView(this);
+		}
+		return list;
+	}
+
+	/**
+	 * Gets a modifiable copy of the MIPS share as a list.
+	 *
+	 * @return the list of the MIPS of each PE
+	 */
+	public List<Double> toList() {
+		return new ArrayList<Double>(asList());
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof MipsShare && Arrays.equals(mips, ((MipsShare) obj).mips);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(mips);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(mips);
+	}
+
+	/**
+	 * The list view of a MIPS share.
+	 */
+	private static final class ListView extends AbstractList<Double> implements RandomAccess {
+
+		/** The MIPS share. */
+		private final MipsShare mipsShare;
+
+		/**
+		 * Instantiates a new list view.
+		 *
+		 * @param mipsShare the MIPS share
+		 */
+		ListView(MipsShare mipsShare) {
+			this.mipsShare = mipsShare;
+		}
+
+		/**
+		 * Gets the MIPS share.
+		 *
+		 * @return the MIPS share
+		 */
+		MipsShare getMipsShare() {
+			return mipsShare;
+		}
+
+		@Override
+		public Double get(int index) {
+			return mipsShare.mips[index];
+		}
+
+		@Override
+		public int size() {
+			return mipsShare.mips.length;
+		}
+
+	}
+
+}
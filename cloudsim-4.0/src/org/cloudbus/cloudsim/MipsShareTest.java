@@ -0,0 +1,66 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class MipsShareTest {
+
+	private static final double MIPS = 1000;
+
+	private static final double DELTA = 0.0;
+
+	@Test
+	public void testValueOf() {
+		List<Double> list = new ArrayList<Double>(Arrays.asList(MIPS, MIPS / 2, 0.0));
+		MipsShare mipsShare = MipsShare.valueOf(list);
+		assertEquals(3, mipsShare.size());
+		assertEquals(MIPS / 2, mipsShare.get(1), DELTA);
+		assertEquals(list, mipsShare.asList());
+		assertEquals(list, mipsShare.toList());
+		assertEquals(list.toString(), mipsShare.toString());
+		assertSame(mipsShare, MipsShare.valueOf(mipsShare.asList()));
+		assertNull(MipsShare.valueOf(null));
+	}
+
+	@Test
+	public void testAggregates() {
+		MipsShare mipsShare = MipsShare.of(MIPS, MIPS / 2, 0.0);
+		assertEquals(MIPS * 1.5, mipsShare.getTotal(), DELTA);
+		assertEquals(MIPS, mipsShare.getMax(), DELTA);
+		assertEquals(2, mipsShare.getNumberOfActivePes());
+		assertEquals(0, MipsShare.EMPTY.getTotal(), DELTA);
+		assertEquals(MipsShare.of(2, MIPS), MipsShare.of(MIPS, MIPS));
+	}
+
+	@Test
+	public void testCapAndMultiply() {
+		MipsShare mipsShare = MipsShare.of(MIPS, MIPS / 2);
+		assertSame(mipsShare, mipsShare.cap(MIPS));
+		assertEquals(MipsShare.of(MIPS / 2, MIPS / 2), mipsShare.cap(MIPS / 2));
+		assertEquals(MipsShare.of(MIPS * 0.1, MIPS / 2 * 0.1), mipsShare.multiply(0.1));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testListViewIsUnmodifiable() {
+		MipsShare.of(MIPS).asList().add(MIPS);
+	}
+
+}
@@ -13,6 +13,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
+import org.cloudbus.cloudsim.core.SimulationContext;
 import org.cloudbus.cloudsim.network.DelayMatrix_Float;
 import org.cloudbus.cloudsim.network.GraphReaderBrite;
 import org.cloudbus.cloudsim.network.TopologicalGraph;
@@ -30,6 +31,10 @@ import org.cloudbus.cloudsim.network.TopologicalNode;
  * Nevertheless, each CloudSim entity must be mapped to one (and only one) BRITE node to allow
  * proper work of the network simulation. Each BRITE node can be mapped to only one entity at a
  * time.
+ * <p>
+ * The network topology is kept in the {@link SimulationContext} of the calling thread, so
+ * simulations running concurrently in different contexts have independent networks. Subclasses
+ * access it through the protected static getters and setters.
  * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
@@ -40,34 +45,49 @@ import org.cloudbus.cloudsim.network.TopologicalNode;
  * A private default constructor would be created to avoid instantiation.
  */
 public class NetworkTopology {
-        /**
-         * The BRITE id to use for the next node to be created in the network.
-         */
-	protected static int nextIdx = 0;
 
-	private static boolean networkEnabled = false;
+	/**
+	 * The network topology of a simulation context.
+	 */
+	private static final class TopologyState {
+
+		/** The BRITE id to use for the next node to be created in the network. */
+		private int nextIdx = 0;
+
+		/** Indicates if the network simulation is working. */
+		private boolean networkEnabled = false;
 
-        /**
-         * A matrix containing the delay between every pair of nodes in the network.
-         */
-	protected static DelayMatrix_Float delayMatrix = null;
+		/** A matrix containing the delay between every pair of nodes in the network. */
+		private DelayMatrix_Float delayMatrix = null;
 
-        /**
-         * A matrix containing the bandwidth between every pair of nodes in the network.
-         */
-	protected static double[][] bwMatrix = null;
+		/** A matrix containing the bandwidth between every pair of nodes in the network. */
+		private double[][] bwMatrix = null;
 
-        /**
-         * The Topological Graph of the network.
-         */
-	protected static TopologicalGraph graph = null;
+		/** The Topological Graph of the network. */
+		private TopologicalGraph graph = null;
+
+		/**
+		 * The map between CloudSim entities and BRITE entities.
+		 * Each key is a CloudSim entity ID and each value the corresponding
+		 * BRITE entity ID.
+		 */
+		private Map<Integer, Integer> map = null;
+
+	}
 
 	/**
-         * The map between CloudSim entities and BRITE entities.
-         * Each key is a CloudSim entity ID and each value the corresponding
-         * BRITE entity ID.
-         */
-        protected static Map<Integer, Integer> map = null;
+	 * Gets the network topology of the simulation context of the calling thread.
+	 * 
+	 * @return the topology state
+	 */
+	private static TopologyState getState() {
+		SimulationContext context = SimulationContext.getCurrent();
+		TopologyState state = context.getComponent(TopologyState.class);
+		if (state == null) {
+			state = context.setComponentIfAbsent(TopologyState.class, new TopologyState());
+		}
+		return state;
+	}
 
 	/**
 	 * Creates the network topology if the file exists and can be successfully parsed. File is
@@ -82,11 +102,12 @@ public class NetworkTopology {
 
 		// try to find the file
 		GraphReaderBrite reader = new GraphReaderBrite();
+		TopologyState state = getState();
 
 		try {
-			graph = reader.readGraphFile(fileName);
-			map = new HashMap<Integer, Integer>();
-			generateMatrices();
+			state.graph = reader.readGraphFile(fileName);
+			state.map = new HashMap<Integer, Integer>();
+			generateMatrices(state);
 		} catch (IOException e) {
 			// problem with the file. Does not simulate network
 			Log.printLine("Problem in processing BRITE file. Network simulation is disabled. Error: "
@@ -97,15 +118,17 @@ public class NetworkTopology {
 
 	/**
 	 * Generates the matrices used internally to set latency and bandwidth between elements.
+	 * 
+	 * @param state the network topology
 	 */
-	private static void generateMatrices() {
+	private static void generateMatrices(TopologyState state) {
 		// creates the delay matrix
-		delayMatrix = new DelayMatrix_Float(graph, false);
+		state.delayMatrix = new DelayMatrix_Float(state.graph, false);
 
 		// creates the bw matrix
-		bwMatrix = createBwMatrix(graph, false);
+		state.bwMatrix = createBwMatrix(state.graph, false);
 
-		networkEnabled = true;
+		state.networkEnabled = true;
 	}
 
 	/**
@@ -122,32 +145,34 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void addLink(int srcId, int destId, double bw, double lat) {
+		TopologyState state = getState();
 
-		if (graph == null) {
-			graph = new TopologicalGraph();
+		if (state.graph == null) {
+			state.graph = new TopologicalGraph();
 		}
 
-		if (map == null) {
-			map = new HashMap<Integer, Integer>();
+		if (state.map == null) {
+			state.map = new HashMap<Integer, Integer>();
 		}
 
 		// maybe add the nodes
-		if (!map.containsKey(srcId)) {
-			graph.addNode(new TopologicalNode(nextIdx));
-			map.put(srcId, nextIdx);
-			nextIdx++;
+		if (!state.map.containsKey(srcId)) {
+			state.graph.addNode(new TopologicalNode(state.nextIdx));
+			state.map.put(srcId, state.nextIdx);
+			state.nextIdx++;
 		}
 
-		if (!map.containsKey(destId)) {
-			graph.addNode(new TopologicalNode(nextIdx));
-			map.put(destId, nextIdx);
-			nextIdx++;
+		if (!state.map.containsKey(destId)) {
+			state.graph.addNode(new TopologicalNode(state.nextIdx));
+			state.map.put(destId, state.nextIdx);
+			state.nextIdx++;
 		}
 
 		// generate a new link
-		graph.addLink(new TopologicalLink(map.get(srcId), map.get(destId), (float) lat, (float) bw));
+		state.graph.addLink(new TopologicalLink(state.map.get(srcId), state.map.get(destId), (float) lat,
+				(float) bw));
 
-		generateMatrices();
+		generateMatrices(state);
 
 	}
 
@@ -194,7 +219,9 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void mapNode(int cloudSimEntityID, int briteID) {
-		if (networkEnabled) {
+		TopologyState state = getState();
+		if (state.networkEnabled) {
+			Map<Integer, Integer> map = state.map;
 			try {
 				// this CloudSim entity was already mapped?
 				if (!map.containsKey(cloudSimEntityID)) {
@@ -222,9 +249,10 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void unmapNode(int cloudSimEntityID) {
-		if (networkEnabled) {
+		TopologyState state = getState();
+		if (state.networkEnabled) {
 			try {
-				map.remove(cloudSimEntityID);
+				state.map.remove(cloudSimEntityID);
 			} catch (Exception e) {
 				Log.printConcatLine("Error in network unmapping. CloudSim node: ", cloudSimEntityID);
 			}
@@ -242,10 +270,11 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static double getDelay(int srcID, int destID) {
-		if (networkEnabled) {
+		TopologyState state = getState();
+		if (state.networkEnabled) {
 			try {
 				// add the network latency
-				double delay = delayMatrix.getDelay(map.get(srcID), map.get(destID));
+				double delay = state.delayMatrix.getDelay(state.map.get(srcID), state.map.get(destID));
 
 				return delay;
 			} catch (Exception e) {
@@ -255,6 +284,96 @@ public class NetworkTopology {
 		return 0.0;
 	}
 
+	/**
+	 * Gets the BRITE id to use for the next node to be created in the network, in the simulation context of the calling thread.
+	 * 
+	 * @return the nextIdx
+	 */
+	protected static int getNextIdx() {
+		return getState().nextIdx;
+	}
+
+	/**
+	 * Sets the BRITE id to use for the next node to be created in the network, in the simulation context of the calling thread.
+	 * 
+	 * @param nextIdx the new nextIdx
+	 */
+	protected static void setNextIdx(int nextIdx) {
+		getState().nextIdx = nextIdx;
+	}
+
+	/**
+	 * Gets the matrix containing the delay between every pair of nodes in the network, in the simulation context of the calling thread.
+	 * 
+	 * @return the delayMatrix
+	 */
+	protected static DelayMatrix_Float getDelayMatrix() {
+		return getState().delayMatrix;
+	}
+
+	/**
+	 * Sets the matrix containing the delay between every pair of nodes in the network, in the simulation context of the calling thread.
+	 * 
+	 * @param delayMatrix the new delayMatrix
+	 */
+	protected static void setDelayMatrix(DelayMatrix_Float delayMatrix) {
+		getState().delayMatrix = delayMatrix;
+	}
+
+	/**
+	 * Gets the matrix containing the bandwidth between every pair of nodes in the network, in the simulation context of the calling thread.
+	 * 
+	 * @return the bwMatrix
+	 */
+	protected static double[][] getBwMatrix() {
+		return getState().bwMatrix;
+	}
+
+	/**
+	 * Sets the matrix containing the bandwidth between every pair of nodes in the network, in the simulation context of the calling thread.
+	 * 
+	 * @param bwMatrix the new bwMatrix
+	 */
+	protected static void setBwMatrix(double[][] bwMatrix) {
+		getState().bwMatrix = bwMatrix;
+	}
+
+	/**
+	 * Gets the topological graph of the network, in the simulation context of the calling thread.
+	 * 
+	 * @return the graph
+	 */
+	protected static TopologicalGraph getGraph() {
+		return getState().graph;
+	}
+
+	/**
+	 * Sets the topological graph of the network, in the simulation context of the calling thread.
+	 * 
+	 * @param graph the new graph
+	 */
+	protected static void setGraph(TopologicalGraph graph) {
+		getState().graph = graph;
+	}
+
+	/**
+	 * Gets the map between CloudSim entity IDs and BRITE entity IDs, in the simulation context of the calling thread.
+	 * 
+	 * @return the map
+	 */
+	protected static Map<Integer, Integer> getMap() {
+		return getState().map;
+	}
+
+	/**
+	 * Sets the map between CloudSim entity IDs and BRITE entity IDs, in the simulation context of the calling thread.
+	 * 
+	 * @param map the new map
+	 */
+	protected static void setMap(Map<Integer, Integer> map) {
+		getState().map = map;
+	}
+
 	/**
 	 * Checks if the network simulation is working. If there were some problem during
 	 * creation of network (e.g., during parsing of BRITE file) that does not allow a proper
@@ -265,7 +384,7 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static boolean isNetworkEnabled() {
-		return networkEnabled;
+		return getState().networkEnabled;
 	}
 
 }
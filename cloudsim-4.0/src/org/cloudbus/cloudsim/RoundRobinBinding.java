@@ -0,0 +1,45 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.cloudbus.cloudsim.lists.VmList;
+
+/**
+ * A {@link CloudletBindingStrategy} binding the cloudlets to the VMs in turn, as the
+ * {@link DatacenterBroker} does by default. A cloudlet already bound to a VM, with
+ * {@link DatacenterBroker#bindCloudletToVm(int, int)}, stays bound to it, or is not bound if the
+ * VM has not been created. The cloudlets are bound one at a time as they are read.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class RoundRobinBinding implements CloudletBindingStrategy {
+
+	@Override
+	public void bind(Iterator<? extends Cloudlet> cloudlets, List<? extends Vm> vms, Sink sink) {
+		int vmIndex = 0;
+		while (cloudlets.hasNext()) {
+			Cloudlet cloudlet = cloudlets.next();
+			Vm vm;
+			if (cloudlet.getVmId() == -1) {
+				vm = vms.get(vmIndex);
+			} else {
+				vm = VmList.getById(vms, cloudlet.getVmId());
+				if (vm == null) {
+					continue;
+				}
+			}
+			sink.bind(cloudlet, vm);
+			vmIndex = (vmIndex + 1) % vms.size();
+		}
+	}
+
+}
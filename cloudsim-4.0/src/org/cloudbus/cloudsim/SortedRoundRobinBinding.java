@@ -0,0 +1,85 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A {@link CloudletBindingStrategy} binding the cloudlets by increasing total length to the VMs
+ * in turn, with a {@link RoundRobinBinding}, as {@link DatacenterBroker#submitCloudletsPriority()}
+ * does. The VMs can also be taken by increasing total MIPS, as
+ * {@link DatacenterBroker#submitCloudletsModified()} does, so that the shortest cloudlets go to
+ * the slowest VMs. Both sorts are stable, and sort copies of the lists rather than the lists of
+ * the broker.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class SortedRoundRobinBinding implements CloudletBindingStrategy {
+
+	/** Indicates if the VMs are taken by increasing total MIPS instead of in the list order. */
+	private final boolean sortingVms;
+
+	/** The round robin binding of the sorted cloudlets. */
+	private final RoundRobinBinding roundRobin = new RoundRobinBinding();
+
+	/**
+	 * Instantiates a new sorted round robin binding.
+	 *
+	 * @param sortingVms true to take the VMs by increasing total MIPS; false to take them in the
+	 *            order of the list
+	 */
+	public SortedRoundRobinBinding(boolean sortingVms) {
+		this.sortingVms = sortingVms;
+	}
+
+	@Override
+	public void bind(Iterator<? extends Cloudlet> cloudlets, List<? extends Vm> vms, Sink sink) {
+		List<Cloudlet> cloudletList = new ArrayList<Cloudlet>();
+		while (cloudlets.hasNext()) {
+			cloudletList.add(cloudlets.next());
+		}
+		Collections.sort(cloudletList, new Comparator<Cloudlet>() {
+
+			@Override
+			public int compare(Cloudlet o1, Cloudlet o2) {
+				return Long.valueOf(o1.getCloudletTotalLength()).compareTo(
+						o2.getCloudletTotalLength());
+			}
+		});
+
+		List<? extends Vm> vmList = vms;
+		if (isSortingVms()) {
+			List<Vm> sortedVms = new ArrayList<Vm>(vms);
+			Collections.sort(sortedVms, new Comparator<Vm>() {
+
+				@Override
+				public int compare(Vm o1, Vm o2) {
+					return Double.compare(o1.getMips() * o1.getNumberOfPes(),
+							o2.getMips() * o2.getNumberOfPes());
+				}
+			});
+			vmList = sortedVms;
+		}
+		roundRobin.bind(cloudletList.iterator(), vmList, sink);
+	}
+
+	/**
+	 * Checks if the VMs are taken by increasing total MIPS.
+	 *
+	 * @return true, if the VMs are sorted; false if they are taken in the order of the list
+	 */
+	public boolean isSortingVms() {
+		return sortingVms;
+	}
+
+}
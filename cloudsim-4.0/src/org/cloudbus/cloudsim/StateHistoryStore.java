@@ -0,0 +1,558 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Stores the state history of a host or a VM in columns of primitive values: the time, the
+ * allocated and requested MIPS, and a flag, which is whether a host is active or whether a VM is
+ * in migration. The columns are split into chunks of {@link #CHUNK_SIZE} entries, so that a long
+ * history neither keeps an object per entry nor copies all the entries when it grows.
+ * <p>
+ * As in the history lists of {@link HostDynamicWorkload} and {@link Vm}, an entry added at the
+ * same time as the last entry replaces it. The state of an entry holds until the time of the
+ * next entry, which is when the store adds the interval between them to aggregates such as the
+ * total time, the time with the flag set, the time under allocated or the MIPS integrated over
+ * time. These aggregates are enough to compute the SLA metrics of a simulation, so the entries
+ * themselves can be discarded with {@link #setKeepingEntries(boolean)} to bound the memory used
+ * by long simulations. Only the last entry is then kept, since it can still be replaced.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class StateHistoryStore {
+
+	/** The maximum number of entries of a chunk. */
+	public static final int CHUNK_SIZE = 1 << 12;
+
+	/** The shift giving the chunk of an entry index. */
+	private static final int CHUNK_SHIFT = 12;
+
+	/** The initial number of entries of a chunk, which doubles until it reaches CHUNK_SIZE. */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/** The chunks of the entries, all full but the last one. */
+	private final List<Chunk> chunks = new ArrayList<Chunk>();
+
+	/** The number of stored entries. */
+	private int size;
+
+	/** Indicates if the entries are kept, or only the aggregates and the last entry. */
+	private boolean keepingEntries = true;
+
+	/** Indicates if there is a last entry. */
+	private boolean hasLast;
+
+	/** The time of the last entry. */
+	private double lastTime;
+
+	/** The allocated mips of the last entry. */
+	private double lastAllocatedMips;
+
+	/** The requested mips of the last entry. */
+	private double lastRequestedMips;
+
+	/** The flag of the last entry. */
+	private boolean lastFlag;
+
+	/** The flag of the entry before the last one, or the initial flag. */
+	private boolean previousFlag;
+
+	/** The time the flag was last set, as of the entry before the last one. */
+	private double flagSetTime;
+
+	/** The total time covered by the entries. */
+	private double totalTime;
+
+	/** The time with the flag set. */
+	private double flaggedTime;
+
+	/** The time with less allocated than requested mips. */
+	private double underAllocatedTime;
+
+	/** The time with the flag set and less allocated than requested mips. */
+	private double flaggedUnderAllocatedTime;
+
+	/** The allocated mips integrated over time. */
+	private double totalAllocatedMips;
+
+	/** The requested mips integrated over time. */
+	private double totalRequestedMips;
+
+	/** The missing mips integrated over the time with the flag set. */
+	private double flaggedUnderAllocatedMips;
+
+	/** The sum of the ratios of missing to requested mips of the under allocated intervals. */
+	private double underAllocationRatioSum;
+
+	/** The number of under allocated intervals. */
+	private int underAllocationCount;
+
+	/** The durations of the periods with the flag set that have ended. */
+	private double[] flaggedPeriodDurations = new double[0];
+
+	/** The number of durations of the periods with the flag set. */
+	private int flaggedPeriodCount;
+
+	/** The view of the entries as host state history entries, created on first use. */
+	private List<HostStateHistoryEntry> hostEntries;
+
+	/** The view of the entries as VM state history entries, created on first use. */
+	private List<VmStateHistoryEntry> vmEntries;
+
+	/**
+	 * Instantiates a new state history store.
+	 *
+	 * @param initialFlag the flag assumed before the first entry, used to compute the durations
+	 *            of the periods with the flag set
+	 */
+	public StateHistoryStore(boolean initialFlag) {
+		previousFlag = initialFlag;
+	}
+
+	/**
+	 * Adds an entry, replacing the last one if it has the same time.
+	 *
+	 * @param time the time
+	 * @param allocatedMips the allocated mips
+	 * @param requestedMips the requested mips
+	 * @param flag the flag
+	 */
+	public void add(double time, double allocatedMips, double requestedMips, boolean flag) {
+		if (hasLast && lastTime == time) {
+			if (keepingEntries) {
+				set(size - 1, time, allocatedMips, requestedMips, flag);
+			}
+		} else {
+			if (hasLast) {
+				aggregate(time);
+			}
+			if (keepingEntries) {
+				append(time, allocatedMips, requestedMips, flag);
+			}
+		}
+		hasLast = true;
+		lastTime = time;
+		lastAllocatedMips = allocatedMips;
+		lastRequestedMips = requestedMips;
+		lastFlag = flag;
+	}
+
+	/**
+	 * Adds the interval from the last entry to a new time to the aggregates.
+	 *
+	 * @param time the time of the new entry
+	 */
+	private void aggregate(double time) {
+		if (previousFlag && !lastFlag) {
+			addFlaggedPeriod(lastTime - flagSetTime);
+		}
+		if (!previousFlag && lastFlag) {
+			flagSetTime = lastTime;
+		}
+		previousFlag = lastFlag;
+
+		double timeDiff = time - lastTime;
+		totalTime += timeDiff;
+		totalAllocatedMips += lastAllocatedMips * timeDiff;
+		totalRequestedMips += lastRequestedMips * timeDiff;
+		if (lastFlag) {
+			flaggedTime += timeDiff;
+		}
+		if (lastAllocatedMips < lastRequestedMips) {
+			underAllocatedTime += timeDiff;
+			underAllocationRatioSum += (lastRequestedMips - lastAllocatedMips) / lastRequestedMips;
+			underAllocationCount++;
+			if (lastFlag) {
+				flaggedUnderAllocatedTime += timeDiff;
+				flaggedUnderAllocatedMips += (lastRequestedMips - lastAllocatedMips) * timeDiff;
+			}
+		}
+	}
+
+	/**
+	 * Adds the duration of a period with the flag set.
+	 *
+	 * @param duration the duration
+	 */
+	private void addFlaggedPeriod(double duration) {
+		if (flaggedPeriodCount == flaggedPeriodDurations.length) {
+			flaggedPeriodDurations = Arrays.copyOf(
+					flaggedPeriodDurations,
+					Math.max(INITIAL_CAPACITY, flaggedPeriodCount * 2));
+		}
+		flaggedPeriodDurations[flaggedPeriodCount++] = duration;
+	}
+
+	/**
+	 * Appends an entry to the columns.
+	 *
+	 * @param time the time
+	 * @param allocatedMips the allocated mips
+	 * @param requestedMips the requested mips
+	 * @param flag the flag
+	 */
+	private void append(double time, double allocatedMips, double requestedMips, boolean flag) {
+		int offset = size & (CHUNK_SIZE - 1);
+		Chunk chunk;
+		if (offset == 0) {
+			chunk = new Chunk(INITIAL_CAPACITY);
+			chunks.add(chunk);
+		} else {
+			chunk = chunks.get(chunks.size() - 1);
+			if (offset == chunk.time.length) {
+				chunk.grow(Math.min(CHUNK_SIZE, offset * 2));
+			}
+		}
+		size++;
+		set(size - 1, time, allocatedMips, requestedMips, flag);
+	}
+
+	/**
+	 * Sets the values of a stored entry.
+	 *
+	 * @param index the index of the entry
+	 * @param time the time
+	 * @param allocatedMips the allocated mips
+	 * @param requestedMips the requested mips
+	 * @param flag the flag
+	 */
+	private void set(int index, double time, double allocatedMips, double requestedMips, boolean flag) {
+		Chunk chunk = chunks.get(index >>> CHUNK_SHIFT);
+		int offset = index & (CHUNK_SIZE - 1);
+		chunk.time[offset] = time;
+		chunk.allocatedMips[offset] = allocatedMips;
+		chunk.requestedMips[offset] = requestedMips;
+		chunk.flag[offset] = flag;
+	}
+
+	/**
+	 * Gets the number of entries that can be read: all the entries if they are kept, otherwise
+	 * at most the last one.
+	 *
+	 * @return the number of entries
+	 */
+	public int size() {
+		if (keepingEntries) {
+			return size;
+		}
+		return hasLast ? 1 : 0;
+	}
+
+	/**
+	 * Checks if there is no entry that can be read.
+	 *
+	 * @return true, if there is no entry
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Checks the index of an entry that can be read.
+	 *
+	 * @param index the index
+	 * @throws IndexOutOfBoundsException if there is no such entry
+	 */
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		}
+	}
+
+	/**
+	 * Gets the time of an entry.
+	 *
+	 * @param index the index of the entry
+	 * @return the time
+	 */
+	public double getTime(int index) {
+		checkIndex(index);
+		if (!keepingEntries) {
+			return lastTime;
+		}
+		return chunks.get(index >>> CHUNK_SHIFT).time[index & (CHUNK_SIZE - 1)];
+	}
+
+	/**
+	 * Gets the allocated mips of an entry.
+	 *
+	 * @param index the index of the entry
+	 * @return the allocated mips
+	 */
+	public double getAllocatedMips(int index) {
+		checkIndex(index);
+		if (!keepingEntries) {
+			return lastAllocatedMips;
+		}
+		return chunks.get(index >>> CHUNK_SHIFT).allocatedMips[index & (CHUNK_SIZE - 1)];
+	}
+
+	/**
+	 * Gets the requested mips of an entry.
+	 *
+	 * @param index the index of the entry
+	 * @return the requested mips
+	 */
+	public double getRequestedMips(int index) {
+		checkIndex(index);
+		if (!keepingEntries) {
+			return lastRequestedMips;
+		}
+		return chunks.get(index >>> CHUNK_SHIFT).requestedMips[index & (CHUNK_SIZE - 1)];
+	}
+
+	/**
+	 * Gets the flag of an entry.
+	 *
+	 * @param index the index of the entry
+	 * @return the flag
+	 */
+	public boolean getFlag(int index) {
+		checkIndex(index);
+		if (!keepingEntries) {
+			return lastFlag;
+		}
+		return chunks.get(index >>> CHUNK_SHIFT).flag[index & (CHUNK_SIZE - 1)];
+	}
+
+	/**
+	 * Gets a read-only list view of the entries that can be read, as host state history entries
+	 * whose flag indicates if the host is active. Each entry is created when it is read.
+	 *
+	 * @return the list of host state history entries
+	 */
+	public List<HostStateHistoryEntry> asHostEntries() {
+		if (hostEntries == null) {
+			hostEntries = new EntryView<HostStateHistoryEntry>() {
+
+				@Override
+				public HostStateHistoryEntry get(int index) {
+					return new HostStateHistoryEntry(
+							getTime(index),
+							getAllocatedMips(index),
+							getRequestedMips(index),
+							getFlag(index));
+				}
+			};
+		}
+		return hostEntries;
+	}
+
+	/**
+	 * Gets a read-only list view of the entries that can be read, as VM state history entries
+	 * whose flag indicates if the VM is in migration. Each entry is created when it is read.
+	 *
+	 * @return the list of VM state history entries
+	 */
+	public List<VmStateHistoryEntry> asVmEntries() {
+		if (vmEntries == null) {
+			vmEntries = new EntryView<VmStateHistoryEntry>() {
+
+				@Override
+				public VmStateHistoryEntry get(int index) {
+					return new VmStateHistoryEntry(
+							getTime(index),
+							getAllocatedMips(index),
+							getRequestedMips(index),
+							getFlag(index));
+				}
+			};
+		}
+		return vmEntries;
+	}
+
+	/**
+	 * Checks if the entries are kept.
+	 *
+	 * @return true, if the entries are kept; false if only the aggregates and the last entry are
+	 */
+	public boolean isKeepingEntries() {
+		return keepingEntries;
+	}
+
+	/**
+	 * Sets if the entries are kept. The entries stored so far are discarded when they stop being
+	 * kept, and the entries are only kept again from the next one added.
+	 *
+	 * @param keepingEntries true to keep the entries; false to keep only the aggregates and the
+	 *            last entry
+	 */
+	public void setKeepingEntries(boolean keepingEntries) {
+		if (keepingEntries == this.keepingEntries) {
+			return;
+		}
+		chunks.clear();
+		size = 0;
+		if (keepingEntries && hasLast) {
+			append(lastTime, lastAllocatedMips, lastRequestedMips, lastFlag);
+		}
+		this.keepingEntries = keepingEntries;
+	}
+
+	/**
+	 * Gets the total time between the first and the last entry.
+	 *
+	 * @return the total time
+	 */
+	public double getTotalTime() {
+		return totalTime;
+	}
+
+	/**
+	 * Gets the time with the flag set.
+	 *
+	 * @return the time with the flag set
+	 */
+	public double getFlaggedTime() {
+		return flaggedTime;
+	}
+
+	/**
+	 * Gets the time with less allocated than requested mips.
+	 *
+	 * @return the under allocated time
+	 */
+	public double getUnderAllocatedTime() {
+		return underAllocatedTime;
+	}
+
+	/**
+	 * Gets the time with the flag set and less allocated than requested mips.
+	 *
+	 * @return the under allocated time with the flag set
+	 */
+	public double getFlaggedUnderAllocatedTime() {
+		return flaggedUnderAllocatedTime;
+	}
+
+	/**
+	 * Gets the allocated mips integrated over time.
+	 *
+	 * @return the total allocated mips
+	 */
+	public double getTotalAllocatedMips() {
+		return totalAllocatedMips;
+	}
+
+	/**
+	 * Gets the requested mips integrated over time.
+	 *
+	 * @return the total requested mips
+	 */
+	public double getTotalRequestedMips() {
+		return totalRequestedMips;
+	}
+
+	/**
+	 * Gets the difference between the requested and the allocated mips integrated over the
+	 * under allocated time with the flag set.
+	 *
+	 * @return the under allocated mips with the flag set
+	 */
+	public double getFlaggedUnderAllocatedMips() {
+		return flaggedUnderAllocatedMips;
+	}
+
+	/**
+	 * Gets the sum over the under allocated intervals between two entries of the ratio of the
+	 * missing mips to the requested mips.
+	 *
+	 * @return the sum of the under allocation ratios
+	 */
+	public double getUnderAllocationRatioSum() {
+		return underAllocationRatioSum;
+	}
+
+	/**
+	 * Gets the number of under allocated intervals between two entries.
+	 *
+	 * @return the number of under allocated intervals
+	 */
+	public int getUnderAllocationCount() {
+		return underAllocationCount;
+	}
+
+	/**
+	 * Gets the durations of the periods with the flag set that have ended, up to the last entry.
+	 * A period starts at the first entry with the flag set after an entry without it, or at time
+	 * 0 if the initial flag is set, and ends at the first entry without the flag.
+	 *
+	 * @return the durations of the periods with the flag set
+	 */
+	public double[] getFlaggedPeriodDurations() {
+		// the last entry may still be replaced, so it is not part of the stored durations
+		boolean lastEndsPeriod = hasLast && previousFlag && !lastFlag;
+		double[] durations = Arrays.copyOf(
+				flaggedPeriodDurations,
+				lastEndsPeriod ? flaggedPeriodCount + 1 : flaggedPeriodCount);
+		if (lastEndsPeriod) {
+			durations[flaggedPeriodCount] = lastTime - flagSetTime;
+		}
+		return durations;
+	}
+
+	/**
+	 * The list view of the entries of the store.
+	 *
+	 * @param <T> the type of the entries
+	 */
+	private abstract class EntryView<T> extends AbstractList<T> implements RandomAccess {
+
+		@Override
+		public int size() {
+			return StateHistoryStore.this.size();
+		}
+
+	}
+
+	/**
+	 * The columns of a chunk of entries.
+	 */
+	private static final class Chunk {
+
+		private double[] time;
+
+		private double[] allocatedMips;
+
+		private double[] requestedMips;
+
+		private boolean[] flag;
+
+		/**
+		 * Instantiates a new chunk.
+		 *
+		 * @param capacity the initial number of entries
+		 */
+		Chunk(int capacity) {
+			time = new double[capacity];
+			allocatedMips = new double[capacity];
+			requestedMips = new double[capacity];
+			flag = new boolean[capacity];
+		}
+
+		/**
+		 * Grows the columns of the chunk.
+		 *
+		 * @param capacity the new number of entries
+		 */
+		void grow(int capacity) {
+			time = Arrays.copyOf(time, capacity);
+			allocatedMips = Arrays.copyOf(allocatedMips, capacity);
+			requestedMips = Arrays.copyOf(requestedMips, capacity);
+			flag = Arrays.copyOf(flag, capacity);
+		}
+
+	}
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class StateHistoryStoreTest {
+
+	private static final double DELTA = 1e-9;
+
+	@Test
+	public void testAddAndReplace() {
+		StateHistoryStore store = new StateHistoryStore(true);
+		assertTrue(store.isEmpty());
+
+		store.add(0, 100, 100, true);
+		store.add(300, 50, 100, true);
+		store.add(300, 80, 100, false);
+		assertEquals(2, store.size());
+		assertEquals(300, store.getTime(1), 0);
+		assertEquals(80, store.getAllocatedMips(1), 0);
+		assertEquals(100, store.getRequestedMips(1), 0);
+		assertFalse(store.getFlag(1));
+		assertTrue(store.getFlag(0));
+	}
+
+	@Test
+	public void testChunks() {
+		StateHistoryStore store = new StateHistoryStore(false);
+		int size = StateHistoryStore.CHUNK_SIZE * 2 + 10;
+		for (int i = 0; i < size; i++) {
+			store.add(i, i * 2, i * 3, i % 2 == 0);
+		}
+		assertEquals(size, store.size());
+		for (int i = 0; i < size; i++) {
+			assertEquals(i, store.getTime(i), 0);
+			assertEquals(i * 2, store.getAllocatedMips(i), 0);
+			assertEquals(i * 3, store.getRequestedMips(i), 0);
+			assertEquals(i % 2 == 0, store.getFlag(i));
+		}
+	}
+
+	@Test
+	public void testEntryViews() {
+		StateHistoryStore store = new StateHistoryStore(false);
+		store.add(0, 100, 100, false);
+		store.add(300, 50, 100, true);
+
+		List<HostStateHistoryEntry> hostEntries = store.asHostEntries();
+		assertSame(hostEntries, store.asHostEntries());
+		assertEquals(2, hostEntries.size());
+		assertEquals(300, hostEntries.get(1).getTime(), 0);
+		assertEquals(50, hostEntries.get(1).getAllocatedMips(), 0);
+		assertTrue(hostEntries.get(1).isActive());
+
+		List<VmStateHistoryEntry> vmEntries = store.asVmEntries();
+		assertEquals(100, vmEntries.get(0).getRequestedMips(), 0);
+		assertFalse(vmEntries.get(0).isInMigration());
+
+		store.add(600, 80, 100, false);
+		assertEquals(3, vmEntries.size());
+		assertEquals(600, vmEntries.get(2).getTime(), 0);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetOutOfBounds() {
+		StateHistoryStore store = new StateHistoryStore(false);
+		store.add(0, 100, 100, false);
+		store.getTime(1);
+	}
+
+	@Test
+	public void testAggregates() {
+		StateHistoryStore store = new StateHistoryStore(true);
+		store.add(0, 100, 100, true);
+		store.add(100, 50, 100, true);
+		store.add(200, 100, 100, false);
+		store.add(300, 20, 40, true);
+		store.add(400, 0, 0, false);
+
+		assertEquals(400, store.getTotalTime(), DELTA);
+		assertEquals(300, store.getFlaggedTime(), DELTA);
+		assertEquals(200, store.getUnderAllocatedTime(), DELTA);
+		assertEquals(200, store.getFlaggedUnderAllocatedTime(), DELTA);
+		assertEquals(10000 + 5000 + 10000 + 2000, store.getTotalAllocatedMips(), DELTA);
+		assertEquals(10000 + 10000 + 10000 + 4000, store.getTotalRequestedMips(), DELTA);
+		assertEquals(5000 + 2000, store.getFlaggedUnderAllocatedMips(), DELTA);
+		assertEquals(1, store.getUnderAllocationRatioSum(), DELTA);
+		assertEquals(2, store.getUnderAllocationCount());
+		assertArrayEquals(new double[] { 200, 100 }, store.getFlaggedPeriodDurations(), DELTA);
+	}
+
+	@Test
+	public void testDiscardedEntries() {
+		StateHistoryStore kept = new StateHistoryStore(false);
+		StateHistoryStore discarded = new StateHistoryStore(false);
+		discarded.setKeepingEntries(false);
+		for (int i = 0; i < 100; i++) {
+			boolean inMigration = i % 7 == 3;
+			double allocated = i % 3 == 0 ? 50 : 100;
+			kept.add(i * 10, allocated, 100, inMigration);
+			discarded.add(i * 10, allocated, 100, inMigration);
+			// replaced entries must not be aggregated
+			kept.add(i * 10, allocated, 100, inMigration);
+			discarded.add(i * 10, allocated, 100, inMigration);
+		}
+
+		assertEquals(100, kept.size());
+		assertEquals(1, discarded.size());
+		assertEquals(990, discarded.getTime(0), 0);
+		assertEquals(kept.getTotalTime(), discarded.getTotalTime(), 0);
+		assertEquals(kept.getFlaggedTime(), discarded.getFlaggedTime(), 0);
+		assertEquals(kept.getTotalAllocatedMips(), discarded.getTotalAllocatedMips(), 0);
+		assertEquals(kept.getUnderAllocationCount(), discarded.getUnderAllocationCount());
+		assertArrayEquals(kept.getFlaggedPeriodDurations(), discarded.getFlaggedPeriodDurations(), 0);
+
+		discarded.setKeepingEntries(true);
+		discarded.add(1000, 100, 100, false);
+		assertEquals(2, discarded.size());
+		assertEquals(990, discarded.getTime(0), 0);
+	}
+
+}
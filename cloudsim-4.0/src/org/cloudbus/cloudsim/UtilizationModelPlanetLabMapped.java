@@ -0,0 +1,99 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import org.cloudbus.cloudsim.util.PlanetLabTraceStore;
+
+/**
+ * Defines the resource utilization model based on
+ * a <a href="https://www.planet-lab.org">PlanetLab</a>
+ * datacenter trace kept in a {@link PlanetLabTraceStore}. It behaves exactly as
+ * {@link UtilizationModelPlanetLabInMemory}, but the samples are read from the memory-mapped
+ * store instead of being parsed into an array of its own.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class UtilizationModelPlanetLabMapped implements UtilizationModel {
+
+	/** The scheduling interval. */
+	private double schedulingInterval;
+
+	/** The trace store. */
+	private final PlanetLabTraceStore store;
+
+	/** The index of the trace in the store. */
+	private final int trace;
+
+	/**
+	 * Instantiates a new PlanetLab resource utilization model from a trace of a store.
+	 *
+	 * @param store the trace store
+	 * @param trace the index of the trace in the store
+	 * @param schedulingInterval the scheduling interval
+	 */
+	public UtilizationModelPlanetLabMapped(PlanetLabTraceStore store, int trace, double schedulingInterval) {
+		if (trace < 0 || trace >= store.size()) {
+			throw new IndexOutOfBoundsException("Trace " + trace + " out of " + store.size());
+		}
+		this.store = store;
+		this.trace = trace;
+		setSchedulingInterval(schedulingInterval);
+	}
+
+	@Override
+	public double getUtilization(double time) {
+		if (time % getSchedulingInterval() == 0) {
+			return store.getSample(trace, (int) time / (int) getSchedulingInterval());
+		}
+		int time1 = (int) Math.floor(time / getSchedulingInterval());
+		int time2 = (int) Math.ceil(time / getSchedulingInterval());
+		double utilization1 = store.getSample(trace, time1);
+		double utilization2 = store.getSample(trace, time2);
+		double delta = (utilization2 - utilization1) / ((time2 - time1) * getSchedulingInterval());
+		double utilization = utilization1 + delta * (time - time1 * getSchedulingInterval());
+		return utilization;
+	}
+
+	/**
+	 * Sets the scheduling interval.
+	 *
+	 * @param schedulingInterval the new scheduling interval
+	 */
+	public void setSchedulingInterval(double schedulingInterval) {
+		this.schedulingInterval = schedulingInterval;
+	}
+
+	/**
+	 * Gets the scheduling interval.
+	 *
+	 * @return the scheduling interval
+	 */
+	public double getSchedulingInterval() {
+		return schedulingInterval;
+	}
+
+	/**
+	 * Gets the trace store.
+	 *
+	 * @return the trace store
+	 */
+	public PlanetLabTraceStore getStore() {
+		return store;
+	}
+
+	/**
+	 * Gets the index of the trace in the store.
+	 *
+	 * @return the index of the trace
+	 */
+	public int getTrace() {
+		return trace;
+	}
+
+}
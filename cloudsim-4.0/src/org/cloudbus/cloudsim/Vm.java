@@ -8,7 +8,6 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -73,15 +72,8 @@ public class Vm {
 	/** Indicates if the VM is being instantiated. */
 	private boolean beingInstantiated;
 
-	/** The mips allocation history. 
-         * @todo Instead of using a list, this attribute would be 
-         * a map, where the key can be the history time
-         * and the value the history itself. 
-         * By this way, if one wants to get the history for a given
-         * time, he/she doesn't have to iterate over the entire list
-         * to find the desired entry.
-         */
-	private final List<VmStateHistoryEntry> stateHistory = new LinkedList<VmStateHistoryEntry>();
+	/** The mips allocation history, whose flag indicates if the VM is in migration. */
+	private final StateHistoryStore stateHistoryStore = new StateHistoryStore(false);
 
 	/**
 	 * Creates a new Vm object.
@@ -169,17 +161,24 @@ public class Vm {
 		return currentRequestedMips;
 	}
 
+	/**
+	 * Gets the current requested mips as a MIPS share. It wraps
+	 * {@link #getCurrentRequestedMips()}, without copying when the scheduler returns the list view
+	 * of a MIPS share.
+	 * 
+	 * @return the current requested mips
+	 */
+	public MipsShare getCurrentRequestedMipsShare() {
+		return MipsShare.valueOf(getCurrentRequestedMips());
+	}
+
 	/**
 	 * Gets the current requested total mips.
 	 * 
 	 * @return the current requested total mips
 	 */
 	public double getCurrentRequestedTotalMips() {
-		double totalRequestedMips = 0;
-		for (double mips : getCurrentRequestedMips()) {
-			totalRequestedMips += mips;
-		}
-		return totalRequestedMips;
+		return getCurrentRequestedMipsShare().getTotal();
 	}
 
 	/**
@@ -188,13 +187,7 @@ public class Vm {
 	 * @return the current requested max mips
 	 */
 	public double getCurrentRequestedMaxMips() {
-		double maxMips = 0;
-		for (double mips : getCurrentRequestedMips()) {
-			if (mips > maxMips) {
-				maxMips = mips;
-			}
-		}
-		return maxMips;
+		return getCurrentRequestedMipsShare().getMax();
 	}
 
 	/**
@@ -579,12 +572,24 @@ public class Vm {
 	}
 
 	/**
-	 * Gets the state history.
+	 * Gets the state history, as a read-only view of {@link #getStateHistoryStore()} whose
+	 * entries are created when they are read.
 	 * 
 	 * @return the state history
 	 */
 	public List<VmStateHistoryEntry> getStateHistory() {
-		return stateHistory;
+		return stateHistoryStore.asVmEntries();
+	}
+
+	/**
+	 * Gets the store of the state history, whose flag indicates if the VM is in migration. It
+	 * also holds the aggregates of the history, which remain available when the entries are not
+	 * kept.
+	 * 
+	 * @return the state history store
+	 */
+	public StateHistoryStore getStateHistoryStore() {
+		return stateHistoryStore;
 	}
 
 	/**
@@ -600,19 +605,7 @@ public class Vm {
 			double allocatedMips,
 			double requestedMips,
 			boolean isInMigration) {
-		VmStateHistoryEntry newState = new VmStateHistoryEntry(
-				time,
-				allocatedMips,
-				requestedMips,
-				isInMigration);
-		if (!getStateHistory().isEmpty()) {
-			VmStateHistoryEntry previousState = getStateHistory().get(getStateHistory().size() - 1);
-			if (previousState.getTime() == time) {
-				getStateHistory().set(getStateHistory().size() - 1, newState);
-				return;
-			}
-		}
-		getStateHistory().add(newState);
+		getStateHistoryStore().add(time, allocatedMips, requestedMips, isInMigration);
 	}
 
 }
@@ -62,16 +62,30 @@ public abstract class VmAllocationPolicy {
 	 * Optimize allocation of the VMs according to current utilization.
 	 * 
 	 * @param vmList the vm list
-	 * @return the array list< hash map< string, object>>
-         * 
-         * @todo It returns a list of maps, where each map key is a string 
-         * and stores an object. What in fact are the keys and values of this
-         * Map? Neither this class or its subclasses implement the method
-         * or have clear documentation. The only sublcass is the {@link VmAllocationPolicySimple}. 
-         * 
+	 * @return the list of VM migrations, each one being a map that stores the VM to migrate
+	 *         under the "vm" key and the target host under the "host" key, or $null if no
+	 *         migration is needed
+	 * @see #optimizeAllocationPlan(List)
 	 */
 	public abstract List<Map<String, Object>> optimizeAllocation(List<? extends Vm> vmList);
 
+	/**
+	 * Optimize allocation of the VMs according to current utilization, returning the VM
+	 * migrations as a {@link MigrationPlan}. The default implementation converts the result of
+	 * {@link #optimizeAllocation(List)}, and the policies that compute migrations override it to
+	 * build the plan directly.
+	 * 
+	 * @param vmList the vm list
+	 * @return the migration plan, or $null if no migration is needed
+	 */
+	public MigrationPlan optimizeAllocationPlan(List<? extends Vm> vmList) {
+		List<Map<String, Object>> migrationMap = optimizeAllocation(vmList);
+		if (migrationMap == null) {
+			return null;
+		}
+		return MigrationPlan.fromMapList(migrationMap);
+	}
+
 	/**
 	 * Releases the host used by a VM.
 	 * 
@@ -44,7 +44,7 @@ public abstract class VmScheduler {
          * may be confused with this one. So, the name of this one
          * may be changed to something such as allocatedMipsMap
          */
-	private Map<String, List<Double>> mipsMap;
+	private Map<String, MipsShare> mipsMap;
 
 	/** The total available MIPS that can be allocated on demand for VMs. */
 	private double availableMips;
@@ -65,7 +65,7 @@ public abstract class VmScheduler {
 	public VmScheduler(List<? extends Pe> pelist) {
 		setPeList(pelist);
 		setPeMap(new HashMap<String, List<Pe>>());
-		setMipsMap(new HashMap<String, List<Double>>());
+		setMipsMap(new HashMap<String, MipsShare>());
 		setAvailableMips(PeList.getTotalMips(getPeList()));
 		setVmsMigratingIn(new ArrayList<String>());
 		setVmsMigratingOut(new ArrayList<String>());
@@ -82,6 +82,21 @@ public abstract class VmScheduler {
 	 */
 	public abstract boolean allocatePesForVm(Vm vm, List<Double> mipsShare);
 
+	/**
+	 * Requests the allocation of PEs for a VM. By default it adapts the MIPS share to
+	 * {@link #allocatePesForVm(Vm, List)}; schedulers that can work on the MIPS share directly
+	 * should override it, and make the list-based method delegate to it.
+	 * 
+	 * @param vm the vm
+	 * @param mipsShare the MIPS share to be allocated to a VM
+	 * @return $true if this policy allows a new VM in the host, $false otherwise
+	 * @pre $none
+	 * @post $none
+	 */
+	public boolean allocatePesForVm(Vm vm, MipsShare mipsShare) {
+		return allocatePesForVm(vm, mipsShare.asList());
+	}
+
 	/**
 	 * Releases PEs allocated to a VM. After that, the PEs may be used
          * on demand by other VMs.
@@ -126,6 +141,22 @@ public abstract class VmScheduler {
 	 * @post $none
 	 */
 	public List<Double> getAllocatedMipsForVm(Vm vm) {
+		MipsShare mipsShare = getAllocatedMipsShareForVm(vm);
+		if (mipsShare == null) {
+			return null;
+		}
+		return mipsShare.asList();
+	}
+
+	/**
+	 * Returns the MIPS share of each host's Pe that is allocated to a given VM.
+	 * 
+	 * @param vm the vm
+	 * @return the MIPS share available to the VM, or $null if the VM has no PEs allocated
+	 * @pre $none
+	 * @post $none
+	 */
+	public MipsShare getAllocatedMipsShareForVm(Vm vm) {
 		return getMipsMap().get(vm.getUid());
 	}
 
@@ -136,14 +167,11 @@ public abstract class VmScheduler {
 	 * @return the total allocated mips for the vm
 	 */
 	public double getTotalAllocatedMipsForVm(Vm vm) {
-		double allocated = 0;
-		List<Double> mipsMap = getAllocatedMipsForVm(vm);
-		if (mipsMap != null) {
-			for (double mips : mipsMap) {
-				allocated += mips;
-			}
+		MipsShare mipsShare = getAllocatedMipsShareForVm(vm);
+		if (mipsShare == null) {
+			return 0;
 		}
-		return allocated;
+		return mipsShare.getTotal();
 	}
 
 	/**
@@ -212,7 +240,7 @@ public abstract class VmScheduler {
 	 * 
 	 * @return the mips map
 	 */
-	protected Map<String, List<Double>> getMipsMap() {
+	protected Map<String, MipsShare> getMipsMap() {
 		return mipsMap;
 	}
 
@@ -221,7 +249,7 @@ public abstract class VmScheduler {
 	 * 
 	 * @param mipsMap the mips map
 	 */
-	protected void setMipsMap(Map<String, List<Double>> mipsMap) {
+	protected void setMipsMap(Map<String, MipsShare> mipsMap) {
 		this.mipsMap = mipsMap;
 	}
 
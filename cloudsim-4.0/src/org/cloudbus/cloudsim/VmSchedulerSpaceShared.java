@@ -75,7 +75,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 		getFreePes().removeAll(selectedPes);
 
 		getPeAllocationMap().put(vm.getUid(), selectedPes);
-		getMipsMap().put(vm.getUid(), mipsShare);
+		getMipsMap().put(vm.getUid(), MipsShare.valueOf(mipsShare));
 		setAvailableMips(getAvailableMips() - totalMips);
 		return true;
 	}
@@ -85,11 +85,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 		getFreePes().addAll(getPeAllocationMap().get(vm.getUid()));
 		getPeAllocationMap().remove(vm.getUid());
 
-		double totalMips = 0;
-		for (double mips : getMipsMap().get(vm.getUid())) {
-			totalMips += mips;
-		}
-		setAvailableMips(getAvailableMips() + totalMips);
+		setAvailableMips(getAvailableMips() + getMipsMap().get(vm.getUid()).getTotal());
 
 		getMipsMap().remove(vm.getUid());
 	}
@@ -7,7 +7,6 @@
 
 package org.cloudbus.cloudsim;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -34,7 +33,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	/** The map of requested mips, where each key is a VM
          * and each value is a list of MIPS requested by that VM. 
          */
-	private Map<String, List<Double>> mipsMapRequested;
+	private Map<String, MipsShare> mipsMapRequested;
 
 	/** The number of host's PEs in use. */
 	private int pesInUse;
@@ -46,11 +45,16 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 */
 	public VmSchedulerTimeShared(List<? extends Pe> pelist) {
 		super(pelist);
-		setMipsMapRequested(new HashMap<String, List<Double>>());
+		setMipsMapRequested(new HashMap<String, MipsShare>());
 	}
 
 	@Override
 	public boolean allocatePesForVm(Vm vm, List<Double> mipsShareRequested) {
+		return allocatePesForVm(vm, MipsShare.valueOf(mipsShareRequested));
+	}
+
+	@Override
+	public boolean allocatePesForVm(Vm vm, MipsShare mipsShareRequested) {
 		/*
 		 * @todo add the same to RAM and BW provisioners
 		 */
@@ -76,9 +80,21 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 * @return true, if successful
 	 */
 	protected boolean allocatePesForVm(String vmUid, List<Double> mipsShareRequested) {
+		return allocatePesForVm(vmUid, MipsShare.valueOf(mipsShareRequested));
+	}
+
+	/**
+	 * Allocate PEs for a vm.
+	 * 
+	 * @param vmUid the vm uid
+	 * @param mipsShareRequested the mips share requested by the vm
+	 * @return true, if successful
+	 */
+	protected boolean allocatePesForVm(String vmUid, MipsShare mipsShareRequested) {
 		double totalRequestedMips = 0;
 		double peMips = getPeCapacity();
-		for (Double mips : mipsShareRequested) {
+		for (int i = 0; i < mipsShareRequested.size(); i++) {
+			double mips = mipsShareRequested.get(i);
 			// each virtual PE of a VM must require not more than the capacity of a physical PE
 			if (mips > peMips) {
 				return false;
@@ -99,16 +115,13 @@ public class VmSchedulerTimeShared extends VmScheduler {
 			totalRequestedMips *= 0.1;
 		}
 
-		List<Double> mipsShareAllocated = new ArrayList<Double>();
-		for (Double mipsRequested : mipsShareRequested) {
-			if (getVmsMigratingOut().contains(vmUid)) {
-				// performance degradation due to migration = 10% MIPS
-				mipsRequested *= 0.9;
-			} else if (getVmsMigratingIn().contains(vmUid)) {
-				// the destination host only experience 10% of the migrating VM's MIPS
-				mipsRequested *= 0.1;
-			}
-			mipsShareAllocated.add(mipsRequested);
+		MipsShare mipsShareAllocated = mipsShareRequested;
+		if (getVmsMigratingOut().contains(vmUid)) {
+			// performance degradation due to migration = 10% MIPS
+			mipsShareAllocated = mipsShareRequested.multiply(0.9);
+		} else if (getVmsMigratingIn().contains(vmUid)) {
+			// the destination host only experience 10% of the migrating VM's MIPS
+			mipsShareAllocated = mipsShareRequested.multiply(0.1);
 		}
 
 		getMipsMap().put(vmUid, mipsShareAllocated);
@@ -133,11 +146,13 @@ public class VmSchedulerTimeShared extends VmScheduler {
 		PeProvisioner peProvisioner = pe.getPeProvisioner();
 		double availableMips = peProvisioner.getAvailableMips();
 
-		for (Map.Entry<String, List<Double>> entry : getMipsMap().entrySet()) {
+		for (Map.Entry<String, MipsShare> entry : getMipsMap().entrySet()) {
 			String vmUid = entry.getKey();
 			getPeMap().put(vmUid, new LinkedList<Pe>());
 
-			for (double mips : entry.getValue()) {
+			MipsShare mipsShare = entry.getValue();
+			for (int i = 0; i < mipsShare.size(); i++) {
+				double mips = mipsShare.get(i);
 				while (mips >= 0.1) {
 					if (availableMips >= mips) {
 						peProvisioner.allocateMipsForVm(vmUid, mips);
@@ -175,7 +190,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 			pe.getPeProvisioner().deallocateMipsForVm(vm);
 		}
 
-		for (Map.Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
+		for (Map.Entry<String, MipsShare> entry : getMipsMapRequested().entrySet()) {
 			allocatePesForVm(entry.getKey(), entry.getValue());
 		}
 
@@ -229,7 +244,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 * 
 	 * @return the mips map requested
 	 */
-	protected Map<String, List<Double>> getMipsMapRequested() {
+	protected Map<String, MipsShare> getMipsMapRequested() {
 		return mipsMapRequested;
 	}
 
@@ -238,7 +253,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 * 
 	 * @param mipsMapRequested the mips map requested
 	 */
-	protected void setMipsMapRequested(Map<String, List<Double>> mipsMapRequested) {
+	protected void setMipsMapRequested(Map<String, MipsShare> mipsMapRequested) {
 		this.mipsMapRequested = mipsMapRequested;
 	}
 
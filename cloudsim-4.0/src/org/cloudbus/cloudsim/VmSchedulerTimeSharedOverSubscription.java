@@ -7,7 +7,6 @@
 
 package org.cloudbus.cloudsim;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,26 +42,15 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
          * capacity of a single physical PE.
 	 * 
 	 * @param vmUid the vm uid
-	 * @param mipsShareRequested the list of mips share requested
+	 * @param mipsShareRequested the mips share requested
 	 * @return true, if successful
 	 */
 	@Override
-	protected boolean allocatePesForVm(String vmUid, List<Double> mipsShareRequested) {
-		double totalRequestedMips = 0;
-
+	protected boolean allocatePesForVm(String vmUid, MipsShare mipsShareRequested) {
 		// if the requested mips is bigger than the capacity of a single PE, we cap
 		// the request to the PE's capacity
-		List<Double> mipsShareRequestedCapped = new ArrayList<Double>();
-		double peMips = getPeCapacity();
-		for (Double mips : mipsShareRequested) {
-			if (mips > peMips) {
-				mipsShareRequestedCapped.add(peMips);
-				totalRequestedMips += peMips;
-			} else {
-				mipsShareRequestedCapped.add(mips);
-				totalRequestedMips += mips;
-			}
-		}
+		MipsShare mipsShareRequestedCapped = mipsShareRequested.cap(getPeCapacity());
+		double totalRequestedMips = mipsShareRequestedCapped.getTotal();
 
 		getMipsMapRequested().put(vmUid, mipsShareRequested);
 		setPesInUse(getPesInUse() + mipsShareRequested.size());
@@ -73,16 +61,13 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		}
 
 		if (getAvailableMips() >= totalRequestedMips) {
-			List<Double> mipsShareAllocated = new ArrayList<Double>();
-			for (Double mipsRequested : mipsShareRequestedCapped) {
-				if (getVmsMigratingOut().contains(vmUid)) {
-					// performance degradation due to migration = 10% MIPS
-					mipsRequested *= 0.9;
-				} else if (getVmsMigratingIn().contains(vmUid)) {
-					// the destination host only experience 10% of the migrating VM's MIPS
-					mipsRequested *= 0.1;
-				}
-				mipsShareAllocated.add(mipsRequested);
+			MipsShare mipsShareAllocated = mipsShareRequestedCapped;
+			if (getVmsMigratingOut().contains(vmUid)) {
+				// performance degradation due to migration = 10% MIPS
+				mipsShareAllocated = mipsShareRequestedCapped.multiply(0.9);
+			} else if (getVmsMigratingIn().contains(vmUid)) {
+				// the destination host only experience 10% of the migrating VM's MIPS
+				mipsShareAllocated = mipsShareRequestedCapped.multiply(0.1);
 			}
 
 			getMipsMap().put(vmUid, mipsShareAllocated);
@@ -103,23 +88,11 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		// proportionally
 		double totalRequiredMipsByAllVms = 0;
 
-		Map<String, List<Double>> mipsMapCapped = new HashMap<String, List<Double>>();
-		for (Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
-
-			double requiredMipsByThisVm = 0.0;
+		Map<String, MipsShare> mipsMapCapped = new HashMap<String, MipsShare>();
+		for (Entry<String, MipsShare> entry : getMipsMapRequested().entrySet()) {
 			String vmId = entry.getKey();
-			List<Double> mipsShareRequested = entry.getValue();
-			List<Double> mipsShareRequestedCapped = new ArrayList<Double>();
-			double peMips = getPeCapacity();
-			for (Double mips : mipsShareRequested) {
-				if (mips > peMips) {
-					mipsShareRequestedCapped.add(peMips);
-					requiredMipsByThisVm += peMips;
-				} else {
-					mipsShareRequestedCapped.add(mips);
-					requiredMipsByThisVm += mips;
-				}
-			}
+			MipsShare mipsShareRequestedCapped = entry.getValue().cap(getPeCapacity());
+			double requiredMipsByThisVm = mipsShareRequestedCapped.getTotal();
 
 			mipsMapCapped.put(vmId, mipsShareRequestedCapped);
 
@@ -137,12 +110,13 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		getMipsMap().clear();
 
 		// Update the actual MIPS allocated to the VMs
-		for (Entry<String, List<Double>> entry : mipsMapCapped.entrySet()) {
+		for (Entry<String, MipsShare> entry : mipsMapCapped.entrySet()) {
 			String vmUid = entry.getKey();
-			List<Double> requestedMips = entry.getValue();
+			MipsShare requestedMips = entry.getValue();
 
-			List<Double> updatedMipsAllocation = new ArrayList<Double>();
-			for (Double mips : requestedMips) {
+			double[] updatedMipsAllocation = new double[requestedMips.size()];
+			for (int i = 0; i < requestedMips.size(); i++) {
+				double mips = requestedMips.get(i);
 				if (getVmsMigratingOut().contains(vmUid)) {
 					// the original amount is scaled
 					mips *= scalingFactor;
@@ -157,11 +131,11 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 					mips *= scalingFactor;
 				}
 
-				updatedMipsAllocation.add(Math.floor(mips));
+				updatedMipsAllocation[i] = Math.floor(mips);
 			}
 
 			// add in the new map
-			getMipsMap().put(vmUid, updatedMipsAllocation);
+			getMipsMap().put(vmUid, MipsShare.wrap(updatedMipsAllocation));
 
 		}
 
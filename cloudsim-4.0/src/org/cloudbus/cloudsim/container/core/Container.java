@@ -104,9 +104,9 @@ public class Container {
     private boolean beingInstantiated;
 
     /**
-     * The mips allocation history.
+     * The mips allocation history, whose flag indicates if the container is in migration.
      */
-    private final List<VmStateHistoryEntry> stateHistory = new LinkedList<VmStateHistoryEntry>();
+    private final StateHistoryStore stateHistoryStore = new StateHistoryStore(false);
 
 //    added from the power Vm
     /**
@@ -610,12 +610,22 @@ public class Container {
     }
 
     /**
-     * Gets the state history.
+     * Gets the state history, as a read-only view of {@link #getStateHistoryStore()} whose
+     * entries are created when they are read.
      *
      * @return the state history
      */
     public List<VmStateHistoryEntry> getStateHistory() {
-        return stateHistory;
+        return stateHistoryStore.asVmEntries();
+    }
+
+    /**
+     * Gets the store of the state history, whose flag indicates if the container is in migration.
+     *
+     * @return the state history store
+     */
+    public StateHistoryStore getStateHistoryStore() {
+        return stateHistoryStore;
     }
 
     /**
@@ -631,19 +641,7 @@ public class Container {
             double allocatedMips,
             double requestedMips,
             boolean isInMigration) {
-        VmStateHistoryEntry newState = new VmStateHistoryEntry(
-                time,
-                allocatedMips,
-                requestedMips,
-                isInMigration);
-        if (!getStateHistory().isEmpty()) {
-            VmStateHistoryEntry previousState = getStateHistory().get(getStateHistory().size() - 1);
-            if (previousState.getTime() == time) {
-                getStateHistory().set(getStateHistory().size() - 1, newState);
-                return;
-            }
-        }
-        getStateHistory().add(newState);
+        getStateHistoryStore().add(time, allocatedMips, requestedMips, isInMigration);
     }
 
 
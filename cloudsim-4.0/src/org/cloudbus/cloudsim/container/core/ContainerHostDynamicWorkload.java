@@ -6,10 +6,10 @@ import org.cloudbus.cloudsim.container.lists.ContainerVmPeList;
 import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmRamProvisioner;
 import org.cloudbus.cloudsim.container.schedulers.ContainerVmScheduler;
 import org.cloudbus.cloudsim.HostStateHistoryEntry;
+import org.cloudbus.cloudsim.StateHistoryStore;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.CloudSim;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -24,8 +24,10 @@ public class ContainerHostDynamicWorkload extends ContainerHost{
         /** The previous utilization mips. */
         private double previousUtilizationMips;
 
-        /** The state history. */
-        private final List<HostStateHistoryEntry> stateHistory = new LinkedList<HostStateHistoryEntry>();
+        /**
+         * The state history, whose flag indicates if the host is active.
+         */
+        private final StateHistoryStore stateHistoryStore = new StateHistoryStore(true);
 
         /**
          * Instantiates a new host.
@@ -286,12 +288,22 @@ public class ContainerHostDynamicWorkload extends ContainerHost{
         }
 
         /**
-         * Gets the state history.
+         * Gets the state history, as a read-only view of {@link #getStateHistoryStore()} whose
+         * entries are created when they are read.
          *
          * @return the state history
          */
         public List<HostStateHistoryEntry> getStateHistory() {
-            return stateHistory;
+            return stateHistoryStore.asHostEntries();
+        }
+
+        /**
+         * Gets the store of the state history, whose flag indicates if the host is active.
+         *
+         * @return the state history store
+         */
+        public StateHistoryStore getStateHistoryStore() {
+            return stateHistoryStore;
         }
 
         /**
@@ -306,19 +318,7 @@ public class ContainerHostDynamicWorkload extends ContainerHost{
         void
         addStateHistoryEntry(double time, double allocatedMips, double requestedMips, boolean isActive) {
 
-            HostStateHistoryEntry newState = new HostStateHistoryEntry(
-                    time,
-                    allocatedMips,
-                    requestedMips,
-                    isActive);
-            if (!getStateHistory().isEmpty()) {
-                HostStateHistoryEntry previousState = getStateHistory().get(getStateHistory().size() - 1);
-                if (previousState.getTime() == time) {
-                    getStateHistory().set(getStateHistory().size() - 1, newState);
-                    return;
-                }
-            }
-            getStateHistory().add(newState);
+            getStateHistoryStore().add(time, allocatedMips, requestedMips, isActive);
         }
 
     }
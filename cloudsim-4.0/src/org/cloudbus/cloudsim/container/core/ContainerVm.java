@@ -6,11 +6,11 @@ import org.cloudbus.cloudsim.container.containerProvisioners.ContainerRamProvisi
 import org.cloudbus.cloudsim.container.lists.ContainerPeList;
 import org.cloudbus.cloudsim.container.schedulers.ContainerScheduler;
 import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.StateHistoryStore;
 import org.cloudbus.cloudsim.VmStateHistoryEntry;
 import org.cloudbus.cloudsim.core.CloudSim;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -122,9 +122,9 @@ public class ContainerVm {
     private boolean beingInstantiated;
 
     /**
-     * The mips allocation history.
+     * The mips allocation history, whose flag indicates if the VM is in migration.
      */
-    private final List<VmStateHistoryEntry> stateHistory = new LinkedList<VmStateHistoryEntry>();
+    private final StateHistoryStore stateHistoryStore = new StateHistoryStore(false);
 
 
     /**
@@ -757,12 +757,22 @@ public class ContainerVm {
 	}
 
     /**
-     * Gets the state history.
+     * Gets the state history, as a read-only view of {@link #getStateHistoryStore()} whose
+     * entries are created when they are read.
      *
      * @return the state history
      */
     public List<VmStateHistoryEntry> getStateHistory() {
-        return stateHistory;
+        return stateHistoryStore.asVmEntries();
+    }
+
+    /**
+     * Gets the store of the state history, whose flag indicates if the VM is in migration.
+     *
+     * @return the state history store
+     */
+    public StateHistoryStore getStateHistoryStore() {
+        return stateHistoryStore;
     }
 
     /**
@@ -778,19 +788,7 @@ public class ContainerVm {
             double allocatedMips,
             double requestedMips,
             boolean isInMigration) {
-        VmStateHistoryEntry newState = new VmStateHistoryEntry(
-                time,
-                allocatedMips,
-                requestedMips,
-                isInMigration);
-        if (!getStateHistory().isEmpty()) {
-            VmStateHistoryEntry previousState = getStateHistory().get(getStateHistory().size() - 1);
-            if (previousState.getTime() == time) {
-                getStateHistory().set(getStateHistory().size() - 1, newState);
-                return;
-            }
-        }
-        getStateHistory().add(newState);
+        getStateHistoryStore().add(time, allocatedMips, requestedMips, isInMigration);
     }
 
     /**
@@ -7,6 +7,7 @@ package org.cloudbus.cloudsim.container.utils;
 import org.cloudbus.cloudsim.container.containerProvisioners.ContainerPe;
 import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmPe;
 import org.cloudbus.cloudsim.container.core.*;
+import org.cloudbus.cloudsim.core.SimulationContext;
 
 import java.util.LinkedHashMap;
 import java.util.HashSet;
@@ -18,6 +19,9 @@ import java.util.Map;
  * are provided by the end user. This class is a utility for automatically
  * generating valid ids.
  * Modifies for containers
+ * <p>
+ * The counters are kept in the {@link SimulationContext} of the calling thread, so
+ * simulations running concurrently in different contexts get independent ids.
  *
  * @author nikolay.grozev
  */
@@ -25,23 +29,42 @@ import java.util.Map;
 public final class IDs {
 
 
-    private static final Map<Class<?>, Integer> COUNTERS = new LinkedHashMap<>();
-    private static final Set<Class<?>> NO_COUNTERS = new HashSet<>();
-    private static int globalCounter = 1;
-
-    static {
-        COUNTERS.put(ContainerCloudlet.class, 1);
-        COUNTERS.put(ContainerVm.class, 1);
-        COUNTERS.put(Container.class, 1);
-        COUNTERS.put(ContainerHost.class, 1);
-        COUNTERS.put(ContainerDatacenterBroker.class, 1);
-        COUNTERS.put(ContainerPe.class, 1);
-        COUNTERS.put(ContainerVmPe.class, 1);
+    /**
+     * The id counters of a simulation context.
+     */
+    private static final class Counters {
+        private final Map<Class<?>, Integer> counters = new LinkedHashMap<>();
+        private final Set<Class<?>> noCounters = new HashSet<>();
+        private int globalCounter = 1;
+
+        private Counters() {
+            counters.put(ContainerCloudlet.class, 1);
+            counters.put(ContainerVm.class, 1);
+            counters.put(Container.class, 1);
+            counters.put(ContainerHost.class, 1);
+            counters.put(ContainerDatacenterBroker.class, 1);
+            counters.put(ContainerPe.class, 1);
+            counters.put(ContainerVmPe.class, 1);
+        }
     }
 
     private IDs() {
     }
 
+    /**
+     * Returns the id counters of the simulation context of the calling thread.
+     *
+     * @return the id counters.
+     */
+    private static Counters getCounters() {
+        SimulationContext context = SimulationContext.getCurrent();
+        Counters counters = context.getComponent(Counters.class);
+        if (counters == null) {
+            counters = context.setComponentIfAbsent(Counters.class, new Counters());
+        }
+        return counters;
+    }
+
     /**
      * Returns a valid id for the specified class.
      *
@@ -49,11 +72,13 @@ public final class IDs {
      * @return a valid id for the specified class.
      */
     public static synchronized int pollId(final Class<?> clazz) {
+        Counters state = getCounters();
+        Map<Class<?>, Integer> counters = state.counters;
         Class<?> matchClass = null;
-        if (COUNTERS.containsKey(clazz)) {
+        if (counters.containsKey(clazz)) {
             matchClass = clazz;
-        } else if (!NO_COUNTERS.contains(clazz)) {
-            for (Class<?> key : COUNTERS.keySet()) {
+        } else if (!state.noCounters.contains(clazz)) {
+            for (Class<?> key : counters.keySet()) {
                 if (key.isAssignableFrom(clazz)) {
                     matchClass = key;
                     break;
@@ -63,11 +88,11 @@ public final class IDs {
 
         int result = -1;
         if (matchClass == null) {
-            NO_COUNTERS.add(clazz);
-            result = pollGlobalId();
+            state.noCounters.add(clazz);
+            result = state.globalCounter++;
         } else {
-            result = COUNTERS.get(matchClass);
-            COUNTERS.put(matchClass, result + 1);
+            result = counters.get(matchClass);
+            counters.put(matchClass, result + 1);
         }
 
         if (result < 0) {
@@ -78,10 +103,6 @@ public final class IDs {
         return result;
     }
 
-    private static synchronized int pollGlobalId() {
-        return globalCounter++;
-    }
-
 }
 
 
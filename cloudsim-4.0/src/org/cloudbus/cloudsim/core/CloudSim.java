@@ -9,9 +9,9 @@
 package org.cloudbus.cloudsim.core;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -21,6 +21,7 @@ import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.predicates.Predicate;
 import org.cloudbus.cloudsim.core.predicates.PredicateAny;
 import org.cloudbus.cloudsim.core.predicates.PredicateNone;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
 /**
  * This class extends the CloudSimCore to enable network simulation in CloudSim. Also, it disables
@@ -29,6 +30,10 @@ import org.cloudbus.cloudsim.core.predicates.PredicateNone;
  * network. Later, nodes in such file are mapped to CloudSim entities. Delay calculated from the
  * BRITE model are added to the messages send through CloudSim. Messages using the old model are
  * converted to the apropriate methods with the correct parameters.
+ * <p>
+ * The state of the simulation is kept in a {@link SimulationContext}. The static methods of this
+ * class act on the context bound to the calling thread, or on a default context if there is none,
+ * so several simulations can run concurrently in the same JVM, each one in its own thread.
  * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
@@ -39,32 +44,19 @@ public class CloudSim {
 	/** The Constant CLOUDSIM_VERSION_STRING. */
 	private static final String CLOUDSIM_VERSION_STRING = "3.0";
 
-	/** The id of CIS entity. */
-	private static int cisId = -1;
-
-	/** The id of CloudSimShutdown entity. */
-	@SuppressWarnings("unused")
-	private static int shutdownId = -1;
-
-	/** The CIS object. */
-	private static CloudInformationService cis = null;
-
 	/** The Constant NOT_FOUND. */
 	private static final int NOT_FOUND = -1;
 
-	/** The trace flag. */
-	@SuppressWarnings("unused")
-	private static boolean traceFlag = false;
-
-	/** The calendar. */
-	private static Calendar calendar = null;
-
-	/** The termination time. */
-	private static double terminateAt = -1;
+	/**
+	 * Gets the context on which the static methods of this class act in the calling thread.
+	 * 
+	 * @return the simulation context
+	 * @see SimulationContext#getCurrent()
+	 */
+	public static SimulationContext getContext() {
+		return SimulationContext.getCurrent();
+	}
 
-	/** The minimal time between events. Events within shorter periods after the last event are discarded. */
-	private static double minTimeBetweenEvents = 0.1;
-	
 	/**
 	 * Initialises all the common attributes.
 	 * 
@@ -79,20 +71,21 @@ public class CloudSim {
 	private static void initCommonVariable(Calendar _calendar, boolean _traceFlag, int numUser)
 			throws Exception {
 		initialize();
+		SimulationContext context = getContext();
 		// NOTE: the order for the below 3 lines are important
-		traceFlag = _traceFlag;
+		context.traceFlag = _traceFlag;
 
 		// Set the current Wall clock time as the starting time of
 		// simulation
 		if (_calendar == null) {
-			calendar = Calendar.getInstance();
+			context.calendar = Calendar.getInstance();
 		} else {
-			calendar = _calendar;
+			context.calendar = _calendar;
 		}
 
 		// creates a CloudSimShutdown object
 		CloudSimShutdown shutdown = new CloudSimShutdown("CloudSimShutdown", numUser);
-		shutdownId = shutdown.getId();
+		context.shutdownId = shutdown.getId();
 	}
 
 	/**
@@ -121,10 +114,11 @@ public class CloudSim {
 			initCommonVariable(cal, traceFlag, numUser);
 
 			// create a GIS object
-			cis = new CloudInformationService("CloudInformationService");
+			SimulationContext context = getContext();
+			context.cis = new CloudInformationService("CloudInformationService");
 
 			// set all the above entity IDs
-			cisId = cis.getId();
+			context.cisId = context.cis.getId();
 		} catch (IllegalArgumentException s) {
 			Log.printLine("CloudSim.init(): The simulation has been terminated due to an unexpected error");
 			Log.printLine(s.getMessage());
@@ -163,7 +157,7 @@ public class CloudSim {
 	    }
 	    
 	    init(numUser, cal, traceFlag);
-	    minTimeBetweenEvents = periodBetweenEvents;
+	    getContext().minTimeBetweenEvents = periodBetweenEvents;
 	}
 	
 	
@@ -187,12 +181,13 @@ public class CloudSim {
 		try {
 			double clock = run();
 
-			// reset all static variables
-			cisId = -1;
-			shutdownId = -1;
-			cis = null;
-			calendar = null;
-			traceFlag = false;
+			// reset all the simulation variables
+			SimulationContext context = getContext();
+			context.cisId = -1;
+			context.shutdownId = -1;
+			context.cis = null;
+			context.calendar = null;
+			context.traceFlag = false;
 
 			return clock;
 		} catch (IllegalArgumentException e) {
@@ -229,7 +224,7 @@ public class CloudSim {
 	 * @return true, if successful; false otherwise.
 	 */
 	public static boolean terminateSimulation() {
-		running = false;
+		getContext().running = false;
 		printMessage("Simulation: Reached termination time.");
 		return true;
 	}
@@ -241,10 +236,11 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean terminateSimulation(double time) {
-		if (time <= clock) {
+		SimulationContext context = getContext();
+		if (time <= context.clock) {
 			return false;
 		} else {
-			terminateAt = time;
+			context.terminateAt = time;
 		}
 		return true;
 	}
@@ -255,7 +251,7 @@ public class CloudSim {
 	 * @return the minimum time between events.
 	 */
 	public static double getMinTimeBetweenEvents() {
-	    return minTimeBetweenEvents;
+	    return getContext().minTimeBetweenEvents;
 	}
 
 	/**
@@ -269,6 +265,7 @@ public class CloudSim {
 	 */
 	public static Calendar getSimulationCalendar() {
 		// make a new copy
+		Calendar calendar = getContext().calendar;
 		Calendar clone = calendar;
 		if (calendar != null) {
 			clone = (Calendar) calendar.clone();
@@ -285,7 +282,7 @@ public class CloudSim {
 	 * @post $result >= -1
 	 */
 	public static int getCloudInfoServiceEntityId() {
-		return cisId;
+		return getContext().cisId;
 	}
 
 	/**
@@ -298,6 +295,7 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static List<Integer> getCloudResourceList() {
+		CloudInformationService cis = getContext().cis;
 		if (cis == null) {
 			return null;
 		}
@@ -307,52 +305,63 @@ public class CloudSim {
 
 	// ======== SIMULATION METHODS ===============//
 
-	/** The entities. */
-	private static List<SimEntity> entities;
-
-	/** The future event queue. */
-	protected static FutureQueue future;
-
-	/** The deferred event queue. */
-	protected static DeferredQueue deferred;
-
-	/** 
-         * The current simulation clock.
-         */
-	private static double clock;
-
-	/** Flag for checking if the simulation is running. */
-	private static boolean running;
-
-	/** The entities by name. */
-	private static Map<String, SimEntity> entitiesByName;
-
-	// The predicates used in entity wait methods
-	/** The wait predicates. */
-	private static Map<Integer, Predicate> waitPredicates;
-
-	/** The paused. */
-	private static boolean paused = false;
-
-	/** The pause at. */
-	private static long pauseAt = -1;
-
-	/** The abrupt terminate. */
-	private static boolean abruptTerminate = false;
-
 	/**
 	 * Initialise the simulation for stand alone simulations. This function should be called at the
 	 * start of the simulation.
 	 */
 	protected static void initialize() {
 		Log.printLine("Initialising...");
-		entities = new ArrayList<SimEntity>();
-		entitiesByName = new LinkedHashMap<String, SimEntity>();
-		future = new FutureQueue();
-		deferred = new DeferredQueue();
-		waitPredicates = new HashMap<Integer, Predicate>();
-		clock = 0;
-		running = false;
+		SimulationContext context = getContext();
+		context.entities = new ArrayList<SimEntity>();
+		context.entitiesByName = new LinkedHashMap<String, SimEntity>();
+		context.runnableEntities = new BitSet();
+		context.future = createFutureEventList(context.futureEventListClass);
+		context.futureIndex = new FutureEventIndex();
+		context.deferred = new DeferredQueue();
+		context.waitPredicates = new HashMap<Integer, Predicate>();
+		context.clock = 0;
+		context.running = false;
+	}
+
+	/**
+	 * Creates a new future event queue of the configured class.
+	 * 
+	 * @param futureEventListClass the future event queue class
+	 * @return the future event queue
+	 * @see #setFutureEventListClass(Class)
+	 */
+	private static FutureEventList createFutureEventList(Class<? extends FutureEventList> futureEventListClass) {
+		try {
+			return futureEventListClass.getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalArgumentException("Cannot create the future event list "
+					+ futureEventListClass.getName(), e);
+		}
+	}
+
+	/**
+	 * Sets the class of the future event queue used by the next simulations. The class must
+	 * have a public no-argument constructor. This method should be called before
+	 * {@link #init(int, Calendar, boolean)}. The default is {@link FutureQueue}.
+	 * 
+	 * @param futureEventListClass the future event queue class
+	 * @see FutureHeapQueue
+	 * @see FutureCalendarQueue
+	 */
+	public static void setFutureEventListClass(Class<? extends FutureEventList> futureEventListClass) {
+		if (futureEventListClass == null) {
+			throw new IllegalArgumentException("The future event list class can't be null.");
+		}
+		getContext().futureEventListClass = futureEventListClass;
+	}
+
+	/**
+	 * Gets the class of the future event queue used by the next simulations.
+	 * 
+	 * @return the future event queue class
+	 */
+	public static Class<? extends FutureEventList> getFutureEventListClass() {
+		return getContext().futureEventListClass;
 	}
 
 	// The two standard predicates
@@ -371,7 +380,7 @@ public class CloudSim {
 	 * @return the simulation time
 	 */
 	public static double clock() {
-		return clock;
+		return getContext().clock;
 	}
 
 	/**
@@ -380,7 +389,7 @@ public class CloudSim {
 	 * @return The number of entities
 	 */
 	public static int getNumEntities() {
-		return entities.size();
+		return getContext().entities.size();
 	}
 
 	/**
@@ -390,7 +399,7 @@ public class CloudSim {
 	 * @return The entity, or if it could not be found
 	 */
 	public static SimEntity getEntity(int id) {
-		return entities.get(id);
+		return getContext().entities.get(id);
 	}
 
 	/**
@@ -400,7 +409,7 @@ public class CloudSim {
 	 * @return The entity
 	 */
 	public static SimEntity getEntity(String name) {
-		return entitiesByName.get(name);
+		return getContext().entitiesByName.get(name);
 	}
 
 	/**
@@ -410,7 +419,7 @@ public class CloudSim {
 	 * @return The entity's unique id number
 	 */
 	public static int getEntityId(String name) {
-		SimEntity obj = entitiesByName.get(name);
+		SimEntity obj = getContext().entitiesByName.get(name);
 		if (obj == null) {
 			return NOT_FOUND;
 		} else {
@@ -460,7 +469,7 @@ public class CloudSim {
 		// create a new list to prevent the user from changing
 		// the list of entities used by Simulation
 		List<SimEntity> list = new LinkedList<SimEntity>();
-		list.addAll(entities);
+		list.addAll(getContext().entities);
 		return list;
 	}
 
@@ -473,17 +482,18 @@ public class CloudSim {
 	 * @param e The new entity
 	 */
 	public static void addEntity(SimEntity e) {
+		SimulationContext context = getContext();
 		SimEvent evt;
-		if (running) {
+		if (context.running) {
 			// Post an event to make this entity
-			evt = new SimEvent(SimEvent.CREATE, clock, 1, 0, 0, e);
-			future.addEvent(evt);
+			evt = new SimEvent(SimEvent.CREATE, context.clock, 1, 0, 0, e);
+			addFutureEvent(context, evt);
 		}
 		if (e.getId() == -1) { // Only add once!
-			int id = entities.size();
+			int id = context.entities.size();
 			e.setId(id);
-			entities.add(e);
-			entitiesByName.put(e.getName(), e);
+			context.entities.add(e);
+			context.entitiesByName.put(e.getName(), e);
 		}
 	}
 
@@ -512,12 +522,16 @@ public class CloudSim {
          * its visibility to package.
 	 */
 	public static boolean runClockTick() {
+		SimulationContext context = getContext();
+		List<SimEntity> entities = context.entities;
+		BitSet runnableEntities = context.runnableEntities;
+		FutureEventList future = context.future;
 		SimEntity ent;
 		boolean queue_empty;
-		
-		int entities_size = entities.size();
 
-		for (int i = 0; i < entities_size; i++) {
+		// Run only the entities that have been activated by an event
+		for (int i = runnableEntities.nextSetBit(0); i >= 0; i = runnableEntities.nextSetBit(i + 1)) {
+			runnableEntities.clear(i);
 			ent = entities.get(i);
 			if (ent.getState() == SimEntity.RUNNABLE) {
 				ent.run();
@@ -526,33 +540,25 @@ public class CloudSim {
 				
 		// If there are more future events then deal with them
 		if (future.size() > 0) {
-			List<SimEvent> toRemove = new ArrayList<SimEvent>();
-			Iterator<SimEvent> fit = future.iterator();
 			queue_empty = false;
-			SimEvent first = fit.next();
-			processEvent(first);
-			future.remove(first);
-
-			fit = future.iterator();
-
-			// Check if next events are at same time...
-			boolean trymore = fit.hasNext();
-			while (trymore) {
-				SimEvent next = fit.next();
-				if (next.eventTime() == first.eventTime()) {
-					processEvent(next);
-					toRemove.add(next);
-					trymore = fit.hasNext();
-				} else {
-					trymore = false;
+
+			// Take the first event and all the next events at the same time
+			List<SimEvent> batch = context.currentEvents;
+			future.pollBatch(batch);
+			for (int i = 0; i < batch.size(); i++) {
+				context.futureIndex.remove(batch.get(i));
+			}
+			try {
+				for (int i = 0; i < batch.size(); i++) {
+					processEvent(context, batch.get(i));
 				}
+			} finally {
+				batch.clear();
 			}
 
-			future.removeAll(toRemove);
-
 		} else {
 			queue_empty = true;
-			running = false;
+			context.running = false;
 			printMessage("Simulation: No more future events");
 		}
 
@@ -573,9 +579,10 @@ public class CloudSim {
 	 * @param delay the delay
 	 */
 	public static void hold(int src, long delay) {
-		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, src);
-		future.addEvent(e);
-		entities.get(src).setState(SimEntity.HOLDING);
+		SimulationContext context = getContext();
+		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, context.clock + delay, src);
+		addFutureEvent(context, e);
+		context.entities.get(src).setState(SimEntity.HOLDING);
 	}
 
 	/**
@@ -585,9 +592,20 @@ public class CloudSim {
 	 * @param delay the delay
 	 */
 	public static void pause(int src, double delay) {
-		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, src);
-		future.addEvent(e);
-		entities.get(src).setState(SimEntity.HOLDING);
+		pause(getContext(), src, delay);
+	}
+
+	/**
+	 * Used to pause an entity of a given simulation context for some time.
+	 * 
+	 * @param context the simulation context
+	 * @param src the src
+	 * @param delay the delay
+	 */
+	static void pause(SimulationContext context, int src, double delay) {
+		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, context.clock + delay, src);
+		addFutureEvent(context, e);
+		context.entities.get(src).setState(SimEntity.HOLDING);
 	}
 
 	/**
@@ -600,12 +618,29 @@ public class CloudSim {
 	 * @param data the data
 	 */
 	public static void send(int src, int dest, double delay, int tag, Object data) {
+		send(getContext(), src, dest, delay, tag, data);
+	}
+
+	/**
+	 * Used to send an event from one entity to another in a given simulation context.
+	 * 
+	 * @param context the simulation context
+	 * @param src the src
+	 * @param dest the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data the data
+	 * @return the sent event, which can be used to cancel it
+	 */
+	static SimEvent send(SimulationContext context, int src, int dest, double delay, int tag,
+			Object data) {
 		if (delay < 0) {
 			throw new IllegalArgumentException("Send delay can't be negative.");
 		}
 
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, src, dest, tag, data);
-		future.addEvent(e);
+		SimEvent e = new SimEvent(SimEvent.SEND, context.clock + delay, src, dest, tag, data);
+		addFutureEvent(context, e);
+		return e;
 	}
 
 	/**
@@ -618,12 +653,42 @@ public class CloudSim {
 	 * @param data the data
 	 */
 	public static void sendFirst(int src, int dest, double delay, int tag, Object data) {
+		sendFirst(getContext(), src, dest, delay, tag, data);
+	}
+
+	/**
+	 * Used to send an event from one entity to another in a given simulation context, with
+	 * priority in the queue.
+	 * 
+	 * @param context the simulation context
+	 * @param src the src
+	 * @param dest the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data the data
+	 * @return the sent event, which can be used to cancel it
+	 */
+	static SimEvent sendFirst(SimulationContext context, int src, int dest, double delay, int tag,
+			Object data) {
 		if (delay < 0) {
 			throw new IllegalArgumentException("Send delay can't be negative.");
 		}
 
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, src, dest, tag, data);
-		future.addEventFirst(e);
+		SimEvent e = new SimEvent(SimEvent.SEND, context.clock + delay, src, dest, tag, data);
+		context.future.addEventFirst(e);
+		context.futureIndex.add(e);
+		return e;
+	}
+
+	/**
+	 * Adds an event to the future event queue and to its index.
+	 * 
+	 * @param context the simulation context
+	 * @param e the event
+	 */
+	private static void addFutureEvent(SimulationContext context, SimEvent e) {
+		context.future.addEvent(e);
+		context.futureIndex.add(e);
 	}
 
 	/**
@@ -635,10 +700,22 @@ public class CloudSim {
 	 * @param p the p
 	 */
 	public static void wait(int src, Predicate p) {
-		entities.get(src).setState(SimEntity.WAITING);
+		wait(getContext(), src, p);
+	}
+
+	/**
+	 * Sets an entity of a given simulation context to be waiting for an event matching a
+	 * predicate.
+	 * 
+	 * @param context the simulation context
+	 * @param src the src
+	 * @param p the p
+	 */
+	static void wait(SimulationContext context, int src, Predicate p) {
+		context.entities.get(src).setState(SimEntity.WAITING);
 		if (p != SIM_ANY) {
 			// If a predicate has been used store it in order to check it
-			waitPredicates.put(src, p);
+			context.waitPredicates.put(src, p);
 		}
 	}
 
@@ -650,16 +727,7 @@ public class CloudSim {
 	 * @return the int
 	 */
 	public static int waiting(int d, Predicate p) {
-		int count = 0;
-		SimEvent event;
-		Iterator<SimEvent> iterator = deferred.iterator();
-		while (iterator.hasNext()) {
-			event = iterator.next();
-			if ((event.getDestination() == d) && (p.match(event))) {
-				count++;
-			}
-		}
-		return count;
+		return getContext().deferred.count(d, p);
 	}
 
 	/**
@@ -667,19 +735,10 @@ public class CloudSim {
 	 * 
 	 * @param src the src
 	 * @param p the p
-	 * @return the sim event
+	 * @return the sim event, or <tt>null</tt> if no deferred event matches
 	 */
 	public static SimEvent select(int src, Predicate p) {
-		SimEvent ev = null;
-		Iterator<SimEvent> iterator = deferred.iterator();
-		while (iterator.hasNext()) {
-			ev = iterator.next();
-			if (ev.getDestination() == src && p.match(ev)) {
-				iterator.remove();
-				break;
-			}
-		}
-		return ev;
+		return getContext().deferred.removeFirst(src, p);
 	}
 
 	/**
@@ -687,18 +746,10 @@ public class CloudSim {
 	 * 
 	 * @param src the src
 	 * @param p the p
-	 * @return the sim event
+	 * @return the sim event, or <tt>null</tt> if no deferred event matches
 	 */
 	public static SimEvent findFirstDeferred(int src, Predicate p) {
-		SimEvent ev = null;
-		Iterator<SimEvent> iterator = deferred.iterator();
-		while (iterator.hasNext()) {
-			ev = iterator.next();
-			if (ev.getDestination() == src && p.match(ev)) {
-				break;
-			}
-		}
-		return ev;
+		return getContext().deferred.findFirst(src, p);
 	}
 
 	/**
@@ -709,15 +760,27 @@ public class CloudSim {
 	 * @return the sim event
 	 */
 	public static SimEvent cancel(int src, Predicate p) {
+		return cancel(getContext(), src, p);
+	}
+
+	/**
+	 * Removes an event from the event queue of a given simulation context.
+	 * 
+	 * @param context the simulation context
+	 * @param src the src
+	 * @param p the p
+	 * @return the sim event
+	 */
+	static SimEvent cancel(SimulationContext context, int src, Predicate p) {
 		SimEvent ev = null;
-		Iterator<SimEvent> iter = future.iterator();
-		while (iter.hasNext()) {
-			ev = iter.next();
-			if (ev.getSource() == src && p.match(ev)) {
-				iter.remove();
-				break;
+		for (SimEvent next : getFutureEvents(context, src, p)) {
+			if (p.match(next) && (ev == null || next.compareTo(ev) < 0)) {
+				ev = next;
 			}
 		}
+		if (ev != null) {
+			cancel(context, ev);
+		}
 
 		return ev;
 	}
@@ -731,16 +794,70 @@ public class CloudSim {
 	 * @return true, if successful
 	 */
 	public static boolean cancelAll(int src, Predicate p) {
-		SimEvent ev = null;
-		int previousSize = future.size();
-		Iterator<SimEvent> iter = future.iterator();
-		while (iter.hasNext()) {
-			ev = iter.next();
-			if (ev.getSource() == src && p.match(ev)) {
-				iter.remove();
+		boolean cancelled = false;
+		for (SimEvent ev : getFutureEvents(getContext(), src, p)) {
+			if (p.match(ev)) {
+				cancelled |= cancel(ev);
+			}
+		}
+		return cancelled;
+	}
+
+	/**
+	 * Removes a given event from the future event queue, using the event returned when it was
+	 * sent as a handle.
+	 * 
+	 * @param ev the event
+	 * @return true if the event was cancelled; false if it has already been processed or cancelled
+	 * @see SimEntity#scheduleCancellable(int, double, int, Object)
+	 */
+	public static boolean cancel(SimEvent ev) {
+		return cancel(getContext(), ev);
+	}
+
+	/**
+	 * Removes a given event from the future event queue of a given simulation context.
+	 * 
+	 * @param context the simulation context
+	 * @param ev the event
+	 * @return true if the event was cancelled; false if it has already been processed or cancelled
+	 */
+	private static boolean cancel(SimulationContext context, SimEvent ev) {
+		if (ev == null || !context.futureIndex.remove(ev)) {
+			return false;
+		}
+		return context.future.remove(ev);
+	}
+
+	/**
+	 * Gets the candidate events sent by an entity for a predicate, using the future event index.
+	 * When the predicate is a {@link PredicateType} only the events with its tags are returned,
+	 * otherwise all the events sent by the entity are returned. The events still have to be
+	 * checked against the predicate.
+	 * 
+	 * @param context the simulation context
+	 * @param src the id of the source entity
+	 * @param p the predicate
+	 * @return the candidate events
+	 */
+	private static List<SimEvent> getFutureEvents(SimulationContext context, int src, Predicate p) {
+		FutureEventIndex futureIndex = context.futureIndex;
+		List<SimEvent> events = new ArrayList<SimEvent>();
+		if (p instanceof PredicateType) {
+			PredicateType predicate = (PredicateType) p;
+			for (int i = 0; i < predicate.getTagCount(); i++) {
+				boolean repeated = false;
+				for (int j = 0; j < i; j++) {
+					repeated |= predicate.getTag(j) == predicate.getTag(i);
+				}
+				if (!repeated) {
+					futureIndex.getEvents(src, predicate.getTag(i), events);
+				}
 			}
+		} else {
+			futureIndex.getEvents(src, events);
 		}
-		return previousSize < future.size();
+		return events;
 	}
 
 	//
@@ -750,16 +867,17 @@ public class CloudSim {
 	/**
 	 * Processes an event.
 	 * 
+	 * @param context the simulation context
 	 * @param e the e
 	 */
-	private static void processEvent(SimEvent e) {
+	private static void processEvent(SimulationContext context, SimEvent e) {
 		int dest, src;
 		SimEntity dest_ent;
 		// Update the system's clock
-		if (e.eventTime() < clock) {
+		if (e.eventTime() < context.clock) {
 			throw new IllegalArgumentException("Past event detected.");
 		}
-		clock = e.eventTime();
+		context.clock = e.eventTime();
 
 		// Ok now process it
 		switch (e.getType()) {
@@ -778,20 +896,21 @@ public class CloudSim {
 					throw new IllegalArgumentException("Attempt to send to a null entity detected.");
 				} else {
 					int tag = e.getTag();
-					dest_ent = entities.get(dest);
+					dest_ent = context.entities.get(dest);
 					if (dest_ent.getState() == SimEntity.WAITING) {
 						Integer destObj = Integer.valueOf(dest);
-						Predicate p = waitPredicates.get(destObj);
+						Predicate p = context.waitPredicates.get(destObj);
 						if ((p == null) || (tag == 9999) || (p.match(e))) {
 							dest_ent.setEventBuffer((SimEvent) e.clone());
 							dest_ent.setState(SimEntity.RUNNABLE);
-							waitPredicates.remove(destObj);
+							context.waitPredicates.remove(destObj);
 						} else {
-							deferred.addEvent(e);
+							context.deferred.addEvent(e);
 						}
 					} else {
-						deferred.addEvent(e);
+						context.deferred.addEvent(e);
 					}
+					context.runnableEntities.set(dest);
 				}
 				break;
 
@@ -800,7 +919,8 @@ public class CloudSim {
 				if (src < 0) {
 					throw new IllegalArgumentException("Null entity holding.");
 				} else {
-					entities.get(src).setState(SimEntity.RUNNABLE);
+					context.entities.get(src).setState(SimEntity.RUNNABLE);
+					context.runnableEntities.set(src);
 				}
 				break;
 
@@ -814,9 +934,10 @@ public class CloudSim {
 	 * simulations.
 	 */
 	public static void runStart() {
-		running = true;
+		SimulationContext context = getContext();
+		context.running = true;
 		// Start all the entities
-		for (SimEntity ent : entities) {
+		for (SimEntity ent : context.entities) {
 			ent.startEntity();
 		}
 
@@ -830,7 +951,7 @@ public class CloudSim {
 	 * @return if the simulation is still running, otherwise
 	 */
 	public static boolean running() {
-		return running;
+		return getContext().running;
 	}
 
 	/**
@@ -839,8 +960,8 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean pauseSimulation() {
-		paused = true;
-		return paused;
+		getContext().paused = true;
+		return true;
 	}
 
 	/**
@@ -850,10 +971,11 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean pauseSimulation(long time) {
-		if (time <= clock) {
+		SimulationContext context = getContext();
+		if (time <= context.clock) {
 			return false;
 		} else {
-			pauseAt = time;
+			context.pauseAt = time;
 		}
 		return true;
 	}
@@ -864,13 +986,14 @@ public class CloudSim {
 	 * @return if the simulation has been restarted or or otherwise.
 	 */
 	public static boolean resumeSimulation() {
-		paused = false;
+		SimulationContext context = getContext();
+		context.paused = false;
 
-		if (pauseAt <= clock) {
-			pauseAt = -1;
+		if (context.pauseAt <= context.clock) {
+			context.pauseAt = -1;
 		}
 
-		return !paused;
+		return !context.paused;
 	}
 
 	/**
@@ -880,29 +1003,31 @@ public class CloudSim {
 	 * @return the last clock value
 	 */
 	public static double run() {
-		if (!running) {
+		SimulationContext context = getContext();
+		if (!context.running) {
 			runStart();
 		}
 		while (true) {
-			if (runClockTick() || abruptTerminate) {
+			if (runClockTick() || context.abruptTerminate) {
 				break;
 			}
 
 			// this block allows termination of simulation at a specific time
-			if (terminateAt > 0.0 && clock >= terminateAt) {
+			if (context.terminateAt > 0.0 && context.clock >= context.terminateAt) {
 				terminateSimulation();
-				clock = terminateAt;
+				context.clock = context.terminateAt;
 				break;
 			}
 
-			if (pauseAt != -1
-					&& ((future.size() > 0 && clock <= pauseAt && pauseAt <= future.iterator().next()
-							.eventTime()) || future.size() == 0 && pauseAt <= clock)) {
+			FutureEventList future = context.future;
+			if (context.pauseAt != -1
+					&& ((future.size() > 0 && context.clock <= context.pauseAt && context.pauseAt <= future.peek()
+							.eventTime()) || future.size() == 0 && context.pauseAt <= context.clock)) {
 				pauseSimulation();
-				clock = pauseAt;
+				context.clock = context.pauseAt;
 			}
 
-			while (paused) {
+			while (context.paused) {
 				try {
 					Thread.sleep(100);
 				} catch (InterruptedException e) {
@@ -924,39 +1049,42 @@ public class CloudSim {
 	 * in user simulations.
 	 */
 	public static void finishSimulation() {
+		SimulationContext context = getContext();
 		// Allow all entities to exit their body method
-		if (!abruptTerminate) {
-			for (SimEntity ent : entities) {
+		if (!context.abruptTerminate) {
+			for (SimEntity ent : context.entities) {
 				if (ent.getState() != SimEntity.FINISHED) {
 					ent.run();
 				}
 			}
 		}
 
-		for (SimEntity ent : entities) {
+		for (SimEntity ent : context.entities) {
 			ent.shutdownEntity();
 		}
 
-		// reset all static variables
+		// reset all the simulation variables
 		// Private data members
-		entities = null;
-		entitiesByName = null;
-		future = null;
-		deferred = null;
-		clock = 0L;
-		running = false;
-
-		waitPredicates = null;
-		paused = false;
-		pauseAt = -1;
-		abruptTerminate = false;
+		context.entities = null;
+		context.entitiesByName = null;
+		context.runnableEntities = null;
+		context.future = null;
+		context.futureIndex = null;
+		context.deferred = null;
+		context.clock = 0L;
+		context.running = false;
+
+		context.waitPredicates = null;
+		context.paused = false;
+		context.pauseAt = -1;
+		context.abruptTerminate = false;
 	}
 
 	/**
 	 * Abruptally terminate.
 	 */
 	public static void abruptallyTerminate() {
-		abruptTerminate = true;
+		getContext().abruptTerminate = true;
 	}
 
 	/**
@@ -974,7 +1102,7 @@ public class CloudSim {
 	 * @return true, if is paused
 	 */
 	public static boolean isPaused() {
-		return paused;
+		return getContext().paused;
 	}
 
 }
@@ -272,6 +272,18 @@ public class CloudSimTags {
 
 	public static final int NextCycle = BASE + 48;
 
+	/**
+	 * Denotes the submission of an array of Cloudlets in a single event. The Cloudlets finishing
+	 * in a datacenter are then returned to their sender with {@link #CLOUDLET_RETURN_BATCH}.
+	 */
+	public static final int CLOUDLET_SUBMIT_BATCH = BASE + 49;
+
+	/**
+	 * Denotes the return of an array of Cloudlets back to a sender that submitted Cloudlets with
+	 * {@link #CLOUDLET_SUBMIT_BATCH}.
+	 */
+	public static final int CLOUDLET_RETURN_BATCH = BASE + 50;
+
 	/** Private Constructor. */
 	private CloudSimTags() {
 		throw new UnsupportedOperationException("CloudSimTags cannot be instantiated");
@@ -8,15 +8,28 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateAny;
+import org.cloudbus.cloudsim.core.predicates.PredicateNone;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
 /**
- * This class implements the deferred event queue used by {@link CloudSim}. 
- * The event queue uses a linked list to store the events.
- * 
+ * This class implements the deferred event queue used by {@link CloudSim}.
+ * The events are kept in a separate linked list for each destination entity, so looking
+ * for the events waiting for an entity only goes through the events of that entity.
+ * The number of events of each tag is also kept for each entity, so a search using a
+ * {@link PredicateType} returns immediately when the entity has no event with the
+ * requested tags.
+ *
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
  * @see CloudSim
@@ -24,65 +37,281 @@ import java.util.ListIterator;
  */
 public class DeferredQueue {
 
-	/** The list of events. */
-	private final List<SimEvent> list = new LinkedList<SimEvent>();
+	/** The events of each entity, indexed by the entity id. */
+	private final List<EntityEvents> entityEvents = new ArrayList<EntityEvents>();
 
-	/** The max time that an added event is scheduled. */
-	private double maxTime = -1;
+	/** The total number of events. */
+	private int size;
 
 	/**
 	 * Adds a new event to the queue. Adding a new event to the queue preserves the temporal order
 	 * of the events.
-	 * 
+	 *
 	 * @param newEvent The event to be added to the queue.
 	 */
 	public void addEvent(SimEvent newEvent) {
-		// The event has to be inserted as the last of all events
-		// with the same event_time(). Yes, this matters.
-		double eventTime = newEvent.eventTime();
-		if (eventTime >= maxTime) {
-			list.add(newEvent);
-			maxTime = eventTime;
-			return;
+		getEntityEvents(newEvent.getDestination(), true).add(newEvent);
+		size++;
+	}
+
+	/**
+	 * Gets the first event for a given entity that matches a predicate.
+	 *
+	 * @param destination the id of the destination entity
+	 * @param p the predicate
+	 * @return the first matching event or <tt>null</tt> if there is none
+	 */
+	public SimEvent findFirst(int destination, Predicate p) {
+		EntityEvents events = getEntityEvents(destination, false);
+		if (events == null || !events.mayMatch(p)) {
+			return null;
+		}
+		for (SimEvent event : events.list) {
+			if (p.match(event)) {
+				return event;
+			}
 		}
+		return null;
+	}
 
-		ListIterator<SimEvent> iterator = list.listIterator();
-		SimEvent event;
+	/**
+	 * Removes the first event for a given entity that matches a predicate.
+	 *
+	 * @param destination the id of the destination entity
+	 * @param p the predicate
+	 * @return the removed event or <tt>null</tt> if there is none
+	 */
+	public SimEvent removeFirst(int destination, Predicate p) {
+		EntityEvents events = getEntityEvents(destination, false);
+		if (events == null || !events.mayMatch(p)) {
+			return null;
+		}
+		Iterator<SimEvent> iterator = events.list.iterator();
 		while (iterator.hasNext()) {
-			event = iterator.next();
-			if (event.eventTime() > eventTime) {
-				iterator.previous();
-				iterator.add(newEvent);
-				return;
+			SimEvent event = iterator.next();
+			if (p.match(event)) {
+				iterator.remove();
+				events.removed(event);
+				size--;
+				return event;
 			}
 		}
+		return null;
+	}
 
-		list.add(newEvent);
+	/**
+	 * Counts the events for a given entity that match a predicate.
+	 *
+	 * @param destination the id of the destination entity
+	 * @param p the predicate
+	 * @return the number of matching events
+	 */
+	public int count(int destination, Predicate p) {
+		EntityEvents events = getEntityEvents(destination, false);
+		if (events == null || !events.mayMatch(p)) {
+			return 0;
+		}
+		if (p instanceof PredicateAny) {
+			return events.list.size();
+		}
+		int count = 0;
+		for (SimEvent event : events.list) {
+			if (p.match(event)) {
+				count++;
+			}
+		}
+		return count;
 	}
 
 	/**
-	 * Returns an iterator to the events in the queue.
-	 * 
+	 * Returns an iterator to the events in the queue. The events are grouped by
+	 * their destination entity and the iterator does not support removal.
+	 *
 	 * @return the iterator
 	 */
 	public Iterator<SimEvent> iterator() {
-		return list.iterator();
+		return new Iterator<SimEvent>() {
+
+			private int entity = 0;
+
+			private Iterator<SimEvent> current = null;
+
+			@Override
+			public boolean hasNext() {
+				while (current == null || !current.hasNext()) {
+					if (entity >= entityEvents.size()) {
+						return false;
+					}
+					EntityEvents events = entityEvents.get(entity++);
+					current = events == null ? null : events.list.iterator();
+				}
+				return true;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return current.next();
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException("remove");
+			}
+		};
 	}
 
 	/**
 	 * Returns the size of this event queue.
-	 * 
+	 *
 	 * @return the number of events in the queue.
 	 */
 	public int size() {
-		return list.size();
+		return size;
+	}
+
+	/**
+	 * Returns the number of events waiting for a given entity.
+	 *
+	 * @param destination the id of the destination entity
+	 * @return the number of events
+	 */
+	public int size(int destination) {
+		EntityEvents events = getEntityEvents(destination, false);
+		return events == null ? 0 : events.list.size();
 	}
 
 	/**
 	 * Clears the queue.
 	 */
 	public void clear() {
-		list.clear();
+		entityEvents.clear();
+		size = 0;
+	}
+
+	/**
+	 * Gets the events of an entity.
+	 *
+	 * @param destination the id of the entity
+	 * @param create whether the events have to be created if the entity has none yet
+	 * @return the events or <tt>null</tt> if the entity has none and create is false
+	 */
+	private EntityEvents getEntityEvents(int destination, boolean create) {
+		if (destination < 0) {
+			throw new IllegalArgumentException("Invalid destination entity: " + destination);
+		}
+		if (destination < entityEvents.size()) {
+			EntityEvents events = entityEvents.get(destination);
+			if (events == null && create) {
+				events = new EntityEvents();
+				entityEvents.set(destination, events);
+			}
+			return events;
+		}
+		if (!create) {
+			return null;
+		}
+		while (entityEvents.size() < destination) {
+			entityEvents.add(null);
+		}
+		EntityEvents events = new EntityEvents();
+		entityEvents.add(events);
+		return events;
+	}
+
+	/**
+	 * The deferred events of a single entity.
+	 */
+	private static class EntityEvents {
+
+		/** The list of events. */
+		private final LinkedList<SimEvent> list = new LinkedList<SimEvent>();
+
+		/** The number of events of each tag, held in a single element array to be updated in place. */
+		private final Map<Integer, int[]> tagCounts = new HashMap<Integer, int[]>();
+
+		/** The max time that an added event is scheduled. */
+		private double maxTime = -1;
+
+		/**
+		 * Adds a new event, after all events with the same event time.
+		 *
+		 * @param newEvent the new event
+		 */
+		void add(SimEvent newEvent) {
+			added(newEvent);
+
+			// The event has to be inserted as the last of all events
+			// with the same event_time(). Yes, this matters.
+			double eventTime = newEvent.eventTime();
+			if (eventTime >= maxTime) {
+				list.add(newEvent);
+				maxTime = eventTime;
+				return;
+			}
+
+			ListIterator<SimEvent> iterator = list.listIterator();
+			SimEvent event;
+			while (iterator.hasNext()) {
+				event = iterator.next();
+				if (event.eventTime() > eventTime) {
+					iterator.previous();
+					iterator.add(newEvent);
+					return;
+				}
+			}
+
+			list.add(newEvent);
+		}
+
+		/**
+		 * Checks if there may be events matching a predicate, without going through the events.
+		 *
+		 * @param p the predicate
+		 * @return false if certainly no event matches the predicate
+		 */
+		boolean mayMatch(Predicate p) {
+			if (list.isEmpty() || p instanceof PredicateNone) {
+				return false;
+			}
+			if (p instanceof PredicateType) {
+				PredicateType predicate = (PredicateType) p;
+				for (int i = 0; i < predicate.getTagCount(); i++) {
+					int[] count = tagCounts.get(predicate.getTag(i));
+					if (count != null && count[0] > 0) {
+						return true;
+					}
+				}
+				return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Counts an added event in the tag counts.
+		 *
+		 * @param event the event
+		 */
+		private void added(SimEvent event) {
+			int[] count = tagCounts.get(event.getTag());
+			if (count == null) {
+				count = new int[1];
+				tagCounts.put(event.getTag(), count);
+			}
+			count[0]++;
+		}
+
+		/**
+		 * Discounts a removed event from the tag counts.
+		 *
+		 * @param event the event
+		 */
+		void removed(SimEvent event) {
+			tagCounts.get(event.getTag())[0]--;
+		}
+
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class DeferredQueueTest {
+
+	private DeferredQueue queue;
+
+	@Before
+	public void setUp() throws Exception {
+		queue = new DeferredQueue();
+	}
+
+	@Test
+	public void testEventsAreKeptPerDestination() {
+		SimEvent a1 = event(1.0, 1, 10);
+		SimEvent b1 = event(1.0, 2, 10);
+		SimEvent a2 = event(2.0, 1, 20);
+		queue.addEvent(a1);
+		queue.addEvent(b1);
+		queue.addEvent(a2);
+
+		assertEquals(3, queue.size());
+		assertEquals(2, queue.size(1));
+		assertEquals(1, queue.size(2));
+		assertEquals(0, queue.size(5));
+		assertEquals(2, queue.count(1, CloudSim.SIM_ANY));
+		assertEquals(0, queue.count(1, CloudSim.SIM_NONE));
+
+		assertSame(a1, queue.removeFirst(1, CloudSim.SIM_ANY));
+		assertSame(a2, queue.removeFirst(1, CloudSim.SIM_ANY));
+		assertNull(queue.removeFirst(1, CloudSim.SIM_ANY));
+		assertSame(b1, queue.findFirst(2, CloudSim.SIM_ANY));
+		assertEquals(1, queue.size());
+	}
+
+	@Test
+	public void testTagIndex() {
+		SimEvent e1 = event(1.0, 0, 10);
+		SimEvent e2 = event(1.0, 0, 20);
+		SimEvent e3 = event(2.0, 0, 20);
+		queue.addEvent(e1);
+		queue.addEvent(e2);
+		queue.addEvent(e3);
+
+		assertEquals(2, queue.count(0, new PredicateType(20)));
+		assertEquals(0, queue.count(0, new PredicateType(30)));
+		assertNull(queue.findFirst(0, new PredicateType(30)));
+		assertSame(e2, queue.findFirst(0, new PredicateType(20)));
+		assertSame(e2, queue.removeFirst(0, new PredicateType(new int[] { 20, 30 })));
+		assertSame(e3, queue.removeFirst(0, new PredicateType(20)));
+		assertNull(queue.findFirst(0, new PredicateType(20)));
+		assertSame(e1, queue.findFirst(0, new PredicateType(10)));
+	}
+
+	@Test
+	public void testOutOfOrderEventGoesAfterEventsWithSameTime() {
+		SimEvent e1 = event(1.0, 0, 1);
+		SimEvent e2 = event(3.0, 0, 2);
+		SimEvent e3 = event(1.0, 0, 3);
+		queue.addEvent(e1);
+		queue.addEvent(e2);
+		queue.addEvent(e3);
+
+		assertSame(e1, queue.removeFirst(0, CloudSim.SIM_ANY));
+		assertSame(e3, queue.removeFirst(0, CloudSim.SIM_ANY));
+		assertSame(e2, queue.removeFirst(0, CloudSim.SIM_ANY));
+	}
+
+	private static SimEvent event(double time, int destination, int tag) {
+		return new SimEvent(SimEvent.SEND, time, 0, destination, tag, null);
+	}
+
+}
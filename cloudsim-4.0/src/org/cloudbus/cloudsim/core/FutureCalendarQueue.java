@@ -0,0 +1,619 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A future event list implemented as a calendar queue (R. Brown, "Calendar queues: a fast O(1)
+ * priority queue implementation for the simulation event set problem", Communications of the
+ * ACM, 1988). Events are hashed by their time into an array of buckets ("days"), each one
+ * covering a time interval of a given width. Dequeuing walks the buckets in time order, so when
+ * the bucket width matches the spacing between event times both insertion and removal take
+ * constant expected time. The number of buckets and their width are recomputed as the number
+ * of distinct event times grows or shrinks.
+ * <p>
+ * Simulations usually schedule many events for the same time (e.g. at every scheduling
+ * interval), so inside a bucket the events are kept in groups of events happening at the same
+ * time. New events are appended to their group and {@link #pollBatch(List)} takes a whole group
+ * at once.
+ *
+ * @since CloudSim Toolkit 4.0
+ * @see FutureEventList
+ */
+public class FutureCalendarQueue implements FutureEventList {
+
+	/** The minimum number of buckets. */
+	private static final int MIN_BUCKETS = 16;
+
+	/** The number of distinct event times sampled to estimate the bucket width when resizing. */
+	private static final int WIDTH_SAMPLE_SIZE = 25;
+
+	/** The buckets. */
+	private Bucket[] buckets;
+
+	/** The time interval covered by each bucket. */
+	private double width;
+
+	/** The number of events in the queue. */
+	private int size;
+
+	/** The number of distinct event times in the queue. */
+	private int groups;
+
+	/**
+	 * The day (i.e. the time divided by the bucket width) where the search for the next event
+	 * starts. No event in the queue belongs to an earlier day.
+	 */
+	private long currentDay;
+
+	/** Whether the number of buckets can be changed, it is disabled while resizing. */
+	private boolean resizeEnabled = true;
+
+	/** A incremental number used for {@link SimEvent#serial} event attribute. */
+	private long serial = 0;
+
+	/** A incremental number used for the serial of events added by {@link #addEventFirst(SimEvent)}. */
+	private long firstSerial = Long.MIN_VALUE;
+
+	/**
+	 * Creates an empty calendar queue with a bucket width of 1 time unit.
+	 */
+	public FutureCalendarQueue() {
+		this(1.0);
+	}
+
+	/**
+	 * Creates an empty calendar queue with a given initial bucket width. The width
+	 * is adapted to the distribution of the events whenever the queue is resized.
+	 *
+	 * @param initialWidth the initial bucket width
+	 */
+	public FutureCalendarQueue(double initialWidth) {
+		if (initialWidth <= 0) {
+			throw new IllegalArgumentException("The bucket width should be positive, but is:" + initialWidth);
+		}
+		init(MIN_BUCKETS, initialWidth);
+	}
+
+	@Override
+	public void addEvent(SimEvent newEvent) {
+		newEvent.setSerial(serial++);
+		offer(newEvent);
+	}
+
+	@Override
+	public void addEventFirst(SimEvent newEvent) {
+		newEvent.setSerial(firstSerial++);
+		offer(newEvent);
+	}
+
+	@Override
+	public SimEvent peek() {
+		if (size == 0) {
+			return null;
+		}
+		return buckets[findFirstBucket()].first().first();
+	}
+
+	@Override
+	public SimEvent poll() {
+		if (size == 0) {
+			return null;
+		}
+		Bucket bucket = buckets[findFirstBucket()];
+		TimeGroup group = bucket.first();
+		SimEvent first = group.pollFirst();
+		size--;
+		if (group.size() == 0) {
+			bucket.pollFirst();
+			groups--;
+			shrinkIfNeeded();
+		}
+		return first;
+	}
+
+	@Override
+	public int pollBatch(List<SimEvent> batch) {
+		if (size == 0) {
+			return 0;
+		}
+		TimeGroup group = buckets[findFirstBucket()].pollFirst();
+		int count = group.size();
+		group.drainTo(batch);
+		size -= count;
+		groups--;
+		shrinkIfNeeded();
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc} The events are returned bucket by bucket and the iterator does not
+	 * support removal.
+	 */
+	@Override
+	public Iterator<SimEvent> iterator() {
+		return new Iterator<SimEvent>() {
+
+			private int bucket = 0;
+
+			private int group = 0;
+
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				while (bucket < buckets.length) {
+					Bucket current = buckets[bucket];
+					while (group < current.size() && index >= current.get(group).size()) {
+						group++;
+						index = 0;
+					}
+					if (group < current.size()) {
+						return true;
+					}
+					bucket++;
+					group = 0;
+					index = 0;
+				}
+				return false;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return buckets[bucket].get(group).get(index++);
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException("remove");
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean remove(SimEvent event) {
+		Bucket bucket = buckets[bucketOf(event.eventTime())];
+		int groupIndex = bucket.indexOf(event.eventTime());
+		if (groupIndex < 0) {
+			return false;
+		}
+		TimeGroup group = bucket.get(groupIndex);
+		if (!group.remove(event)) {
+			return false;
+		}
+		size--;
+		if (group.size() == 0) {
+			bucket.remove(groupIndex);
+			groups--;
+			shrinkIfNeeded();
+		}
+		return true;
+	}
+
+	@Override
+	public boolean removeAll(Collection<SimEvent> events) {
+		boolean removed = false;
+		for (SimEvent event : events) {
+			removed |= remove(event);
+		}
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		init(MIN_BUCKETS, width);
+	}
+
+	/**
+	 * Gets the number of buckets currently used.
+	 *
+	 * @return the number of buckets
+	 */
+	public int getNumberOfBuckets() {
+		return buckets.length;
+	}
+
+	/**
+	 * Gets the time interval currently covered by each bucket.
+	 *
+	 * @return the bucket width
+	 */
+	public double getBucketWidth() {
+		return width;
+	}
+
+	/**
+	 * Creates empty buckets.
+	 *
+	 * @param numberOfBuckets the number of buckets
+	 * @param bucketWidth the bucket width
+	 */
+	private void init(int numberOfBuckets, double bucketWidth) {
+		buckets = new Bucket[numberOfBuckets];
+		for (int i = 0; i < numberOfBuckets; i++) {
+			buckets[i] = new Bucket();
+		}
+		width = bucketWidth;
+		size = 0;
+		groups = 0;
+		currentDay = 0;
+	}
+
+	/**
+	 * Inserts an event which already has its serial number set.
+	 *
+	 * @param event the event
+	 */
+	private void offer(SimEvent event) {
+		double time = event.eventTime();
+		Bucket bucket = buckets[bucketOf(time)];
+		int groupIndex = bucket.indexOf(time);
+		if (groupIndex < 0) {
+			groupIndex = bucket.insert(new TimeGroup(time));
+			groups++;
+		}
+		bucket.get(groupIndex).add(event);
+		size++;
+
+		long day = dayOf(time);
+		if (size == 1 || day < currentDay) {
+			currentDay = day;
+		}
+
+		if (resizeEnabled && groups > 2 * buckets.length) {
+			resize(buckets.length * 2);
+		}
+	}
+
+	/**
+	 * Finds the bucket holding the next event, updating the {@link #currentDay}.
+	 * The queue must not be empty.
+	 *
+	 * @return the bucket index
+	 */
+	private int findFirstBucket() {
+		int numberOfBuckets = buckets.length;
+		long day = currentDay;
+		for (int i = 0; i < numberOfBuckets; i++, day++) {
+			int index = indexOfDay(day);
+			Bucket bucket = buckets[index];
+			if (bucket.size() > 0 && dayOf(bucket.first().time) <= day) {
+				currentDay = day;
+				return index;
+			}
+		}
+
+		// there is no event in the next year, so directly search for the earliest event
+		int firstIndex = -1;
+		double firstTime = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < numberOfBuckets; i++) {
+			Bucket bucket = buckets[i];
+			if (bucket.size() > 0 && bucket.first().time < firstTime) {
+				firstTime = bucket.first().time;
+				firstIndex = i;
+			}
+		}
+		currentDay = dayOf(firstTime);
+		return firstIndex;
+	}
+
+	/**
+	 * Halves the number of buckets if there are too few distinct event times.
+	 */
+	private void shrinkIfNeeded() {
+		if (resizeEnabled && buckets.length > MIN_BUCKETS && groups < buckets.length / 2) {
+			resize(buckets.length / 2);
+		}
+	}
+
+	/**
+	 * Changes the number of buckets, estimating a new bucket width from the separation
+	 * between the next event times, and redistributes the events.
+	 *
+	 * @param numberOfBuckets the new number of buckets
+	 */
+	private void resize(int numberOfBuckets) {
+		resizeEnabled = false;
+		double newWidth = estimateWidth();
+
+		Bucket[] oldBuckets = buckets;
+		long oldDay = currentDay;
+		buckets = new Bucket[numberOfBuckets];
+		for (int i = 0; i < numberOfBuckets; i++) {
+			buckets[i] = new Bucket();
+		}
+		width = newWidth;
+		currentDay = Long.MAX_VALUE;
+		for (Bucket bucket : oldBuckets) {
+			for (int i = 0; i < bucket.size(); i++) {
+				TimeGroup group = bucket.get(i);
+				buckets[bucketOf(group.time)].insert(group);
+				currentDay = Math.min(currentDay, dayOf(group.time));
+			}
+		}
+		if (groups == 0) {
+			currentDay = oldDay;
+		}
+		resizeEnabled = true;
+	}
+
+	/**
+	 * Estimates the bucket width as three times the average separation between the
+	 * next distinct event times, discarding separations much larger than the average.
+	 *
+	 * @return the estimated width, or the current width if it cannot be estimated
+	 */
+	private double estimateWidth() {
+		int samples = Math.min(groups, WIDTH_SAMPLE_SIZE);
+		if (samples < 2) {
+			return width;
+		}
+
+		// take the next groups out of the queue, since they have to be found in order
+		TimeGroup[] sampled = new TimeGroup[samples];
+		for (int i = 0; i < samples; i++) {
+			sampled[i] = buckets[findFirstBucket()].pollFirst();
+		}
+		// and put them back, as they precede all the remaining groups of their buckets
+		for (int i = samples - 1; i >= 0; i--) {
+			buckets[bucketOf(sampled[i].time)].addFirst(sampled[i]);
+		}
+		currentDay = Math.min(currentDay, dayOf(sampled[0].time));
+
+		double[] separations = new double[samples - 1];
+		double total = 0;
+		for (int i = 1; i < samples; i++) {
+			separations[i - 1] = sampled[i].time - sampled[i - 1].time;
+			total += separations[i - 1];
+		}
+
+		double average = total / separations.length;
+		double trimmedTotal = 0;
+		int trimmedCount = 0;
+		for (double separation : separations) {
+			if (separation <= 2 * average) {
+				trimmedTotal += separation;
+				trimmedCount++;
+			}
+		}
+		double estimated = 3 * trimmedTotal / trimmedCount;
+		return estimated > 0 ? estimated : width;
+	}
+
+	/**
+	 * Gets the day of a given time.
+	 *
+	 * @param time the time
+	 * @return the day
+	 */
+	private long dayOf(double time) {
+		return (long) Math.floor(time / width);
+	}
+
+	/**
+	 * Gets the bucket index of a given day.
+	 *
+	 * @param day the day
+	 * @return the bucket index
+	 */
+	private int indexOfDay(long day) {
+		int numberOfBuckets = buckets.length;
+		int index = (int) (day % numberOfBuckets);
+		return index < 0 ? index + numberOfBuckets : index;
+	}
+
+	/**
+	 * Gets the bucket index of a given time.
+	 *
+	 * @param time the time
+	 * @return the bucket index
+	 */
+	private int bucketOf(double time) {
+		return indexOfDay(dayOf(time));
+	}
+
+	/**
+	 * The groups of events of a bucket, sorted by their time. Since a bucket covers a short
+	 * time interval, it usually holds only a few groups.
+	 */
+	private static final class Bucket {
+
+		/** The groups, sorted by time. */
+		private TimeGroup[] groups = new TimeGroup[2];
+
+		/** The position of the first group in the array. */
+		private int head;
+
+		/** The number of groups. */
+		private int count;
+
+		int size() {
+			return count;
+		}
+
+		TimeGroup get(int index) {
+			return groups[head + index];
+		}
+
+		TimeGroup first() {
+			return groups[head];
+		}
+
+		TimeGroup pollFirst() {
+			TimeGroup first = groups[head];
+			groups[head++] = null;
+			if (--count == 0) {
+				head = 0;
+			}
+			return first;
+		}
+
+		void addFirst(TimeGroup group) {
+			if (head == 0) {
+				insert(group);
+			} else {
+				groups[--head] = group;
+				count++;
+			}
+		}
+
+		/**
+		 * Gets the position of the group of a given time.
+		 *
+		 * @param time the time
+		 * @return the position, or -1 if there is no group for that time
+		 */
+		int indexOf(double time) {
+			// new events usually go to the latest groups
+			for (int i = count - 1; i >= 0; i--) {
+				double groupTime = groups[head + i].time;
+				if (groupTime == time) {
+					return i;
+				} else if (groupTime < time) {
+					return -1;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Inserts the group of a time that has no group in the bucket yet.
+		 *
+		 * @param group the group
+		 * @return the position of the group
+		 */
+		int insert(TimeGroup group) {
+			double time = group.time;
+			if (head + count == groups.length) {
+				TimeGroup[] grown = new TimeGroup[Math.max(2, count * 2)];
+				System.arraycopy(groups, head, grown, 0, count);
+				groups = grown;
+				head = 0;
+			}
+			int index = count;
+			while (index > 0 && groups[head + index - 1].time > time) {
+				groups[head + index] = groups[head + index - 1];
+				index--;
+			}
+			groups[head + index] = group;
+			count++;
+			return index;
+		}
+
+		void remove(int index) {
+			System.arraycopy(groups, head + index + 1, groups, head + index, count - index - 1);
+			groups[head + --count] = null;
+			if (count == 0) {
+				head = 0;
+			}
+		}
+
+	}
+
+	/**
+	 * The events happening at the same time, sorted by their serial number and stored in a
+	 * circular array. Since new events usually go after the existing ones, both adding an
+	 * event and removing the first one usually take constant time.
+	 */
+	private static final class TimeGroup {
+
+		/** The time of the events. */
+		final double time;
+
+		/** The circular array of events, its length is a power of two. */
+		private SimEvent[] events = new SimEvent[4];
+
+		/** The position of the first event in the array. */
+		private int head;
+
+		/** The number of events. */
+		private int count;
+
+		TimeGroup(double time) {
+			this.time = time;
+		}
+
+		int size() {
+			return count;
+		}
+
+		SimEvent get(int index) {
+			return events[(head + index) & (events.length - 1)];
+		}
+
+		SimEvent first() {
+			return events[head];
+		}
+
+		SimEvent pollFirst() {
+			SimEvent first = events[head];
+			events[head] = null;
+			head = (head + 1) & (events.length - 1);
+			count--;
+			return first;
+		}
+
+		void drainTo(List<SimEvent> batch) {
+			int mask = events.length - 1;
+			for (int i = 0; i < count; i++) {
+				batch.add(events[(head + i) & mask]);
+			}
+			count = 0;
+		}
+
+		void add(SimEvent event) {
+			if (count == events.length) {
+				SimEvent[] grown = new SimEvent[events.length * 2];
+				for (int i = 0; i < count; i++) {
+					grown[i] = get(i);
+				}
+				events = grown;
+				head = 0;
+			}
+			int mask = events.length - 1;
+			long eventSerial = event.getSerial();
+			int index = count;
+			while (index > 0 && eventSerial < events[(head + index - 1) & mask].getSerial()) {
+				events[(head + index) & mask] = events[(head + index - 1) & mask];
+				index--;
+			}
+			events[(head + index) & mask] = event;
+			count++;
+		}
+
+		boolean remove(SimEvent event) {
+			int mask = events.length - 1;
+			for (int i = 0; i < count; i++) {
+				if (events[(head + i) & mask] == event) {
+					for (int j = i; j < count - 1; j++) {
+						events[(head + j) & mask] = events[(head + j + 1) & mask];
+					}
+					events[(head + count - 1) & mask] = null;
+					count--;
+					return true;
+				}
+			}
+			return false;
+		}
+
+	}
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the events in the future event queue by their source entity and tag,
+ * used by {@link CloudSim} to find the events to be cancelled without going through
+ * the whole future event queue. The events of each (source, tag) pair are kept in a doubly
+ * linked list threaded through the events themselves, so adding and removing an event
+ * takes constant time and does not allocate memory.
+ *
+ * @since CloudSim Toolkit 4.0
+ * @see CloudSim#cancel(int, org.cloudbus.cloudsim.core.predicates.Predicate)
+ * @see CloudSim#cancelAll(int, org.cloudbus.cloudsim.core.predicates.Predicate)
+ */
+class FutureEventIndex {
+
+	/** The event chains of each source entity, by tag. The list is indexed by the entity id. */
+	private final List<Map<Integer, Chain>> chainsBySource = new ArrayList<Map<Integer, Chain>>();
+
+	/**
+	 * Adds an event to the index.
+	 *
+	 * @param event the event
+	 */
+	void add(SimEvent event) {
+		int source = event.getSource();
+		if (source < 0) {
+			return;
+		}
+		while (chainsBySource.size() <= source) {
+			chainsBySource.add(null);
+		}
+		Map<Integer, Chain> chains = chainsBySource.get(source);
+		if (chains == null) {
+			chains = new HashMap<Integer, Chain>();
+			chainsBySource.set(source, chains);
+		}
+		Chain chain = chains.get(event.getTag());
+		if (chain == null) {
+			chain = new Chain();
+			chains.put(event.getTag(), chain);
+		}
+		chain.add(event);
+	}
+
+	/**
+	 * Removes an event from the index.
+	 *
+	 * @param event the event
+	 * @return true if the event was in the index
+	 */
+	boolean remove(SimEvent event) {
+		Chain chain = event.indexChain;
+		if (chain == null) {
+			return false;
+		}
+		chain.remove(event);
+		return true;
+	}
+
+	/**
+	 * Checks if an event is in the index.
+	 *
+	 * @param event the event
+	 * @return true if the event is in the index
+	 */
+	boolean contains(SimEvent event) {
+		return event.indexChain != null;
+	}
+
+	/**
+	 * Gets the events sent by an entity with a given tag.
+	 *
+	 * @param source the id of the source entity
+	 * @param tag the tag
+	 * @param events the list where the events are appended to
+	 */
+	void getEvents(int source, int tag, List<SimEvent> events) {
+		Map<Integer, Chain> chains = getChains(source);
+		if (chains != null) {
+			Chain chain = chains.get(tag);
+			if (chain != null) {
+				chain.appendTo(events);
+			}
+		}
+	}
+
+	/**
+	 * Gets all the events sent by an entity.
+	 *
+	 * @param source the id of the source entity
+	 * @param events the list where the events are appended to
+	 */
+	void getEvents(int source, List<SimEvent> events) {
+		Map<Integer, Chain> chains = getChains(source);
+		if (chains != null) {
+			for (Chain chain : chains.values()) {
+				chain.appendTo(events);
+			}
+		}
+	}
+
+	/**
+	 * Removes all the events from the index.
+	 */
+	void clear() {
+		for (Map<Integer, Chain> chains : chainsBySource) {
+			if (chains != null) {
+				for (Chain chain : chains.values()) {
+					chain.clear();
+				}
+			}
+		}
+		chainsBySource.clear();
+	}
+
+	/**
+	 * Gets the event chains of an entity.
+	 *
+	 * @param source the id of the source entity
+	 * @return the chains by tag, or <tt>null</tt> if the entity has not sent events
+	 */
+	private Map<Integer, Chain> getChains(int source) {
+		if (source < 0 || source >= chainsBySource.size()) {
+			return null;
+		}
+		return chainsBySource.get(source);
+	}
+
+	/**
+	 * A doubly linked list of events linked through their
+	 * {@link SimEvent#indexPrevious} and {@link SimEvent#indexNext} fields.
+	 */
+	static final class Chain {
+
+		/** The first event of the chain. */
+		private SimEvent head;
+
+		/** The last event of the chain. */
+		private SimEvent tail;
+
+		void add(SimEvent event) {
+			event.indexChain = this;
+			event.indexPrevious = tail;
+			event.indexNext = null;
+			if (tail == null) {
+				head = event;
+			} else {
+				tail.indexNext = event;
+			}
+			tail = event;
+		}
+
+		void remove(SimEvent event) {
+			if (event.indexPrevious == null) {
+				head = event.indexNext;
+			} else {
+				event.indexPrevious.indexNext = event.indexNext;
+			}
+			if (event.indexNext == null) {
+				tail = event.indexPrevious;
+			} else {
+				event.indexNext.indexPrevious = event.indexPrevious;
+			}
+			event.indexChain = null;
+			event.indexPrevious = null;
+			event.indexNext = null;
+		}
+
+		void appendTo(List<SimEvent> events) {
+			for (SimEvent event = head; event != null; event = event.indexNext) {
+				events.add(event);
+			}
+		}
+
+		void clear() {
+			SimEvent event = head;
+			while (event != null) {
+				SimEvent next = event.indexNext;
+				event.indexChain = null;
+				event.indexPrevious = null;
+				event.indexNext = null;
+				event = next;
+			}
+			head = null;
+			tail = null;
+		}
+
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class FutureEventIndexTest {
+
+	private FutureEventIndex index;
+
+	@Before
+	public void setUp() throws Exception {
+		index = new FutureEventIndex();
+	}
+
+	@Test
+	public void testEventsAreIndexedBySourceAndTag() {
+		SimEvent a1 = event(1, 10);
+		SimEvent a2 = event(1, 20);
+		SimEvent a3 = event(1, 10);
+		SimEvent b1 = event(2, 10);
+		index.add(a1);
+		index.add(a2);
+		index.add(a3);
+		index.add(b1);
+
+		List<SimEvent> events = new ArrayList<SimEvent>();
+		index.getEvents(1, 10, events);
+		assertEquals(2, events.size());
+		assertSame(a1, events.get(0));
+		assertSame(a3, events.get(1));
+
+		events.clear();
+		index.getEvents(1, events);
+		assertEquals(3, events.size());
+
+		events.clear();
+		index.getEvents(3, events);
+		index.getEvents(2, 20, events);
+		assertTrue(events.isEmpty());
+	}
+
+	@Test
+	public void testRemove() {
+		SimEvent e1 = event(0, 10);
+		SimEvent e2 = event(0, 10);
+		SimEvent e3 = event(0, 10);
+		index.add(e1);
+		index.add(e2);
+		index.add(e3);
+
+		assertTrue(index.remove(e2));
+		assertFalse(index.contains(e2));
+		assertFalse(index.remove(e2));
+
+		List<SimEvent> events = new ArrayList<SimEvent>();
+		index.getEvents(0, 10, events);
+		assertEquals(2, events.size());
+		assertSame(e1, events.get(0));
+		assertSame(e3, events.get(1));
+
+		assertTrue(index.remove(e1));
+		assertTrue(index.remove(e3));
+		events.clear();
+		index.getEvents(0, 10, events);
+		assertTrue(events.isEmpty());
+
+		index.add(e2);
+		index.clear();
+		assertFalse(index.contains(e2));
+	}
+
+	@Test
+	public void testCancelScheduledEvent() throws Exception {
+		final List<SimEvent> received = new ArrayList<SimEvent>();
+		new SimulationContext().run(new Runnable() {
+
+			@Override
+			public void run() {
+				CloudSim.init(1, null, false);
+				new SimEntity("Canceller") {
+
+					@Override
+					public void startEntity() {
+						SimEvent cancelled = scheduleCancellable(getId(), 1, 1, null);
+						SimEvent kept = scheduleCancellable(getId(), 2, 1, null);
+						assertTrue(CloudSim.cancel(cancelled));
+						assertFalse(CloudSim.cancel(cancelled));
+						assertNotNull(kept);
+					}
+
+					@Override
+					public void processEvent(SimEvent ev) {
+						received.add(ev);
+						assertFalse(CloudSim.cancel(ev));
+					}
+
+					@Override
+					public void shutdownEntity() {
+					}
+				};
+				CloudSim.startSimulation();
+			}
+		});
+		assertEquals(1, received.size());
+		assertEquals(2.0, received.get(0).eventTime(), 0.0);
+	}
+
+	private static SimEvent event(int source, int tag) {
+		return new SimEvent(SimEvent.SEND, 1.0, source, 0, tag, null);
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A future event list keeps the events scheduled in {@link CloudSim} that have not been
+ * processed yet. Implementations have to order events by their time and, for events happening
+ * at the same time, by their serial number (see {@link SimEvent#compareTo(SimEvent)}), so that
+ * any implementation can replace another one without changing simulation results.
+ *
+ * @since CloudSim Toolkit 4.0
+ * @see FutureQueue
+ * @see FutureHeapQueue
+ * @see FutureCalendarQueue
+ * @see CloudSim#setFutureEventListClass(Class)
+ */
+public interface FutureEventList {
+
+	/**
+	 * Adds a new event to the list, after all events already scheduled for the same time.
+	 *
+	 * @param newEvent The event to be put in the list.
+	 */
+	void addEvent(SimEvent newEvent);
+
+	/**
+	 * Adds a new event to the list, before the events already scheduled for the same time with
+	 * {@link #addEvent(SimEvent)}, and after the ones already added for the same time with this
+	 * method.
+	 *
+	 * @param newEvent The event to be put in the list.
+	 */
+	void addEventFirst(SimEvent newEvent);
+
+	/**
+	 * Gets the next event to be processed, without removing it.
+	 *
+	 * @return the first event or <tt>null</tt> if the list is empty
+	 */
+	SimEvent peek();
+
+	/**
+	 * Removes the next event to be processed.
+	 *
+	 * @return the first event or <tt>null</tt> if the list is empty
+	 */
+	SimEvent poll();
+
+	/**
+	 * Removes the next event to be processed and all the other events scheduled for
+	 * the same time, appending them in order to a given list.
+	 *
+	 * @param batch the list where the removed events are appended to
+	 * @return the number of removed events
+	 */
+	int pollBatch(List<SimEvent> batch);
+
+	/**
+	 * Returns an iterator to the events in the list. The iteration order is
+	 * implementation dependent and the iterator may not support removal.
+	 *
+	 * @return the iterator
+	 */
+	Iterator<SimEvent> iterator();
+
+	/**
+	 * Returns the number of events in the list.
+	 *
+	 * @return the size
+	 */
+	int size();
+
+	/**
+	 * Removes an event from the list.
+	 *
+	 * @param event the event
+	 * @return true, if the event was in the list
+	 */
+	boolean remove(SimEvent event);
+
+	/**
+	 * Removes a collection of events from the list.
+	 *
+	 * @param events the events
+	 * @return true, if at least one event was in the list
+	 */
+	boolean removeAll(Collection<SimEvent> events);
+
+	/**
+	 * Clears the list.
+	 */
+	void clear();
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A micro-benchmark comparing the {@link FutureEventList} implementations using the classic
+ * "hold" model: the queue is kept at a constant size while the next batch of events happening
+ * at the same time is taken and, for each taken event, a new one is scheduled in the future.
+ * Event times are drawn from a coarse grid, as the scheduling intervals of the power-aware
+ * datacenters produce many events at the same time.
+ * <p>
+ * Usage: <tt>FutureEventListBenchmark [queue size] [operations]</tt>
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class FutureEventListBenchmark {
+
+	/** The number of warm-up rounds before measuring. */
+	private static final int WARM_UP_ROUNDS = 3;
+
+	/** The number of measured rounds. */
+	private static final int ROUNDS = 5;
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args the queue size and the number of events processed per round
+	 */
+	public static void main(String[] args) {
+		int queueSize = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		int operations = args.length > 1 ? Integer.parseInt(args[1]) : 2000000;
+
+		System.out.println("Queue size: " + queueSize + ", events per round: " + operations);
+		for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+			for (String name : new String[] { "TreeSet", "4-ary heap", "Calendar queue" }) {
+				run(create(name), queueSize, operations);
+			}
+		}
+
+		for (String name : new String[] { "TreeSet", "4-ary heap", "Calendar queue" }) {
+			double total = 0;
+			for (int i = 0; i < ROUNDS; i++) {
+				total += run(create(name), queueSize, operations);
+			}
+			System.out.println(String.format("%-15s %8.1f ns/event", name, total / ROUNDS));
+		}
+	}
+
+	/**
+	 * Creates a future event list.
+	 *
+	 * @param name the implementation name
+	 * @return the future event list
+	 */
+	private static FutureEventList create(String name) {
+		if (name.equals("4-ary heap")) {
+			return new FutureHeapQueue();
+		} else if (name.equals("Calendar queue")) {
+			return new FutureCalendarQueue();
+		}
+		return new FutureQueue();
+	}
+
+	/**
+	 * Runs the hold model over a future event list.
+	 *
+	 * @param list the future event list
+	 * @param queueSize the number of events kept in the list
+	 * @param operations the number of events to process
+	 * @return the average time per processed event, in nanoseconds
+	 */
+	private static double run(FutureEventList list, int queueSize, int operations) {
+		Random random = new Random(42);
+		for (int i = 0; i < queueSize; i++) {
+			list.addEvent(new SimEvent(SimEvent.SEND, nextDelay(random), 0, 0, i, null));
+		}
+
+		List<SimEvent> batch = new ArrayList<SimEvent>();
+		long start = System.nanoTime();
+		int processed = 0;
+		while (processed < operations) {
+			batch.clear();
+			processed += list.pollBatch(batch);
+			for (int i = 0; i < batch.size(); i++) {
+				SimEvent event = batch.get(i);
+				double time = event.eventTime() + nextDelay(random);
+				list.addEvent(new SimEvent(SimEvent.SEND, time, 0, 0, event.getTag(), null));
+			}
+		}
+		return (double) (System.nanoTime() - start) / processed;
+	}
+
+	/**
+	 * Draws a delay from a coarse grid of times.
+	 *
+	 * @param random the random generator
+	 * @return the delay
+	 */
+	private static double nextDelay(Random random) {
+		return 1 + random.nextInt(300);
+	}
+
+}
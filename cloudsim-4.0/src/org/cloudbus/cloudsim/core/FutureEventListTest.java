@@ -0,0 +1,215 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that {@link FutureHeapQueue} and {@link FutureCalendarQueue} process events in the
+ * same order as the {@link FutureQueue}.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class FutureEventListTest {
+
+	private static final int EVENTS = 5000;
+
+	@Test
+	public void testEmpty() {
+		for (FutureEventList list : createLists()) {
+			assertEquals(0, list.size());
+			assertNull(list.peek());
+			assertNull(list.poll());
+			assertEquals(0, list.pollBatch(new ArrayList<SimEvent>()));
+		}
+	}
+
+	@Test
+	public void testSameOrderAsFutureQueue() {
+		for (FutureEventList list : createLists()) {
+			List<SimEvent> expected = drain(fill(new FutureQueue(), 1));
+			List<SimEvent> actual = drain(fill(list, 1));
+			assertSameTimesAndTags(expected, actual);
+		}
+	}
+
+	@Test
+	public void testAddEventFirst() {
+		for (FutureEventList list : createLists()) {
+			list.addEvent(event(1.0, 1));
+			list.addEventFirst(event(1.0, 2));
+			list.addEventFirst(event(1.0, 3));
+			list.addEvent(event(0.5, 4));
+
+			assertEquals(4, list.poll().getTag());
+			assertEquals(2, list.poll().getTag());
+			assertEquals(3, list.poll().getTag());
+			assertEquals(1, list.poll().getTag());
+		}
+	}
+
+	@Test
+	public void testPollBatch() {
+		for (FutureEventList list : createLists()) {
+			list.addEvent(event(2.0, 1));
+			list.addEvent(event(1.0, 2));
+			list.addEvent(event(2.0, 3));
+			list.addEvent(event(1.0, 4));
+			list.addEvent(event(3.0, 5));
+
+			List<SimEvent> batch = new ArrayList<SimEvent>();
+			assertEquals(2, list.pollBatch(batch));
+			assertEquals(2, batch.get(0).getTag());
+			assertEquals(4, batch.get(1).getTag());
+
+			batch.clear();
+			assertEquals(2, list.pollBatch(batch));
+			assertEquals(1, batch.get(0).getTag());
+			assertEquals(3, batch.get(1).getTag());
+
+			batch.clear();
+			assertEquals(1, list.pollBatch(batch));
+			assertEquals(5, batch.get(0).getTag());
+			assertEquals(0, list.size());
+		}
+	}
+
+	@Test
+	public void testRemove() {
+		for (FutureEventList list : createLists()) {
+			List<SimEvent> events = new ArrayList<SimEvent>();
+			Random random = new Random(7);
+			for (int i = 0; i < 200; i++) {
+				SimEvent event = event(random.nextInt(50), i);
+				events.add(event);
+				list.addEvent(event);
+			}
+
+			List<SimEvent> toRemove = new ArrayList<SimEvent>();
+			for (int i = 0; i < events.size(); i += 3) {
+				toRemove.add(events.get(i));
+			}
+			assertTrue(list.removeAll(toRemove));
+			assertFalse(list.remove(toRemove.get(0)));
+			assertEquals(events.size() - toRemove.size(), list.size());
+
+			SimEvent previous = null;
+			SimEvent event;
+			while ((event = list.poll()) != null) {
+				assertFalse(event.getTag() % 3 == 0);
+				if (previous != null) {
+					assertTrue(previous.compareTo(event) < 0);
+				}
+				previous = event;
+			}
+		}
+	}
+
+	@Test
+	public void testInterleavedAddAndPoll() {
+		List<SimEvent> expected = holdModel(new FutureQueue());
+		for (FutureEventList list : createLists()) {
+			assertSameTimesAndTags(expected, holdModel(list));
+		}
+	}
+
+	@Test
+	public void testPeek() {
+		for (FutureEventList list : createLists()) {
+			fill(list, 3);
+			while (list.size() > 0) {
+				SimEvent first = list.peek();
+				assertSame(first, list.poll());
+			}
+		}
+	}
+
+	private static List<FutureEventList> createLists() {
+		List<FutureEventList> lists = new ArrayList<FutureEventList>();
+		lists.add(new FutureHeapQueue(1));
+		lists.add(new FutureCalendarQueue());
+		lists.add(new FutureCalendarQueue(1000));
+		return lists;
+	}
+
+	private static FutureEventList fill(FutureEventList list, long seed) {
+		Random random = new Random(seed);
+		for (int i = 0; i < EVENTS; i++) {
+			// a coarse time grid produces many events happening at the same time
+			double time = random.nextInt(500) * 0.5;
+			if (random.nextInt(10) == 0) {
+				list.addEventFirst(event(time, i));
+			} else {
+				list.addEvent(event(time, i));
+			}
+		}
+		return list;
+	}
+
+	private static List<SimEvent> drain(FutureEventList list) {
+		List<SimEvent> events = new ArrayList<SimEvent>();
+		while (list.size() > 0) {
+			list.pollBatch(events);
+		}
+		return events;
+	}
+
+	/**
+	 * Repeatedly takes the next batch of events and schedules new events after
+	 * them, as the simulation does.
+	 */
+	private static List<SimEvent> holdModel(FutureEventList list) {
+		Random random = new Random(11);
+		int tag = 0;
+		for (int i = 0; i < 100; i++) {
+			list.addEvent(event(random.nextInt(10), tag++));
+		}
+		List<SimEvent> processed = new ArrayList<SimEvent>();
+		List<SimEvent> batch = new ArrayList<SimEvent>();
+		while (processed.size() < EVENTS) {
+			batch.clear();
+			list.pollBatch(batch);
+			for (SimEvent event : batch) {
+				processed.add(event);
+				int children = random.nextInt(3);
+				for (int i = 0; i < children && list.size() < 1000; i++) {
+					double time = event.eventTime() + random.nextInt(20) * 0.25;
+					list.addEvent(event(time, tag++));
+				}
+			}
+			if (list.size() == 0) {
+				list.addEvent(event(batch.get(0).eventTime() + 1, tag++));
+			}
+		}
+		return processed;
+	}
+
+	private static void assertSameTimesAndTags(List<SimEvent> expected, List<SimEvent> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).eventTime(), actual.get(i).eventTime(), 0);
+			assertEquals(expected.get(i).getTag(), actual.get(i).getTag());
+		}
+	}
+
+	private static SimEvent event(double time, int tag) {
+		return new SimEvent(SimEvent.SEND, time, 0, 0, tag, null);
+	}
+
+}
@@ -0,0 +1,267 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A future event list backed by an array-based 4-ary min-heap. Compared to {@link FutureQueue},
+ * it does not allocate a tree node per event and keeps the events in a single array,
+ * with a shallower tree than a binary heap. Each event records its position in the heap,
+ * so an arbitrary event can be removed in O(log n) time.
+ *
+ * @since CloudSim Toolkit 4.0
+ * @see FutureEventList
+ */
+public class FutureHeapQueue implements FutureEventList {
+
+	/** The number of children of each heap node. */
+	private static final int ARITY = 4;
+
+	/** The default initial capacity of the heap. */
+	private static final int DEFAULT_CAPACITY = 64;
+
+	/** The heap of events, where the first event is the next one to be processed. */
+	private SimEvent[] heap;
+
+	/** The number of events in the heap. */
+	private int size;
+
+	/** A incremental number used for {@link SimEvent#serial} event attribute. */
+	private long serial = 0;
+
+	/** A incremental number used for the serial of events added by {@link #addEventFirst(SimEvent)}. */
+	private long firstSerial = Long.MIN_VALUE;
+
+	/**
+	 * Creates an empty heap.
+	 */
+	public FutureHeapQueue() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty heap with a given initial capacity.
+	 *
+	 * @param initialCapacity the initial capacity
+	 */
+	public FutureHeapQueue(int initialCapacity) {
+		heap = new SimEvent[Math.max(1, initialCapacity)];
+	}
+
+	@Override
+	public void addEvent(SimEvent newEvent) {
+		newEvent.setSerial(serial++);
+		offer(newEvent);
+	}
+
+	@Override
+	public void addEventFirst(SimEvent newEvent) {
+		newEvent.setSerial(firstSerial++);
+		offer(newEvent);
+	}
+
+	@Override
+	public SimEvent peek() {
+		return size == 0 ? null : heap[0];
+	}
+
+	@Override
+	public SimEvent poll() {
+		if (size == 0) {
+			return null;
+		}
+		SimEvent first = heap[0];
+		removeAt(0);
+		return first;
+	}
+
+	@Override
+	public int pollBatch(List<SimEvent> batch) {
+		if (size == 0) {
+			return 0;
+		}
+		int count = 0;
+		double time = heap[0].eventTime();
+		do {
+			batch.add(heap[0]);
+			removeAt(0);
+			count++;
+		} while (size > 0 && heap[0].eventTime() == time);
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc} The events are returned in heap order and the iterator does not
+	 * support removal.
+	 */
+	@Override
+	public Iterator<SimEvent> iterator() {
+		return new Iterator<SimEvent>() {
+
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (index >= size) {
+					throw new NoSuchElementException();
+				}
+				return heap[index++];
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException("remove");
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean remove(SimEvent event) {
+		int index = event.queueIndex;
+		if (index < 0 || index >= size || heap[index] != event) {
+			return false;
+		}
+		removeAt(index);
+		return true;
+	}
+
+	@Override
+	public boolean removeAll(Collection<SimEvent> events) {
+		boolean removed = false;
+		for (SimEvent event : events) {
+			removed |= remove(event);
+		}
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			heap[i].queueIndex = -1;
+			heap[i] = null;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Inserts an event which already has its serial number set.
+	 *
+	 * @param event the event
+	 */
+	private void offer(SimEvent event) {
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, heap.length * 2);
+		}
+		siftUp(size++, event);
+	}
+
+	/**
+	 * Removes the event at a given position of the heap.
+	 *
+	 * @param index the position
+	 */
+	private void removeAt(int index) {
+		SimEvent removed = heap[index];
+		removed.queueIndex = -1;
+		int last = --size;
+		if (index == last) {
+			heap[last] = null;
+			return;
+		}
+		SimEvent moved = heap[last];
+		heap[last] = null;
+		siftDown(index, moved);
+		if (heap[index] == moved) {
+			siftUp(index, moved);
+		}
+	}
+
+	/**
+	 * Moves an event up the heap, starting from a given position, until its parent precedes it.
+	 *
+	 * @param index the starting position
+	 * @param event the event
+	 */
+	private void siftUp(int index, SimEvent event) {
+		while (index > 0) {
+			int parent = (index - 1) / ARITY;
+			SimEvent parentEvent = heap[parent];
+			if (!precedes(event, parentEvent)) {
+				break;
+			}
+			heap[index] = parentEvent;
+			parentEvent.queueIndex = index;
+			index = parent;
+		}
+		heap[index] = event;
+		event.queueIndex = index;
+	}
+
+	/**
+	 * Moves an event down the heap, starting from a given position, until it precedes all its
+	 * children.
+	 *
+	 * @param index the starting position
+	 * @param event the event
+	 */
+	private void siftDown(int index, SimEvent event) {
+		while (true) {
+			int firstChild = index * ARITY + 1;
+			if (firstChild >= size) {
+				break;
+			}
+			int lastChild = Math.min(firstChild + ARITY, size);
+			int smallest = firstChild;
+			for (int child = firstChild + 1; child < lastChild; child++) {
+				if (precedes(heap[child], heap[smallest])) {
+					smallest = child;
+				}
+			}
+			SimEvent smallestEvent = heap[smallest];
+			if (!precedes(smallestEvent, event)) {
+				break;
+			}
+			heap[index] = smallestEvent;
+			smallestEvent.queueIndex = index;
+			index = smallest;
+		}
+		heap[index] = event;
+		event.queueIndex = index;
+	}
+
+	/**
+	 * Checks if an event has to be processed before another one, using the same
+	 * ordering of {@link SimEvent#compareTo(SimEvent)}.
+	 *
+	 * @param a the first event
+	 * @param b the second event
+	 * @return true if a precedes b
+	 */
+	private static boolean precedes(SimEvent a, SimEvent b) {
+		double timeA = a.eventTime();
+		double timeB = b.eventTime();
+		return timeA < timeB || (timeA == timeB && a.getSerial() < b.getSerial());
+	}
+
+}
@@ -10,6 +10,7 @@ package org.cloudbus.cloudsim.core;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -21,11 +22,9 @@ import java.util.TreeSet;
  * @since CloudSim Toolkit 1.0
  * @see Simulation
  * @see java.util.TreeSet
- * 
- * @todo It would be used a common interface for queues
- * such as this one and {@link DeferredQueue}
+ * @see FutureEventList
  */
-public class FutureQueue {
+public class FutureQueue implements FutureEventList {
 
 	/** The sorted set of events. */
 	private final SortedSet<SimEvent> sortedSet = new TreeSet<SimEvent>();
@@ -34,12 +33,18 @@ public class FutureQueue {
          */
 	private long serial = 0;
 
+	/** A incremental number used for the serial of events added by {@link #addEventFirst(SimEvent)}.
+	 * It starts at the lowest possible value so that these events precede any other event
+	 * scheduled for the same time, keeping the order in which they were added among them. */
+	private long firstSerial = Long.MIN_VALUE;
+
 	/**
 	 * Adds a new event to the queue. Adding a new event to the queue preserves the temporal order of
 	 * the events in the queue.
 	 * 
 	 * @param newEvent The event to be put in the queue.
 	 */
+	@Override
 	public void addEvent(SimEvent newEvent) {
 		newEvent.setSerial(serial++);
 		sortedSet.add(newEvent);
@@ -50,16 +55,53 @@ public class FutureQueue {
 	 * 
 	 * @param newEvent The event to be put in the queue.
 	 */
+	@Override
 	public void addEventFirst(SimEvent newEvent) {
-		newEvent.setSerial(0);
+		newEvent.setSerial(firstSerial++);
 		sortedSet.add(newEvent);
 	}
 
+	@Override
+	public SimEvent peek() {
+		return sortedSet.isEmpty() ? null : sortedSet.first();
+	}
+
+	@Override
+	public SimEvent poll() {
+		if (sortedSet.isEmpty()) {
+			return null;
+		}
+		SimEvent first = sortedSet.first();
+		sortedSet.remove(first);
+		return first;
+	}
+
+	@Override
+	public int pollBatch(List<SimEvent> batch) {
+		if (sortedSet.isEmpty()) {
+			return 0;
+		}
+		int count = 0;
+		double time = sortedSet.first().eventTime();
+		Iterator<SimEvent> iterator = sortedSet.iterator();
+		while (iterator.hasNext()) {
+			SimEvent event = iterator.next();
+			if (event.eventTime() != time) {
+				break;
+			}
+			batch.add(event);
+			iterator.remove();
+			count++;
+		}
+		return count;
+	}
+
 	/**
 	 * Returns an iterator to the queue.
 	 * 
 	 * @return the iterator
 	 */
+	@Override
 	public Iterator<SimEvent> iterator() {
 		return sortedSet.iterator();
 	}
@@ -69,6 +111,7 @@ public class FutureQueue {
 	 * 
 	 * @return the size
 	 */
+	@Override
 	public int size() {
 		return sortedSet.size();
 	}
@@ -79,6 +122,7 @@ public class FutureQueue {
 	 * @param event the event
 	 * @return true, if successful
 	 */
+	@Override
 	public boolean remove(SimEvent event) {
 		return sortedSet.remove(event);
 	}
@@ -89,6 +133,7 @@ public class FutureQueue {
 	 * @param events the events
 	 * @return true, if successful
 	 */
+	@Override
 	public boolean removeAll(Collection<SimEvent> events) {
 		return sortedSet.removeAll(events);
 	}
@@ -96,6 +141,7 @@ public class FutureQueue {
 	/**
 	 * Clears the queue.
 	 */
+	@Override
 	public void clear() {
 		sortedSet.clear();
 	}
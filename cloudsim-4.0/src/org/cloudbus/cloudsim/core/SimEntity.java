@@ -46,6 +46,12 @@ public abstract class SimEntity implements Cloneable {
 	/** The entity's current state. */
 	private int state;
 
+	/**
+	 * The simulation context the entity was created in, on which the entity acts without looking
+	 * up the context bound to the calling thread.
+	 */
+	private final SimulationContext context;
+
 	/**
 	 * Creates a new entity.
 	 * 
@@ -58,6 +64,7 @@ public abstract class SimEntity implements Cloneable {
 		this.name = name;
 		id = -1;
 		state = RUNNABLE;
+		context = CloudSim.getContext();
 		CloudSim.addEntity(this);
 	}
 
@@ -79,6 +86,15 @@ public abstract class SimEntity implements Cloneable {
 		return id;
 	}
 
+	/**
+	 * Gets the simulation context the entity was created in.
+	 * 
+	 * @return the simulation context
+	 */
+	public SimulationContext getContext() {
+		return context;
+	}
+
 	// The schedule functions
 
 	/**
@@ -91,10 +107,28 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void schedule(int dest, double delay, int tag, Object data) {
-		if (!CloudSim.running()) {
+		if (!context.running) {
 			return;
 		}
-		CloudSim.send(id, dest, delay, tag, data);
+		CloudSim.send(context, id, dest, delay, tag, data);
+	}
+
+	/**
+	 * Sends an event to another entity by id number, with data, as
+	 * {@link #schedule(int, double, int, Object)} does, and returns the sent event so that it can
+	 * be cancelled with {@link CloudSim#cancel(SimEvent)}.
+	 * 
+	 * @param dest The unique id number of the destination entity
+	 * @param delay How long from the current simulation time the event should be sent
+	 * @param tag An user-defined number representing the type of event.
+	 * @param data The data to be sent with the event.
+	 * @return the sent event, or <tt>null</tt> if it was not sent
+	 */
+	public SimEvent scheduleCancellable(int dest, double delay, int tag, Object data) {
+		if (!context.running) {
+			return null;
+		}
+		return CloudSim.send(context, id, dest, delay, tag, data);
 	}
 
 	/**
@@ -191,10 +225,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void scheduleFirst(int dest, double delay, int tag, Object data) {
-		if (!CloudSim.running()) {
+		if (!context.running) {
 			return;
 		}
-		CloudSim.sendFirst(id, dest, delay, tag, data);
+		CloudSim.sendFirst(context, id, dest, delay, tag, data);
 	}
 
 	/**
@@ -292,10 +326,10 @@ public abstract class SimEntity implements Cloneable {
 		if (delay < 0) {
 			throw new IllegalArgumentException("Negative delay supplied.");
 		}
-		if (!CloudSim.running()) {
+		if (!context.running) {
 			return;
 		}
-		CloudSim.pause(id, delay);
+		CloudSim.pause(context, id, delay);
 	}
 
 	/**
@@ -305,7 +339,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @return The count of matching events
 	 */
 	public int numEventsWaiting(Predicate p) {
-		return CloudSim.waiting(id, p);
+		return context.deferred.count(id, p);
 	}
 
 	/**
@@ -314,7 +348,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @return The count of events
 	 */
 	public int numEventsWaiting() {
-		return CloudSim.waiting(id, CloudSim.SIM_ANY);
+		return context.deferred.count(id, CloudSim.SIM_ANY);
 	}
 
 	/**
@@ -324,11 +358,11 @@ public abstract class SimEntity implements Cloneable {
 	 * @return the simulation event
 	 */
 	public SimEvent selectEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!context.running) {
 			return null;
 		}
 
-		return CloudSim.select(id, p);
+		return context.deferred.removeFirst(id, p);
 	}
 
 	/**
@@ -338,11 +372,11 @@ public abstract class SimEntity implements Cloneable {
 	 * @return The number of events cancelled (0 or 1)
 	 */
 	public SimEvent cancelEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!context.running) {
 			return null;
 		}
 
-		return CloudSim.cancel(id, p);
+		return CloudSim.cancel(context, id, p);
 	}
 
 	/**
@@ -353,13 +387,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @return the simulation event
 	 */
 	public SimEvent getNextEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!context.running) {
 			return null;
 		}
-		if (numEventsWaiting(p) > 0) {
-			return selectEvent(p);
-		}
-		return null;
+		return selectEvent(p);
 	}
 
 	/**
@@ -369,11 +400,11 @@ public abstract class SimEntity implements Cloneable {
 	 * @param p The predicate to match
 	 */
 	public void waitForEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!context.running) {
 			return;
 		}
 
-		CloudSim.wait(id, p);
+		CloudSim.wait(context, id, p);
 		state = WAITING;
 	}
 
@@ -53,6 +53,22 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
          */
 	private long serial = -1;
 
+	/**
+	 * The position of this event inside the array-based future event list holding it,
+	 * or -1 if it is not held by such a list. It allows removing an event from a
+	 * {@link FutureHeapQueue} without searching for it.
+	 */
+	int queueIndex = -1;
+
+	/** The chain of the {@link FutureEventIndex} holding this event, or null if it is not indexed. */
+	FutureEventIndex.Chain indexChain;
+
+	/** The previous event in the {@link #indexChain}. */
+	SimEvent indexPrevious;
+
+	/** The next event in the {@link #indexChain}. */
+	SimEvent indexNext;
+
 	// Internal event types
 
 	public static final int ENULL = 0;
@@ -99,6 +115,15 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 		this.serial = serial;
 	}
 
+	/**
+	 * Gets the serial number used to order events happening at the same time.
+	 * 
+	 * @return the serial number
+	 */
+	long getSerial() {
+		return serial;
+	}
+
 	/**
 	 * Sets the time that the event was removed from the queue to start service. 
 	 * 
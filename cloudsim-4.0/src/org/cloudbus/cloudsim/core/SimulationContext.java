@@ -0,0 +1,258 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+
+/**
+ * Holds the whole state of a simulation: the clock, the entities and the event queues used by
+ * {@link CloudSim}, as well as the state of other simulation-wide services such as the
+ * {@link org.cloudbus.cloudsim.Log} and the {@link org.cloudbus.cloudsim.NetworkTopology}.
+ * <p>
+ * The static methods of {@link CloudSim} act on the context bound to the calling thread or,
+ * if the thread has not been bound to any context, on a default context shared by all such
+ * threads. Independent simulations can therefore run concurrently in the same JVM as long as
+ * each one runs in its own thread, bound to its own context:
+ *
+ * <pre>
+ * SimulationContext context = new SimulationContext();
+ * context.call(new Callable&lt;Double&gt;() {
+ * 	public Double call() {
+ * 		CloudSim.init(1, null, false);
+ * 		// create the datacenters, brokers, VMs and cloudlets
+ * 		return CloudSim.startSimulation();
+ * 	}
+ * });
+ * </pre>
+ *
+ * The simulation itself, that is the clock, the entities and the event queues, must only be
+ * run by one thread at a time. Other threads may be bound to the same context while that
+ * thread waits for them, as the parallel evaluation of hosts in
+ * {@link org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationAbstract} does, as long as
+ * they only read the clock, the entities and the event queues, without sending or processing
+ * events. The components of the simulation services can be looked up and created by such
+ * threads concurrently, see {@link #setComponentIfAbsent(Class, Object)}, but a service used
+ * from them must make the content of its component safe to share. The entities of a
+ * simulation are bound to the context they were created in.
+ *
+ * @since CloudSim Toolkit 4.0
+ * @see CloudSim
+ */
+public class SimulationContext {
+
+	/** The default context, used by the threads that have not been bound to another one. */
+	private static final SimulationContext DEFAULT_CONTEXT = new SimulationContext();
+
+	/** The context bound to each thread. */
+	private static final ThreadLocal<SimulationContext> BOUND_CONTEXT = new ThreadLocal<SimulationContext>();
+
+	/**
+	 * The state of other simulation services, by the class of the state. The services create
+	 * their state on first use, possibly from several threads bound to this context.
+	 */
+	private final ConcurrentMap<Class<?>, Object> components = new ConcurrentHashMap<Class<?>, Object>();
+
+	// ======== CloudSim state, accessed by the CloudSim facade ===============//
+
+	/** The id of CIS entity. */
+	int cisId = -1;
+
+	/** The id of CloudSimShutdown entity. */
+	int shutdownId = -1;
+
+	/** The CIS object. */
+	CloudInformationService cis;
+
+	/** The trace flag. */
+	boolean traceFlag;
+
+	/** The calendar. */
+	Calendar calendar;
+
+	/** The termination time. */
+	double terminateAt = -1;
+
+	/** The minimal time between events. Events within shorter periods after the last event are discarded. */
+	double minTimeBetweenEvents = 0.1;
+
+	/** The entities. */
+	List<SimEntity> entities;
+
+	/** The future event queue. */
+	FutureEventList future;
+
+	/** The index of the events in the future event queue by source entity and tag. */
+	FutureEventIndex futureIndex;
+
+	/** The class of the future event queue created when the simulation is initialised. */
+	Class<? extends FutureEventList> futureEventListClass = FutureQueue.class;
+
+	/** The events processed in the current clock tick, reused between ticks. */
+	final List<SimEvent> currentEvents = new ArrayList<SimEvent>();
+
+	/** The deferred event queue. */
+	DeferredQueue deferred;
+
+	/** The current simulation clock. */
+	double clock;
+
+	/** Flag for checking if the simulation is running. */
+	boolean running;
+
+	/** The entities by name. */
+	Map<String, SimEntity> entitiesByName;
+
+	/**
+	 * The ids of the entities that may have something to do in the next clock tick.
+	 *
+	 * @see CloudSim#runClockTick()
+	 */
+	BitSet runnableEntities;
+
+	/** The predicates used in entity wait methods, by entity id. */
+	Map<Integer, Predicate> waitPredicates;
+
+	/** The paused. */
+	boolean paused;
+
+	/** The pause at. */
+	long pauseAt = -1;
+
+	/** The abrupt terminate. */
+	boolean abruptTerminate;
+
+	/**
+	 * Gets the context used by the static methods of {@link CloudSim} in the calling thread.
+	 *
+	 * @return the context bound to the calling thread, or the default context if there is none
+	 */
+	public static SimulationContext getCurrent() {
+		SimulationContext context = BOUND_CONTEXT.get();
+		return context == null ? DEFAULT_CONTEXT : context;
+	}
+
+	/**
+	 * Gets the default context, used by the threads that have not been bound to another one.
+	 *
+	 * @return the default context
+	 */
+	public static SimulationContext getDefault() {
+		return DEFAULT_CONTEXT;
+	}
+
+	/**
+	 * Binds a context to the calling thread.
+	 *
+	 * @param context the context, or <tt>null</tt> to make the thread use the default context
+	 * @return the context previously bound to the thread, or <tt>null</tt> if there was none
+	 */
+	public static SimulationContext bind(SimulationContext context) {
+		SimulationContext previous = BOUND_CONTEXT.get();
+		if (context == null || context == DEFAULT_CONTEXT) {
+			BOUND_CONTEXT.remove();
+		} else {
+			BOUND_CONTEXT.set(context);
+		}
+		return previous;
+	}
+
+	/**
+	 * Runs a task in the calling thread with this context bound to it. The context previously
+	 * bound to the thread is restored when the task finishes.
+	 *
+	 * @param task the task, usually a whole simulation
+	 * @return the result of the task
+	 * @throws Exception if the task throws an exception
+	 */
+	public <T> T call(Callable<T> task) throws Exception {
+		SimulationContext previous = bind(this);
+		try {
+			return task.call();
+		} finally {
+			bind(previous);
+		}
+	}
+
+	/**
+	 * Runs a task in the calling thread with this context bound to it. The context previously
+	 * bound to the thread is restored when the task finishes.
+	 *
+	 * @param task the task, usually a whole simulation
+	 */
+	public void run(Runnable task) {
+		SimulationContext previous = bind(this);
+		try {
+			task.run();
+		} finally {
+			bind(previous);
+		}
+	}
+
+	/**
+	 * Gets the state kept in this context by a simulation service.
+	 *
+	 * @param type the class of the state
+	 * @return the state, or <tt>null</tt> if the service has not set any in this context
+	 */
+	public <T> T getComponent(Class<T> type) {
+		return type.cast(components.get(type));
+	}
+
+	/**
+	 * Sets the state kept in this context by a simulation service.
+	 *
+	 * @param type the class of the state
+	 * @param component the state
+	 */
+	public <T> void setComponent(Class<T> type, T component) {
+		components.put(type, component);
+	}
+
+	/**
+	 * Sets the state kept in this context by a simulation service, unless it has already been
+	 * set. When several threads bound to this context create the state of a service at the same
+	 * time, they all get the same one.
+	 *
+	 * @param type the class of the state
+	 * @param component the state to set if there is none
+	 * @return the state kept in this context: the one already set, or else the given one
+	 */
+	public <T> T setComponentIfAbsent(Class<T> type, T component) {
+		Object previous = components.putIfAbsent(type, component);
+		return type.cast(previous == null ? component : previous);
+	}
+
+	/**
+	 * Gets the current simulation time of this context.
+	 *
+	 * @return the simulation time
+	 */
+	public double clock() {
+		return clock;
+	}
+
+	/**
+	 * Checks if the simulation of this context is running.
+	 *
+	 * @return true if the simulation is running
+	 */
+	public boolean isRunning() {
+		return running;
+	}
+
+}
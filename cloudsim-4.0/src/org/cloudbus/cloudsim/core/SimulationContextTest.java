@@ -0,0 +1,155 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.cloudbus.cloudsim.Log;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class SimulationContextTest {
+
+	private static final int TICK = 123456;
+
+	private static final double DELTA = 0.0;
+
+	@Test
+	public void testBind() throws Exception {
+		final SimulationContext context = new SimulationContext();
+		assertSame(SimulationContext.getDefault(), CloudSim.getContext());
+
+		SimulationContext bound = context.call(new Callable<SimulationContext>() {
+
+			@Override
+			public SimulationContext call() {
+				return CloudSim.getContext();
+			}
+		});
+
+		assertSame(context, bound);
+		assertSame(SimulationContext.getDefault(), CloudSim.getContext());
+	}
+
+	@Test
+	public void testLogStateIsPerContext() throws Exception {
+		boolean disabled = Log.isDisabled();
+		new SimulationContext().run(new Runnable() {
+
+			@Override
+			public void run() {
+				Log.disable();
+			}
+		});
+		assertEquals(disabled, Log.isDisabled());
+	}
+
+	@Test
+	public void testLogStateIsInheritedFromDefaultContext() throws Exception {
+		boolean disabled = Log.isDisabled();
+		Log.disable();
+		try {
+			assertTrue(new SimulationContext().call(new Callable<Boolean>() {
+
+				@Override
+				public Boolean call() {
+					return Log.isDisabled();
+				}
+			}));
+		} finally {
+			Log.setDisabled(disabled);
+		}
+	}
+
+	@Test
+	public void testConcurrentSimulations() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Double>> results = new ArrayList<Future<Double>>();
+			for (int i = 1; i <= 8; i++) {
+				final int ticks = i * 100;
+				results.add(executor.submit(new Callable<Double>() {
+
+					@Override
+					public Double call() throws Exception {
+						return new SimulationContext().call(new Callable<Double>() {
+
+							@Override
+							public Double call() {
+								return runSimulation(ticks);
+							}
+						});
+					}
+				}));
+			}
+
+			for (int i = 1; i <= 8; i++) {
+				assertEquals(i * 100, results.get(i - 1).get(), DELTA);
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertFalse(SimulationContext.getDefault().isRunning());
+	}
+
+	private static double runSimulation(int ticks) {
+		Log.disable();
+		CloudSim.init(1, null, false);
+		Ticker ticker = new Ticker(ticks);
+		assertSame(CloudSim.getContext(), ticker.getContext());
+		double clock = CloudSim.startSimulation();
+		assertTrue(ticker.count == ticks);
+		return clock;
+	}
+
+	/**
+	 * An entity that sends itself an event every time unit.
+	 */
+	private static class Ticker extends SimEntity {
+
+		private final int ticks;
+
+		private int count;
+
+		public Ticker(int ticks) {
+			super("Ticker");
+			this.ticks = ticks;
+		}
+
+		@Override
+		public void startEntity() {
+			schedule(getId(), 1, TICK);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			if (++count < ticks) {
+				schedule(getId(), 1, TICK);
+			}
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+
+	}
+
+}
@@ -41,6 +41,25 @@ public class PredicateType extends Predicate {
 		this.tags = tags.clone();
 	}
 
+	/**
+	 * Gets the number of tags matched by this predicate.
+	 * 
+	 * @return the number of {@link #tags}
+	 */
+	public int getTagCount() {
+		return tags.length;
+	}
+
+	/**
+	 * Gets a tag matched by this predicate, without copying the {@link #tags}.
+	 * 
+	 * @param index the index of the tag, from 0 to {@link #getTagCount()} - 1
+	 * @return the tag
+	 */
+	public int getTag(int index) {
+		return tags[index];
+	}
+
 	/**
 	 * Matches any event that has one of the specified {@link #tags}.
 	 * 
@@ -0,0 +1,68 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.examples.binding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerSpaceShared;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * The cloudlets and VMs the binding benchmarks bind, always the same for the same numbers of
+ * cloudlets and VMs.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+final class BindingWorkload {
+
+	/** The MIPS of the kinds of VMs. */
+	private static final double[] VM_MIPS = { 500, 1000, 1500, 2500 };
+
+	private BindingWorkload() {
+	}
+
+	/**
+	 * Creates cloudlets of random lengths, always the same for a number of cloudlets.
+	 *
+	 * @param count the number of cloudlets
+	 * @return the cloudlets, ordered by id
+	 */
+	static List<Cloudlet> createCloudlets(int count) {
+		Random random = new Random(42);
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		List<Cloudlet> cloudletList = new ArrayList<Cloudlet>(count);
+		for (int id = 0; id < count; id++) {
+			long length = 1000 + random.nextInt(100000);
+			cloudletList.add(new Cloudlet(id, length, 1, 300, 300, utilizationModel,
+					utilizationModel, utilizationModel));
+		}
+		return cloudletList;
+	}
+
+	/**
+	 * Creates VMs of a few kinds, whose ids are their positions.
+	 *
+	 * @param count the number of VMs
+	 * @return the VMs, ordered by id
+	 */
+	static List<Vm> createVms(int count) {
+		List<Vm> vmList = new ArrayList<Vm>(count);
+		for (int id = 0; id < count; id++) {
+			vmList.add(new Vm(id, 0, VM_MIPS[id % VM_MIPS.length], 1, 512, 1000, 10000, "Xen",
+					new CloudletSchedulerSpaceShared()));
+		}
+		return vmList;
+	}
+
+}
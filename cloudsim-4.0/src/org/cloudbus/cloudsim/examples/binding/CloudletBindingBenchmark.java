@@ -0,0 +1,141 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.examples.binding;
+
+import static org.cloudbus.cloudsim.examples.binding.BindingWorkload.createCloudlets;
+import static org.cloudbus.cloudsim.examples.binding.BindingWorkload.createVms;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.AuctionBinding;
+import org.cloudbus.cloudsim.BlockBinding;
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletBindingStrategy;
+import org.cloudbus.cloudsim.ClusterBinding;
+import org.cloudbus.cloudsim.EarliestReadyTimeBinding;
+import org.cloudbus.cloudsim.HungarianBatchBinding;
+import org.cloudbus.cloudsim.LBACOBinding;
+import org.cloudbus.cloudsim.MinMinBinding;
+import org.cloudbus.cloudsim.RoundRobinBinding;
+import org.cloudbus.cloudsim.SortedRoundRobinBinding;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * A benchmark comparing {@link CloudletBindingStrategy cloudlet binding strategies} on the same
+ * random cloudlets and VMs. For each strategy, it measures the time taken to bind the cloudlets
+ * and the quality of the bindings: the makespan, which is the largest ready time of a VM once
+ * all its cloudlets have run, and the mean completion time of the cloudlets, where the
+ * execution time of a cloudlet is its length divided by the MIPS of its VM, and the cloudlets
+ * of a VM run one after the other in the order they are bound.
+ * <p>
+ * Usage: <tt>CloudletBindingBenchmark [cloudlets] [vms]</tt>
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class CloudletBindingBenchmark {
+
+	/** The number of warm-up rounds before measuring. */
+	private static final int WARM_UP_ROUNDS = 1;
+
+	/** The number of measured rounds. */
+	private static final int ROUNDS = 3;
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args the number of cloudlets and VMs
+	 */
+	public static void main(String[] args) {
+		int cloudlets = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		int vms = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+		Map<String, CloudletBindingStrategy> strategies =
+				new LinkedHashMap<String, CloudletBindingStrategy>();
+		strategies.put("Round robin", new RoundRobinBinding());
+		strategies.put("Sorted RR", new SortedRoundRobinBinding(false));
+		strategies.put("Sorted RR+VM", new SortedRoundRobinBinding(true));
+		strategies.put("Blocks", new BlockBinding());
+		strategies.put("Ready first", new EarliestReadyTimeBinding());
+		strategies.put("Clusters", new ClusterBinding());
+		strategies.put("Min-Min", new MinMinBinding(false));
+		strategies.put("Max-Min", new MinMinBinding(true));
+		strategies.put("Hungarian", new HungarianBatchBinding());
+		strategies.put("Auction", new AuctionBinding());
+		LBACOBinding lbaco = new LBACOBinding(10, 100, 0.3, 1, 2, 0.4, 0);
+		lbaco.setIterations(10);
+		strategies.put("LBACO", lbaco);
+
+		List<Cloudlet> cloudletList = createCloudlets(cloudlets);
+		List<Vm> vmList = createVms(vms);
+		System.out.println("Cloudlets: " + cloudlets + ", VMs: " + vms);
+		for (Map.Entry<String, CloudletBindingStrategy> entry : strategies.entrySet()) {
+			Schedule schedule = null;
+			for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+				schedule = new Schedule(vmList);
+				entry.getValue().bind(cloudletList.iterator(), vmList, schedule);
+			}
+
+			long time = 0;
+			for (int i = 0; i < ROUNDS; i++) {
+				schedule = new Schedule(vmList);
+				long start = System.nanoTime();
+				entry.getValue().bind(cloudletList.iterator(), vmList, schedule);
+				time += System.nanoTime() - start;
+			}
+			System.out.println(String.format(
+					"%-12s %10.2f ms, makespan %12.2f, mean completion time %12.2f",
+					entry.getKey(),
+					time / ROUNDS / 1e6,
+					schedule.getMakespan(),
+					schedule.getMeanCompletionTime()));
+		}
+	}
+
+	/**
+	 * A sink computing the ready time of each VM and the completion time of each cloudlet.
+	 */
+	private static final class Schedule implements CloudletBindingStrategy.Sink {
+
+		/** The ready time of each VM, by id. */
+		private final double[] readyTimes;
+
+		/** The sum of the completion times of the cloudlets. */
+		private double completionTimeSum;
+
+		/** The number of cloudlets. */
+		private int count;
+
+		Schedule(List<Vm> vmList) {
+			readyTimes = new double[vmList.size()];
+		}
+
+		@Override
+		public void bind(Cloudlet cloudlet, Vm vm) {
+			readyTimes[vm.getId()] += cloudlet.getCloudletLength() / vm.getMips();
+			completionTimeSum += readyTimes[vm.getId()];
+			count++;
+		}
+
+		double getMakespan() {
+			double makespan = 0;
+			for (double readyTime : readyTimes) {
+				makespan = Math.max(makespan, readyTime);
+			}
+			return makespan;
+		}
+
+		double getMeanCompletionTime() {
+			return count == 0 ? 0 : completionTimeSum / count;
+		}
+
+	}
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.examples.binding;
+
+import static org.cloudbus.cloudsim.examples.binding.BindingWorkload.createCloudlets;
+import static org.cloudbus.cloudsim.examples.binding.BindingWorkload.createVms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.MinMinBinding;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+/**
+ * A benchmark comparing the Min-Min and Max-Min bindings of
+ * {@code DatacenterBroker.submitCloudletsMinMin()} and
+ * {@code DatacenterBroker.submitCloudletsMaxMin()}, which build cost matrices of all the
+ * cloudlets and VMs, with the heaps of {@link MinMinBinding}. Both are run on the same random
+ * cloudlets and VMs, with the costs of {@link MinMinBinding} truncated as in the cost matrices,
+ * and the benchmark checks that they bind every cloudlet to the same VM. {@link MinMinBinding}
+ * is then run alone on a number of cloudlets for which the cost matrices would not fit in
+ * memory.
+ * <p>
+ * Usage: <tt>MinMinBindingBenchmark [cloudlets] [vms] [large cloudlets] [large vms]</tt>
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class MinMinBindingBenchmark {
+
+	/** The number of warm-up rounds before measuring. */
+	private static final int WARM_UP_ROUNDS = 2;
+
+	/** The number of measured rounds. */
+	private static final int ROUNDS = 3;
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args the number of cloudlets and VMs compared to the cost matrices, and the number
+	 *            of cloudlets and VMs of the large run
+	 * @throws Exception if the broker cannot be created
+	 */
+	public static void main(String[] args) throws Exception {
+		int cloudlets = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		int vms = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+		int largeCloudlets = args.length > 2 ? Integer.parseInt(args[2]) : 100000;
+		int largeVms = args.length > 3 ? Integer.parseInt(args[3]) : 500;
+
+		Log.disable();
+		CloudSim.init(1, Calendar.getInstance(), false);
+		System.out.println("Cloudlets: " + cloudlets + ", VMs: " + vms);
+		for (boolean maxMin : new boolean[] { false, true }) {
+			String name = maxMin ? "Max-Min" : "Min-Min";
+			for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+				runMatrix(maxMin, cloudlets, vms);
+				runHeaps(maxMin, true, createCloudlets(cloudlets), createVms(vms));
+			}
+
+			double matrixTime = 0;
+			double heapTime = 0;
+			for (int i = 0; i < ROUNDS; i++) {
+				List<Cloudlet> cloudletList = createCloudlets(cloudlets);
+				long start = System.nanoTime();
+				int[] expected = runMatrix(maxMin, cloudletList, createVms(vms));
+				matrixTime += System.nanoTime() - start;
+
+				cloudletList = createCloudlets(cloudlets);
+				start = System.nanoTime();
+				int[] actual = runHeaps(maxMin, true, cloudletList, createVms(vms));
+				heapTime += System.nanoTime() - start;
+
+				if (!Arrays.equals(expected, actual)) {
+					throw new IllegalStateException(name + " bindings differ");
+				}
+			}
+			System.out.println(String.format("%-8s cost matrices %10.2f ms, heaps %10.2f ms", name,
+					matrixTime / ROUNDS / 1e6, heapTime / ROUNDS / 1e6));
+		}
+
+		System.out.println("Cloudlets: " + largeCloudlets + ", VMs: " + largeVms);
+		for (boolean maxMin : new boolean[] { false, true }) {
+			List<Cloudlet> cloudletList = createCloudlets(largeCloudlets);
+			List<Vm> vmList = createVms(largeVms);
+			long start = System.nanoTime();
+			runHeaps(maxMin, false, cloudletList, vmList);
+			System.out.println(String.format("%-8s heaps %10.2f ms", maxMin ? "Max-Min" : "Min-Min",
+					(System.nanoTime() - start) / 1e6));
+		}
+	}
+
+	/**
+	 * Binds random cloudlets with the cost matrices of the broker.
+	 *
+	 * @param maxMin true for Max-Min; false for Min-Min
+	 * @param cloudlets the number of cloudlets
+	 * @param vms the number of VMs
+	 * @return the id of the VM of each cloudlet, by cloudlet id
+	 * @throws Exception if the broker cannot be created
+	 */
+	private static int[] runMatrix(boolean maxMin, int cloudlets, int vms) throws Exception {
+		return runMatrix(maxMin, createCloudlets(cloudlets), createVms(vms));
+	}
+
+	/**
+	 * Binds cloudlets with the cost matrices of the broker, whose output is discarded as the log
+	 * is disabled.
+	 *
+	 * @param maxMin true for Max-Min; false for Min-Min
+	 * @param cloudletList the cloudlets
+	 * @param vmList the VMs
+	 * @return the id of the VM of each cloudlet, by cloudlet id
+	 * @throws Exception if the broker cannot be created
+	 */
+	private static int[] runMatrix(boolean maxMin, List<Cloudlet> cloudletList, List<Vm> vmList)
+			throws Exception {
+		MatrixBroker broker = new MatrixBroker();
+		broker.getCloudletList().addAll(cloudletList);
+		broker.getVmList().addAll(vmList);
+		broker.getVmsCreatedList().addAll(vmList);
+		broker.bind(maxMin);
+		return getVmIds(cloudletList);
+	}
+
+	/**
+	 * Binds cloudlets with a {@link MinMinBinding}, as the broker does.
+	 *
+	 * @param maxMin true for Max-Min; false for Min-Min
+	 * @param truncatingCosts true to truncate the costs as in the cost matrices
+	 * @param cloudletList the cloudlets
+	 * @param vmList the VMs
+	 * @return the id of the VM of each cloudlet, by cloudlet id
+	 */
+	private static int[] runHeaps(
+			boolean maxMin,
+			boolean truncatingCosts,
+			List<Cloudlet> cloudletList,
+			List<Vm> vmList) {
+		MinMinBinding binding = new MinMinBinding(maxMin);
+		binding.setTruncatingCosts(truncatingCosts);
+		List<Cloudlet> sortedList = new ArrayList<Cloudlet>(cloudletList);
+		binding.sortCloudlets(sortedList);
+		int[] result = binding.bind(sortedList, vmList);
+		for (int i = 0; i < result.length; i++) {
+			sortedList.get(i).setVmId(vmList.get(result[i]).getId());
+		}
+		return getVmIds(cloudletList);
+	}
+
+	/**
+	 * Gets the id of the VM of each cloudlet.
+	 *
+	 * @param cloudletList the cloudlets, ordered by id
+	 * @return the id of the VM of each cloudlet
+	 */
+	private static int[] getVmIds(List<Cloudlet> cloudletList) {
+		int[] vmIds = new int[cloudletList.size()];
+		for (int i = 0; i < vmIds.length; i++) {
+			vmIds[i] = cloudletList.get(i).getVmId();
+		}
+		return vmIds;
+	}
+
+	/**
+	 * A broker giving access to its cost matrix bindings.
+	 */
+	private static final class MatrixBroker extends DatacenterBroker {
+
+		MatrixBroker() throws Exception {
+			super("Broker");
+		}
+
+		/**
+		 * Binds the cloudlets of the broker with its cost matrices.
+		 *
+		 * @param maxMin true for Max-Min; false for Min-Min
+		 */
+		@SuppressWarnings("deprecation")
+		void bind(boolean maxMin) {
+			if (maxMin) {
+				submitCloudletsMaxMin();
+			} else {
+				submitCloudletsMinMin();
+			}
+		}
+
+	}
+
+}
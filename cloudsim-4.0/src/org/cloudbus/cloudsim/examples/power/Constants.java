@@ -21,6 +21,12 @@ public class Constants {
 	public final static boolean ENABLE_OUTPUT = true;
 	public final static boolean OUTPUT_CSV    = false;
 
+	/*
+	 * The number of threads evaluating the hosts when looking for the over-utilized hosts and the
+	 * VMs to migrate from them, or 1 to evaluate them in the simulation thread
+	 */
+	public final static int EVALUATION_PARALLELISM = 1;
+
 	public final static double SCHEDULING_INTERVAL = 400;
 	public final static double SIMULATION_LIMIT = 24 * 60;//86400
 
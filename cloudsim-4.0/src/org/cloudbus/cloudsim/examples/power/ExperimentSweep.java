@@ -0,0 +1,319 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.examples.power;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.SimulationContext;
+
+/**
+ * Runs the cross-product of workloads, VM allocation policies with their parameters and VM
+ * selection policies, using a bounded pool of worker threads. Each experiment runs in its own
+ * {@link SimulationContext}, so the experiments do not interfere with each other.
+ * <p>
+ * The results of each experiment are written by {@link Helper#printResults} to the
+ * <tt>stats</tt> folder of the output folder, after their other output files and through a
+ * temporary file, so that they are only there once the experiment has completed. Experiments
+ * whose results are already there are not run again, so an interrupted sweep can be resumed by running it again. When all the
+ * experiments have finished, their results are consolidated into a single table,
+ * <tt>sweep_stats.csv</tt>, in the output folder.
+ * <p>
+ * A VM allocation policy added without parameters, such as <tt>dvfs</tt>, is run once for each
+ * workload without a VM selection policy.
+ *
+ * If you are using any algorithms, policies or workload included in the power package, please cite
+ * the following paper:
+ *
+ * Anton Beloglazov, and Rajkumar Buyya, "Optimal Online Deterministic Algorithms and Adaptive
+ * Heuristics for Energy and Performance Efficient Dynamic Consolidation of Virtual Machines in
+ * Cloud Data Centers", Concurrency and Computation: Practice and Experience (CCPE), Volume 24,
+ * Issue 13, Pages: 1397-1420, John Wiley & Sons, Ltd, New York, USA, 2012
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class ExperimentSweep {
+
+	/** The name of the consolidated results file. */
+	public static final String RESULTS_FILE = "sweep_stats.csv";
+
+	/** The header of the consolidated results, following the columns written by the Helper. */
+	private static final String RESULTS_HEADER = "experiment,workload,vm_allocation_policy,"
+			+ "vm_selection_policy,parameter,hosts,vms,total_simulation_time,energy,migrations,sla,"
+			+ "sla_time_per_active_host,sla_degradation_due_to_migration,sla_overall,sla_average,"
+			+ "host_shutdowns,mean_time_before_host_shutdown,stdev_time_before_host_shutdown,"
+			+ "mean_time_before_vm_migration,stdev_time_before_vm_migration,"
+			+ "execution_time_vm_selection_mean,execution_time_vm_selection_stdev,"
+			+ "execution_time_host_selection_mean,execution_time_host_selection_stdev,"
+			+ "execution_time_vm_reallocation_mean,execution_time_vm_reallocation_stdev,"
+			+ "execution_time_total_mean,execution_time_total_stdev";
+
+	/** The runner of each experiment. */
+	private final Class<? extends RunnerAbstract> runnerClass;
+
+	/** The input folder. */
+	private final String inputFolder;
+
+	/** The output folder. */
+	private final String outputFolder;
+
+	/** The workloads. */
+	private final List<String> workloads = new ArrayList<String>();
+
+	/** The parameters of each VM allocation policy. */
+	private final Map<String, List<String>> vmAllocationPolicies = new LinkedHashMap<String, List<String>>();
+
+	/** The VM selection policies. */
+	private final List<String> vmSelectionPolicies = new ArrayList<String>();
+
+	/** The number of experiments run at the same time. */
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Instantiates a new experiment sweep.
+	 *
+	 * @param runnerClass the runner of each experiment, which must have the constructor
+	 *            {@link RunnerAbstract#RunnerAbstract(boolean, boolean, boolean, String, String, String, String, String, String)}
+	 * @param inputFolder the input folder
+	 * @param outputFolder the output folder
+	 */
+	public ExperimentSweep(Class<? extends RunnerAbstract> runnerClass, String inputFolder, String outputFolder) {
+		this.runnerClass = runnerClass;
+		this.inputFolder = inputFolder;
+		this.outputFolder = outputFolder;
+	}
+
+	/**
+	 * Adds workloads to the sweep.
+	 *
+	 * @param workloads the workload names
+	 */
+	public void addWorkloads(String... workloads) {
+		this.workloads.addAll(Arrays.asList(workloads));
+	}
+
+	/**
+	 * Adds a VM allocation policy to the sweep.
+	 *
+	 * @param vmAllocationPolicy the VM allocation policy name
+	 * @param parameters the parameters of the policy to run
+	 */
+	public void addVmAllocationPolicy(String vmAllocationPolicy, String... parameters) {
+		vmAllocationPolicies.put(vmAllocationPolicy, Arrays.asList(parameters));
+	}
+
+	/**
+	 * Adds VM selection policies to the sweep.
+	 *
+	 * @param vmSelectionPolicies the VM selection policy names
+	 */
+	public void addVmSelectionPolicies(String... vmSelectionPolicies) {
+		this.vmSelectionPolicies.addAll(Arrays.asList(vmSelectionPolicies));
+	}
+
+	/**
+	 * Sets the number of experiments run at the same time.
+	 *
+	 * @param threads the number of threads
+	 */
+	public void setThreads(int threads) {
+		if (threads <= 0) {
+			throw new IllegalArgumentException("The number of threads must be positive, but is: " + threads);
+		}
+		this.threads = threads;
+	}
+
+	/**
+	 * Gets the experiments of the sweep. Each experiment is an array with the workload, the VM
+	 * allocation policy, the VM selection policy and the parameter.
+	 *
+	 * @return the experiments
+	 */
+	public List<String[]> getExperiments() {
+		List<String[]> experiments = new ArrayList<String[]>();
+		for (String workload : workloads) {
+			for (Map.Entry<String, List<String>> policy : vmAllocationPolicies.entrySet()) {
+				if (policy.getValue().isEmpty()) {
+					experiments.add(new String[] { workload, policy.getKey(), "", "" });
+					continue;
+				}
+				for (String vmSelectionPolicy : vmSelectionPolicies) {
+					for (String parameter : policy.getValue()) {
+						experiments.add(new String[] { workload, policy.getKey(), vmSelectionPolicy, parameter });
+					}
+				}
+			}
+		}
+		return experiments;
+	}
+
+	/**
+	 * Runs the experiments that have not been completed yet and writes the consolidated results.
+	 *
+	 * @return the number of experiments that failed
+	 * @throws InterruptedException if the thread is interrupted while waiting for the experiments
+	 * @throws IOException if the consolidated results can't be written
+	 */
+	public int run() throws InterruptedException, IOException {
+		new File(outputFolder + "/stats").mkdirs();
+
+		List<String[]> experiments = getExperiments();
+		List<String> names = new ArrayList<String>();
+		List<Future<Void>> results = new ArrayList<Future<Void>>();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (final String[] experiment : experiments) {
+				String name = Helper.getExperimentName(experiment);
+				if (isCompleted(name)) {
+					Log.printConcatLine("Skipping ", name, ", already completed");
+					continue;
+				}
+				names.add(name);
+				results.add(executor.submit(new Callable<Void>() {
+
+					@Override
+					public Void call() throws Exception {
+						return new SimulationContext().call(new Callable<Void>() {
+
+							@Override
+							public Void call() throws Exception {
+								runExperiment(experiment);
+								return null;
+							}
+						});
+					}
+				}));
+			}
+
+			int failures = 0;
+			for (int i = 0; i < results.size(); i++) {
+				try {
+					results.get(i).get();
+				} catch (ExecutionException e) {
+					Log.printConcatLine("Experiment ", names.get(i), " failed:");
+					e.getCause().printStackTrace();
+					failures++;
+				}
+			}
+
+			writeResults(experiments);
+			return failures;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Runs an experiment in the calling thread.
+	 *
+	 * @param experiment the workload, VM allocation policy, VM selection policy and parameter
+	 * @throws Exception if the runner can't be created or the simulation fails
+	 */
+	protected void runExperiment(String[] experiment) throws Exception {
+		Constructor<? extends RunnerAbstract> constructor = runnerClass.getConstructor(
+				boolean.class,
+				boolean.class,
+				boolean.class,
+				String.class,
+				String.class,
+				String.class,
+				String.class,
+				String.class,
+				String.class);
+		try {
+			constructor.newInstance(
+					false,
+					false,
+					true,
+					inputFolder,
+					outputFolder,
+					experiment[0],
+					experiment[1],
+					experiment[2],
+					experiment[3]);
+		} catch (InvocationTargetException e) {
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Checks if the results of an experiment have already been written.
+	 *
+	 * @param experimentName the experiment name
+	 * @return true, if the experiment has been completed
+	 */
+	protected boolean isCompleted(String experimentName) {
+		return getStatsFile(experimentName).length() > 0;
+	}
+
+	/**
+	 * Writes the results of the completed experiments into a single table, in the order of the
+	 * experiments.
+	 *
+	 * @param experiments the experiments
+	 * @throws IOException if a results file can't be read or written
+	 */
+	protected void writeResults(List<String[]> experiments) throws IOException {
+		BufferedWriter writer = new BufferedWriter(new FileWriter(outputFolder + "/" + RESULTS_FILE));
+		try {
+			writer.write(RESULTS_HEADER);
+			writer.newLine();
+			for (String[] experiment : experiments) {
+				File file = getStatsFile(Helper.getExperimentName(experiment));
+				if (file.length() == 0) {
+					continue;
+				}
+				BufferedReader reader = new BufferedReader(new FileReader(file));
+				try {
+					String line = reader.readLine();
+					if (line.endsWith(",")) {
+						line = line.substring(0, line.length() - 1);
+					}
+					writer.write(line);
+					writer.newLine();
+				} finally {
+					reader.close();
+				}
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Gets the file where the results of an experiment are written.
+	 *
+	 * @param experimentName the experiment name
+	 * @return the file
+	 */
+	private File getStatsFile(String experimentName) {
+		return new File(outputFolder + "/stats/" + experimentName + "_stats.csv");
+	}
+
+}
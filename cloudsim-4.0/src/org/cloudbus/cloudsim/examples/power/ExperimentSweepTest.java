@@ -0,0 +1,97 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.examples.power;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.examples.power.planetlab.PlanetLabRunner;
+import org.cloudbus.cloudsim.examples.power.random.RandomRunner;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class ExperimentSweepTest {
+
+	@Test
+	public void testGetExperiments() {
+		ExperimentSweep sweep = new ExperimentSweep(PlanetLabRunner.class, "input", "output");
+		sweep.addWorkloads("w1", "w2");
+		sweep.addVmAllocationPolicy("dvfs");
+		sweep.addVmAllocationPolicy("thr", "0.7", "0.8");
+		sweep.addVmSelectionPolicies("mc", "mu");
+
+		List<String[]> experiments = sweep.getExperiments();
+		assertEquals(2 * (1 + 2 * 2), experiments.size());
+		assertArrayEquals(new String[] { "w1", "dvfs", "", "" }, experiments.get(0));
+		assertArrayEquals(new String[] { "w1", "thr", "mc", "0.7" }, experiments.get(1));
+		assertArrayEquals(new String[] { "w1", "thr", "mu", "0.8" }, experiments.get(4));
+		assertArrayEquals(new String[] { "w2", "dvfs", "", "" }, experiments.get(5));
+		assertEquals("w2_thr_mu_0.8", Helper.getExperimentName(experiments.get(9)));
+		assertEquals("w2_dvfs", Helper.getExperimentName(experiments.get(5)));
+	}
+
+	@Test
+	public void testFailedExperimentIsReported() throws Exception {
+		File outputFolder = Files.createTempDirectory("sweep").toFile();
+		boolean disabled = Log.isDisabled();
+		Log.disable();
+		try {
+			ExperimentSweep sweep = new ExperimentSweep(RandomRunner.class, "input",
+					outputFolder.getPath());
+			sweep.addWorkloads("random");
+			sweep.addVmAllocationPolicy("unknown", "0.8");
+			sweep.addVmSelectionPolicies("mu");
+			sweep.setThreads(1);
+
+			assertEquals(1, sweep.run());
+			assertFalse(new File(outputFolder, "stats/random_unknown_mu_0.8_stats.csv").exists());
+			assertEquals(1, Files.readAllLines(
+					new File(outputFolder, ExperimentSweep.RESULTS_FILE).toPath()).size());
+		} finally {
+			Log.setDisabled(disabled);
+		}
+	}
+
+	@Test
+	public void testMissingWorkloadIsReported() throws Exception {
+		File outputFolder = Files.createTempDirectory("sweep").toFile();
+		boolean disabled = Log.isDisabled();
+		Log.disable();
+		try {
+			ExperimentSweep sweep = new ExperimentSweep(PlanetLabRunner.class,
+					new File(outputFolder, "input").getPath(), outputFolder.getPath());
+			sweep.addWorkloads("missing");
+			sweep.addVmAllocationPolicy("dvfs");
+			sweep.setThreads(1);
+
+			assertEquals(1, sweep.run());
+		} finally {
+			Log.setDisabled(disabled);
+		}
+	}
+
+	@Test
+	public void testWriteDataRow() throws Exception {
+		File folder = Files.createTempDirectory("stats").toFile();
+		File file = new File(folder, "experiment_stats.csv");
+		Helper.writeDataRow("a,b,\n", file.getPath());
+		Helper.writeDataRow("c,d,\n", file.getPath());
+		assertEquals("c,d,\n", new String(Files.readAllBytes(file.toPath()), "UTF-8"));
+		assertEquals(1, folder.list().length);
+	}
+
+}
@@ -4,6 +4,9 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -19,16 +22,16 @@ import org.cloudbus.cloudsim.DatacenterBroker;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.HostDynamicWorkload;
-import org.cloudbus.cloudsim.HostStateHistoryEntry;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.StateHistoryStore;
 import org.cloudbus.cloudsim.Storage;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
 import org.cloudbus.cloudsim.VmSchedulerTimeSharedOverSubscription;
-import org.cloudbus.cloudsim.VmStateHistoryEntry;
 import org.cloudbus.cloudsim.power.PowerDatacenter;
 import org.cloudbus.cloudsim.power.PowerDatacenterBroker;
+import org.cloudbus.cloudsim.power.PowerDatacenterMetrics;
 import org.cloudbus.cloudsim.power.PowerHost;
 import org.cloudbus.cloudsim.power.PowerHostUtilizationHistory;
 import org.cloudbus.cloudsim.power.PowerVm;
@@ -195,16 +198,10 @@ public class Helper {
 	public static List<Double> getTimesBeforeHostShutdown(List<Host> hosts) {
 		List<Double> timeBeforeShutdown = new LinkedList<Double>();
 		for (Host host : hosts) {
-			boolean previousIsActive = true;
-			double lastTimeSwitchedOn = 0;
-			for (HostStateHistoryEntry entry : ((HostDynamicWorkload) host).getStateHistory()) {
-				if (previousIsActive == true && entry.isActive() == false) {
-					timeBeforeShutdown.add(entry.getTime() - lastTimeSwitchedOn);
-				}
-				if (previousIsActive == false && entry.isActive() == true) {
-					lastTimeSwitchedOn = entry.getTime();
-				}
-				previousIsActive = entry.isActive();
+			// the active periods of a host, assumed to be active at first
+			StateHistoryStore stateHistory = ((HostDynamicWorkload) host).getStateHistoryStore();
+			for (double duration : stateHistory.getFlaggedPeriodDurations()) {
+				timeBeforeShutdown.add(duration);
 			}
 		}
 		return timeBeforeShutdown;
@@ -219,16 +216,8 @@ public class Helper {
 	public static List<Double> getTimesBeforeVmMigration(List<Vm> vms) {
 		List<Double> timeBeforeVmMigration = new LinkedList<Double>();
 		for (Vm vm : vms) {
-			boolean previousIsInMigration = false;
-			double lastTimeMigrationFinished = 0;
-			for (VmStateHistoryEntry entry : vm.getStateHistory()) {
-				if (previousIsInMigration == true && entry.isInMigration() == false) {
-					timeBeforeVmMigration.add(entry.getTime() - lastTimeMigrationFinished);
-				}
-				if (previousIsInMigration == false && entry.isInMigration() == true) {
-					lastTimeMigrationFinished = entry.getTime();
-				}
-				previousIsInMigration = entry.isInMigration();
+			for (double duration : vm.getStateHistoryStore().getFlaggedPeriodDurations()) {
+				timeBeforeVmMigration.add(duration);
 			}
 		}
 		return timeBeforeVmMigration;
@@ -260,16 +249,17 @@ public class Helper {
 		double energy = datacenter.getPower() / (3600 * 1000);
 		int numberOfMigrations = datacenter.getMigrationCount();
 
-		Map<String, Double> slaMetrics = getSlaMetrics(vms);
+		// the SLA metrics are computed during the simulation by the datacenter
+		PowerDatacenterMetrics metrics = datacenter.getMetrics();
 
-		double slaOverall = slaMetrics.get("overall");
-		double slaAverage = slaMetrics.get("average");
-		double slaDegradationDueToMigration = slaMetrics.get("underallocated_migration");
+		double slaOverall = metrics.getSlaOverall();
+		double slaAverage = metrics.getSlaAverage();
+		double slaDegradationDueToMigration = metrics.getPerformanceDegradationDueToMigration();
 		// double slaTimePerVmWithMigration = slaMetrics.get("sla_time_per_vm_with_migration");
 		// double slaTimePerVmWithoutMigration =
 		// slaMetrics.get("sla_time_per_vm_without_migration");
 		// double slaTimePerHost = getSlaTimePerHost(hosts);
-		double slaTimePerActiveHost = getSlaTimePerActiveHost(hosts);
+		double slaTimePerActiveHost = metrics.getSlaTimePerActiveHost();
 
 		double sla = slaTimePerActiveHost * slaDegradationDueToMigration;
 
@@ -374,11 +364,12 @@ public class Helper {
 
 			data.append("\n");
 
-			writeDataRow(data.toString(), outputFolder + "/stats/" + experimentName + "_stats.csv");
 			writeDataColumn(timeBeforeHostShutdown, outputFolder + "/time_before_host_shutdown/"
 					+ experimentName + "_time_before_host_shutdown.csv");
 			writeDataColumn(timeBeforeVmMigration, outputFolder + "/time_before_vm_migration/"
 					+ experimentName + "_time_before_vm_migration.csv");
+			// written last, as it marks the experiment as completed
+			writeDataRow(data.toString(), outputFolder + "/stats/" + experimentName + "_stats.csv");
 
 		} else {
 			Log.setDisabled(false);
@@ -464,6 +455,26 @@ public class Helper {
 		Log.setDisabled(true);
 	}
 
+	/**
+	 * Gets the experiment name, joining the non-empty arguments with underscores.
+	 * 
+	 * @param args the args
+	 * @return the experiment name
+	 */
+	public static String getExperimentName(String... args) {
+		StringBuilder experimentName = new StringBuilder();
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].isEmpty()) {
+				continue;
+			}
+			if (i != 0) {
+				experimentName.append("_");
+			}
+			experimentName.append(args[i]);
+		}
+		return experimentName.toString();
+	}
+
 	/**
 	 * Parses the experiment name.
 	 * 
@@ -496,26 +507,9 @@ public class Helper {
 		double totalTime = 0;
 
 		for (Host _host : hosts) {
-			HostDynamicWorkload host = (HostDynamicWorkload) _host;
-			double previousTime = -1;
-			double previousAllocated = 0;
-			double previousRequested = 0;
-			boolean previousIsActive = true;
-
-			for (HostStateHistoryEntry entry : host.getStateHistory()) {
-				if (previousTime != -1 && previousIsActive) {
-					double timeDiff = entry.getTime() - previousTime;
-					totalTime += timeDiff;
-					if (previousAllocated < previousRequested) {
-						slaViolationTimePerHost += timeDiff;
-					}
-				}
-
-				previousAllocated = entry.getAllocatedMips();
-				previousRequested = entry.getRequestedMips();
-				previousTime = entry.getTime();
-				previousIsActive = entry.isActive();
-			}
+			StateHistoryStore stateHistory = ((HostDynamicWorkload) _host).getStateHistoryStore();
+			totalTime += stateHistory.getFlaggedTime();
+			slaViolationTimePerHost += stateHistory.getFlaggedUnderAllocatedTime();
 		}
 
 		return slaViolationTimePerHost / totalTime;
@@ -532,24 +526,9 @@ public class Helper {
 		double totalTime = 0;
 
 		for (Host _host : hosts) {
-			HostDynamicWorkload host = (HostDynamicWorkload) _host;
-			double previousTime = -1;
-			double previousAllocated = 0;
-			double previousRequested = 0;
-
-			for (HostStateHistoryEntry entry : host.getStateHistory()) {
-				if (previousTime != -1) {
-					double timeDiff = entry.getTime() - previousTime;
-					totalTime += timeDiff;
-					if (previousAllocated < previousRequested) {
-						slaViolationTimePerHost += timeDiff;
-					}
-				}
-
-				previousAllocated = entry.getAllocatedMips();
-				previousRequested = entry.getRequestedMips();
-				previousTime = entry.getTime();
-			}
+			StateHistoryStore stateHistory = ((HostDynamicWorkload) _host).getStateHistoryStore();
+			totalTime += stateHistory.getTotalTime();
+			slaViolationTimePerHost += stateHistory.getUnderAllocatedTime();
 		}
 
 		return slaViolationTimePerHost / totalTime;
@@ -563,51 +542,26 @@ public class Helper {
 	 */
 	protected static Map<String, Double> getSlaMetrics(List<Vm> vms) {
 		Map<String, Double> metrics = new HashMap<String, Double>();
-		List<Double> slaViolation = new LinkedList<Double>();
+		double slaViolationSum = 0;
+		int slaViolationCount = 0;
 		double totalAllocated = 0;
 		double totalRequested = 0;
 		double totalUnderAllocatedDueToMigration = 0;
 
 		for (Vm vm : vms) {
-			double vmTotalAllocated = 0;
-			double vmTotalRequested = 0;
-			double vmUnderAllocatedDueToMigration = 0;
-			double previousTime = -1;
-			double previousAllocated = 0;
-			double previousRequested = 0;
-			boolean previousIsInMigration = false;
-
-			for (VmStateHistoryEntry entry : vm.getStateHistory()) {
-				if (previousTime != -1) {
-					double timeDiff = entry.getTime() - previousTime;
-					vmTotalAllocated += previousAllocated * timeDiff;
-					vmTotalRequested += previousRequested * timeDiff;
-
-					if (previousAllocated < previousRequested) {
-						slaViolation.add((previousRequested - previousAllocated) / previousRequested);
-						if (previousIsInMigration) {
-							vmUnderAllocatedDueToMigration += (previousRequested - previousAllocated)
-									* timeDiff;
-						}
-					}
-				}
-
-				previousAllocated = entry.getAllocatedMips();
-				previousRequested = entry.getRequestedMips();
-				previousTime = entry.getTime();
-				previousIsInMigration = entry.isInMigration();
-			}
-
-			totalAllocated += vmTotalAllocated;
-			totalRequested += vmTotalRequested;
-			totalUnderAllocatedDueToMigration += vmUnderAllocatedDueToMigration;
+			StateHistoryStore stateHistory = vm.getStateHistoryStore();
+			slaViolationSum += stateHistory.getUnderAllocationRatioSum();
+			slaViolationCount += stateHistory.getUnderAllocationCount();
+			totalAllocated += stateHistory.getTotalAllocatedMips();
+			totalRequested += stateHistory.getTotalRequestedMips();
+			totalUnderAllocatedDueToMigration += stateHistory.getFlaggedUnderAllocatedMips();
 		}
 
 		metrics.put("overall", (totalRequested - totalAllocated) / totalRequested);
-		if (slaViolation.isEmpty()) {
+		if (slaViolationCount == 0) {
 			metrics.put("average", 0.);
 		} else {
-			metrics.put("average", MathUtil.mean(slaViolation));
+			metrics.put("average", slaViolationSum / slaViolationCount);
 		}
 		metrics.put("underallocated_migration", totalUnderAllocatedDueToMigration / totalRequested);
 		// metrics.put("sla_time_per_vm_with_migration", slaViolationTimePerVmWithMigration /
@@ -645,26 +599,29 @@ public class Helper {
 	}
 
 	/**
-	 * Write data row.
+	 * Write data row. The row is written to a temporary file that is then renamed, so the file
+	 * either does not exist or holds the whole row, even if the program is stopped meanwhile.
 	 * 
 	 * @param data the data
 	 * @param outputPath the output path
 	 */
 	public static void writeDataRow(String data, String outputPath) {
 		File file = new File(outputPath);
+		File tempFile = new File(outputPath + ".tmp");
 		try {
-			file.createNewFile();
-		} catch (IOException e1) {
-			e1.printStackTrace();
-			System.exit(0);
-		}
-		try {
-			BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-			writer.write(data);
-			writer.close();
+			BufferedWriter writer = new BufferedWriter(new FileWriter(tempFile));
+			try {
+				writer.write(data);
+			} finally {
+				writer.close();
+			}
+			Files.move(
+					tempFile.toPath(),
+					file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
 		} catch (IOException e) {
-			e.printStackTrace();
-			System.exit(0);
+			throw new UncheckedIOException("Can't write " + outputPath, e);
 		}
 	}
 
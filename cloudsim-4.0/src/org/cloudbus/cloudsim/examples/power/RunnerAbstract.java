@@ -5,6 +5,7 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.DatacenterBroker;
@@ -42,26 +43,71 @@ import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyRandomSelection;
  */
 public abstract class RunnerAbstract {
 
+	/**
+	 * The pool evaluating the hosts of the migration policies of all the experiments, or null if
+	 * {@link Constants#EVALUATION_PARALLELISM} is 1.
+	 */
+	private static final ForkJoinPool EVALUATION_POOL = Constants.EVALUATION_PARALLELISM > 1
+			? new ForkJoinPool(Constants.EVALUATION_PARALLELISM)
+			: null;
+
 	/** The enable output. */
-	private static boolean enableOutput;
+	private boolean enableOutput;
+
+	/** Whether the results are written to CSV files instead of the log. */
+	private boolean outputInCsv;
 
 	/** The broker. */
-	protected static DatacenterBroker broker;
+	protected DatacenterBroker broker;
 
 	/** The cloudlet list. */
-	protected static List<Cloudlet> cloudletList;
+	protected List<Cloudlet> cloudletList;
 
 	/** The vm list. */
-	protected static List<Vm> vmList;
+	protected List<Vm> vmList;
 
 	/** The host list. */
-	protected static List<PowerHost> hostList;
+	protected List<PowerHost> hostList;
+
+	/**
+	 * Run.
+	 * 
+	 * @param enableOutput the enable output
+	 * @param outputToFile the output to file
+	 * @param inputFolder the input folder
+	 * @param outputFolder the output folder
+	 * @param workload the workload
+	 * @param vmAllocationPolicy the vm allocation policy
+	 * @param vmSelectionPolicy the vm selection policy
+	 * @param parameter the parameter
+	 */
+	public RunnerAbstract(
+			boolean enableOutput,
+			boolean outputToFile,
+			String inputFolder,
+			String outputFolder,
+			String workload,
+			String vmAllocationPolicy,
+			String vmSelectionPolicy,
+			String parameter) {
+		this(
+				enableOutput,
+				outputToFile,
+				Constants.OUTPUT_CSV,
+				inputFolder,
+				outputFolder,
+				workload,
+				vmAllocationPolicy,
+				vmSelectionPolicy,
+				parameter);
+	}
 
 	/**
 	 * Run.
 	 * 
 	 * @param enableOutput the enable output
 	 * @param outputToFile the output to file
+	 * @param outputInCsv whether the results are written to CSV files in the output folder
 	 * @param inputFolder the input folder
 	 * @param outputFolder the output folder
 	 * @param workload the workload
@@ -72,12 +118,14 @@ public abstract class RunnerAbstract {
 	public RunnerAbstract(
 			boolean enableOutput,
 			boolean outputToFile,
+			boolean outputInCsv,
 			String inputFolder,
 			String outputFolder,
 			String workload,
 			String vmAllocationPolicy,
 			String vmSelectionPolicy,
 			String parameter) {
+		this.outputInCsv = outputInCsv;
 		try {
 			initLogOutput(
 					enableOutput,
@@ -87,9 +135,8 @@ public abstract class RunnerAbstract {
 					vmAllocationPolicy,
 					vmSelectionPolicy,
 					parameter);
-		} catch (Exception e) {
-			e.printStackTrace();
-			System.exit(0);
+		} catch (IOException e) {
+			throw new IllegalStateException("The log output of the experiment can't be created", e);
 		}
 
 		init(inputFolder + "/" + workload);
@@ -182,13 +229,14 @@ public abstract class RunnerAbstract {
 					vmList,
 					lastClock,
 					experimentName,
-					Constants.OUTPUT_CSV,
+					isOutputInCsv(),
 					outputFolder);
 
 		} catch (Exception e) {
-			e.printStackTrace();
 			Log.printLine("The simulation has been terminated due to an unexpected error");
-			System.exit(0);
+			// do not exit, other simulations may be running in the same JVM
+			throw new IllegalStateException("The simulation " + experimentName
+					+ " has been terminated due to an unexpected error", e);
 		}
 
 		Log.printLine("Finished " + experimentName);
@@ -201,17 +249,7 @@ public abstract class RunnerAbstract {
 	 * @return the experiment name
 	 */
 	protected String getExperimentName(String... args) {
-		StringBuilder experimentName = new StringBuilder();
-		for (int i = 0; i < args.length; i++) {
-			if (args[i].isEmpty()) {
-				continue;
-			}
-			if (i != 0) {
-				experimentName.append("_");
-			}
-			experimentName.append(args[i]);
-		}
-		return experimentName.toString();
+		return Helper.getExperimentName(args);
 	}
 
 	/**
@@ -285,8 +323,11 @@ public abstract class RunnerAbstract {
 		} else if (vmAllocationPolicyName.equals("dvfs")) {
 			vmAllocationPolicy = new PowerVmAllocationPolicySimple(hostList);
 		} else {
-			System.out.println("Unknown VM allocation policy: " + vmAllocationPolicyName);
-			System.exit(0);
+			throw new IllegalArgumentException("Unknown VM allocation policy: " + vmAllocationPolicyName);
+		}
+		if (vmAllocationPolicy instanceof PowerVmAllocationPolicyMigrationAbstract) {
+			((PowerVmAllocationPolicyMigrationAbstract) vmAllocationPolicy)
+					.setEvaluationPool(EVALUATION_POOL);
 		}
 		return vmAllocationPolicy;
 	}
@@ -309,8 +350,7 @@ public abstract class RunnerAbstract {
 		} else if (vmSelectionPolicyName.equals("rs")) {
 			vmSelectionPolicy = new PowerVmSelectionPolicyRandomSelection();
 		} else {
-			System.out.println("Unknown VM selection policy: " + vmSelectionPolicyName);
-			System.exit(0);
+			throw new IllegalArgumentException("Unknown VM selection policy: " + vmSelectionPolicyName);
 		}
 		return vmSelectionPolicy;
 	}
@@ -321,7 +361,7 @@ public abstract class RunnerAbstract {
 	 * @param enableOutput the new enable output
 	 */
 	public void setEnableOutput(boolean enableOutput) {
-		RunnerAbstract.enableOutput = enableOutput;
+		this.enableOutput = enableOutput;
 	}
 
 	/**
@@ -333,4 +373,13 @@ public abstract class RunnerAbstract {
 		return enableOutput;
 	}
 
+	/**
+	 * Checks if the results are written to CSV files.
+	 * 
+	 * @return true, if the results are written to CSV files
+	 */
+	public boolean isOutputInCsv() {
+		return outputInCsv;
+	}
+
 }
@@ -2,14 +2,19 @@ package org.cloudbus.cloudsim.examples.power.planetlab;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.UtilizationModel;
 import org.cloudbus.cloudsim.UtilizationModelNull;
-import org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory;
+import org.cloudbus.cloudsim.UtilizationModelPlanetLabMapped;
 import org.cloudbus.cloudsim.examples.power.Constants;
+import org.cloudbus.cloudsim.util.PlanetLabTraceStore;
 
 /**
  * A helper class for the running examples for the PlanetLab workload.
@@ -27,13 +32,20 @@ import org.cloudbus.cloudsim.examples.power.Constants;
  */
 public class PlanetLabHelper {
 
+	/**
+	 * The trace stores of the workload folders already opened, by folder path. The stores are
+	 * shared read-only by the cloudlets of all the simulations using the same workload.
+	 */
+	private static final ConcurrentMap<String, PlanetLabTraceStore> STORES = new ConcurrentHashMap<String, PlanetLabTraceStore>();
+
 	/**
 	 * Creates the cloudlet list planet lab.
 	 * 
 	 * @param brokerId the broker id
 	 * @param inputFolderName the input folder name
 	 * @return the list
-	 * @throws FileNotFoundException the file not found exception
+	 * @throws FileNotFoundException if the input folder does not exist
+	 * @throws UncheckedIOException if the traces of the input folder can't be read
 	 */
 	public static List<Cloudlet> createCloudletListPlanetLab(int brokerId, String inputFolderName)
 			throws FileNotFoundException {
@@ -45,6 +57,16 @@ public class PlanetLabHelper {
 
 		File inputFolder = new File(inputFolderName);
 		File[] files = inputFolder.listFiles();
+		if (files == null) {
+			throw new FileNotFoundException("The workload folder " + inputFolderName
+					+ " does not exist");
+		}
+		PlanetLabTraceStore store = null;
+		try {
+			store = getTraceStore(inputFolder);
+		} catch (IOException e) {
+			throw new UncheckedIOException("The traces of " + inputFolderName + " can't be read", e);
+		}
 
 		for (int i = 0; i < files.length; i++) {
 			Cloudlet cloudlet = null;
@@ -55,12 +77,13 @@ public class PlanetLabHelper {
 						Constants.CLOUDLET_PES,					
 						fileSize,
 						outputSize,
-						new UtilizationModelPlanetLabInMemory(
-								files[i].getAbsolutePath(),
+						new UtilizationModelPlanetLabMapped(
+								store,
+								store.indexOf(files[i].getName()),
 								Constants.SCHEDULING_INTERVAL), utilizationModelNull, utilizationModelNull);
 			} catch (Exception e) {
-				e.printStackTrace();
-				System.exit(0);
+				throw new IllegalStateException("The cloudlet of the trace " + files[i].getName()
+						+ " can't be created", e);
 			}
 			cloudlet.setUserId(brokerId);
 			cloudlet.setVmId(i);
@@ -70,4 +93,33 @@ public class PlanetLabHelper {
 		return list;
 	}
 
+	/**
+	 * Gets the trace store of a workload folder, converting the folder the first time.
+	 * 
+	 * @param inputFolder the workload folder
+	 * @return the trace store
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static PlanetLabTraceStore getTraceStore(File inputFolder) throws IOException {
+		String path = inputFolder.getAbsolutePath();
+		PlanetLabTraceStore store = STORES.get(path);
+		if (store == null) {
+			synchronized (STORES) {
+				store = STORES.get(path);
+				if (store == null) {
+					store = PlanetLabTraceStore.open(inputFolder);
+					STORES.put(path, store);
+				}
+			}
+		}
+		return store;
+	}
+
+	/**
+	 * Releases the trace stores of the workload folders already opened.
+	 */
+	public static void clearTraceStores() {
+		STORES.clear();
+	}
+
 }
@@ -55,6 +55,41 @@ public class PlanetLabRunner extends RunnerAbstract {
 				parameter);
 	}
 
+	/**
+	 * Instantiates a new planet lab runner.
+	 * 
+	 * @param enableOutput the enable output
+	 * @param outputToFile the output to file
+	 * @param outputInCsv whether the results are written to CSV files in the output folder
+	 * @param inputFolder the input folder
+	 * @param outputFolder the output folder
+	 * @param workload the workload
+	 * @param vmAllocationPolicy the vm allocation policy
+	 * @param vmSelectionPolicy the vm selection policy
+	 * @param parameter the parameter
+	 */
+	public PlanetLabRunner(
+			boolean enableOutput,
+			boolean outputToFile,
+			boolean outputInCsv,
+			String inputFolder,
+			String outputFolder,
+			String workload,
+			String vmAllocationPolicy,
+			String vmSelectionPolicy,
+			String parameter) {
+		super(
+				enableOutput,
+				outputToFile,
+				outputInCsv,
+				inputFolder,
+				outputFolder,
+				workload,
+				vmAllocationPolicy,
+				vmSelectionPolicy,
+				parameter);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -72,9 +107,9 @@ public class PlanetLabRunner extends RunnerAbstract {
 			vmList = Helper.createVmList(brokerId, cloudletList.size());
 			hostList = Helper.createHostList(PlanetLabConstants.NUMBER_OF_HOSTS);
 		} catch (Exception e) {
-			e.printStackTrace();
 			Log.printLine("The simulation has been terminated due to an unexpected error");
-			System.exit(0);
+			// do not exit, other simulations may be running in the same JVM
+			throw new IllegalStateException("The simulation can't be initialised", e);
 		}
 	}
 
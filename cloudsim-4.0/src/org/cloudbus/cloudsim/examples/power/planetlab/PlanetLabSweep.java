@@ -0,0 +1,70 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.examples.power.planetlab;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.examples.power.ExperimentSweep;
+
+/**
+ * Runs all the PlanetLab workloads with every combination of the VM allocation and selection
+ * policies of the examples in this package, using all the available processors. Runs already
+ * completed in the output folder are skipped, so the sweep can be resumed.
+ * <p>
+ * Usage: <tt>PlanetLabSweep [threads] [output folder]</tt>
+ *
+ * If you are using any algorithms, policies or workload included in the power package please cite
+ * the following paper:
+ *
+ * Anton Beloglazov, and Rajkumar Buyya, "Optimal Online Deterministic Algorithms and Adaptive
+ * Heuristics for Energy and Performance Efficient Dynamic Consolidation of Virtual Machines in
+ * Cloud Data Centers", Concurrency and Computation: Practice and Experience (CCPE), Volume 24,
+ * Issue 13, Pages: 1397-1420, John Wiley & Sons, Ltd, New York, USA, 2012
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class PlanetLabSweep {
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the number of threads and the output folder
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @throws InterruptedException if the sweep is interrupted
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		String inputFolder = PlanetLabSweep.class.getClassLoader().getResource("workload/planetlab").getPath();
+		String outputFolder = args.length > 1 ? args[1] : "output";
+
+		ExperimentSweep sweep = new ExperimentSweep(PlanetLabRunner.class, inputFolder, outputFolder);
+		if (args.length > 0) {
+			sweep.setThreads(Integer.parseInt(args[0]));
+		}
+
+		String[] workloads = new File(inputFolder).list();
+		Arrays.sort(workloads);
+		sweep.addWorkloads(workloads);
+
+		sweep.addVmAllocationPolicy("dvfs");
+		sweep.addVmAllocationPolicy("thr", "0.8");
+		sweep.addVmAllocationPolicy("iqr", "1.5");
+		sweep.addVmAllocationPolicy("mad", "2.5");
+		sweep.addVmAllocationPolicy("lr", "1.2");
+		sweep.addVmAllocationPolicy("lrr", "1.2");
+		sweep.addVmSelectionPolicies("mc", "mmt", "mu", "rs");
+
+		int failures = sweep.run();
+		Log.printConcatLine("Sweep finished with ", failures, " failed experiments, results in ",
+				outputFolder, "/", ExperimentSweep.RESULTS_FILE);
+	}
+
+}
@@ -29,7 +29,11 @@ public class CloudletList {
 	 * @param id the Cloudlet id
 	 * @return a Cloudlet with the given ID or $null if not found
 	 */
+	@SuppressWarnings("unchecked")
 	public static <T extends Cloudlet> T getById(List<T> cloudletList, int id) {
+		if (cloudletList instanceof IdIndexedList) {
+			return ((IdIndexedList<T>) cloudletList).getById(id);
+		}
 		for (T cloudlet : cloudletList) {
 			if (cloudlet.getCloudletId() == id) {
 				return cloudlet;
@@ -0,0 +1,243 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * A list of entities that keeps an index from the entity id to the entity, so that
+ * {@link VmList#getById(List, int)} and {@link CloudletList#getById(List, int)} find an entity
+ * in constant time instead of scanning the list. It behaves as an {@link ArrayList} in every other respect, keeping the order of the
+ * entities.
+ * <p>
+ * Ids do not need to be unique: as with a linear scan, {@link #getById(int)} returns the first
+ * entity with the given id in the list order. The ids shared by several entities are not
+ * indexed and are looked up with a scan. The id of an entity must not change while the entity
+ * is in the list.
+ *
+ * @param <T> the type of the entities
+ * @since CloudSim Toolkit 4.0
+ */
+public abstract class IdIndexedList<T> extends AbstractList<T> implements RandomAccess {
+
+	/** The entities, in the list order. */
+	private final List<T> elements = new ArrayList<T>();
+
+	/** The entity of each id held by a single entity. */
+	private final Map<Integer, T> byId = new HashMap<Integer, T>();
+
+	/** The number of entities of each id held by more than one entity. */
+	private final Map<Integer, Integer> duplicates = new HashMap<Integer, Integer>();
+
+	/**
+	 * Creates an empty list of VMs indexed by {@link Vm#getId()}.
+	 *
+	 * @param <T> the type of the VMs
+	 * @return the list
+	 */
+	public static <T extends Vm> IdIndexedList<T> ofVms() {
+		return new IdIndexedList<T>() {
+
+			@Override
+			protected int getId(T vm) {
+				return vm.getId();
+			}
+
+		};
+	}
+
+	/**
+	 * Creates an empty list of cloudlets indexed by {@link Cloudlet#getCloudletId()}.
+	 *
+	 * @param <T> the type of the cloudlets
+	 * @return the list
+	 */
+	public static <T extends Cloudlet> IdIndexedList<T> ofCloudlets() {
+		return new IdIndexedList<T>() {
+
+			@Override
+			protected int getId(T cloudlet) {
+				return cloudlet.getCloudletId();
+			}
+
+		};
+	}
+
+	/**
+	 * Gets the id of an entity.
+	 *
+	 * @param element the entity
+	 * @return the id of the entity
+	 */
+	protected abstract int getId(T element);
+
+	/**
+	 * Gets the first entity with a given id.
+	 *
+	 * @param id the entity id
+	 * @return the first entity with the given id, or $null if not found
+	 */
+	public T getById(int id) {
+		T element = byId.get(id);
+		if (element != null || !duplicates.containsKey(id)) {
+			return element;
+		}
+		for (T candidate : elements) {
+			if (getId(candidate) == id) {
+				return candidate;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks if more than one entity in the list has a given id.
+	 *
+	 * @param id the entity id
+	 * @return true, if the id is shared by several entities
+	 */
+	public boolean isDuplicated(int id) {
+		return duplicates.containsKey(id);
+	}
+
+	@Override
+	public T get(int index) {
+		return elements.get(index);
+	}
+
+	@Override
+	public int size() {
+		return elements.size();
+	}
+
+	@Override
+	public T set(int index, T element) {
+		T previous = elements.set(index, element);
+		int id = getId(element);
+		if (getId(previous) == id && !duplicates.containsKey(id)) {
+			byId.put(id, element);
+		} else {
+			addToIndex(element);
+			removeFromIndex(previous);
+		}
+		return previous;
+	}
+
+	@Override
+	public void add(int index, T element) {
+		addToIndex(element);
+		elements.add(index, element);
+		modCount++;
+	}
+
+	@Override
+	public T remove(int index) {
+		T previous = elements.remove(index);
+		removeFromIndex(previous);
+		modCount++;
+		return previous;
+	}
+
+	@Override
+	public void clear() {
+		elements.clear();
+		byId.clear();
+		duplicates.clear();
+		modCount++;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		if (!elements.removeAll(c)) {
+			return false;
+		}
+		rebuildIndex();
+		return true;
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		if (!elements.retainAll(c)) {
+			return false;
+		}
+		rebuildIndex();
+		return true;
+	}
+
+	@Override
+	public void sort(Comparator<? super T> c) {
+		// the index does not depend on the order
+		elements.sort(c);
+		modCount++;
+	}
+
+	/**
+	 * Adds an entity to the index.
+	 *
+	 * @param element the entity
+	 */
+	private void addToIndex(T element) {
+		int id = getId(element);
+		Integer count = duplicates.get(id);
+		if (count != null) {
+			duplicates.put(id, count + 1);
+		} else if (byId.containsKey(id)) {
+			byId.remove(id);
+			duplicates.put(id, 2);
+		} else {
+			byId.put(id, element);
+		}
+	}
+
+	/**
+	 * Removes an entity, which is no longer in the list, from the index.
+	 *
+	 * @param element the entity
+	 */
+	private void removeFromIndex(T element) {
+		int id = getId(element);
+		Integer count = duplicates.get(id);
+		if (count == null) {
+			byId.remove(id);
+		} else if (count > 2) {
+			duplicates.put(id, count - 1);
+		} else {
+			duplicates.remove(id);
+			for (T candidate : elements) {
+				if (getId(candidate) == id) {
+					byId.put(id, candidate);
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Rebuilds the index from the entities in the list.
+	 */
+	private void rebuildIndex() {
+		byId.clear();
+		duplicates.clear();
+		for (T element : elements) {
+			addToIndex(element);
+		}
+		modCount++;
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Vm;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class IdIndexedListTest {
+
+	private List<Vm> vmList;
+
+	private Vm vm1;
+
+	private Vm vm2;
+
+	private Vm vm3;
+
+	private Vm vm4;
+
+	@Before
+	public void setUp() throws Exception {
+		vmList = IdIndexedList.ofVms();
+		vm1 = new Vm(0, 0, 0, 1, 0, 0, 0, "", null);
+		vm2 = new Vm(1, 0, 0, 1, 0, 0, 0, "", null);
+		vm3 = new Vm(0, 1, 0, 1, 0, 0, 0, "", null);
+		vm4 = new Vm(1, 1, 0, 1, 0, 0, 0, "", null);
+	}
+
+	@Test
+	public void testGetById() {
+		assertNull(VmList.getById(vmList, 0));
+
+		vmList.add(vm1);
+		vmList.add(vm2);
+		assertSame(vm1, VmList.getById(vmList, 0));
+		assertSame(vm2, VmList.getById(vmList, 1));
+		assertNull(VmList.getById(vmList, 2));
+
+		vmList.remove(vm1);
+		assertNull(VmList.getById(vmList, 0));
+		assertSame(vm2, VmList.getById(vmList, 1));
+
+		vmList.set(0, vm1);
+		assertSame(vm1, VmList.getById(vmList, 0));
+		assertNull(VmList.getById(vmList, 1));
+
+		vmList.clear();
+		assertNull(VmList.getById(vmList, 0));
+	}
+
+	@Test
+	public void testDuplicatedIds() {
+		vmList.addAll(Arrays.asList(vm1, vm2, vm3, vm4));
+		assertTrue(((IdIndexedList<Vm>) vmList).isDuplicated(0));
+		assertSame(vm1, VmList.getById(vmList, 0));
+		assertSame(vm3, VmList.getByIdAndUserId(vmList, 0, 1));
+		assertSame(vm4, VmList.getByIdAndUserId(vmList, 1, 1));
+
+		vmList.add(0, vm3);
+		assertSame(vm3, VmList.getById(vmList, 0));
+
+		vmList.remove(0);
+		vmList.remove(vm1);
+		assertFalse(((IdIndexedList<Vm>) vmList).isDuplicated(0));
+		assertSame(vm3, VmList.getById(vmList, 0));
+		assertNull(VmList.getByIdAndUserId(vmList, 0, 0));
+		assertSame(vm3, VmList.getByIdAndUserId(vmList, 0, 1));
+	}
+
+	@Test
+	public void testBulkOperations() {
+		vmList.addAll(Arrays.asList(vm1, vm2, vm3, vm4));
+		vmList.removeAll(Arrays.asList(vm1, vm4));
+		assertEquals(Arrays.asList(vm2, vm3), vmList);
+		assertSame(vm3, VmList.getById(vmList, 0));
+		assertSame(vm2, VmList.getById(vmList, 1));
+
+		vmList.add(vm1);
+		Collections.sort(vmList, new Comparator<Vm>() {
+
+			@Override
+			public int compare(Vm a, Vm b) {
+				return Integer.compare(a.getUserId() * 10 + a.getId(), b.getUserId() * 10 + b.getId());
+			}
+
+		});
+		assertEquals(Arrays.asList(vm1, vm2, vm3), vmList);
+		assertSame(vm1, VmList.getById(vmList, 0));
+
+		vmList.subList(0, 2).clear();
+		assertEquals(Arrays.asList(vm3), vmList);
+		assertSame(vm3, VmList.getById(vmList, 0));
+		assertNull(VmList.getById(vmList, 1));
+
+		vmList.retainAll(Arrays.asList(vm1));
+		assertTrue(vmList.isEmpty());
+		assertNull(VmList.getById(vmList, 0));
+	}
+
+}
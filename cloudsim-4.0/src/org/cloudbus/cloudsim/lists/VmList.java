@@ -21,32 +21,20 @@ import org.cloudbus.cloudsim.Vm;
 public class VmList {
 
 	/**
-	 * Gets a {@link Vm} with a given id.
+	 * Gets a {@link Vm} with a given id. The lookup takes constant time if the list is an
+	 * {@link IdIndexedList}.
 	 * 
 	 * @param id ID of required VM
 	 * @param vmList list of existing VMs
 	 * @return a Vm with the given ID or $null if not found
 	 * @pre $none
 	 * @post $none
-         * 
-         * @todo It may be considered the use of a HashMap in order to improve 
-         * VM search, instead of a List. The map key can be the vm id
-         * and the value the VM itself. However, it has to be assessed
-         * the feasibility to have VMs with the same ID and the need
-         * to find VMs by its id and user id, as in the method
-         * {@link #getByIdAndUserId(java.util.List, int, int)}.
-         * The first concern could be dealt by ensuring that all
-         * VMs have different ID (in fact, I don't know if 
-         * VM id uniqueness is a CloudSim requirement)
-         * and creating a map by VM id.
-         * The second concern could be dealt by creating 
-         * a HashMap<UserID, List<VmIDs>>.
-         * The third concern is, that changing 
-         * the class of these lists may have a potential
-         * effect on the entire project and in the creation of simulations
-         * that has to be priorly assessed.
 	 */
+	@SuppressWarnings("unchecked")
 	public static <T extends Vm> T getById(List<T> vmList, int id) {
+		if (vmList instanceof IdIndexedList) {
+			return ((IdIndexedList<T>) vmList).getById(id);
+		}
 		for (T vm : vmList) {
 			if (vm.getId() == id) {
 				return vm;
@@ -65,7 +53,12 @@ public class VmList {
 	 * @pre $none
 	 * @post $none
 	 */
+	@SuppressWarnings("unchecked")
 	public static <T extends Vm> T getByIdAndUserId(List<T> vmList, int id, int userId) {
+		if (vmList instanceof IdIndexedList && !((IdIndexedList<T>) vmList).isDuplicated(id)) {
+			T vm = ((IdIndexedList<T>) vmList).getById(id);
+			return vm != null && vm.getUserId() == userId ? vm : null;
+		}
 		for (T vm : vmList) {
 			if (vm.getId() == id && vm.getUserId() == userId) {
 				return vm;
@@ -23,6 +23,7 @@ import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
 import org.cloudbus.cloudsim.distributions.UniformDistr;
+import org.cloudbus.cloudsim.lists.IdIndexedList;
 import org.cloudbus.cloudsim.lists.VmList;
 
 /**
@@ -114,12 +115,12 @@ public class NetDatacenterBroker extends SimEntity {
 	public NetDatacenterBroker(String name) throws Exception {
 		super(name);
 
-		setVmList(new ArrayList<NetworkVm>());
-		setVmsCreatedList(new ArrayList<NetworkVm>());
-		setCloudletList(new ArrayList<NetworkCloudlet>());
+		setVmList(IdIndexedList.<NetworkVm> ofVms());
+		setVmsCreatedList(IdIndexedList.<NetworkVm> ofVms());
+		setCloudletList(IdIndexedList.<NetworkCloudlet> ofCloudlets());
 		setAppCloudletList(new ArrayList<AppCloudlet>());
-		setCloudletSubmittedList(new ArrayList<Cloudlet>());
-		setCloudletReceivedList(new ArrayList<Cloudlet>());
+		setCloudletSubmittedList(IdIndexedList.<Cloudlet> ofCloudlets());
+		setCloudletReceivedList(IdIndexedList.<Cloudlet> ofCloudlets());
 		appCloudletRecieved = new HashMap<Integer, Integer>();
 
 		cloudletsSubmitted = 0;
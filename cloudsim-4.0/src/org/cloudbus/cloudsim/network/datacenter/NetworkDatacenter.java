@@ -73,6 +73,12 @@ public class NetworkDatacenter extends Datacenter {
          */
 	public Map<Integer, Integer> VmtoHostlist;
 
+	/**
+	 * Indicates if a cloudlet of the batch being submitted has an estimated finish time, so that
+	 * the stages have to be updated.
+	 */
+	private boolean stageUpdateNeeded;
+
 	/**
 	 * Instantiates a new NetworkDatacenter object.
 	 * 
@@ -232,4 +238,30 @@ public class NetworkDatacenter extends Datacenter {
 		checkCloudletCompletion();
 	}
 
+	/**
+	 * Processes a batch of cloudlets as the {@link Datacenter} does, then schedules a single
+	 * event to update the stages of the cloudlets if any of them has an estimated finish time,
+	 * instead of an event per cloudlet as {@link #processCloudletSubmit(SimEvent, boolean)} does.
+	 * 
+	 * @param ev a SimEvent object, whose data is an array of cloudlets
+	 */
+	@Override
+	protected void processCloudletSubmitBatch(SimEvent ev) {
+		stageUpdateNeeded = false;
+		super.processCloudletSubmitBatch(ev);
+		if (stageUpdateNeeded) {
+			// event to update the stages
+			send(getId(), 0.0001, CloudSimTags.VM_DATACENTER_EVENT);
+		}
+	}
+
+	@Override
+	protected double submitCloudlet(Cloudlet cl) {
+		double estimatedFinishTime = super.submitCloudlet(cl);
+		if (estimatedFinishTime > 0.0) { // if this cloudlet is in the exec
+			stageUpdateNeeded = true;
+		}
+		return estimatedFinishTime;
+	}
+
 }
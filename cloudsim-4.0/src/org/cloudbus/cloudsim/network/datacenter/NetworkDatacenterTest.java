@@ -0,0 +1,142 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.RoundRobinBinding;
+import org.cloudbus.cloudsim.Storage;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class NetworkDatacenterTest {
+
+	private static final double STAGE_UPDATE_DELAY = 0.0001;
+
+	private List<Double> batchTimes;
+
+	private List<Double> datacenterEventTimes;
+
+	@Before
+	public void setUp() throws Exception {
+		Log.disable();
+		CloudSim.init(1, Calendar.getInstance(), false);
+		batchTimes = new ArrayList<Double>();
+		datacenterEventTimes = new ArrayList<Double>();
+	}
+
+	@After
+	public void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testBatchSubmissionUpdatesStages() throws Exception {
+		createDatacenter();
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		broker.setCloudletBindingStrategy(new RoundRobinBinding());
+		broker.setCloudletSubmissionBatchSize(4);
+		broker.setUsingCloudletBatchEvents(true);
+
+		List<Vm> vms = new ArrayList<Vm>();
+		for (int id = 0; id < 2; id++) {
+			vms.add(new Vm(id, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen",
+					new CloudletSchedulerTimeShared()));
+		}
+		broker.submitVmList(vms);
+
+		List<Cloudlet> cloudlets = new ArrayList<Cloudlet>();
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		for (int id = 0; id < 8; id++) {
+			Cloudlet cloudlet = new Cloudlet(id, 1000 * (1 + id), 1, 300, 300, utilizationModel,
+					utilizationModel, utilizationModel);
+			cloudlet.setUserId(broker.getId());
+			cloudlets.add(cloudlet);
+		}
+		broker.submitCloudletList(cloudlets);
+
+		CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+
+		assertEquals(cloudlets.size(), broker.getCloudletReceivedList().size());
+		assertEquals(2, batchTimes.size());
+		// each batch schedules an event to update the stages of its cloudlets
+		for (double batchTime : batchTimes) {
+			int stageUpdates = 0;
+			for (double eventTime : datacenterEventTimes) {
+				if (Math.abs(eventTime - batchTime - STAGE_UPDATE_DELAY) < 1e-9) {
+					stageUpdates++;
+				}
+			}
+			assertTrue(stageUpdates > 0);
+		}
+	}
+
+	private NetworkDatacenter createDatacenter() throws Exception {
+		List<Pe> peList = new ArrayList<Pe>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		peList.add(new Pe(1, new PeProvisionerSimple(1000)));
+		List<Host> hostList = new ArrayList<Host>();
+		hostList.add(new Host(
+				0,
+				new RamProvisionerSimple(2048),
+				new BwProvisionerSimple(10000),
+				1000000,
+				peList,
+				new VmSchedulerTimeShared(peList)));
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		return new NetworkDatacenter("Datacenter", characteristics, new VmAllocationPolicySimple(
+				hostList), new LinkedList<Storage>(), 0) {
+
+			@Override
+			public void processEvent(SimEvent ev) {
+				if (ev.getTag() == CloudSimTags.VM_DATACENTER_EVENT) {
+					datacenterEventTimes.add(CloudSim.clock());
+				}
+				super.processEvent(ev);
+			}
+
+			@Override
+			protected void processCloudletSubmitBatch(SimEvent ev) {
+				batchTimes.add(CloudSim.clock());
+				super.processCloudletSubmitBatch(ev);
+			}
+		};
+	}
+
+}
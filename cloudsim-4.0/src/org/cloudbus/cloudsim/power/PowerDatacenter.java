@@ -9,11 +9,12 @@
 package org.cloudbus.cloudsim.power;
 
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Log.Level;
+import org.cloudbus.cloudsim.MigrationPlan;
 import org.cloudbus.cloudsim.Storage;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
@@ -24,6 +25,9 @@ import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
 /**
  * PowerDatacenter is a class that enables simulation of power-aware data centers.
+ * The utilization and energy of each host are logged in the {@link #LOG_CATEGORY} category at the
+ * {@link Level#DEBUG} level, and the migrations and the energy of the data center at the
+ * {@link Level#INFO} level.
  * 
  * <br/>If you are using any algorithms, policies or workload included in the power package please cite
  * the following paper:<br/>
@@ -40,9 +44,15 @@ import org.cloudbus.cloudsim.core.predicates.PredicateType;
  */
 public class PowerDatacenter extends Datacenter {
 
+	/** The log category of the power-aware datacenters. */
+	public static final String LOG_CATEGORY = PowerDatacenter.class.getName();
+
 	/** The datacenter consumed power. */
 	private double power;
 
+	/** Indicates if the time of each processing of the cloudlets is printed to the standard output. */
+	private boolean printProgress = true;
+
 	/** Indicates if migrations are disabled or not. */
 	private boolean disableMigrations;
 
@@ -52,6 +62,12 @@ public class PowerDatacenter extends Datacenter {
 	/** The VM migration count. */
 	private int migrationCount;
 
+	/** The energy and SLA metrics of the datacenter, updated during the simulation. */
+	private final PowerDatacenterMetrics metrics;
+
+	/** The energy consumed by each host in the last time frame, reused for every time frame. */
+	private final double[] timeFrameHostEnergies;
+
 	/**
 	 * Instantiates a new PowerDatacenter.
 	 * 
@@ -74,6 +90,8 @@ public class PowerDatacenter extends Datacenter {
 		setDisableMigrations(false);
 		setCloudletSubmitted(-1);
 		setMigrationCount(0);
+		metrics = new PowerDatacenterMetrics(this.<PowerHost> getHostList());
+		timeFrameHostEnergies = new double[getHostList().size()];
 	}
 
 	@Override
@@ -87,37 +105,43 @@ public class PowerDatacenter extends Datacenter {
 
 		// if some time passed since last processing
 		if (currentTime > getLastProcessTime()) {
-			System.out.print(currentTime + " ");
+			if (isPrintProgress()) {
+				System.out.print(currentTime + " ");
+			}
 
 			double minTime = updateCloudetProcessingWithoutSchedulingFutureEventsForce();
 
 			if (!isDisableMigrations()) {
-				List<Map<String, Object>> migrationMap = getVmAllocationPolicy().optimizeAllocation(
+				MigrationPlan migrationPlan = getVmAllocationPolicy().optimizeAllocationPlan(
 						getVmList());
 
-				if (migrationMap != null) {
-					for (Map<String, Object> migrate : migrationMap) {
-						Vm vm = (Vm) migrate.get("vm");
-						PowerHost targetHost = (PowerHost) migrate.get("host");
+				if (migrationPlan != null) {
+					boolean logInfo = Log.isEnabled(Level.INFO, LOG_CATEGORY);
+					for (MigrationPlan.Entry migrate : migrationPlan) {
+						Vm vm = migrate.getVm();
+						PowerHost targetHost = (PowerHost) migrate.getTargetHost();
 						PowerHost oldHost = (PowerHost) vm.getHost();
 
-						if (oldHost == null) {
-							Log.formatLine(
-									"%.2f: Migration of VM #%d to Host #%d is started",
-									currentTime,
-									vm.getId(),
-									targetHost.getId());
-						} else {
-							Log.formatLine(
-									"%.2f: Migration of VM #%d from Host #%d to Host #%d is started",
-									currentTime,
-									vm.getId(),
-									oldHost.getId(),
-									targetHost.getId());
+						if (logInfo) {
+							if (oldHost == null) {
+								Log.formatLine(
+										"%.2f: Migration of VM #%d to Host #%d is started",
+										currentTime,
+										vm.getId(),
+										targetHost.getId());
+							} else {
+								Log.formatLine(
+										"%.2f: Migration of VM #%d from Host #%d to Host #%d is started",
+										currentTime,
+										vm.getId(),
+										oldHost.getId(),
+										targetHost.getId());
+							}
 						}
 
 						targetHost.addMigratingInVm(vm);
 						incrementMigrationCount();
+						getMetrics().migrationStarted(vm, currentTime);
 
 						/** VM migration delay = RAM / bandwidth **/
 						// we use BW / 2 to model BW available for migration purposes, the other
@@ -171,32 +195,45 @@ public class PowerDatacenter extends Datacenter {
 		double minTime = Double.MAX_VALUE;
 		double timeDiff = currentTime - getLastProcessTime();
 		double timeFrameDatacenterEnergy = 0.0;
+		// checked once, so that the loops over the hosts do not box any argument when not logging
+		boolean logDebug = Log.isEnabled(Level.DEBUG, LOG_CATEGORY);
+		boolean logInfo = Log.isEnabled(Level.INFO, LOG_CATEGORY);
 
-		Log.printLine("\n\n--------------------------------------------------------------\n\n");
-		Log.formatLine("New resource usage for the time frame starting at %.2f:", currentTime);
+		if (logDebug) {
+			Log.printLine("\n\n--------------------------------------------------------------\n\n");
+			Log.formatLine("New resource usage for the time frame starting at %.2f:", currentTime);
+		}
 
 		for (PowerHost host : this.<PowerHost> getHostList()) {
-			Log.printLine();
+			if (logDebug) {
+				Log.printLine();
+			}
 
 			double time = host.updateVmsProcessing(currentTime); // inform VMs to update processing
 			if (time < minTime) {
 				minTime = time;
 			}
 
-			Log.formatLine(
-					"%.2f: [Host #%d] utilization is %.2f%%",
-					currentTime,
-					host.getId(),
-					host.getUtilizationOfCpu() * 100);
+			if (logDebug) {
+				Log.formatLine(
+						"%.2f: [Host #%d] utilization is %.2f%%",
+						currentTime,
+						host.getId(),
+						host.getUtilizationOfCpu() * 100);
+			}
 		}
 
 		if (timeDiff > 0) {
-			Log.formatLine(
-					"\nEnergy consumption for the last time frame from %.2f to %.2f:",
-					getLastProcessTime(),
-					currentTime);
+			if (logDebug) {
+				Log.formatLine(
+						"\nEnergy consumption for the last time frame from %.2f to %.2f:",
+						getLastProcessTime(),
+						currentTime);
+			}
 
-			for (PowerHost host : this.<PowerHost> getHostList()) {
+			List<PowerHost> hostList = this.<PowerHost> getHostList();
+			for (int i = 0; i < hostList.size(); i++) {
+				PowerHost host = hostList.get(i);
 				double previousUtilizationOfCpu = host.getPreviousUtilizationOfCpu();
 				double utilizationOfCpu = host.getUtilizationOfCpu();
 				double timeFrameHostEnergy = host.getEnergyLinearInterpolation(
@@ -204,26 +241,32 @@ public class PowerDatacenter extends Datacenter {
 						utilizationOfCpu,
 						timeDiff);
 				timeFrameDatacenterEnergy += timeFrameHostEnergy;
+				timeFrameHostEnergies[i] = timeFrameHostEnergy;
+
+				if (logDebug) {
+					Log.printLine();
+					Log.formatLine(
+							"%.2f: [Host #%d] utilization at %.2f was %.2f%%, now is %.2f%%",
+							currentTime,
+							host.getId(),
+							getLastProcessTime(),
+							previousUtilizationOfCpu * 100,
+							utilizationOfCpu * 100);
+					Log.formatLine(
+							"%.2f: [Host #%d] energy is %.2f W*sec",
+							currentTime,
+							host.getId(),
+							timeFrameHostEnergy);
+				}
+			}
+			getMetrics().addEnergy(timeFrameHostEnergies);
 
-				Log.printLine();
+			if (logInfo) {
 				Log.formatLine(
-						"%.2f: [Host #%d] utilization at %.2f was %.2f%%, now is %.2f%%",
+						"\n%.2f: Data center's energy is %.2f W*sec\n",
 						currentTime,
-						host.getId(),
-						getLastProcessTime(),
-						previousUtilizationOfCpu * 100,
-						utilizationOfCpu * 100);
-				Log.formatLine(
-						"%.2f: [Host #%d] energy is %.2f W*sec",
-						currentTime,
-						host.getId(),
-						timeFrameHostEnergy);
+						timeFrameDatacenterEnergy);
 			}
-
-			Log.formatLine(
-					"\n%.2f: Data center's energy is %.2f W*sec\n",
-					currentTime,
-					timeFrameDatacenterEnergy);
 		}
 
 		setPower(getPower() + timeFrameDatacenterEnergy);
@@ -235,20 +278,34 @@ public class PowerDatacenter extends Datacenter {
 			for (Vm vm : host.getCompletedVms()) {
 				getVmAllocationPolicy().deallocateHostForVm(vm);
 				getVmList().remove(vm);
-				Log.printLine("VM #" + vm.getId() + " has been deallocated from host #" + host.getId());
+				if (logInfo) {
+					Log.printLine("VM #" + vm.getId() + " has been deallocated from host #" + host.getId());
+				}
 			}
 		}
 
-		Log.printLine();
+		if (logDebug) {
+			Log.printLine();
+		}
 
 		setLastProcessTime(currentTime);
 		return minTime;
 	}
 
+	@Override
+	protected void processVmCreate(SimEvent ev, boolean ack) {
+		super.processVmCreate(ev, ack);
+		Vm vm = (Vm) ev.getData();
+		if (vm.getHost() != null) {
+			getMetrics().addVm(vm);
+		}
+	}
+
 	@Override
 	protected void processVmMigrate(SimEvent ev, boolean ack) {
 		updateCloudetProcessingWithoutSchedulingFutureEvents();
 		super.processVmMigrate(ev, ack);
+		getMetrics().migrationCompleted(getMigration(ev).getVm(), CloudSim.clock());
 		SimEvent event = CloudSim.findFirstDeferred(getId(), new PredicateType(CloudSimTags.VM_MIGRATE));
 		if (event == null || event.eventTime() > CloudSim.clock()) {
 			updateCloudetProcessingWithoutSchedulingFutureEventsForce();
@@ -261,6 +318,12 @@ public class PowerDatacenter extends Datacenter {
 		setCloudletSubmitted(CloudSim.clock());
 	}
 
+	@Override
+	protected void processCloudletSubmitBatch(SimEvent ev) {
+		super.processCloudletSubmitBatch(ev);
+		setCloudletSubmitted(CloudSim.clock());
+	}
+
 	/**
 	 * Gets the power.
 	 * 
@@ -295,6 +358,35 @@ public class PowerDatacenter extends Datacenter {
 		return result;
 	}
 
+	/**
+	 * Gets the energy and SLA metrics of the datacenter, which are updated during the simulation.
+	 * 
+	 * @return the metrics
+	 */
+	public PowerDatacenterMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Checks if the time of each processing of the cloudlets is printed to the standard output,
+	 * as a progress indicator of the simulation.
+	 * 
+	 * @return true, if the progress is printed
+	 */
+	public boolean isPrintProgress() {
+		return printProgress;
+	}
+
+	/**
+	 * Sets if the time of each processing of the cloudlets is printed to the standard output.
+	 * It is printed by default, regardless of the {@link Log} settings.
+	 * 
+	 * @param printProgress true to print the progress
+	 */
+	public void setPrintProgress(boolean printProgress) {
+		this.printProgress = printProgress;
+	}
+
 	/**
 	 * Checks if migrations are disabled.
 	 * 
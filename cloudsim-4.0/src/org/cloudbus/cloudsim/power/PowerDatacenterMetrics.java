@@ -0,0 +1,422 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.cloudbus.cloudsim.StateHistoryStore;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.util.MathUtil;
+
+/**
+ * The energy and SLA metrics of a {@link PowerDatacenter}, fed by the data center while the
+ * simulation runs, so that they can be queried at any time, including before the simulation
+ * ends, without scanning the state histories of the hosts and VMs.
+ * <p>
+ * The data center reports the energy consumed by each host in every time frame, the VMs it
+ * creates and the start and completion of the VM migrations. The SLA metrics are read from the
+ * aggregates of the {@link StateHistoryStore} of the hosts and VMs, which are also updated
+ * during the simulation, so they do not need the history entries to be kept. The metrics are
+ * those of the paper cited by {@link PowerDatacenter}: the SLA violation Time per Active Host
+ * (SLATAH), the Performance Degradation due to Migrations (PDM), their product (SLAV) and the
+ * product of the energy and SLAV (ESV).
+ * <p>
+ * Every metric can be queried by name with {@link #getValue(String)}, and all of them at once
+ * with {@link #getValues()}.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class PowerDatacenterMetrics {
+
+	/** The name of the energy consumed by the data center, in W*sec. */
+	public static final String ENERGY = "energy";
+
+	/** The name of the number of started VM migrations. */
+	public static final String MIGRATIONS = "migrations";
+
+	/** The name of the number of completed VM migrations. */
+	public static final String COMPLETED_MIGRATIONS = "completed_migrations";
+
+	/** The name of the SLA violation Time per Active Host (SLATAH). */
+	public static final String SLA_TIME_PER_ACTIVE_HOST = "sla_time_per_active_host";
+
+	/** The name of the Performance Degradation due to Migrations (PDM). */
+	public static final String PERFORMANCE_DEGRADATION_DUE_TO_MIGRATION =
+			"performance_degradation_due_to_migration";
+
+	/** The name of the SLA violation (SLAV), that is, SLATAH * PDM. */
+	public static final String SLA_VIOLATION = "sla_violation";
+
+	/** The name of the Energy and SLA Violations (ESV), that is, the energy in kWh * SLAV. */
+	public static final String ENERGY_SLA_VIOLATION = "energy_sla_violation";
+
+	/** The name of the overall SLA violation, the ratio of the MIPS not allocated to the VMs. */
+	public static final String SLA_OVERALL = "sla_overall";
+
+	/** The name of the average SLA violation of the under allocated intervals of the VMs. */
+	public static final String SLA_AVERAGE = "sla_average";
+
+	/** The name of the number of host shutdowns. */
+	public static final String HOST_SHUTDOWNS = "host_shutdowns";
+
+	/** The name of the mean duration of the VM migrations, in seconds. */
+	public static final String MIGRATION_TIME_MEAN = "migration_time_mean";
+
+	/** The name of the median duration of the VM migrations, in seconds. */
+	public static final String MIGRATION_TIME_MEDIAN = "migration_time_median";
+
+	/** The name of the 95th percentile of the duration of the VM migrations, in seconds. */
+	public static final String MIGRATION_TIME_95TH_PERCENTILE = "migration_time_95th_percentile";
+
+	/** The name of the maximum duration of the VM migrations, in seconds. */
+	public static final String MIGRATION_TIME_MAX = "migration_time_max";
+
+	/** The hosts of the data center. */
+	private final List<PowerHost> hostList;
+
+	/** The position of each host in the host list, by host id. */
+	private final Map<Integer, Integer> hostPositions;
+
+	/** The energy consumed by each host, in the host list order. */
+	private final double[] hostEnergy;
+
+	/** The energy consumed by the data center. */
+	private double energy;
+
+	/** The VMs created in the data center, in the creation order. */
+	private final Set<Vm> vms = new LinkedHashSet<Vm>();
+
+	/** The start time of the migrations in progress. */
+	private final Map<Vm, Double> migrationStartTimes = new IdentityHashMap<Vm, Double>();
+
+	/** The number of started migrations. */
+	private int migrationCount;
+
+	/** The durations of the completed migrations. */
+	private double[] migrationTimes = new double[16];
+
+	/** The number of completed migrations. */
+	private int completedMigrationCount;
+
+	/**
+	 * Instantiates the metrics of a data center.
+	 *
+	 * @param hostList the hosts of the data center
+	 */
+	public PowerDatacenterMetrics(List<? extends PowerHost> hostList) {
+		this.hostList = new ArrayList<PowerHost>(hostList);
+		hostPositions = new HashMap<Integer, Integer>(hostList.size() * 2);
+		for (int i = 0; i < this.hostList.size(); i++) {
+			hostPositions.put(this.hostList.get(i).getId(), i);
+		}
+		hostEnergy = new double[this.hostList.size()];
+	}
+
+	/**
+	 * Adds the energy consumed by the hosts during a time frame.
+	 *
+	 * @param timeFrameHostEnergy the energy consumed by each host, in the host list order
+	 */
+	public void addEnergy(double[] timeFrameHostEnergy) {
+		if (timeFrameHostEnergy.length != hostEnergy.length) {
+			throw new IllegalArgumentException("There must be an energy value for each host");
+		}
+		// summed per time frame first, as the data center does for its power
+		double timeFrameEnergy = 0;
+		for (int i = 0; i < timeFrameHostEnergy.length; i++) {
+			hostEnergy[i] += timeFrameHostEnergy[i];
+			timeFrameEnergy += timeFrameHostEnergy[i];
+		}
+		energy += timeFrameEnergy;
+	}
+
+	/**
+	 * Adds a VM created in the data center. A VM is only added once.
+	 *
+	 * @param vm the VM
+	 */
+	public void addVm(Vm vm) {
+		vms.add(vm);
+	}
+
+	/**
+	 * Records the start of a VM migration.
+	 *
+	 * @param vm the migrating VM
+	 * @param time the start time
+	 */
+	public void migrationStarted(Vm vm, double time) {
+		migrationStartTimes.put(vm, time);
+		migrationCount++;
+	}
+
+	/**
+	 * Records the completion of a VM migration.
+	 *
+	 * @param vm the migrated VM
+	 * @param time the completion time
+	 */
+	public void migrationCompleted(Vm vm, double time) {
+		Double startTime = migrationStartTimes.remove(vm);
+		if (startTime == null) {
+			return;
+		}
+		if (completedMigrationCount == migrationTimes.length) {
+			migrationTimes = Arrays.copyOf(migrationTimes, completedMigrationCount * 2);
+		}
+		migrationTimes[completedMigrationCount++] = time - startTime;
+	}
+
+	/**
+	 * Gets the energy consumed by the data center.
+	 *
+	 * @return the energy, in W*sec
+	 */
+	public double getEnergy() {
+		return energy;
+	}
+
+	/**
+	 * Gets the energy consumed by a host.
+	 *
+	 * @param hostId the id of the host
+	 * @return the energy, in W*sec
+	 * @throws IllegalArgumentException if the host is not in the data center
+	 */
+	public double getHostEnergy(int hostId) {
+		Integer position = hostPositions.get(hostId);
+		if (position == null) {
+			throw new IllegalArgumentException("Unknown host #" + hostId);
+		}
+		return hostEnergy[position];
+	}
+
+	/**
+	 * Gets the number of started VM migrations.
+	 *
+	 * @return the number of migrations
+	 */
+	public int getMigrationCount() {
+		return migrationCount;
+	}
+
+	/**
+	 * Gets the number of completed VM migrations.
+	 *
+	 * @return the number of completed migrations
+	 */
+	public int getCompletedMigrationCount() {
+		return completedMigrationCount;
+	}
+
+	/**
+	 * Gets the VMs created in the data center.
+	 *
+	 * @return the VMs, in the creation order
+	 */
+	public Set<Vm> getVms() {
+		return Collections.unmodifiableSet(vms);
+	}
+
+	/**
+	 * Gets the SLA violation Time per Active Host (SLATAH): the fraction of the time the hosts
+	 * are active during which they do not allocate all the requested MIPS.
+	 *
+	 * @return the SLATAH
+	 */
+	public double getSlaTimePerActiveHost() {
+		double slaViolationTime = 0;
+		double activeTime = 0;
+		for (PowerHost host : hostList) {
+			StateHistoryStore stateHistory = host.getStateHistoryStore();
+			activeTime += stateHistory.getFlaggedTime();
+			slaViolationTime += stateHistory.getFlaggedUnderAllocatedTime();
+		}
+		return slaViolationTime / activeTime;
+	}
+
+	/**
+	 * Gets the Performance Degradation due to Migrations (PDM): the fraction of the MIPS
+	 * requested by the VMs that is not allocated while they are migrating.
+	 *
+	 * @return the PDM
+	 */
+	public double getPerformanceDegradationDueToMigration() {
+		double totalRequested = 0;
+		double totalUnderAllocatedDueToMigration = 0;
+		for (Vm vm : vms) {
+			StateHistoryStore stateHistory = vm.getStateHistoryStore();
+			totalRequested += stateHistory.getTotalRequestedMips();
+			totalUnderAllocatedDueToMigration += stateHistory.getFlaggedUnderAllocatedMips();
+		}
+		return totalUnderAllocatedDueToMigration / totalRequested;
+	}
+
+	/**
+	 * Gets the SLA violation (SLAV), the product of the SLATAH and the PDM.
+	 *
+	 * @return the SLAV
+	 */
+	public double getSlaViolation() {
+		return getSlaTimePerActiveHost() * getPerformanceDegradationDueToMigration();
+	}
+
+	/**
+	 * Gets the Energy and SLA Violations (ESV), the product of the energy in kWh and the SLAV.
+	 *
+	 * @return the ESV
+	 */
+	public double getEnergySlaViolation() {
+		return getEnergy() / (3600 * 1000) * getSlaViolation();
+	}
+
+	/**
+	 * Gets the overall SLA violation: the fraction of the MIPS requested by the VMs that is not
+	 * allocated.
+	 *
+	 * @return the overall SLA violation
+	 */
+	public double getSlaOverall() {
+		double totalAllocated = 0;
+		double totalRequested = 0;
+		for (Vm vm : vms) {
+			StateHistoryStore stateHistory = vm.getStateHistoryStore();
+			totalAllocated += stateHistory.getTotalAllocatedMips();
+			totalRequested += stateHistory.getTotalRequestedMips();
+		}
+		return (totalRequested - totalAllocated) / totalRequested;
+	}
+
+	/**
+	 * Gets the average SLA violation: the mean fraction of the requested MIPS that is not
+	 * allocated over the intervals in which a VM is under allocated.
+	 *
+	 * @return the average SLA violation, or 0 if no VM has been under allocated
+	 */
+	public double getSlaAverage() {
+		double slaViolationSum = 0;
+		int slaViolationCount = 0;
+		for (Vm vm : vms) {
+			StateHistoryStore stateHistory = vm.getStateHistoryStore();
+			slaViolationSum += stateHistory.getUnderAllocationRatioSum();
+			slaViolationCount += stateHistory.getUnderAllocationCount();
+		}
+		if (slaViolationCount == 0) {
+			return 0;
+		}
+		return slaViolationSum / slaViolationCount;
+	}
+
+	/**
+	 * Gets the number of host shutdowns.
+	 *
+	 * @return the number of host shutdowns
+	 */
+	public int getHostShutdownCount() {
+		int count = 0;
+		for (PowerHost host : hostList) {
+			count += host.getStateHistoryStore().getFlaggedPeriodDurations().length;
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the statistics of the durations of the completed VM migrations, from which any
+	 * percentile can be read.
+	 *
+	 * @return the statistics of the migration durations
+	 */
+	public DescriptiveStatistics getMigrationTimeStatistics() {
+		return MathUtil.getStatistics(Arrays.copyOf(migrationTimes, completedMigrationCount));
+	}
+
+	/**
+	 * Gets the value of a metric.
+	 *
+	 * @param name the name of the metric, one of the constants of this class
+	 * @return the value of the metric
+	 * @throws IllegalArgumentException if there is no metric with that name
+	 */
+	public double getValue(String name) {
+		if (name == null) {
+			throw new IllegalArgumentException("Unknown metric null");
+		}
+		switch (name) {
+			case ENERGY:
+				return getEnergy();
+			case MIGRATIONS:
+				return getMigrationCount();
+			case COMPLETED_MIGRATIONS:
+				return getCompletedMigrationCount();
+			case SLA_TIME_PER_ACTIVE_HOST:
+				return getSlaTimePerActiveHost();
+			case PERFORMANCE_DEGRADATION_DUE_TO_MIGRATION:
+				return getPerformanceDegradationDueToMigration();
+			case SLA_VIOLATION:
+				return getSlaViolation();
+			case ENERGY_SLA_VIOLATION:
+				return getEnergySlaViolation();
+			case SLA_OVERALL:
+				return getSlaOverall();
+			case SLA_AVERAGE:
+				return getSlaAverage();
+			case HOST_SHUTDOWNS:
+				return getHostShutdownCount();
+			case MIGRATION_TIME_MEAN:
+				return getMigrationTimeStatistics().getMean();
+			case MIGRATION_TIME_MEDIAN:
+				return getMigrationTimeStatistics().getPercentile(50);
+			case MIGRATION_TIME_95TH_PERCENTILE:
+				return getMigrationTimeStatistics().getPercentile(95);
+			case MIGRATION_TIME_MAX:
+				return getMigrationTimeStatistics().getMax();
+			default:
+				throw new IllegalArgumentException("Unknown metric " + name);
+		}
+	}
+
+	/**
+	 * Gets the current value of all the metrics.
+	 *
+	 * @return the values of the metrics by name
+	 */
+	public Map<String, Double> getValues() {
+		Map<String, Double> values = new LinkedHashMap<String, Double>();
+		values.put(ENERGY, getEnergy());
+		values.put(MIGRATIONS, (double) getMigrationCount());
+		values.put(COMPLETED_MIGRATIONS, (double) getCompletedMigrationCount());
+		double slaTimePerActiveHost = getSlaTimePerActiveHost();
+		double performanceDegradation = getPerformanceDegradationDueToMigration();
+		double slaViolation = slaTimePerActiveHost * performanceDegradation;
+		values.put(SLA_TIME_PER_ACTIVE_HOST, slaTimePerActiveHost);
+		values.put(PERFORMANCE_DEGRADATION_DUE_TO_MIGRATION, performanceDegradation);
+		values.put(SLA_VIOLATION, slaViolation);
+		values.put(ENERGY_SLA_VIOLATION, getEnergy() / (3600 * 1000) * slaViolation);
+		values.put(SLA_OVERALL, getSlaOverall());
+		values.put(SLA_AVERAGE, getSlaAverage());
+		values.put(HOST_SHUTDOWNS, (double) getHostShutdownCount());
+		DescriptiveStatistics migrationTimeStatistics = getMigrationTimeStatistics();
+		values.put(MIGRATION_TIME_MEAN, migrationTimeStatistics.getMean());
+		values.put(MIGRATION_TIME_MEDIAN, migrationTimeStatistics.getPercentile(50));
+		values.put(MIGRATION_TIME_95TH_PERCENTILE, migrationTimeStatistics.getPercentile(95));
+		values.put(MIGRATION_TIME_MAX, migrationTimeStatistics.getMax());
+		return values;
+	}
+
+}
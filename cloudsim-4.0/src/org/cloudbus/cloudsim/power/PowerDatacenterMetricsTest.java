@@ -0,0 +1,144 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class PowerDatacenterMetricsTest {
+
+	private static final double DELTA = 1e-9;
+
+	private List<PowerHost> hostList;
+
+	private PowerVm vm0;
+
+	private PowerVm vm1;
+
+	private PowerDatacenterMetrics metrics;
+
+	@Before
+	public void setUp() throws Exception {
+		hostList = new ArrayList<PowerHost>();
+		hostList.add(createHost(10));
+		hostList.add(createHost(20));
+		vm0 = createVm(0);
+		vm1 = createVm(1);
+		metrics = new PowerDatacenterMetrics(hostList);
+	}
+
+	@Test
+	public void testEnergy() {
+		metrics.addEnergy(new double[] { 100, 200 });
+		metrics.addEnergy(new double[] { 50, 0 });
+		assertEquals(350, metrics.getEnergy(), DELTA);
+		assertEquals(150, metrics.getHostEnergy(10), DELTA);
+		assertEquals(200, metrics.getHostEnergy(20), DELTA);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownHost() {
+		metrics.getHostEnergy(0);
+	}
+
+	@Test
+	public void testMigrations() {
+		metrics.migrationStarted(vm0, 100);
+		metrics.migrationStarted(vm1, 100);
+		metrics.migrationCompleted(vm0, 110);
+		assertEquals(2, metrics.getMigrationCount());
+		assertEquals(1, metrics.getCompletedMigrationCount());
+
+		metrics.migrationCompleted(vm1, 130);
+		metrics.migrationStarted(vm0, 200);
+		metrics.migrationCompleted(vm0, 220);
+		assertEquals(3, metrics.getCompletedMigrationCount());
+		assertEquals(20, metrics.getValue(PowerDatacenterMetrics.MIGRATION_TIME_MEDIAN), DELTA);
+		assertEquals(30, metrics.getValue(PowerDatacenterMetrics.MIGRATION_TIME_MAX), DELTA);
+		assertEquals(20, metrics.getMigrationTimeStatistics().getMean(), DELTA);
+	}
+
+	@Test
+	public void testSlaMetrics() {
+		PowerHost host0 = hostList.get(0);
+		host0.addStateHistoryEntry(0, 100, 100, true);
+		host0.addStateHistoryEntry(100, 50, 100, true);
+		host0.addStateHistoryEntry(200, 0, 0, false);
+		host0.addStateHistoryEntry(300, 0, 0, false);
+		PowerHost host1 = hostList.get(1);
+		host1.addStateHistoryEntry(0, 100, 100, true);
+		host1.addStateHistoryEntry(300, 100, 100, true);
+
+		metrics.addVm(vm0);
+		metrics.addVm(vm1);
+		metrics.addVm(vm0);
+		vm0.addStateHistoryEntry(0, 50, 100, true);
+		vm0.addStateHistoryEntry(100, 100, 100, false);
+		vm0.addStateHistoryEntry(200, 100, 100, false);
+		vm1.addStateHistoryEntry(0, 100, 200, false);
+		vm1.addStateHistoryEntry(200, 100, 200, false);
+		metrics.addEnergy(new double[] { 3600 * 1000, 0 });
+
+		assertEquals(2, metrics.getVms().size());
+		assertEquals(100. / 500, metrics.getSlaTimePerActiveHost(), DELTA);
+		assertEquals(5000. / 60000, metrics.getPerformanceDegradationDueToMigration(), DELTA);
+		assertEquals(100. / 500 * 5000 / 60000, metrics.getSlaViolation(), DELTA);
+		assertEquals(metrics.getSlaViolation(), metrics.getEnergySlaViolation(), DELTA);
+		assertEquals(25000. / 60000, metrics.getSlaOverall(), DELTA);
+		assertEquals(1. / 2, metrics.getSlaAverage(), DELTA);
+		assertEquals(1, metrics.getHostShutdownCount());
+
+		Map<String, Double> values = metrics.getValues();
+		assertEquals(metrics.getSlaTimePerActiveHost(),
+				values.get(PowerDatacenterMetrics.SLA_TIME_PER_ACTIVE_HOST), 0);
+		assertEquals(1, values.get(PowerDatacenterMetrics.HOST_SHUTDOWNS), 0);
+		for (Map.Entry<String, Double> value : values.entrySet()) {
+			assertEquals(value.getKey(), value.getValue(), metrics.getValue(value.getKey()), 0);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownMetric() {
+		metrics.getValue("unknown");
+	}
+
+	private PowerHost createHost(int id) {
+		List<Pe> peList = new ArrayList<Pe>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		return new PowerHost(
+				id,
+				new RamProvisionerSimple(1024),
+				new BwProvisionerSimple(1000),
+				1000,
+				peList,
+				new VmSchedulerTimeShared(peList),
+				new PowerModelLinear(200, 0.5));
+	}
+
+	private PowerVm createVm(int id) {
+		return new PowerVm(id, 0, 500, 1, 512, 100, 0, 0, "", new CloudletSchedulerTimeShared(), 300);
+	}
+
+}
@@ -9,10 +9,10 @@
 package org.cloudbus.cloudsim.power;
 
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.MigrationPlan;
 import org.cloudbus.cloudsim.Storage;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
@@ -75,7 +75,10 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 
 			Log.printLine("\n");
 
-			for (PowerHost host : this.<PowerHost> getHostList()) {
+			List<PowerHost> hostList = this.<PowerHost> getHostList();
+			double[] timeFrameHostEnergy = new double[hostList.size()];
+			for (int i = 0; i < hostList.size(); i++) {
+				PowerHost host = hostList.get(i);
 				Log.formatLine("%.2f: Host #%d", CloudSim.clock(), host.getId());
 
 				double hostPower = 0.0;
@@ -86,6 +89,7 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 				} catch (Exception e) {
 					e.printStackTrace();
 				}
+				timeFrameHostEnergy[i] = hostPower;
 
 				Log.formatLine(
 						"%.2f: Host #%d utilization is %.2f%%",
@@ -100,6 +104,7 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 			}
 
 			Log.formatLine("\n%.2f: Consumed energy is %.2f W*sec\n", CloudSim.clock(), timeframePower);
+			getMetrics().addEnergy(timeFrameHostEnergy);
 
 			Log.printLine("\n\n--------------------------------------------------------------\n\n");
 
@@ -129,13 +134,13 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 			Log.printLine();
 
 			if (!isDisableMigrations()) {
-				List<Map<String, Object>> migrationMap = getVmAllocationPolicy().optimizeAllocation(
+				MigrationPlan migrationPlan = getVmAllocationPolicy().optimizeAllocationPlan(
 						getVmList());
 
-				if (migrationMap != null) {
-					for (Map<String, Object> migrate : migrationMap) {
-						Vm vm = (Vm) migrate.get("vm");
-						PowerHost targetHost = (PowerHost) migrate.get("host");
+				if (migrationPlan != null) {
+					for (MigrationPlan.Entry migrate : migrationPlan) {
+						Vm vm = migrate.getVm();
+						PowerHost targetHost = (PowerHost) migrate.getTargetHost();
 						PowerHost oldHost = (PowerHost) vm.getHost();
 
 						if (oldHost == null) {
@@ -155,6 +160,7 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 
 						targetHost.addMigratingInVm(vm);
 						incrementMigrationCount();
+						getMetrics().migrationStarted(vm, CloudSim.clock());
 
 						/** VM migration delay = RAM / bandwidth + C (C = 10 sec) **/
 						send(
@@ -0,0 +1,211 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.power.models.PowerModel;
+
+/**
+ * An index of the hosts of a power-aware VM allocation policy used to find a host for a VM
+ * without evaluating every host.
+ * <p>
+ * A host is idle if it has no VM, no VM migrating in and no CPU utilization. Idle hosts are
+ * grouped into buckets by power model and available capacity: their host, scheduler and
+ * provisioner classes, total MIPS, PE capacity, available MIPS, RAM and bandwidth. All the
+ * idle hosts of a bucket give the same result when a VM is placed on them, so only the first
+ * one in the host list order that is not excluded has to be evaluated. The other hosts are
+ * active and are all evaluated.
+ * <p>
+ * {@link #getCandidateHosts(Set)} returns the active hosts and the first host of each bucket,
+ * in the host list order. Evaluating them in that order and keeping the first best host gives
+ * the same host as evaluating every host. A host stops being idle when a VM is created on or
+ * destroyed from it, which has to be reported with {@link #setActive(Host)}. An index is meant
+ * to be used for a single VM reallocation, while VMs are only placed tentatively.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class PowerHostIndex {
+
+	/** The hosts, in the host list order. */
+	private final List<PowerHost> hostList;
+
+	/** The position of each host in the host list. */
+	private final Map<Host, Integer> positions;
+
+	/** The positions of the active hosts. */
+	private final BitSet activeHosts;
+
+	/** The positions of the idle hosts of each bucket. */
+	private final List<BitSet> idleHostBuckets;
+
+	/**
+	 * Instantiates a new index of hosts.
+	 *
+	 * @param hostList the hosts of the allocation policy
+	 */
+	public PowerHostIndex(List<? extends PowerHost> hostList) {
+		this.hostList = new ArrayList<PowerHost>(hostList);
+		positions = new HashMap<Host, Integer>(hostList.size() * 2);
+		activeHosts = new BitSet(hostList.size());
+		idleHostBuckets = new ArrayList<BitSet>();
+
+		Map<Bucket, BitSet> buckets = new HashMap<Bucket, BitSet>();
+		for (int i = 0; i < this.hostList.size(); i++) {
+			PowerHost host = this.hostList.get(i);
+			positions.put(host, i);
+			if (!isIdle(host)) {
+				activeHosts.set(i);
+				continue;
+			}
+			Bucket key = new Bucket(host);
+			BitSet bucket = buckets.get(key);
+			if (bucket == null) {
+				bucket = new BitSet(hostList.size());
+				buckets.put(key, bucket);
+				idleHostBuckets.add(bucket);
+			}
+			bucket.set(i);
+		}
+	}
+
+	/**
+	 * Checks if a host is idle.
+	 *
+	 * @param host the host
+	 * @return true, if the host has no VM, no VM migrating in and no CPU utilization
+	 */
+	protected boolean isIdle(PowerHost host) {
+		return host.getVmList().isEmpty() && host.getVmsMigratingIn().isEmpty()
+				&& host.getUtilizationMips() == 0;
+	}
+
+	/**
+	 * Marks a host as active, after a VM has been created on it or destroyed from it.
+	 *
+	 * @param host the host
+	 */
+	public void setActive(Host host) {
+		Integer position = positions.get(host);
+		if (position == null || activeHosts.get(position)) {
+			return;
+		}
+		activeHosts.set(position);
+		for (BitSet bucket : idleHostBuckets) {
+			bucket.clear(position);
+		}
+	}
+
+	/**
+	 * Gets the hosts that have to be evaluated to find a host for a VM: the active hosts and
+	 * the first idle host of each bucket that is not excluded.
+	 *
+	 * @param excludedHosts the hosts that are not candidates
+	 * @return the candidate hosts, in the host list order
+	 */
+	public List<PowerHost> getCandidateHosts(Set<? extends Host> excludedHosts) {
+		BitSet candidates = (BitSet) activeHosts.clone();
+		for (BitSet bucket : idleHostBuckets) {
+			for (int i = bucket.nextSetBit(0); i >= 0; i = bucket.nextSetBit(i + 1)) {
+				if (!excludedHosts.contains(hostList.get(i))) {
+					candidates.set(i);
+					break;
+				}
+			}
+		}
+
+		List<PowerHost> candidateHosts = new ArrayList<PowerHost>(candidates.cardinality());
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			PowerHost host = hostList.get(i);
+			if (!excludedHosts.contains(host)) {
+				candidateHosts.add(host);
+			}
+		}
+		return candidateHosts;
+	}
+
+	/**
+	 * The key of a bucket of idle hosts.
+	 */
+	private static final class Bucket {
+
+		private final Class<?> hostClass;
+
+		private final Class<?> vmSchedulerClass;
+
+		private final Class<?> ramProvisionerClass;
+
+		private final Class<?> bwProvisionerClass;
+
+		/** The power model, compared by identity since models do not implement equality. */
+		private final PowerModel powerModel;
+
+		private final double totalMips;
+
+		private final double peCapacity;
+
+		private final double availableMips;
+
+		private final int availableRam;
+
+		private final long availableBw;
+
+		/**
+		 * Instantiates the key of the bucket of an idle host.
+		 *
+		 * @param host the host
+		 */
+		Bucket(PowerHost host) {
+			hostClass = host.getClass();
+			vmSchedulerClass = host.getVmScheduler().getClass();
+			ramProvisionerClass = host.getRamProvisioner().getClass();
+			bwProvisionerClass = host.getBwProvisioner().getClass();
+			powerModel = host.getPowerModel();
+			totalMips = host.getTotalMips();
+			peCapacity = host.getVmScheduler().getPeCapacity();
+			availableMips = host.getVmScheduler().getAvailableMips();
+			availableRam = host.getRamProvisioner().getAvailableRam();
+			availableBw = host.getBwProvisioner().getAvailableBw();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Bucket)) {
+				return false;
+			}
+			Bucket other = (Bucket) obj;
+			return hostClass == other.hostClass && vmSchedulerClass == other.vmSchedulerClass
+					&& ramProvisionerClass == other.ramProvisionerClass
+					&& bwProvisionerClass == other.bwProvisionerClass
+					&& powerModel == other.powerModel && totalMips == other.totalMips
+					&& peCapacity == other.peCapacity && availableMips == other.availableMips
+					&& availableRam == other.availableRam && availableBw == other.availableBw;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = System.identityHashCode(powerModel);
+			result = 31 * result + hostClass.hashCode();
+			result = 31 * result + vmSchedulerClass.hashCode();
+			result = 31 * result + Double.valueOf(totalMips).hashCode();
+			result = 31 * result + Double.valueOf(availableMips).hashCode();
+			result = 31 * result + availableRam;
+			result = 31 * result + (int) (availableBw ^ (availableBw >>> 32));
+			return result;
+		}
+
+	}
+
+}
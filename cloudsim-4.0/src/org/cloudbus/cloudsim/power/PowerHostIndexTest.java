@@ -0,0 +1,102 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.power.models.PowerModel;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class PowerHostIndexTest {
+
+	private static final PowerModel SMALL_MODEL = new PowerModelLinear(100, 0.5);
+
+	private static final PowerModel LARGE_MODEL = new PowerModelLinear(200, 0.5);
+
+	private List<PowerHost> hostList;
+
+	@Before
+	public void setUp() throws Exception {
+		hostList = new ArrayList<PowerHost>();
+		hostList.add(createHost(0, 1000, SMALL_MODEL));
+		hostList.add(createHost(1, 2000, LARGE_MODEL));
+		hostList.add(createHost(2, 1000, SMALL_MODEL));
+		hostList.add(createHost(3, 2000, LARGE_MODEL));
+		hostList.add(createHost(4, 1000, SMALL_MODEL));
+		hostList.add(createHost(5, 1000, LARGE_MODEL));
+	}
+
+	@Test
+	public void testIdleHostsOfTheSameKind() {
+		PowerHostIndex index = new PowerHostIndex(hostList);
+		assertEquals(
+				Arrays.asList(hostList.get(0), hostList.get(1), hostList.get(5)),
+				index.getCandidateHosts(Collections.<Host> emptySet()));
+		assertEquals(
+				Arrays.asList(hostList.get(1), hostList.get(2), hostList.get(5)),
+				index.getCandidateHosts(new HashSet<Host>(Arrays.asList(hostList.get(0)))));
+	}
+
+	@Test
+	public void testActiveHosts() {
+		assertTrue(hostList.get(2).vmCreate(createVm(0)));
+		PowerHostIndex index = new PowerHostIndex(hostList);
+		assertEquals(
+				Arrays.asList(hostList.get(0), hostList.get(1), hostList.get(2), hostList.get(5)),
+				index.getCandidateHosts(Collections.<Host> emptySet()));
+
+		assertTrue(hostList.get(0).vmCreate(createVm(1)));
+		index.setActive(hostList.get(0));
+		assertEquals(
+				Arrays.asList(hostList.get(0), hostList.get(1), hostList.get(2), hostList.get(4),
+						hostList.get(5)),
+				index.getCandidateHosts(Collections.<Host> emptySet()));
+		assertEquals(
+				Arrays.asList(hostList.get(1), hostList.get(4), hostList.get(5)),
+				index.getCandidateHosts(new HashSet<Host>(Arrays.asList(hostList.get(0),
+						hostList.get(2)))));
+	}
+
+	private PowerHost createHost(int id, double mips, PowerModel powerModel) {
+		List<Pe> peList = new ArrayList<Pe>();
+		peList.add(new Pe(0, new PeProvisionerSimple(mips)));
+		return new PowerHost(
+				id,
+				new RamProvisionerSimple(1024),
+				new BwProvisionerSimple(1000),
+				1000,
+				peList,
+				new VmSchedulerTimeShared(peList),
+				powerModel);
+	}
+
+	private PowerVm createVm(int id) {
+		return new PowerVm(id, 0, 500, 1, 512, 100, 0, 0, "", new CloudletSchedulerTimeShared(), 300);
+	}
+
+}
@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim.power;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.cloudbus.cloudsim.Pe;
@@ -15,6 +16,7 @@ import org.cloudbus.cloudsim.VmScheduler;
 import org.cloudbus.cloudsim.power.models.PowerModel;
 import org.cloudbus.cloudsim.provisioners.BwProvisioner;
 import org.cloudbus.cloudsim.provisioners.RamProvisioner;
+import org.cloudbus.cloudsim.util.DoubleRingBuffer;
 import org.cloudbus.cloudsim.util.MathUtil;
 
 /**
@@ -36,6 +38,24 @@ import org.cloudbus.cloudsim.util.MathUtil;
  */
 public class PowerHostUtilizationHistory extends PowerHost {
 
+	/** The VMs the CPU utilization percentage history was last computed from, in order. */
+	private PowerVm[] utilizationHistoryVms = new PowerVm[0];
+
+	/** The number of values added to the history of each of those VMs at that time. */
+	private long[] utilizationHistoryVersions = new long[0];
+
+	/**
+	 * The weighted sums of the histories of the first k of those VMs, for k from 0 to the number
+	 * of VMs.
+	 */
+	private double[][] utilizationHistorySums = { new double[PowerVm.HISTORY_LENGTH] };
+
+	/** The number of VMs the CPU utilization percentage history was last computed from. */
+	private int utilizationHistoryVmCount;
+
+	/** The total MIPS of the host at that time. */
+	private double utilizationHistoryMips;
+
 	/**
 	 * Instantiates a new PowerHostUtilizationHistory.
 	 * 
@@ -59,19 +79,77 @@ public class PowerHostUtilizationHistory extends PowerHost {
 	}
 
 	/**
-	 * Gets the host CPU utilization percentage history.
+	 * Gets the host CPU utilization percentage history. It is the sum of the histories of the VMs
+	 * weighted by their share of the host MIPS, added up in the order of the VM list.
+	 * <p>
+	 * The partial sums over the first VMs of the list are kept from one call to the next, and
+	 * only the VMs after the first one that has changed are added up again. So checking the host
+	 * with a VM appended to its list, as the migration policies do when they look for a host for
+	 * that VM, only adds the history of that VM, and the result is the same as if all the
+	 * histories were added up again.
 	 * 
 	 * @return the host CPU utilization percentage history
 	 */
 	protected double[] getUtilizationHistory() {
-		double[] utilizationHistory = new double[PowerVm.HISTORY_LENGTH];
+		List<PowerVm> vmList = getVmList();
+		int size = vmList.size();
 		double hostMips = getTotalMips();
-		for (PowerVm vm : this.<PowerVm> getVmList()) {
-			for (int i = 0; i < vm.getUtilizationHistory().size(); i++) {
-				utilizationHistory[i] += vm.getUtilizationHistory().get(i) * vm.getMips() / hostMips;
+
+		int unchanged = 0;
+		if (hostMips == utilizationHistoryMips) {
+			int count = Math.min(size, utilizationHistoryVmCount);
+			while (unchanged < count && isUtilizationHistoryUnchanged(unchanged, vmList.get(unchanged))) {
+				unchanged++;
 			}
 		}
-		return MathUtil.trimZeroTail(utilizationHistory);
+		ensureUtilizationHistoryCapacity(size);
+		for (int j = unchanged; j < size; j++) {
+			PowerVm vm = vmList.get(j);
+			DoubleRingBuffer vmHistory = vm.getUtilizationHistoryBuffer();
+			double[] history = utilizationHistorySums[j + 1];
+			System.arraycopy(utilizationHistorySums[j], 0, history, 0, history.length);
+			for (int i = 0; i < vmHistory.size(); i++) {
+				history[i] += vmHistory.get(i) * vm.getMips() / hostMips;
+			}
+			utilizationHistoryVms[j] = vm;
+			utilizationHistoryVersions[j] = vmHistory.getAddedCount();
+		}
+		utilizationHistoryVmCount = size;
+		utilizationHistoryMips = hostMips;
+		return MathUtil.trimZeroTail(utilizationHistorySums[size]);
+	}
+
+	/**
+	 * Checks if the VM at a position of the VM list is the one the CPU utilization percentage
+	 * history was last computed from, with the same history.
+	 * 
+	 * @param index the position in the VM list
+	 * @param vm the VM at that position
+	 * @return true, if the partial sums up to that VM can be reused
+	 */
+	private boolean isUtilizationHistoryUnchanged(int index, PowerVm vm) {
+		return vm == utilizationHistoryVms[index]
+				&& vm.getUtilizationHistoryBuffer().getAddedCount() == utilizationHistoryVersions[index];
+	}
+
+	/**
+	 * Makes room for the partial sums of the CPU utilization percentage history of a number of
+	 * VMs, keeping the ones already computed.
+	 * 
+	 * @param size the number of VMs
+	 */
+	private void ensureUtilizationHistoryCapacity(int size) {
+		if (utilizationHistoryVms.length >= size) {
+			return;
+		}
+		int capacity = Math.max(size, 2 * utilizationHistoryVms.length);
+		utilizationHistoryVms = Arrays.copyOf(utilizationHistoryVms, capacity);
+		utilizationHistoryVersions = Arrays.copyOf(utilizationHistoryVersions, capacity);
+		int previous = utilizationHistorySums.length;
+		utilizationHistorySums = Arrays.copyOf(utilizationHistorySums, capacity + 1);
+		for (int k = previous; k <= capacity; k++) {
+			utilizationHistorySums[k] = new double[PowerVm.HISTORY_LENGTH];
+		}
 	}
 
 }
@@ -0,0 +1,91 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.util.MathUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class PowerHostUtilizationHistoryTest {
+
+	private static final double MIPS = 1000;
+
+	private PowerHostUtilizationHistory host;
+
+	private List<PowerVm> vmList;
+
+	private Random random;
+
+	@Before
+	public void setUp() throws Exception {
+		List<Pe> peList = new ArrayList<Pe>();
+		peList.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+		peList.add(new Pe(1, new PeProvisionerSimple(MIPS)));
+		host = new PowerHostUtilizationHistory(0, null, null, 0, peList, null, new PowerModelLinear(200, 0.3));
+		vmList = host.getVmList();
+		random = new Random(0);
+	}
+
+	@Test
+	public void testSameHistoryAsFullSum() {
+		checkHistory();
+		for (int i = 0; i < 4; i++) {
+			vmList.add(createVm(i, 1 + random.nextInt(PowerVm.HISTORY_LENGTH + 5)));
+			checkHistory();
+		}
+
+		// placement checks append a VM to the list and remove it afterwards
+		for (int i = 4; i < 8; i++) {
+			vmList.add(createVm(i, 1 + random.nextInt(PowerVm.HISTORY_LENGTH + 5)));
+			checkHistory();
+			vmList.remove(vmList.size() - 1);
+			checkHistory();
+		}
+
+		vmList.get(1).addUtilizationHistoryValue(random.nextDouble());
+		checkHistory();
+		vmList.remove(0);
+		checkHistory();
+		vmList.clear();
+		checkHistory();
+	}
+
+	private void checkHistory() {
+		double[] expected = new double[PowerVm.HISTORY_LENGTH];
+		double hostMips = host.getTotalMips();
+		for (PowerVm vm : vmList) {
+			List<Double> history = vm.getUtilizationHistory();
+			for (int i = 0; i < history.size(); i++) {
+				expected[i] += history.get(i) * vm.getMips() / hostMips;
+			}
+		}
+		assertArrayEquals(MathUtil.trimZeroTail(expected), host.getUtilizationHistory(), 0);
+	}
+
+	private PowerVm createVm(int id, int historySize) {
+		PowerVm vm = new PowerVm(id, 0, 100 + random.nextInt(900), 1, 0, 0, 0, 0, "", null, 300);
+		for (int i = 0; i < historySize; i++) {
+			vm.addUtilizationHistoryValue(random.nextDouble());
+		}
+		return vm;
+	}
+
+}
@@ -9,18 +9,25 @@
 package org.cloudbus.cloudsim.power;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.HostDynamicWorkload;
 import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.MigrationPlan;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
 import org.cloudbus.cloudsim.power.lists.PowerVmList;
 import org.cloudbus.cloudsim.util.ExecutionTimeMeasurer;
 
@@ -46,12 +53,29 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	/** The vm selection policy. */
 	private PowerVmSelectionPolicy vmSelectionPolicy;
 
-	/** A list of maps between a VM and the host where it is place.
-         * @todo This list of map is implemented in the worst way.
-         * It should be used just a Map<Vm, Host> to find out 
-         * what PM is hosting a given VM.
-         */
-	private final List<Map<String, Object>> savedAllocation = new ArrayList<Map<String, Object>>();
+	/** The hosts when the allocation was saved, in the order of the host list. */
+	private Host[] savedHosts = new Host[0];
+
+	/** The VM list of each of those hosts when the allocation was saved. */
+	private Vm[][] savedVmLists = new Vm[0][];
+
+	/**
+	 * The hosts whose VMs have been created or destroyed since the allocation was saved, which
+	 * are the only ones {@link #restoreAllocation()} has to allocate again.
+	 */
+	private final Set<Host> modifiedHosts = new HashSet<Host>();
+
+	/**
+	 * The index of the hosts used by {@link #findHostForVm(Vm, Set)} while planning the
+	 * migrations, between {@link #saveAllocation()} and {@link #restoreAllocation()}.
+	 */
+	private PowerHostIndex hostIndex;
+
+	/**
+	 * The pool used to evaluate the hosts in parallel when looking for the over-utilized hosts
+	 * and the VMs to migrate from them, or null to evaluate them sequentially.
+	 */
+	private ForkJoinPool evaluationPool;
 
 	/** A map of CPU utilization history (in percentage) for each host,
          where each key is a host id and each value is the CPU utilization percentage history.*/
@@ -113,9 +137,22 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 * @param vmList the vm list
 	 * 
 	 * @return the array list< hash map< string, object>>
+	 * @see #optimizeAllocationPlan(List)
 	 */
 	@Override
 	public List<Map<String, Object>> optimizeAllocation(List<? extends Vm> vmList) {
+		return optimizeAllocationPlan(vmList).toMapList();
+	}
+
+	/**
+	 * Optimize allocation of the VMs according to current utilization.
+	 * 
+	 * @param vmList the vm list
+	 * 
+	 * @return the migration plan
+	 */
+	@Override
+	public MigrationPlan optimizeAllocationPlan(List<? extends Vm> vmList) {
 		ExecutionTimeMeasurer.start("optimizeAllocationTotal");
 
 		ExecutionTimeMeasurer.start("optimizeAllocationHostSelection");
@@ -133,19 +170,34 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 
 		Log.printLine("Reallocation of VMs from the over-utilized hosts:");
 		ExecutionTimeMeasurer.start("optimizeAllocationVmReallocation");
-		List<Map<String, Object>> migrationMap = getNewVmPlacement(vmsToMigrate, new HashSet<Host>(
+		MigrationPlan migrationPlan = getNewVmPlacementPlan(vmsToMigrate, new HashSet<Host>(
 				overUtilizedHosts));
 		getExecutionTimeHistoryVmReallocation().add(
 				ExecutionTimeMeasurer.end("optimizeAllocationVmReallocation"));
 		Log.printLine();
 
-		migrationMap.addAll(getMigrationMapFromUnderUtilizedHosts(overUtilizedHosts));
+		migrationPlan.addAll(getMigrationPlanFromUnderUtilizedHosts(overUtilizedHosts));
 
 		restoreAllocation();
+		// the VMs to migrate from the over-utilized hosts were removed from them while planning
+		migrationPlan.updateSourceHosts();
 
 		getExecutionTimeHistoryTotal().add(ExecutionTimeMeasurer.end("optimizeAllocationTotal"));
 
-		return migrationMap;
+		return migrationPlan;
+	}
+
+	/**
+	 * Gets the migration plan from under utilized hosts. By default it converts the result of
+	 * {@link #getMigrationMapFromUnderUtilizedHosts(List)}.
+	 * 
+	 * @param overUtilizedHosts the over utilized hosts
+	 * @return the migration plan from under utilized hosts
+	 */
+	@SuppressWarnings("deprecation")
+	protected MigrationPlan getMigrationPlanFromUnderUtilizedHosts(
+			List<PowerHostUtilizationHistory> overUtilizedHosts) {
+		return MigrationPlan.fromMapList(getMigrationMapFromUnderUtilizedHosts(overUtilizedHosts));
 	}
 
 	/**
@@ -153,17 +205,20 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 * 
 	 * @param overUtilizedHosts the over utilized hosts
 	 * @return the migration map from under utilized hosts
+	 * @deprecated Override {@link #getMigrationPlanFromUnderUtilizedHosts(List)} instead, whose
+	 *             default implementation calls this method.
 	 */
+	@Deprecated
 	protected List<Map<String, Object>> getMigrationMapFromUnderUtilizedHosts(
 			List<PowerHostUtilizationHistory> overUtilizedHosts) {
-		List<Map<String, Object>> migrationMap = new LinkedList<Map<String, Object>>();
+		MigrationPlan migrationPlan = new MigrationPlan();
 		List<PowerHost> switchedOffHosts = getSwitchedOffHosts();
 
 		// over-utilized hosts + hosts that are selected to migrate VMs to from over-utilized hosts
 		Set<PowerHost> excludedHostsForFindingUnderUtilizedHost = new HashSet<PowerHost>();
 		excludedHostsForFindingUnderUtilizedHost.addAll(overUtilizedHosts);
 		excludedHostsForFindingUnderUtilizedHost.addAll(switchedOffHosts);
-		excludedHostsForFindingUnderUtilizedHost.addAll(extractHostListFromMigrationMap(migrationMap));
+		excludedHostsForFindingUnderUtilizedHost.addAll(extractHostListFromMigrationPlan(migrationPlan));
 
 		// over-utilized + under-utilized hosts
 		Set<PowerHost> excludedHostsForFindingNewVmPlacement = new HashSet<PowerHost>();
@@ -200,17 +255,17 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 			}
 			Log.printLine();
 
-			List<Map<String, Object>> newVmPlacement = getNewVmPlacementFromUnderUtilizedHost(
+			MigrationPlan newVmPlacement = getNewVmPlacementPlanFromUnderUtilizedHost(
 					vmsToMigrateFromUnderUtilizedHost,
 					excludedHostsForFindingNewVmPlacement);
 
-			excludedHostsForFindingUnderUtilizedHost.addAll(extractHostListFromMigrationMap(newVmPlacement));
+			excludedHostsForFindingUnderUtilizedHost.addAll(extractHostListFromMigrationPlan(newVmPlacement));
 
-			migrationMap.addAll(newVmPlacement);
+			migrationPlan.addAll(newVmPlacement);
 			Log.printLine();
 		}
 
-		return migrationMap;
+		return migrationPlan.toMapList();
 	}
 
 	/**
@@ -246,7 +301,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 //		allocatedHost= findHostForVmRankBased(vm, excludedHosts);			//call made to my function
 //		allocatedHost=null;
 		
-		for (PowerHost host : this.<PowerHost> getHostList()) {
+		for (PowerHost host : getCandidateHosts(excludedHosts)) {
 			if (excludedHosts.contains(host)) {
 				continue;
 			}
@@ -271,6 +326,22 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		return allocatedHost;
 	}
 	
+	/**
+	 * Gets the hosts to evaluate to find a host for a VM. While planning the migrations, only
+	 * the first idle host of each kind is returned along with the active hosts, as the other
+	 * idle hosts of the same kind cannot be a better choice.
+	 * 
+	 * @param excludedHosts the excluded hosts
+	 * @return the hosts to evaluate, in the host list order
+	 * @see PowerHostIndex
+	 */
+	protected List<PowerHost> getCandidateHosts(Set<? extends Host> excludedHosts) {
+		if (hostIndex == null) {
+			return this.<PowerHost> getHostList();
+		}
+		return hostIndex.getCandidateHosts(excludedHosts);
+	}
+	
 	//Here i have used greedy algorithm which assigns VM to the first capable host found
 	public PowerHost findHostForVmGreedy(Vm vm, Set<? extends Host> excludedHosts) {
 		PowerHost allocatedHost = null;
@@ -345,6 +416,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 */
 	protected boolean isHostOverUtilizedAfterAllocation(PowerHost host, Vm vm) {
 		boolean isHostOverUtilizedAfterAllocation = true;
+		// the VM is destroyed right away, so the host does not have to be restored
 		if (host.vmCreate(vm)) {
 			isHostOverUtilizedAfterAllocation = isHostOverUtilized(host);
 			host.vmDestroy(vm);
@@ -361,79 +433,128 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		return findHostForVm(vm, excludedHosts);
 	}
 
+	/**
+	 * Extracts the host list from a migration plan. By default it calls
+	 * {@link #extractHostListFromMigrationMap(List)}.
+	 * 
+	 * @param migrationPlan the migration plan
+	 * @return the list
+	 */
+	@SuppressWarnings("deprecation")
+	protected List<PowerHost> extractHostListFromMigrationPlan(MigrationPlan migrationPlan) {
+		return extractHostListFromMigrationMap(migrationPlan.toMapList());
+	}
+
 	/**
 	 * Extracts the host list from a migration map.
 	 * 
 	 * @param migrationMap the migration map
 	 * @return the list
+	 * @deprecated Override {@link #extractHostListFromMigrationPlan(MigrationPlan)} instead, whose
+	 *             default implementation calls this method.
 	 */
+	@Deprecated
 	protected List<PowerHost> extractHostListFromMigrationMap(List<Map<String, Object>> migrationMap) {
-		List<PowerHost> hosts = new LinkedList<PowerHost>();
-		for (Map<String, Object> map : migrationMap) {
-			hosts.add((PowerHost) map.get("host"));
+		List<PowerHost> hosts = new ArrayList<PowerHost>(migrationMap.size());
+		for (Map<String, Object> migrate : migrationMap) {
+			hosts.add((PowerHost) migrate.get("host"));
 		}
 		return hosts;
 	}
 
 	/**
-	 * Gets a new vm placement considering the list of VM to migrate.
+	 * Gets a new vm placement considering the list of VM to migrate. By default it converts the
+	 * result of {@link #getNewVmPlacement(List, Set)}.
+	 * 
+	 * @param vmsToMigrate the list of VMs to migrate
+	 * @param excludedHosts the list of hosts that aren't selected as destination hosts
+	 * @return the new vm placement plan
+	 */
+	@SuppressWarnings("deprecation")
+	protected MigrationPlan getNewVmPlacementPlan(
+			List<? extends Vm> vmsToMigrate,
+			Set<? extends Host> excludedHosts) {
+		return MigrationPlan.fromMapList(getNewVmPlacement(vmsToMigrate, excludedHosts));
+	}
+
+	/**
+	 * Gets a new vm placement map considering the list of VM to migrate.
 	 * 
 	 * @param vmsToMigrate the list of VMs to migrate
 	 * @param excludedHosts the list of hosts that aren't selected as destination hosts
 	 * @return the new vm placement map
+	 * @deprecated Override {@link #getNewVmPlacementPlan(List, Set)} instead, whose default
+	 *             implementation calls this method.
 	 */
+	@Deprecated
 	protected List<Map<String, Object>> getNewVmPlacement(
 			List<? extends Vm> vmsToMigrate,
 			Set<? extends Host> excludedHosts) {
-		List<Map<String, Object>> migrationMap = new LinkedList<Map<String, Object>>();
+		MigrationPlan migrationPlan = new MigrationPlan(vmsToMigrate.size());
 		PowerVmList.sortByCpuUtilization(vmsToMigrate);
 		for (Vm vm : vmsToMigrate) {
 			PowerHost allocatedHost = findHostForVm(vm, excludedHosts);
 			if (allocatedHost != null) {
-				allocatedHost.vmCreate(vm);
+				Host sourceHost = vm.getHost();
+				createVmTentatively(allocatedHost, vm);
 				Log.printConcatLine("VM #", vm.getId(), " allocated to host #", allocatedHost.getId());
 
-				Map<String, Object> migrate = new HashMap<String, Object>();
-				migrate.put("vm", vm);
-				migrate.put("host", allocatedHost);
-				migrationMap.add(migrate);
+				migrationPlan.add(vm, sourceHost, allocatedHost);
 			}
 		}
-		return migrationMap;
+		return migrationPlan.toMapList();
 	}
 
 	/**
-	 * Gets the new vm placement from under utilized host.
+	 * Gets the new vm placement from under utilized host. By default it converts the result of
+	 * {@link #getNewVmPlacementFromUnderUtilizedHost(List, Set)}.
 	 * 
 	 * @param vmsToMigrate the list of VMs to migrate
 	 * @param excludedHosts the list of hosts that aren't selected as destination hosts
-	 * @return the new vm placement from under utilized host
+	 * @return the new vm placement plan from under utilized host
 	 */
+	@SuppressWarnings("deprecation")
+	protected MigrationPlan getNewVmPlacementPlanFromUnderUtilizedHost(
+			List<? extends Vm> vmsToMigrate,
+			Set<? extends Host> excludedHosts) {
+		return MigrationPlan.fromMapList(getNewVmPlacementFromUnderUtilizedHost(
+				vmsToMigrate,
+				excludedHosts));
+	}
+
+	/**
+	 * Gets the new vm placement map from under utilized host.
+	 * 
+	 * @param vmsToMigrate the list of VMs to migrate
+	 * @param excludedHosts the list of hosts that aren't selected as destination hosts
+	 * @return the new vm placement map from under utilized host
+	 * @deprecated Override {@link #getNewVmPlacementPlanFromUnderUtilizedHost(List, Set)}
+	 *             instead, whose default implementation calls this method.
+	 */
+	@Deprecated
 	protected List<Map<String, Object>> getNewVmPlacementFromUnderUtilizedHost(
 			List<? extends Vm> vmsToMigrate,
 			Set<? extends Host> excludedHosts) {
-		List<Map<String, Object>> migrationMap = new LinkedList<Map<String, Object>>();
+		MigrationPlan migrationPlan = new MigrationPlan(vmsToMigrate.size());
 		PowerVmList.sortByCpuUtilization(vmsToMigrate);
 		for (Vm vm : vmsToMigrate) {
 			PowerHost allocatedHost = findHostForVm(vm, excludedHosts);
 			if (allocatedHost != null) {
-				allocatedHost.vmCreate(vm);
+				Host sourceHost = vm.getHost();
+				createVmTentatively(allocatedHost, vm);
 				Log.printConcatLine("VM #", vm.getId(), " allocated to host #", allocatedHost.getId());
 
-				Map<String, Object> migrate = new HashMap<String, Object>();
-				migrate.put("vm", vm);
-				migrate.put("host", allocatedHost);
-				migrationMap.add(migrate);
+				migrationPlan.add(vm, sourceHost, allocatedHost);
 			} else {
 				Log.printLine("Not all VMs can be reallocated from the host, reallocation cancelled");
-				for (Map<String, Object> map : migrationMap) {
-					((Host) map.get("host")).vmDestroy((Vm) map.get("vm"));
+				for (int i = 0; i < migrationPlan.size(); i++) {
+					destroyVmTentatively(migrationPlan.getTargetHost(i), migrationPlan.getVm(i));
 				}
-				migrationMap.clear();
+				migrationPlan.clear();
 				break;
 			}
 		}
-		return migrationMap;
+		return migrationPlan.toMapList();
 	}
 
 	/**
@@ -445,17 +566,47 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	protected List<? extends Vm>
 	  getVmsToMigrateFromHosts(List<PowerHostUtilizationHistory> overUtilizedHosts) {
 		List<Vm> vmsToMigrate = new LinkedList<Vm>();
-		for (PowerHostUtilizationHistory host : overUtilizedHosts) {
-			while (true) {
-				Vm vm = getVmSelectionPolicy().getVmToMigrate(host);
-				if (vm == null) {
-					break;
-				}
-				vmsToMigrate.add(vm);
-				host.vmDestroy(vm);
-				if (!isHostOverUtilized(host)) {
-					break;
-				}
+		if (getEvaluationPool() == null) {
+			for (PowerHostUtilizationHistory host : overUtilizedHosts) {
+				vmsToMigrate.addAll(getVmsToMigrateFromHost(host));
+			}
+			return vmsToMigrate;
+		}
+
+		List<List<Vm>> vmsToMigrateFromHosts = evaluateHosts(
+				overUtilizedHosts,
+				new HostEvaluation<PowerHostUtilizationHistory, List<Vm>>() {
+
+					@Override
+					public List<Vm> evaluate(PowerHostUtilizationHistory host) {
+						return getVmsToMigrateFromHost(host);
+					}
+
+				});
+		for (List<Vm> vmsToMigrateFromHost : vmsToMigrateFromHosts) {
+			vmsToMigrate.addAll(vmsToMigrateFromHost);
+		}
+		return vmsToMigrate;
+	}
+
+	/**
+	 * Gets the VMs to migrate from an over-utilized host, removing them from the host until it
+	 * is not over-utilized anymore.
+	 * 
+	 * @param host the over-utilized host
+	 * @return the VMs to migrate from the host
+	 */
+	protected List<Vm> getVmsToMigrateFromHost(PowerHostUtilizationHistory host) {
+		List<Vm> vmsToMigrate = new ArrayList<Vm>();
+		while (true) {
+			Vm vm = getVmSelectionPolicy().getVmToMigrate(host);
+			if (vm == null) {
+				break;
+			}
+			vmsToMigrate.add(vm);
+			destroyVmTentatively(host, vm);
+			if (!isHostOverUtilized(host)) {
+				break;
 			}
 		}
 		return vmsToMigrate;
@@ -483,15 +634,111 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 * @return the over utilized hosts
 	 */
 	protected List<PowerHostUtilizationHistory> getOverUtilizedHosts() {
+		List<PowerHostUtilizationHistory> hostList = this.<PowerHostUtilizationHistory> getHostList();
 		List<PowerHostUtilizationHistory> overUtilizedHosts = new LinkedList<PowerHostUtilizationHistory>();
-		for (PowerHostUtilizationHistory host : this.<PowerHostUtilizationHistory> getHostList()) {
-			if (isHostOverUtilized(host)) {
-				overUtilizedHosts.add(host);
+		if (getEvaluationPool() == null) {
+			for (PowerHostUtilizationHistory host : hostList) {
+				if (isHostOverUtilized(host)) {
+					overUtilizedHosts.add(host);
+				}
+			}
+			return overUtilizedHosts;
+		}
+
+		List<Boolean> overUtilized = evaluateHosts(
+				hostList,
+				new HostEvaluation<PowerHostUtilizationHistory, Boolean>() {
+
+					@Override
+					public Boolean evaluate(PowerHostUtilizationHistory host) {
+						return isHostOverUtilized(host);
+					}
+
+				});
+		for (int i = 0; i < hostList.size(); i++) {
+			if (overUtilized.get(i)) {
+				overUtilizedHosts.add(hostList.get(i));
 			}
 		}
 		return overUtilizedHosts;
 	}
 
+	/**
+	 * Evaluates each host of a list in the {@link #getEvaluationPool() evaluation pool}. The
+	 * calling thread waits for all the evaluations, which run with its simulation context bound.
+	 * 
+	 * @param hosts the hosts
+	 * @param evaluation the evaluation, which must only read or modify the host it is given
+	 * @return the result of each host, in the order of the hosts
+	 */
+	private <H extends Host, R> List<R> evaluateHosts(
+			final List<H> hosts,
+			final HostEvaluation<H, R> evaluation) {
+		final Object[] results = new Object[hosts.size()];
+		final SimulationContext context = SimulationContext.getCurrent();
+		int chunkCount = Math.min(hosts.size(), getEvaluationPool().getParallelism() * 4);
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(chunkCount);
+		for (int chunk = 0; chunk < chunkCount; chunk++) {
+			final int from = (int) ((long) hosts.size() * chunk / chunkCount);
+			final int to = (int) ((long) hosts.size() * (chunk + 1) / chunkCount);
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					SimulationContext previous = SimulationContext.bind(context);
+					try {
+						for (int i = from; i < to; i++) {
+							results[i] = evaluation.evaluate(hosts.get(i));
+						}
+					} finally {
+						SimulationContext.bind(previous);
+					}
+					return null;
+				}
+
+			});
+		}
+
+		try {
+			for (Future<Void> future : getEvaluationPool().invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while evaluating the hosts", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+
+		@SuppressWarnings("unchecked")
+		List<R> resultList = (List<R>) Arrays.asList(results);
+		return resultList;
+	}
+
+	/**
+	 * An evaluation of a host run by {@link #evaluateHosts(List, HostEvaluation)}.
+	 * 
+	 * @param <H> the type of the hosts
+	 * @param <R> the type of the result
+	 */
+	private interface HostEvaluation<H extends Host, R> {
+
+		/**
+		 * Evaluates a host.
+		 * 
+		 * @param host the host
+		 * @return the result
+		 */
+		R evaluate(H host);
+
+	}
+
 	/**
 	 * Gets the switched off hosts.
 	 * 
@@ -557,12 +804,13 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	protected abstract boolean isHostOverUtilized(PowerHost host);
 
 	/**
-	 * Adds an entry for each history map of a host.
+	 * Adds an entry for each history map of a host. It is synchronized as the hosts may be
+	 * evaluated in parallel.
 	 * 
 	 * @param host the host to add metric history entries
 	 * @param metric the metric to be added to the metric history map
 	 */
-	protected void addHistoryEntry(HostDynamicWorkload host, double metric) {
+	protected synchronized void addHistoryEntry(HostDynamicWorkload host, double metric) {
 		int hostId = host.getId();
 		if (!getTimeHistory().containsKey(hostId)) {
 			getTimeHistory().put(hostId, new LinkedList<Double>());
@@ -581,44 +829,125 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	}
 
 	/**
-	 * Updates the list of maps between a VM and the host where it is place.
-         * @see #savedAllocation
+	 * Saves the VM list of each host, so that the VMs created or destroyed while planning the
+	 * migrations can be put back with {@link #restoreAllocation()}.
 	 */
 	protected void saveAllocation() {
-		getSavedAllocation().clear();
-		for (Host host : getHostList()) {
-			for (Vm vm : host.getVmList()) {
+		List<Host> hostList = getHostList();
+		savedHosts = hostList.toArray(new Host[hostList.size()]);
+		savedVmLists = new Vm[savedHosts.length][];
+		for (int i = 0; i < savedHosts.length; i++) {
+			List<Vm> vmList = savedHosts[i].getVmList();
+			savedVmLists[i] = vmList.toArray(new Vm[vmList.size()]);
+		}
+		modifiedHosts.clear();
+		hostIndex = new PowerHostIndex(this.<PowerHost> getHostList());
+	}
+
+	/**
+	 * Restores the VM allocation saved by {@link #saveAllocation()}. Only the hosts where VMs
+	 * have been created or destroyed with {@link #createVmTentatively(Host, Vm)} and
+	 * {@link #destroyVmTentatively(Host, Vm)}, and the hosts with VMs migrating in, whose VM
+	 * list is reordered when they are restored, or with VMs whose RAM or bandwidth requests
+	 * changed have their VMs destroyed and created again. The
+	 * VMs of the other hosts only get their host set back, as checking another host for one of
+	 * them with {@link #isHostOverUtilizedAfterAllocation(PowerHost, Vm)} leaves it without host.
+	 * 
+	 * @throws IllegalStateException if a VM can't be created again on its host
+	 */
+	protected void restoreAllocation() {
+		boolean[] restoreNeeded = new boolean[savedHosts.length];
+		for (int i = 0; i < savedHosts.length; i++) {
+			Host host = savedHosts[i];
+			restoreNeeded[i] = isRestoreNeeded(host, savedVmLists[i]);
+			if (restoreNeeded[i]) {
+				host.vmDestroyAll();
+				host.reallocateMigratingInVms();
+			}
+		}
+		for (int i = 0; i < savedHosts.length; i++) {
+			Host host = savedHosts[i];
+			for (Vm vm : savedVmLists[i]) {
 				if (host.getVmsMigratingIn().contains(vm)) {
 					continue;
 				}
-				Map<String, Object> map = new HashMap<String, Object>();
-				map.put("host", host);
-				map.put("vm", vm);
-				getSavedAllocation().add(map);
+				if (!restoreNeeded[i]) {
+					vm.setHost(host);
+				} else if (!host.vmCreate(vm)) {
+					throw new IllegalStateException("Couldn't restore VM #" + vm.getId() + " on host #"
+							+ host.getId());
+				}
+				getVmTable().put(vm.getUid(), host);
 			}
 		}
+		modifiedHosts.clear();
+		hostIndex = null;
 	}
 
 	/**
-	 * Restore VM allocation from the allocation history.
-         * @see #savedAllocation
+	 * Checks if a host has to be allocated again to restore the saved allocation.
+	 * 
+	 * @param host the host
+	 * @param vms the VMs saved on the host
+	 * @return true, if the host has been modified since the allocation was saved, has VMs
+	 *         migrating in or has VMs whose allocated RAM or bandwidth differs from the one they
+	 *         currently request
 	 */
-	protected void restoreAllocation() {
-		for (Host host : getHostList()) {
-			host.vmDestroyAll();
-			host.reallocateMigratingInVms();
-		}
-		for (Map<String, Object> map : getSavedAllocation()) {
-			Vm vm = (Vm) map.get("vm");
-			PowerHost host = (PowerHost) map.get("host");
-			if (!host.vmCreate(vm)) {
-				Log.printConcatLine("Couldn't restore VM #", vm.getId(), " on host #", host.getId());
-				System.exit(0);
+	private boolean isRestoreNeeded(Host host, Vm[] vms) {
+		if (modifiedHosts.contains(host) || !host.getVmsMigratingIn().isEmpty()) {
+			return true;
+		}
+		for (Vm vm : vms) {
+			// the RAM provisioner allocates at most the RAM of the VM
+			int requestedRam = Math.min(vm.getCurrentRequestedRam(), vm.getRam());
+			if (host.getRamProvisioner().getAllocatedRamForVm(vm) != requestedRam
+					|| host.getBwProvisioner().getAllocatedBwForVm(vm) != vm.getCurrentRequestedBw()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Marks a host as modified while planning the migrations. It may be called from the threads
+	 * of the {@link #getEvaluationPool() evaluation pool}.
+	 * 
+	 * @param host the host
+	 */
+	private void markModified(Host host) {
+		synchronized (modifiedHosts) {
+			modifiedHosts.add(host);
+			if (hostIndex != null) {
+				hostIndex.setActive(host);
 			}
-			getVmTable().put(vm.getUid(), host);
 		}
 	}
 
+	/**
+	 * Creates a VM on a host while planning the migrations. The host is restored by
+	 * {@link #restoreAllocation()}.
+	 * 
+	 * @param host the host
+	 * @param vm the VM
+	 * @return true, if the VM has been created
+	 */
+	protected boolean createVmTentatively(Host host, Vm vm) {
+		markModified(host);
+		return host.vmCreate(vm);
+	}
+
+	/**
+	 * Destroys a VM on a host while planning the migrations. The host is restored by
+	 * {@link #restoreAllocation()}.
+	 * 
+	 * @param host the host
+	 * @param vm the VM
+	 */
+	protected void destroyVmTentatively(Host host, Vm vm) {
+		markModified(host);
+		host.vmDestroy(vm);
+	}
+
 	/**
 	 * Gets the power consumption of a host after placement of a candidate VM.
          * The VM is not in fact placed at the host.
@@ -678,14 +1007,55 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	}
 
 	/**
-	 * Gets the saved allocation.
+	 * Gets the saved allocation, as a list of maps between a VM and the host where it is placed.
+	 * The list is built on each call.
 	 * 
 	 * @return the saved allocation
 	 */
 	protected List<Map<String, Object>> getSavedAllocation() {
+		List<Map<String, Object>> savedAllocation = new ArrayList<Map<String, Object>>();
+		for (int i = 0; i < savedHosts.length; i++) {
+			for (Vm vm : savedVmLists[i]) {
+				if (savedHosts[i].getVmsMigratingIn().contains(vm)) {
+					continue;
+				}
+				Map<String, Object> map = new HashMap<String, Object>();
+				map.put("host", savedHosts[i]);
+				map.put("vm", vm);
+				savedAllocation.add(map);
+			}
+		}
 		return savedAllocation;
 	}
 
+	/**
+	 * Sets the pool used to evaluate the hosts in parallel when looking for the over-utilized
+	 * hosts and the VMs to migrate from them. The hosts are evaluated independently and the
+	 * results are gathered in the host list order, so the simulation gives the same results as
+	 * with a sequential evaluation as long as {@link #isHostOverUtilized(PowerHost)} and the VM
+	 * selection policy only depend on the host they are given.
+	 * <p>
+	 * The evaluations share the history maps, which {@link #addHistoryEntry(HostDynamicWorkload,
+	 * double)} updates under the lock of the policy, and the hosts modified while planning the
+	 * migrations, which {@link #destroyVmTentatively(Host, Vm)} records under their own lock;
+	 * the VMs are only destroyed on the host being evaluated. Overriding methods called from the
+	 * evaluations must likewise only modify the host they are given, or synchronize.
+	 * 
+	 * @param evaluationPool the pool, or null to evaluate the hosts sequentially
+	 */
+	public void setEvaluationPool(ForkJoinPool evaluationPool) {
+		this.evaluationPool = evaluationPool;
+	}
+
+	/**
+	 * Gets the pool used to evaluate the hosts in parallel.
+	 * 
+	 * @return the pool, or null if the hosts are evaluated sequentially
+	 */
+	public ForkJoinPool getEvaluationPool() {
+		return evaluationPool;
+	}
+
 	/**
 	 * Sets the vm selection policy.
 	 * 
@@ -0,0 +1,219 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.MigrationPlan;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class PowerVmAllocationPolicyMigrationAbstractTest {
+
+	private List<PowerHost> hostList;
+
+	private Vm vm;
+
+	@Before
+	public void setUp() {
+		Log.disable();
+		hostList = new ArrayList<PowerHost>();
+		hostList.add(createHost(0));
+		hostList.add(createHost(1));
+		vm = new PowerVm(0, 0, 500, 1, 512, 100, 0, 0, "", new CloudletSchedulerTimeShared(), 300);
+	}
+
+	@After
+	public void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void testDeprecatedMapMethodOverrideIsCalled() {
+		PowerVmAllocationPolicyMigrationAbstract policy = new PowerVmAllocationPolicyMigrationAbstract(
+				hostList,
+				new PowerVmSelectionPolicyMinimumUtilization()) {
+
+			@Override
+			protected boolean isHostOverUtilized(PowerHost host) {
+				return false;
+			}
+
+			@Override
+			protected List<Map<String, Object>> getNewVmPlacement(
+					List<? extends Vm> vmsToMigrate,
+					Set<? extends Host> excludedHosts) {
+				List<Map<String, Object>> migrationMap = new ArrayList<Map<String, Object>>();
+				Map<String, Object> migrate = new HashMap<String, Object>();
+				migrate.put("vm", vm);
+				migrate.put("host", hostList.get(1));
+				migrationMap.add(migrate);
+				return migrationMap;
+			}
+		};
+
+		MigrationPlan plan = policy.optimizeAllocationPlan(new ArrayList<Vm>());
+
+		assertEquals(1, plan.size());
+		assertSame(vm, plan.getVm(0));
+		assertSame(hostList.get(1), plan.getTargetHost(0));
+	}
+
+	@Test
+	public void testPlanMethodOverrideIsCalled() {
+		PowerVmAllocationPolicyMigrationAbstract policy = new PowerVmAllocationPolicyMigrationAbstract(
+				hostList,
+				new PowerVmSelectionPolicyMinimumUtilization()) {
+
+			@Override
+			protected boolean isHostOverUtilized(PowerHost host) {
+				return false;
+			}
+
+			@Override
+			protected MigrationPlan getNewVmPlacementPlan(
+					List<? extends Vm> vmsToMigrate,
+					Set<? extends Host> excludedHosts) {
+				MigrationPlan migrationPlan = new MigrationPlan();
+				migrationPlan.add(vm, hostList.get(1));
+				return migrationPlan;
+			}
+		};
+
+		MigrationPlan plan = policy.optimizeAllocationPlan(new ArrayList<Vm>());
+
+		assertEquals(1, plan.size());
+		assertSame(vm, plan.getVm(0));
+		assertSame(hostList.get(1), plan.getTargetHost(0));
+	}
+
+	@Test
+	public void testPlanMethodsWithoutOverride() {
+		PowerVmAllocationPolicyMigrationAbstract policy = new PowerVmAllocationPolicyMigrationAbstract(
+				hostList,
+				new PowerVmSelectionPolicyMinimumUtilization()) {
+
+			@Override
+			protected boolean isHostOverUtilized(PowerHost host) {
+				return false;
+			}
+		};
+
+		assertEquals(0, policy.optimizeAllocationPlan(new ArrayList<Vm>()).size());
+	}
+
+	@Test
+	public void testParallelEvaluationGivesSameResults() {
+		List<Integer> sequentialIds = evaluate(null);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			assertEquals(sequentialIds, evaluate(pool));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Looks for the over-utilized hosts of 64 hosts with 4 VMs each, and for the VMs to migrate
+	 * from them, in a pool or sequentially.
+	 * 
+	 * @param pool the pool, or null to evaluate the hosts sequentially
+	 * @return the ids of the over-utilized hosts followed by the ids of the VMs to migrate, in
+	 *         the order they were found
+	 */
+	private static List<Integer> evaluate(ForkJoinPool pool) {
+		Random random = new Random(1);
+		List<PowerHost> hosts = new ArrayList<PowerHost>();
+		for (int hostId = 0; hostId < 64; hostId++) {
+			PowerHost host = createHost(hostId);
+			hosts.add(host);
+			for (int i = 0; i < 4; i++) {
+				host.vmCreate(createVm(hostId * 4 + i, 250 * random.nextDouble()));
+			}
+		}
+		PowerVmAllocationPolicyMigrationAbstract policy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+				hosts,
+				new PowerVmSelectionPolicyMinimumUtilization(),
+				0.5);
+		policy.setEvaluationPool(pool);
+
+		List<Integer> ids = new ArrayList<Integer>();
+		List<PowerHostUtilizationHistory> overUtilizedHosts = policy.getOverUtilizedHosts();
+		for (Host host : overUtilizedHosts) {
+			ids.add(host.getId());
+		}
+		policy.saveAllocation();
+		for (Vm vmToMigrate : policy.getVmsToMigrateFromHosts(overUtilizedHosts)) {
+			ids.add(vmToMigrate.getId());
+		}
+		policy.restoreAllocation();
+		assertEquals(hosts.size(), policy.getTimeHistory().size());
+		return ids;
+	}
+
+	/**
+	 * Creates a VM of 250 MIPS with a constant CPU utilization.
+	 * 
+	 * @param id the id of the VM
+	 * @param requestedMips the MIPS the VM uses
+	 * @return the VM
+	 */
+	private static Vm createVm(int id, final double requestedMips) {
+		return new PowerVm(id, 0, 250, 1, 128, 100, 0, 0, "", new CloudletSchedulerTimeShared(), 300) {
+
+			@Override
+			public double getCurrentRequestedTotalMips() {
+				return requestedMips;
+			}
+
+			@Override
+			public double getTotalUtilizationOfCpuMips(double time) {
+				return requestedMips;
+			}
+		};
+	}
+
+	private static PowerHost createHost(int id) {
+		List<Pe> peList = new ArrayList<Pe>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		return new PowerHostUtilizationHistory(
+				id,
+				new RamProvisionerSimple(1024),
+				new BwProvisionerSimple(1000),
+				1000,
+				peList,
+				new VmSchedulerTimeShared(peList),
+				new PowerModelLinear(100, 0.5));
+	}
+
+}
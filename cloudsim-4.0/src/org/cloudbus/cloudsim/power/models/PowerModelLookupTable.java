@@ -0,0 +1,139 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power.models;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A power model that caches another power model in a dense lookup table. The power of the
+ * cached model is sampled at equally spaced utilization values, and the power of the other
+ * values is linearly interpolated between the two closest samples, so that a query costs a few
+ * arithmetic operations instead of, e.g., a call to {@link Math#pow(double, double)}.
+ * <p>
+ * The result is an approximation of the cached model, whose error decreases as the number of
+ * samples increases, except for the power at the exact utilization of 0 and 1, which is the one
+ * of the cached model. The table is immutable, so a lookup table can be shared by all the hosts
+ * with the same power model, including across threads. The tables of the power models that
+ * have no parameter, such as the {@link PowerModelSpecPower} ones, are shared per model class
+ * through {@link #forClass(Class)}.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class PowerModelLookupTable implements PowerModel {
+
+	/** The default number of utilization intervals of a table. */
+	public static final int DEFAULT_RESOLUTION = 1000;
+
+	/** The tables shared per model class. */
+	private static final ConcurrentMap<Class<? extends PowerModel>, PowerModelLookupTable> TABLES =
+			new ConcurrentHashMap<Class<? extends PowerModel>, PowerModelLookupTable>();
+
+	/** The cached power model. */
+	private final PowerModel powerModel;
+
+	/** The power at each sampled utilization, from 0 to 1. */
+	private final double[] power;
+
+	/** The power at the utilization of 0. */
+	private final double idlePower;
+
+	/**
+	 * Instantiates a lookup table of a power model with {@link #DEFAULT_RESOLUTION} intervals.
+	 *
+	 * @param powerModel the power model to cache
+	 */
+	public PowerModelLookupTable(PowerModel powerModel) {
+		this(powerModel, DEFAULT_RESOLUTION);
+	}
+
+	/**
+	 * Instantiates a lookup table of a power model.
+	 *
+	 * @param powerModel the power model to cache
+	 * @param resolution the number of utilization intervals, the table having one more sample
+	 */
+	public PowerModelLookupTable(PowerModel powerModel, int resolution) {
+		if (resolution <= 0) {
+			throw new IllegalArgumentException("The resolution must be greater than 0");
+		}
+		this.powerModel = powerModel;
+		power = new double[resolution + 1];
+		// some models drop to 0 at the utilization of 0, which should not be interpolated
+		idlePower = powerModel.getPower(0);
+		power[0] = powerModel.getPower(Double.MIN_VALUE);
+		for (int i = 1; i < resolution; i++) {
+			power[i] = powerModel.getPower((double) i / resolution);
+		}
+		power[resolution] = powerModel.getPower(1);
+	}
+
+	/**
+	 * Gets the lookup table shared by the power models of a class, creating it with
+	 * {@link #DEFAULT_RESOLUTION} intervals the first time. The class must have a public
+	 * constructor without parameters, and all its instances must have the same power.
+	 *
+	 * @param powerModelClass the class of the power model
+	 * @return the shared lookup table
+	 * @throws IllegalArgumentException if the power model cannot be instantiated
+	 */
+	public static PowerModelLookupTable forClass(Class<? extends PowerModel> powerModelClass) {
+		PowerModelLookupTable table = TABLES.get(powerModelClass);
+		if (table == null) {
+			PowerModel powerModel;
+			try {
+				powerModel = powerModelClass.getDeclaredConstructor().newInstance();
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalArgumentException("Cannot instantiate " + powerModelClass.getName(), e);
+			}
+			table = new PowerModelLookupTable(powerModel);
+			PowerModelLookupTable previous = TABLES.putIfAbsent(powerModelClass, table);
+			if (previous != null) {
+				table = previous;
+			}
+		}
+		return table;
+	}
+
+	@Override
+	public double getPower(double utilization) throws IllegalArgumentException {
+		if (utilization < 0 || utilization > 1) {
+			throw new IllegalArgumentException("Utilization value must be between 0 and 1");
+		}
+		if (utilization == 0) {
+			return idlePower;
+		}
+		int resolution = power.length - 1;
+		double position = utilization * resolution;
+		int index = (int) position;
+		if (index == resolution) {
+			return power[resolution];
+		}
+		return power[index] + (power[index + 1] - power[index]) * (position - index);
+	}
+
+	/**
+	 * Gets the cached power model.
+	 *
+	 * @return the power model
+	 */
+	public PowerModel getPowerModel() {
+		return powerModel;
+	}
+
+	/**
+	 * Gets the number of utilization intervals of the table.
+	 *
+	 * @return the resolution
+	 */
+	public int getResolution() {
+		return power.length - 1;
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class PowerModelLookupTableTest {
+
+	private static final double MAX_POWER = 200;
+	private static final double STATIC_POWER_PERCENT = 0.3;
+
+	@Test
+	public void testGetPowerCubic() {
+		PowerModel powerModel = new PowerModelCubic(MAX_POWER, STATIC_POWER_PERCENT);
+		PowerModelLookupTable table = new PowerModelLookupTable(powerModel);
+		assertEquals(0, table.getPower(0), 0);
+		assertEquals(MAX_POWER, table.getPower(1), 0);
+		for (int i = 1; i < 1000; i++) {
+			double utilization = i / 1000.0 - 0.0003;
+			assertEquals(powerModel.getPower(utilization), table.getPower(utilization), 0.001);
+		}
+	}
+
+	@Test
+	public void testGetPowerSpecPower() {
+		PowerModel powerModel = new PowerModelSpecPowerHpProLiantMl110G4Xeon3040();
+		PowerModelLookupTable table = new PowerModelLookupTable(powerModel, 10);
+		for (int i = 0; i <= 100; i++) {
+			double utilization = i / 100.0;
+			assertEquals(powerModel.getPower(utilization), table.getPower(utilization), 1e-9);
+		}
+	}
+
+	@Test
+	public void testForClass() {
+		PowerModelLookupTable table = PowerModelLookupTable.forClass(
+				PowerModelSpecPowerIbmX3550XeonX5675.class);
+		assertSame(table, PowerModelLookupTable.forClass(PowerModelSpecPowerIbmX3550XeonX5675.class));
+		assertEquals(PowerModelLookupTable.DEFAULT_RESOLUTION, table.getResolution());
+		assertEquals(
+				new PowerModelSpecPowerIbmX3550XeonX5675().getPower(0.55),
+				table.getPower(0.55),
+				1e-9);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testGetPowerArgumentLargerThenOne() throws IllegalArgumentException {
+		new PowerModelLookupTable(new PowerModelLinear(MAX_POWER, STATIC_POWER_PERCENT)).getPower(2);
+	}
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A fixed-capacity ring buffer of primitive doubles that keeps the most recent values added to
+ * it. Values are indexed from the most recent one, at index 0, to the oldest one, so adding a
+ * value shifts the others by one position without moving them in memory, and the oldest value
+ * is dropped once the buffer is full.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class DoubleRingBuffer {
+
+	/** The values, the most recent one being at {@link #head}. */
+	private final double[] values;
+
+	/** The position of the most recent value. */
+	private int head;
+
+	/** The number of values in the buffer. */
+	private int size;
+
+	/** The number of values added since the buffer was created. */
+	private long addedCount;
+
+	/** The list view of the buffer, created on demand. */
+	private List<Double> list;
+
+	/**
+	 * Instantiates a new empty ring buffer.
+	 *
+	 * @param capacity the maximum number of values kept
+	 */
+	public DoubleRingBuffer(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The capacity must be greater than 0");
+		}
+		values = new double[capacity];
+		head = capacity - 1;
+	}
+
+	/**
+	 * Adds the most recent value, dropping the oldest one if the buffer is full.
+	 *
+	 * @param value the value
+	 */
+	public void add(double value) {
+		head = head == 0 ? values.length - 1 : head - 1;
+		values[head] = value;
+		if (size < values.length) {
+			size++;
+		}
+		addedCount++;
+	}
+
+	/**
+	 * Gets a value.
+	 *
+	 * @param index the index of the value, 0 being the most recent one
+	 * @return the value
+	 */
+	public double get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		int position = head + index;
+		return values[position < values.length ? position : position - values.length];
+	}
+
+	/**
+	 * Gets the number of values in the buffer.
+	 *
+	 * @return the number of values
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the buffer is empty.
+	 *
+	 * @return true, if no value has been added
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Gets the maximum number of values kept.
+	 *
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return values.length;
+	}
+
+	/**
+	 * Gets the number of values added since the buffer was created, including the dropped ones.
+	 * It changes whenever the content of the buffer does.
+	 *
+	 * @return the number of values added
+	 */
+	public long getAddedCount() {
+		return addedCount;
+	}
+
+	/**
+	 * Gets a copy of the values, from the most recent one to the oldest one.
+	 *
+	 * @return the values
+	 */
+	public double[] toArray() {
+		double[] array = new double[size];
+		int first = Math.min(size, values.length - head);
+		System.arraycopy(values, head, array, 0, first);
+		System.arraycopy(values, 0, array, first, size - first);
+		return array;
+	}
+
+	/**
+	 * Gets an unmodifiable list view of the values, from the most recent one to the oldest one.
+	 *
+	 * @return the list of values
+	 */
+	public List<Double> asList() {
+		if (list == null) {
+			list = new ListView();
+		}
+		return list;
+	}
+
+	/**
+	 * The list view of the buffer.
+	 */
+	private final class ListView extends AbstractList<Double> implements RandomAccess {
+
+		@Override
+		public Double get(int index) {
+			return DoubleRingBuffer.this.get(index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+	}
+
+}
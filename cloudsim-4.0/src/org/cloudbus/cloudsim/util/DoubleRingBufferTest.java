@@ -0,0 +1,70 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class DoubleRingBufferTest {
+
+	private static final double DELTA = 0.0;
+
+	@Test
+	public void testEmpty() {
+		DoubleRingBuffer buffer = new DoubleRingBuffer(3);
+		assertTrue(buffer.isEmpty());
+		assertEquals(0, buffer.size());
+		assertEquals(3, buffer.getCapacity());
+		assertEquals(0, buffer.toArray().length);
+		assertTrue(buffer.asList().isEmpty());
+	}
+
+	@Test
+	public void testSameValuesAsList() {
+		DoubleRingBuffer buffer = new DoubleRingBuffer(3);
+		List<Double> expected = new LinkedList<Double>();
+		for (int i = 1; i <= 10; i++) {
+			buffer.add(i);
+			expected.add(0, (double) i);
+			if (expected.size() > 3) {
+				expected.remove(3);
+			}
+			assertEquals(expected, buffer.asList());
+			assertEquals(i, buffer.getAddedCount());
+			for (int j = 0; j < expected.size(); j++) {
+				assertEquals(expected.get(j), buffer.get(j), DELTA);
+			}
+		}
+		assertArrayEquals(new double[] { 10, 9, 8 }, buffer.toArray(), DELTA);
+		assertEquals(Arrays.asList(10.0, 9.0, 8.0), buffer.asList());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetOutOfBounds() {
+		DoubleRingBuffer buffer = new DoubleRingBuffer(3);
+		buffer.add(1);
+		buffer.get(1);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testListViewIsUnmodifiable() {
+		new DoubleRingBuffer(3).asList().add(1.0);
+	}
+
+}
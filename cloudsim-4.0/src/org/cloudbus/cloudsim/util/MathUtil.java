@@ -61,18 +61,51 @@ public class MathUtil {
 	 * @return the median
 	 */
 	public static double median(final List<Double> list) {
-		return getStatistics(list).getPercentile(50);
+		return median(listToArray(list));
 	}
 
 	/**
-	 * Gets the median from an array of numbers.
+	 * Gets the median from an array of numbers. The array is left unchanged.
 	 * 
 	 * @param list the array of numbers
 	 * 
 	 * @return the median
 	 */
 	public static double median(final double[] list) {
-		return getStatistics(list).getPercentile(50);
+		double[] sorted = list.clone();
+		Arrays.sort(sorted);
+		return medianOfSorted(sorted);
+	}
+
+	/**
+	 * Gets the median from a sorted array of numbers. It is the 50th percentile as estimated by
+	 * {@link DescriptiveStatistics#getPercentile(double)}, computed the same way, so that the
+	 * result is exactly the same without building the statistics.
+	 * 
+	 * @param sorted the array of numbers, in ascending order
+	 * @return the median, or NaN if the array is empty
+	 */
+	private static double medianOfSorted(final double[] sorted) {
+		int n = sorted.length;
+		if (n == 0) {
+			return Double.NaN;
+		}
+		if (n == 1) {
+			return sorted[0];
+		}
+		double pos = 50.0 * (n + 1.0) / 100;
+		double fpos = Math.floor(pos);
+		int intPos = (int) fpos;
+		double dif = pos - fpos;
+		if (pos < 1) {
+			return sorted[0];
+		}
+		if (pos >= n) {
+			return sorted[n - 1];
+		}
+		double lower = sorted[intPos - 1];
+		double upper = sorted[intPos];
+		return lower + dif * (upper - lower);
 	}
 
 	/**
@@ -170,7 +203,8 @@ public class MathUtil {
 			for (int i = 0; i < data.length; i++) {
 				deviationSum[i] = Math.abs(median - data[i]);
 			}
-			mad = median(deviationSum);
+			Arrays.sort(deviationSum);
+			mad = medianOfSorted(deviationSum);
 		}
 		return mad;
 	}
@@ -5,7 +5,9 @@ import static org.junit.Assert.assertEquals;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.junit.Test;
 
 public class MathUtilTest {
@@ -36,6 +38,30 @@ public class MathUtilTest {
 		assertEquals(MAD, MathUtil.mad(DATA3), 0);
 	}
 
+	@Test
+	public void testMedianAndMadSameAsDescriptiveStatistics() {
+		Random random = new Random(0);
+		for (int n = 1; n <= 31; n++) {
+			for (int k = 0; k < 20; k++) {
+				double[] data = new double[n];
+				for (int i = 0; i < n; i++) {
+					data[i] = k % 2 == 0 ? random.nextDouble() : random.nextInt(5) / 4.0;
+				}
+				double[] copy = data.clone();
+				double median = new DescriptiveStatistics(data).getPercentile(50);
+				assertEquals(median, MathUtil.median(data), 0);
+				assertArrayEquals(copy, data, 0);
+
+				double[] deviationSum = new double[n];
+				for (int i = 0; i < n; i++) {
+					deviationSum[i] = Math.abs(median - data[i]);
+				}
+				assertEquals(new DescriptiveStatistics(deviationSum).getPercentile(50), MathUtil.mad(data), 0);
+			}
+		}
+		assertEquals(Double.NaN, MathUtil.median(new double[0]), 0);
+	}
+
 	@Test
 	public void testIqr() {
 		assertEquals(IQR1, MathUtil.iqr(DATA1), 0);
@@ -0,0 +1,382 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A read-only store of the <a href="https://www.planet-lab.org">PlanetLab</a> traces of a
+ * workload folder. The first time a folder is opened its trace files are parsed and converted
+ * into a compact binary file, with one byte (or two, if needed) per sample and the samples of
+ * each trace stored together. Later openings just map that file into memory, so no text is
+ * parsed and all the simulations using the same workload, in the same process or not, share
+ * the same memory pages.
+ * <p>
+ * As in {@link org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory}, each trace has
+ * {@link #SAMPLES} samples: the first <tt>SAMPLES - 1</tt> lines of the trace file, as a
+ * percentage, and a copy of the last one.
+ * <p>
+ * By default the binary file is kept in the temporary directory, see
+ * {@link #getDefaultStoreFile(File)}. It records a signature of the names, sizes and
+ * modification times of the trace files, and is rebuilt when the signature of the folder no
+ * longer matches, that is when trace files are added, removed or modified.
+ *
+ * @since CloudSim Toolkit 4.0
+ * @see org.cloudbus.cloudsim.UtilizationModelPlanetLabMapped
+ */
+public class PlanetLabTraceStore {
+
+	/** The number of samples of each trace (5 min * 288 = 24 hours, plus the last one repeated). */
+	public static final int SAMPLES = 289;
+
+	/** The extension of the binary trace files. */
+	public static final String FILE_EXTENSION = ".plts";
+
+	/** The magic number at the start of the binary trace files. */
+	private static final int MAGIC = 0x504c5453;
+
+	/** The version of the binary trace file format. */
+	private static final int VERSION = 2;
+
+	/** The size of the header of the binary trace files, before the names of the traces. */
+	private static final int HEADER_SIZE = 5 * 4 + 8;
+
+	/** The names of the trace files. */
+	private final String[] names;
+
+	/** The index of each trace, by file name. */
+	private final Map<String, Integer> indexes;
+
+	/** The number of bytes of each sample, 1 or 2. */
+	private final int sampleSize;
+
+	/** The samples of all the traces, one trace after the other. */
+	private final ByteBuffer samples;
+
+	/**
+	 * Instantiates a new trace store over a binary trace file.
+	 *
+	 * @param names the names of the trace files
+	 * @param sampleSize the number of bytes of each sample
+	 * @param samples the samples
+	 */
+	private PlanetLabTraceStore(String[] names, int sampleSize, ByteBuffer samples) {
+		this.names = names;
+		this.sampleSize = sampleSize;
+		this.samples = samples;
+		indexes = new HashMap<String, Integer>();
+		for (int i = 0; i < names.length; i++) {
+			indexes.put(names[i], i);
+		}
+	}
+
+	/**
+	 * Opens the store of a workload folder, converting the folder the first time.
+	 *
+	 * @param folder the folder with the PlanetLab trace files
+	 * @return the trace store
+	 * @throws IOException if the traces can't be read or converted
+	 */
+	public static PlanetLabTraceStore open(File folder) throws IOException {
+		return open(folder, getDefaultStoreFile(folder));
+	}
+
+	/**
+	 * Opens the store of a workload folder kept in a given binary file, converting the folder
+	 * if the file does not exist, can't be read or was written for other trace files. Modifying
+	 * a trace file in place does not change the modification time of the folder, so the
+	 * signature of the trace files is checked instead.
+	 *
+	 * @param folder the folder with the PlanetLab trace files
+	 * @param storeFile the binary trace file
+	 * @return the trace store
+	 * @throws IOException if the traces can't be read or converted
+	 */
+	public static PlanetLabTraceStore open(File folder, File storeFile) throws IOException {
+		long signature = getSignature(listTraceFiles(folder));
+		if (!storeFile.isFile() || readSignature(storeFile) != signature) {
+			convert(folder, storeFile);
+		}
+		return map(storeFile);
+	}
+
+	/**
+	 * Converts the trace files of a folder into a binary trace file. The file is written under
+	 * a temporary name and then renamed, so a concurrent reader never sees it half written.
+	 *
+	 * @param folder the folder with the PlanetLab trace files
+	 * @param storeFile the binary trace file
+	 * @throws IOException if the traces can't be read or the file can't be written
+	 */
+	public static void convert(File folder, File storeFile) throws IOException {
+		File[] files = listTraceFiles(folder);
+		long signature = getSignature(files);
+
+		int[][] traces = new int[files.length][];
+		int max = 0;
+		for (int i = 0; i < files.length; i++) {
+			traces[i] = readTrace(files[i]);
+			for (int sample : traces[i]) {
+				max = Math.max(max, sample);
+			}
+		}
+		int sampleSize = max <= 0xff ? 1 : 2;
+
+		File tmpFile = File.createTempFile(storeFile.getName(), ".tmp", storeFile.getAbsoluteFile()
+				.getParentFile());
+		try {
+			DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(
+					tmpFile)));
+			try {
+				output.writeInt(MAGIC);
+				output.writeInt(VERSION);
+				output.writeInt(files.length);
+				output.writeInt(SAMPLES);
+				output.writeInt(sampleSize);
+				output.writeLong(signature);
+				for (File file : files) {
+					output.writeUTF(file.getName());
+				}
+				for (int[] trace : traces) {
+					for (int sample : trace) {
+						if (sampleSize == 1) {
+							output.writeByte(sample);
+						} else {
+							output.writeShort(sample);
+						}
+					}
+				}
+			} finally {
+				output.close();
+			}
+			try {
+				Files.move(tmpFile.toPath(), storeFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				Files.move(tmpFile.toPath(), storeFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			tmpFile.delete();
+		}
+	}
+
+	/**
+	 * Maps a binary trace file into memory.
+	 *
+	 * @param storeFile the binary trace file
+	 * @return the trace store
+	 * @throws IOException if the file can't be read or is not a binary trace file
+	 */
+	public static PlanetLabTraceStore map(File storeFile) throws IOException {
+		DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(storeFile)));
+		String[] names;
+		int sampleSize;
+		long offset;
+		try {
+			if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+				throw new IOException(storeFile + " is not a PlanetLab trace file");
+			}
+			names = new String[input.readInt()];
+			if (input.readInt() != SAMPLES) {
+				throw new IOException(storeFile + " has an unexpected number of samples per trace");
+			}
+			sampleSize = input.readInt();
+			input.readLong(); // the signature of the trace files
+			offset = HEADER_SIZE;
+			for (int i = 0; i < names.length; i++) {
+				names[i] = input.readUTF();
+				offset += 2 + names[i].getBytes("UTF-8").length;
+			}
+		} finally {
+			input.close();
+		}
+
+		RandomAccessFile file = new RandomAccessFile(storeFile, "r");
+		try {
+			long length = (long) names.length * SAMPLES * sampleSize;
+			if (file.length() < offset + length) {
+				throw new IOException(storeFile + " is truncated");
+			}
+			ByteBuffer samples = file.getChannel().map(FileChannel.MapMode.READ_ONLY, offset, length);
+			return new PlanetLabTraceStore(names, sampleSize, samples);
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * Reads the signature of the trace files a binary trace file was written for.
+	 *
+	 * @param storeFile the binary trace file
+	 * @return the signature, or 0 if the file can't be read or has another format
+	 */
+	private static long readSignature(File storeFile) {
+		try {
+			DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(
+					storeFile)));
+			try {
+				if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+					return 0;
+				}
+				input.skipBytes(3 * 4);
+				return input.readLong();
+			} finally {
+				input.close();
+			}
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Lists the trace files of a workload folder, sorted by name.
+	 *
+	 * @param folder the folder with the PlanetLab trace files
+	 * @return the trace files
+	 * @throws IOException if the folder can't be listed
+	 */
+	private static File[] listTraceFiles(File folder) throws IOException {
+		File[] files = folder.listFiles();
+		if (files == null) {
+			throw new IOException("Cannot list the trace folder " + folder);
+		}
+		Arrays.sort(files);
+		return files;
+	}
+
+	/**
+	 * Computes a signature of the names, sizes and modification times of trace files, which
+	 * changes when a file is added, removed or modified.
+	 *
+	 * @param files the trace files, sorted by name
+	 * @return the signature, never 0
+	 */
+	private static long getSignature(File[] files) {
+		long signature = files.length;
+		for (File file : files) {
+			signature = 31 * signature + file.getName().hashCode();
+			signature = 31 * signature + file.length();
+			signature = 31 * signature + file.lastModified();
+		}
+		return signature == 0 ? 1 : signature;
+	}
+
+	/**
+	 * Gets the default binary trace file of a workload folder, in the <tt>cloudsim-planetlab</tt>
+	 * folder of the temporary directory. The file is not written next to the workload folder, so
+	 * that it is not taken for a workload itself.
+	 *
+	 * @param folder the folder with the PlanetLab trace files
+	 * @return the binary trace file
+	 */
+	public static File getDefaultStoreFile(File folder) {
+		File absoluteFolder = folder.getAbsoluteFile();
+		File cacheFolder = new File(System.getProperty("java.io.tmpdir"), "cloudsim-planetlab");
+		cacheFolder.mkdirs();
+		return new File(cacheFolder, absoluteFolder.getName() + "-"
+				+ Integer.toHexString(absoluteFolder.getPath().hashCode()) + FILE_EXTENSION);
+	}
+
+	/**
+	 * Reads a PlanetLab trace file.
+	 *
+	 * @param file the trace file
+	 * @return the samples, as percentages
+	 * @throws IOException if the file can't be read or has too few samples
+	 */
+	private static int[] readTrace(File file) throws IOException {
+		int[] trace = new int[SAMPLES];
+		BufferedReader input = new BufferedReader(new FileReader(file));
+		try {
+			for (int i = 0; i < SAMPLES - 1; i++) {
+				String line = input.readLine();
+				if (line == null) {
+					throw new IOException("The trace " + file + " has less than " + (SAMPLES - 1) + " samples");
+				}
+				trace[i] = Integer.parseInt(line);
+				if (trace[i] < 0 || trace[i] > 0xffff) {
+					throw new IOException("The trace " + file + " has an invalid sample: " + line);
+				}
+			}
+		} finally {
+			input.close();
+		}
+		trace[SAMPLES - 1] = trace[SAMPLES - 2];
+		return trace;
+	}
+
+	/**
+	 * Gets the number of traces.
+	 *
+	 * @return the number of traces
+	 */
+	public int size() {
+		return names.length;
+	}
+
+	/**
+	 * Gets the name of the file of a trace.
+	 *
+	 * @param trace the index of the trace
+	 * @return the file name
+	 */
+	public String getName(int trace) {
+		return names[trace];
+	}
+
+	/**
+	 * Gets the index of a trace by the name of its file.
+	 *
+	 * @param name the file name
+	 * @return the index of the trace, or -1 if there is no such trace
+	 */
+	public int indexOf(String name) {
+		Integer index = indexes.get(name);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Gets a sample of a trace as a fraction, between 0 and 1 for a valid utilization.
+	 *
+	 * @param trace the index of the trace
+	 * @param sample the index of the sample
+	 * @return the sample
+	 */
+	public double getSample(int trace, int sample) {
+		if (sample < 0 || sample >= SAMPLES) {
+			throw new IndexOutOfBoundsException("Sample " + sample + " out of " + SAMPLES);
+		}
+		int index = trace * SAMPLES + sample;
+		int value;
+		if (sampleSize == 1) {
+			value = samples.get(index) & 0xff;
+		} else {
+			value = samples.getShort(index * 2) & 0xffff;
+		}
+		return value / 100.0;
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory;
+import org.cloudbus.cloudsim.UtilizationModelPlanetLabMapped;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 4.0
+ */
+public class PlanetLabTraceStoreTest {
+
+	private static final double SCHEDULING_INTERVAL = 300;
+
+	private static final double DELTA = 0.0;
+
+	private File folder;
+
+	private File storeFile;
+
+	@Before
+	public void setUp() throws IOException {
+		folder = File.createTempFile("planetlab", "");
+		folder.delete();
+		folder.mkdir();
+		storeFile = new File(folder.getPath() + PlanetLabTraceStore.FILE_EXTENSION);
+	}
+
+	@After
+	public void tearDown() {
+		for (File file : folder.listFiles()) {
+			file.delete();
+		}
+		folder.delete();
+		storeFile.delete();
+	}
+
+	@Test
+	public void testSameUtilizationAsInMemoryModel() throws IOException {
+		writeTraces(100);
+		checkStore();
+	}
+
+	@Test
+	public void testSamplesAboveOneByte() throws IOException {
+		writeTraces(400);
+		checkStore();
+	}
+
+	@Test
+	public void testReopen() throws IOException {
+		writeTraces(100);
+		PlanetLabTraceStore.open(folder, storeFile);
+		long lastModified = storeFile.lastModified();
+		PlanetLabTraceStore store = PlanetLabTraceStore.open(folder, storeFile);
+		assertEquals(lastModified, storeFile.lastModified());
+		assertEquals(3, store.size());
+		assertEquals(-1, store.indexOf("missing"));
+	}
+
+	@Test
+	public void testTraceModifiedInPlace() throws IOException {
+		writeTraces(100);
+		PlanetLabTraceStore.open(folder, storeFile);
+		long folderLastModified = folder.lastModified();
+
+		File trace = new File(folder, "trace1");
+		long traceLastModified = trace.lastModified();
+		PrintWriter writer = new PrintWriter(new FileWriter(trace));
+		try {
+			for (int j = 0; j < 290; j++) {
+				writer.println(j % 101);
+			}
+		} finally {
+			writer.close();
+		}
+		trace.setLastModified(traceLastModified + 2000);
+		folder.setLastModified(folderLastModified);
+
+		checkStore();
+	}
+
+	private void checkStore() throws IOException {
+		PlanetLabTraceStore store = PlanetLabTraceStore.open(folder, storeFile);
+		assertEquals(3, store.size());
+		for (File file : folder.listFiles()) {
+			UtilizationModelPlanetLabInMemory expected = new UtilizationModelPlanetLabInMemory(
+					file.getAbsolutePath(),
+					SCHEDULING_INTERVAL);
+			UtilizationModelPlanetLabMapped actual = new UtilizationModelPlanetLabMapped(
+					store,
+					store.indexOf(file.getName()),
+					SCHEDULING_INTERVAL);
+			assertEquals(file.getName(), store.getName(actual.getTrace()));
+			for (double time = 0; time <= 288 * SCHEDULING_INTERVAL; time += 37.5) {
+				assertEquals(expected.getUtilization(time), actual.getUtilization(time), DELTA);
+			}
+		}
+	}
+
+	private void writeTraces(int maxSample) throws IOException {
+		Random random = new Random(0);
+		for (int i = 0; i < 3; i++) {
+			PrintWriter writer = new PrintWriter(new FileWriter(new File(folder, "trace" + i)));
+			try {
+				for (int j = 0; j < 290; j++) {
+					writer.println(random.nextInt(maxSample + 1));
+				}
+			} finally {
+				writer.close();
+			}
+		}
+	}
+
+}
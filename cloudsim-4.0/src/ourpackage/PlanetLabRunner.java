@@ -55,6 +55,41 @@ public class PlanetLabRunner extends RunnerAbstract {
 				parameter);
 	}
 
+	/**
+	 * Instantiates a new planet lab runner.
+	 * 
+	 * @param enableOutput the enable output
+	 * @param outputToFile the output to file
+	 * @param outputInCsv whether the results are written to CSV files in the output folder
+	 * @param inputFolder the input folder
+	 * @param outputFolder the output folder
+	 * @param workload the workload
+	 * @param vmAllocationPolicy the vm allocation policy
+	 * @param vmSelectionPolicy the vm selection policy
+	 * @param parameter the parameter
+	 */
+	public PlanetLabRunner(
+			boolean enableOutput,
+			boolean outputToFile,
+			boolean outputInCsv,
+			String inputFolder,
+			String outputFolder,
+			String workload,
+			String vmAllocationPolicy,
+			String vmSelectionPolicy,
+			String parameter) {
+		super(
+				enableOutput,
+				outputToFile,
+				outputInCsv,
+				inputFolder,
+				outputFolder,
+				workload,
+				vmAllocationPolicy,
+				vmSelectionPolicy,
+				parameter);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 